@@ -0,0 +1,198 @@
+package tk.luminos.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.maths.BatchMath;
+import tk.luminos.maths.MathUtils;
+import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Matrix4Array;
+import tk.luminos.maths.Vector3;
+import tk.luminos.maths.Vector4;
+
+/**
+ *
+ * Benchmarks {@link BatchMath} kernels against the equivalent loops over
+ * {@link Vector3} and {@link Matrix4} objects
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchMathBenchmark {
+
+	@Param({"1024", "65536"})
+	private int count;
+
+	private Matrix4 matrix;
+	private float[] points;
+	private float[] xs, ys, zs;
+	private float[] transformed;
+	private float[] matrices;
+	private float[] products;
+	private float[] bounds = new float[6];
+	private Vector3[] vectors;
+	private Matrix4[] models;
+	private Matrix4[] modelProducts;
+	private Vector4 point = new Vector4();
+	private Matrix4Array packed;
+	private FloatBuffer upload;
+
+	/**
+	 * Creates the operands
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		matrix = MathUtils.createTransformationMatrix(new Vector3(12.5f, -3f, 40f), new Vector3(15f, 30f, 45f), new Vector3(1f, 2f, 0.5f));
+		points = new float[count * BatchMath.VECTOR_STRIDE];
+		xs = new float[count];
+		ys = new float[count];
+		zs = new float[count];
+		vectors = new Vector3[count];
+		for (int i = 0; i < count; i++) {
+			float x = random.nextFloat() * 200 - 100;
+			float y = random.nextFloat() * 200 - 100;
+			float z = random.nextFloat() * 200 - 100;
+			points[i * 3] = xs[i] = x;
+			points[i * 3 + 1] = ys[i] = y;
+			points[i * 3 + 2] = zs[i] = z;
+			vectors[i] = new Vector3(x, y, z);
+		}
+		transformed = new float[points.length];
+		int matrixCount = count / 16;
+		matrices = new float[matrixCount * BatchMath.MATRIX_STRIDE];
+		products = new float[matrices.length];
+		models = new Matrix4[matrixCount];
+		modelProducts = new Matrix4[matrixCount];
+		FloatBuffer buffer = FloatBuffer.wrap(matrices);
+		for (int i = 0; i < matrixCount; i++) {
+			models[i] = MathUtils.createTransformationMatrix(vectors[i], vectors[i + 1], new Vector3(1, 1, 1));
+			models[i].store(buffer);
+			modelProducts[i] = new Matrix4();
+		}
+		packed = new Matrix4Array(matrixCount);
+		packed.setSize(matrixCount);
+		packed.set(0, matrices, 0, matrixCount);
+		upload = ByteBuffer.allocateDirect(matrices.length * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	/**
+	 * Transforms each point object by a matrix
+	 *
+	 * @return		Last transformed point
+	 */
+	@Benchmark
+	public Vector4 transformObjects() {
+		for (Vector3 vector : vectors) {
+			point.x = vector.x;
+			point.y = vector.y;
+			point.z = vector.z;
+			point.w = 1;
+			Matrix4.transform(matrix, point, point);
+		}
+		return point;
+	}
+
+	/**
+	 * Transforms packed points by a matrix
+	 *
+	 * @return		Transformed points
+	 */
+	@Benchmark
+	public float[] transformPacked() {
+		BatchMath.transformPoints(matrix, points, 0, transformed, 0, count);
+		return transformed;
+	}
+
+	/**
+	 * Transforms points held in separate coordinate arrays by a matrix
+	 *
+	 * @return		Transformed x coordinates
+	 */
+	@Benchmark
+	public float[] transformSeparate() {
+		BatchMath.transformPoints(matrix, xs, ys, zs, xs, ys, zs, 0, count);
+		return xs;
+	}
+
+	/**
+	 * Multiplies a matrix by each matrix object
+	 *
+	 * @return		Products
+	 */
+	@Benchmark
+	public Matrix4[] mulObjects() {
+		for (int i = 0; i < models.length; i++)
+			Matrix4.mul(matrix, models[i], modelProducts[i]);
+		return modelProducts;
+	}
+
+	/**
+	 * Multiplies a matrix by each packed matrix
+	 *
+	 * @return		Products
+	 */
+	@Benchmark
+	public float[] mulPacked() {
+		BatchMath.mul(matrix, matrices, 0, products, 0, models.length);
+		return products;
+	}
+
+	/**
+	 * Bounds packed points with a box
+	 *
+	 * @return		Bounds
+	 */
+	@Benchmark
+	public float[] computeAabb() {
+		return BatchMath.computeAabb(points, 0, count, bounds);
+	}
+
+	/**
+	 * Stores each matrix object in a direct buffer
+	 *
+	 * @return		Filled buffer
+	 */
+	@Benchmark
+	public FloatBuffer storeObjects() {
+		upload.clear();
+		for (Matrix4 model : models)
+			model.store(upload);
+		return upload;
+	}
+
+	/**
+	 * Stores packed matrices in a direct buffer with one copy
+	 *
+	 * @return		Filled buffer
+	 */
+	@Benchmark
+	public FloatBuffer storePacked() {
+		upload.clear();
+		packed.store(upload);
+		return upload;
+	}
+
+}
@@ -0,0 +1,35 @@
+package tk.luminos.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 
+ * Runs the engine benchmarks with the GC profiler attached, so every result
+ * is reported alongside its allocation rate.  Accepts the standard JMH
+ * command line options, such as a benchmark name filter.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class BenchmarkRunner {
+	
+	/**
+	 * Runs the benchmarks
+	 * 
+	 * @param args			JMH command line options
+	 * @throws Exception	Thrown if the benchmarks could not be run
+	 */
+	public static void main(String[] args) throws Exception {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+
+}
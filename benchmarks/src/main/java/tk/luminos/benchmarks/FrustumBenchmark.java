@@ -0,0 +1,110 @@
+package tk.luminos.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import tk.luminos.maths.Frustum;
+import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Vector3;
+import tk.luminos.physics.AABB;
+import tk.luminos.physics.BoundingSphere;
+
+/**
+ * 
+ * Benchmarks for building a {@link Frustum} and testing volumes against it
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrustumBenchmark {
+	
+	private static final int VOLUMES = 1024;
+	
+	private Matrix4 projectionView;
+	private Frustum frustum;
+	private BoundingSphere[] spheres;
+	private AABB[] boxes;
+	
+	/**
+	 * Creates a perspective frustum and volumes scattered around it
+	 */
+	@Setup
+	public void setup() {
+		projectionView = createProjectionMatrix(70, 16f / 9f, 0.1f, 1000f);
+		frustum = new Frustum(projectionView);
+		Random random = new Random(42);
+		spheres = new BoundingSphere[VOLUMES];
+		boxes = new AABB[VOLUMES];
+		for (int i = 0; i < VOLUMES; i++) {
+			Vector3 center = new Vector3(random.nextFloat() * 400 - 200, random.nextFloat() * 400 - 200, -random.nextFloat() * 1200);
+			spheres[i] = new BoundingSphere(center, 5);
+			boxes[i] = new AABB(new Vector3(center.x - 5, center.y - 5, center.z - 5), new Vector3(center.x + 5, center.y + 5, center.z + 5));
+		}
+	}
+	
+	/**
+	 * Extracts the planes of the frustum from a matrix
+	 * 
+	 * @return		Frustum
+	 */
+	@Benchmark
+	public Frustum set() {
+		return frustum.set(projectionView);
+	}
+	
+	/**
+	 * Tests bounding spheres against the frustum
+	 * 
+	 * @param blackhole		Consumes results
+	 */
+	@Benchmark
+	public void boundingSphere(Blackhole blackhole) {
+		for (BoundingSphere sphere : spheres)
+			blackhole.consume(frustum.boundingSphere(sphere));
+	}
+	
+	/**
+	 * Tests axis aligned boxes against the frustum
+	 * 
+	 * @param blackhole		Consumes results
+	 */
+	@Benchmark
+	public void aabb(Blackhole blackhole) {
+		for (AABB box : boxes)
+			blackhole.consume(frustum.aabb(box));
+	}
+	
+	private static Matrix4 createProjectionMatrix(float fov, float aspectRatio, float near, float far) {
+		float yScale = (float) (1f / Math.tan(Math.toRadians(fov / 2f)));
+		float xScale = yScale / aspectRatio;
+		float length = far - near;
+		Matrix4 matrix = new Matrix4();
+		matrix.m00 = xScale;
+		matrix.m11 = yScale;
+		matrix.m22 = -((far + near) / length);
+		matrix.m23 = -1;
+		matrix.m32 = -((2 * near * far) / length);
+		matrix.m33 = 0;
+		return matrix;
+	}
+
+}
@@ -0,0 +1,79 @@
+package tk.luminos.benchmarks;
+
+import java.io.File;
+import java.io.PrintWriter;
+
+import tk.luminos.Application;
+import tk.luminos.display.Window;
+import tk.luminos.graphics.backend.Graphics;
+import tk.luminos.graphics.backend.RecordingBackend;
+import tk.luminos.jobs.JobSystem;
+
+/**
+ * 
+ * Sets up the engine without a graphics context for benchmarks that touch
+ * the loader, the job system or the window
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+final class Headless {
+	
+	private static boolean started = false;
+	
+	/**
+	 * Every setting read by the engine, so no benchmarked class finds one
+	 * missing.  Sizes match the defaults of {@link tk.luminos.ConfigData}.
+	 */
+	private static final String[] SETTINGS = {
+		"WIDTH/1280",
+		"HEIGHT/720",
+		"UPS/60",
+		"FPS/60",
+		"SEED/0",
+		"SIZE/100",
+		"TEXTURE_SIZE/256",
+		"WATER_FBO_REFRAC_WIDTH/1920",
+		"WATER_FBO_REFRAC_HEIGHT/1080",
+		"WATER_FBO_REFLEC_WIDTH/1920",
+		"WATER_FBO_REFLEC_HEIGHT/1080",
+		"POSTPROCESS/0",
+		"STREAMS/0",
+		"WIREFRAME/0",
+		"FRUSTUM_CULLING/1",
+		"RENDER_SKYBOX/0",
+		"DEBUG/0",
+		"METRICS/0",
+		"WORKER_THREADS/0"
+	};
+	
+	private Headless() {}
+	
+	/**
+	 * Starts the headless engine once per benchmark fork
+	 * 
+	 * @throws Exception	Thrown if the settings file could not be written
+	 */
+	static synchronized void start() throws Exception {
+		if (started)
+			return;
+		File settings = File.createTempFile("luminos", ".cfg");
+		settings.deleteOnExit();
+		try (PrintWriter writer = new PrintWriter(settings)) {
+			writer.println("luminos.configuration");
+			writer.println("LUMINOS_0_0_1");
+			writer.print("settings");
+			for (String setting : SETTINGS) {
+				writer.println();
+				writer.print(setting);
+			}
+		}
+		Application.loadSettings(settings.getPath());
+		Graphics.setBackend(new RecordingBackend());
+		JobSystem.create();
+		Window.createHeadless("Luminos Benchmarks", 1280, 720);
+		started = true;
+	}
+
+}
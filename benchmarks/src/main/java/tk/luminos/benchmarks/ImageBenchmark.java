@@ -0,0 +1,89 @@
+package tk.luminos.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.loaders.LuminosImage;
+
+/**
+ * 
+ * Benchmarks decoding a {@link LuminosImage} from a PNG file and from an
+ * image already in memory
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+	
+	@Param({"RGB", "RGBA"})
+	private LuminosImage.Format format;
+	
+	@Param({"512"})
+	private int size;
+	
+	private BufferedImage image;
+	private String file;
+	
+	/**
+	 * Creates a noisy image and writes it to a temporary PNG file
+	 * 
+	 * @throws Exception	Thrown if the file could not be written
+	 */
+	@Setup
+	public void setup() throws Exception {
+		Random random = new Random(42);
+		image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		for (int y = 0; y < size; y++)
+			for (int x = 0; x < size; x++)
+				image.setRGB(x, y, random.nextInt());
+		File png = File.createTempFile("luminos", ".png");
+		png.deleteOnExit();
+		ImageIO.write(image, "png", png);
+		file = png.getPath();
+	}
+	
+	/**
+	 * Decodes the image from its PNG file
+	 * 
+	 * @return				Decoded image
+	 * @throws Exception	Thrown if the file could not be read
+	 */
+	@Benchmark
+	public LuminosImage decodeFile() throws Exception {
+		return LuminosImage.loadImage(file, format);
+	}
+	
+	/**
+	 * Converts the image already held in memory
+	 * 
+	 * @return		Converted image
+	 */
+	@Benchmark
+	public LuminosImage decodeImage() {
+		return LuminosImage.loadImage(image, format);
+	}
+
+}
@@ -0,0 +1,100 @@
+package tk.luminos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.maths.MathUtils;
+import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Vector3;
+
+/**
+ * 
+ * Benchmarks for {@link Matrix4} and {@link MathUtils} transforms
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixBenchmark {
+	
+	private Matrix4 left;
+	private Matrix4 right;
+	private Matrix4 dest;
+	private Vector3 axis;
+	private Vector3 translation;
+	private Vector3 rotation;
+	private Vector3 scale;
+	private float angle;
+	
+	/**
+	 * Creates the operands
+	 */
+	@Setup
+	public void setup() {
+		translation = new Vector3(12.5f, -3f, 40f);
+		rotation = new Vector3(15f, 30f, 45f);
+		scale = new Vector3(1f, 2f, 0.5f);
+		axis = new Vector3(0.267f, 0.535f, 0.802f);
+		angle = 0.75f;
+		left = MathUtils.createTransformationMatrix(translation, rotation, scale);
+		right = MathUtils.createTransformationMatrix(scale, translation, rotation);
+		dest = new Matrix4();
+	}
+	
+	/**
+	 * Multiplies two matrices
+	 * 
+	 * @return		Product
+	 */
+	@Benchmark
+	public Matrix4 mul() {
+		return Matrix4.mul(left, right, dest);
+	}
+	
+	/**
+	 * Inverts a matrix
+	 * 
+	 * @return		Inverse
+	 */
+	@Benchmark
+	public Matrix4 invert() {
+		return Matrix4.invert(left, dest);
+	}
+	
+	/**
+	 * Rotates a matrix about an arbitrary axis
+	 * 
+	 * @return		Rotated matrix
+	 */
+	@Benchmark
+	public Matrix4 rotate() {
+		return Matrix4.rotate(angle, axis, left, dest);
+	}
+	
+	/**
+	 * Builds a model matrix from a translation, rotation and scale
+	 * 
+	 * @return		Model matrix
+	 */
+	@Benchmark
+	public Matrix4 createTransformationMatrix() {
+		return MathUtils.createTransformationMatrix(translation, rotation, scale);
+	}
+
+}
@@ -0,0 +1,81 @@
+package tk.luminos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.gameobjects.TerrainType;
+import tk.luminos.util.FractalNoise;
+import tk.luminos.util.SimplexNoise;
+
+/**
+ * 
+ * Benchmarks for {@link FractalNoise} and {@link SimplexNoise}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+	
+	private FractalNoise noise;
+	private int x, z;
+	
+	/**
+	 * Creates the noise generator
+	 */
+	@Setup
+	public void setup() {
+		noise = new FractalNoise(0, 0, 128, 1234, TerrainType.Type.HILLS);
+	}
+	
+	/**
+	 * Generates the height of a single terrain vertex
+	 * 
+	 * @return		Height
+	 */
+	@Benchmark
+	public float generateHeight() {
+		x = (x + 1) & 127;
+		z = (z + 3) & 127;
+		return noise.generateHeight(x, z);
+	}
+	
+	/**
+	 * Samples two dimensional simplex noise
+	 * 
+	 * @return		Noise value
+	 */
+	@Benchmark
+	public double simplex2D() {
+		x = (x + 1) & 1023;
+		return SimplexNoise.noise(x * 0.173, x * 0.071);
+	}
+	
+	/**
+	 * Samples three dimensional simplex noise
+	 * 
+	 * @return		Noise value
+	 */
+	@Benchmark
+	public double simplex3D() {
+		x = (x + 1) & 1023;
+		return SimplexNoise.noise(x * 0.173, x * 0.071, x * 0.037);
+	}
+
+}
@@ -0,0 +1,83 @@
+package tk.luminos.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.display.Window;
+import tk.luminos.graphics.Particle;
+import tk.luminos.graphics.ParticleMaster;
+import tk.luminos.graphics.ParticleTexture;
+import tk.luminos.maths.Vector3;
+
+/**
+ * 
+ * Benchmarks a frame of {@link ParticleMaster#update(Window)}.  Particles
+ * live long enough that the population stays constant while measuring.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleBenchmark {
+	
+	@Param({"10000", "100000"})
+	private int particles;
+	
+	@Param({"4"})
+	private int textures;
+	
+	private Window window;
+	
+	/**
+	 * Starts the headless engine and spawns the particles
+	 * 
+	 * @throws Exception	Thrown if the engine could not be started
+	 */
+	@Setup
+	public void setup() throws Exception {
+		Headless.start();
+		window = Window.getInstance();
+		ParticleMaster.particles.clear();
+		Random random = new Random(42);
+		ParticleTexture[] atlas = new ParticleTexture[textures];
+		for (int i = 0; i < textures; i++)
+			atlas[i] = new ParticleTexture(i, 4);
+		List<Particle> spawned = new ArrayList<Particle>(particles);
+		for (int i = 0; i < particles; i++) {
+			ParticleTexture texture = atlas[i % textures];
+			Vector3 position = new Vector3(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+			Vector3 velocity = new Vector3(random.nextFloat() - 0.5f, random.nextFloat(), random.nextFloat() - 0.5f);
+			spawned.add(new Particle(texture, position, velocity, 0, Float.MAX_VALUE, 0, 1));
+		}
+		ParticleMaster.addAllParticles(spawned);
+	}
+	
+	/**
+	 * Updates every particle for one frame
+	 */
+	@Benchmark
+	public void update() {
+		ParticleMaster.update(window);
+	}
+
+}
@@ -0,0 +1,101 @@
+package tk.luminos.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.serialization.DBArray;
+import tk.luminos.serialization.DBField;
+import tk.luminos.serialization.DBObject;
+import tk.luminos.serialization.DBObjectType;
+import tk.luminos.serialization.DBString;
+import tk.luminos.serialization.Database;
+
+/**
+ * 
+ * Benchmarks for serializing and deserializing a {@link Database} of model
+ * sized {@link DBObject DBObjects}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+	
+	@Param({"16", "256"})
+	private int objects;
+	
+	private Database database;
+	private byte[] serialized;
+	private byte[] buffer;
+	
+	/**
+	 * Builds the database and its serialized form
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		database = new Database("benchmark");
+		for (int i = 0; i < objects; i++) {
+			DBObject object = new DBObject("model" + i, DBObjectType.MODEL);
+			object.addField(DBField.createIntegerField("id", i));
+			object.addString(DBString.create("texture", "texture" + i + ".png"));
+			object.addArray(DBArray.createFloatArray("vertices", randomFloats(random, 3 * 512)));
+			object.addArray(DBArray.createFloatArray("normals", randomFloats(random, 3 * 512)));
+			int[] indices = new int[3 * 1024];
+			for (int j = 0; j < indices.length; j++)
+				indices[j] = random.nextInt(512);
+			object.addArray(DBArray.createIntegerArray("indices", indices));
+			database.addObject(object);
+		}
+		serialized = new byte[database.getSize()];
+		database.getBytes(serialized, 0);
+		buffer = new byte[serialized.length];
+	}
+	
+	/**
+	 * Writes the database to a byte array
+	 * 
+	 * @return		Serialized database
+	 */
+	@Benchmark
+	public byte[] serialize() {
+		database.getBytes(buffer, 0);
+		return buffer;
+	}
+	
+	/**
+	 * Reads the database from a byte array
+	 * 
+	 * @return		Deserialized database
+	 */
+	@Benchmark
+	public Database deserialize() {
+		return Database.deserialize(serialized);
+	}
+	
+	private static float[] randomFloats(Random random, int count) {
+		float[] data = new float[count];
+		for (int i = 0; i < count; i++)
+			data[i] = random.nextFloat();
+		return data;
+	}
+
+}
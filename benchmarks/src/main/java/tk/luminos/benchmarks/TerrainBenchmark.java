@@ -0,0 +1,58 @@
+package tk.luminos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.gameobjects.Terrain;
+
+/**
+ * 
+ * Benchmarks procedural {@link Terrain} generation, including the blend
+ * map.  Runs against the recording graphics backend, so the cost of
+ * uploading the mesh is not measured.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerrainBenchmark {
+	
+	private int seed;
+	
+	/**
+	 * Starts the headless engine
+	 * 
+	 * @throws Exception	Thrown if the engine could not be started
+	 */
+	@Setup
+	public void setup() throws Exception {
+		Headless.start();
+	}
+	
+	/**
+	 * Generates a terrain with a new seed
+	 * 
+	 * @return		Terrain
+	 */
+	@Benchmark
+	public Terrain generate() {
+		return new Terrain(0, 0, seed++, null);
+	}
+
+}
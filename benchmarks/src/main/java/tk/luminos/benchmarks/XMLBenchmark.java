@@ -0,0 +1,48 @@
+package tk.luminos.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.luminos.filesystem.xml.XMLNode;
+import tk.luminos.filesystem.xml.XMLParser;
+import tk.luminos.util.File;
+
+/**
+ * 
+ * Benchmarks parsing a COLLADA style document with {@link XMLParser}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLBenchmark {
+	
+	private final File file = new File("benchmarks/scene.xml");
+	
+	/**
+	 * Parses the document
+	 * 
+	 * @return				Root node
+	 * @throws Exception	Thrown if the document could not be read
+	 */
+	@Benchmark
+	public XMLNode loadXMLFile() throws Exception {
+		return XMLParser.loadXMLFile(file);
+	}
+
+}
@@ -0,0 +1,53 @@
+package tk.luminos.physics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import tk.luminos.gameobjects.GameObject;
+import tk.luminos.maths.Vector3;
+
+/**
+ * 
+ * Checks that {@link PhysicsEngine#apply(float)} leaves each game object at
+ * its simulated transform, even when the game thread skips published steps
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class PhysicsEngineTest {
+	
+	private static final float STEP = 1 / 60f;
+	
+	/**
+	 * A body that moves in a step the game thread never acquires, and then
+	 * stops, must still end up at its final position
+	 */
+	@Test
+	public void appliesMovementFromDroppedStep() {
+		PhysicsEngine engine = new PhysicsEngine();
+		engine.getRigidBodySystem().setGravity(new Vector3());
+		GameObject ball = new GameObject(null, new Vector3(), new Vector3(), new Vector3(1, 1, 1));
+		RigidBody body = new RigidBody(ball, new BoundingSphere(new Vector3(), 1), 1);
+		engine.attachRigidBody(body);
+		
+		for (int i = 0; i < 2; i++) {
+			engine.update(null, STEP);
+			engine.acquire();
+			engine.apply(1);
+		}
+		
+		engine.setVelocity(body, new Vector3(3, 0, 0));
+		engine.update(null, STEP);
+		engine.setVelocity(body, new Vector3());
+		engine.update(null, STEP);
+		engine.acquire();
+		engine.apply(0.5f);
+		
+		assertNotEquals(0, body.getPosition().x, 0);
+		assertEquals(body.getPosition().x, ball.getPosition().x, 0);
+	}
+
+}
@@ -5,6 +5,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import tk.luminos.display.Window;
+import tk.luminos.events.EventBus;
+import tk.luminos.events.LifecycleEvent;
+import tk.luminos.events.SceneChangedEvent;
 import tk.luminos.util.Configuration;
 
 /**
@@ -21,6 +24,7 @@ public class Application {
 	private List<Event> actions = new ArrayList<Event>();
 	private List<Thread> threads = new ArrayList<Thread>();
 	private Scene scene;
+	private EventBus eventBus = new EventBus();
 	
 	private static Configuration config;
 	
@@ -61,25 +65,33 @@ public class Application {
 	public boolean shouldClose = false;
 	
 	/**
-	 * Renders the current scene to the default frame buffer
+	 * Renders the current scene to the default frame buffer.  A
+	 * {@link LifecycleEvent} is delivered before the first frame and after
+	 * the last.
 	 * 
 	 * @param window		Window to render to
 	 * @throws Exception	Thrown if rendering failed
 	 */
 	public void render(Window window) throws Exception {
+		eventBus.dispatch(new LifecycleEvent(LifecycleEvent.Stage.STARTED));
 		while (!window.shouldClose() && !shouldClose) {
+			eventBus.drain();
 			for (Event action : actions) {
 				if (action.eventPerformed())
 					action.act();
 			}
-			scene.getGameObjects().stream().parallel().forEach(obj -> obj.update());
+			scene.updateGameObjects();
 			Engine.update(scene, window);
 		}
 		this.shouldClose = true;
+		eventBus.drain();
+		eventBus.dispatch(new LifecycleEvent(LifecycleEvent.Stage.CLOSING));
 	}
 	
 	/**
-	 * Adds {@link Event} to the application
+	 * Adds {@link Event} to the application.  Events added this way are
+	 * polled every frame; triggers that can be raised when their condition
+	 * changes should subscribe to the {@link EventBus} instead.
 	 * 
 	 * @param action		Action to add
 	 */
@@ -88,7 +100,19 @@ public class Application {
 	}
 	
 	/**
-	 * Swaps current rendering scene
+	 * Gets the event bus of the application.  Events published to it from
+	 * any thread are delivered on the game thread at the start of the next
+	 * frame.
+	 * 
+	 * @return		Event bus of the application
+	 */
+	public EventBus getEventBus() {
+		return eventBus;
+	}
+	
+	/**
+	 * Swaps current rendering scene.  The scene publishes its events to the
+	 * application's bus, and a {@link SceneChangedEvent} is published.
 	 * 
 	 * @param scene		Scene to render
 	 * @return			Previous scene
@@ -96,6 +120,11 @@ public class Application {
 	public Scene setActiveScene(Scene scene) {
 		Scene old = this.scene;
 		this.scene = scene;
+		if (old != null && old != scene && old.getEventBus() == eventBus)
+			old.setEventBus(null);
+		if (scene != null)
+			scene.setEventBus(eventBus);
+		eventBus.publish(new SceneChangedEvent(old, scene));
 		return old;
 	}
 	
@@ -1,13 +1,19 @@
 package tk.luminos;
 
+import java.util.concurrent.locks.LockSupport;
+
 import org.lwjgl.system.Callback;
 
 import tk.luminos.display.Window;
+import tk.luminos.gameobjects.TransformStore;
 import tk.luminos.graphics.RenderEngine;
 import tk.luminos.graphics.SceneManager;
 import tk.luminos.graphics.shaders.GLSLVersion;
+import tk.luminos.jobs.JobSystem;
 import tk.luminos.loaders.Loader;
+import tk.luminos.metrics.Metrics;
 import tk.luminos.physics.PhysicsEngine;
+import tk.luminos.profiler.Profiler;
 import tk.luminos.util.Timer;
 
 /**
@@ -26,6 +32,20 @@ public class Engine {
 	private static PhysicsEngine physicsEngine;
 	private static Window window;
 	
+	private static float timeStep = 1f / ConfigData.UPS;
+	private static float accumulator = 0;
+	private static float alpha = 0;
+	private static boolean timerStarted = false;
+	
+	/**
+	 * Maximum amount of frame time, in seconds, that may be fed into the
+	 * simulation in a single frame.  Prevents the simulation from falling
+	 * further behind after a long stall.
+	 */
+	public static final float MAX_FRAME_TIME = 0.25f;
+	
+	private static final int PROFILE_UPDATE = Profiler.register("Engine.update");
+	
 	public static RenderMode mode = RenderMode.NUKLEAR_OPENGL;
 	
 	/**
@@ -44,6 +64,7 @@ public class Engine {
 	 * @throws Exception 		Thrown if shader programs do not compile properly
 	 */
 	public static void createEngine() throws Exception {
+		createJobSystem();
 		renderEngine = new RenderEngine(new SceneManager());
 		Thread.currentThread().setName("LUMINOS_ENGINE:_GRAPHICS");
 	}
@@ -55,6 +76,7 @@ public class Engine {
 	 * @throws Exception 		Thrown if shader programs do not compile properly
 	 */
 	public static void createEngine(GLSLVersion glslVersion) throws Exception {
+		createJobSystem();
 		renderEngine = new RenderEngine(new SceneManager());
 		Thread.currentThread().setName("LUMINOS_ENGINE:_GRAPHICS");
 	}
@@ -66,18 +88,16 @@ public class Engine {
 	 */
 	public static void start(Window window) {
 		Engine.window = window;
-		Engine.window.showWindow();
-		glErrorCallback = DebugUtil.setupDebugMessageCallback((source, type, id, severity, message) -> {
-			if (!severity.equals("NOTIFICATION"))
-				System.err.println(severity + "\n" + source + "\n" + type + "\n" + message);
-		});
+		if (!window.isHeadless()) {
+			Engine.window.showWindow();
+			glErrorCallback = DebugUtil.setupDebugMessageCallback((source, type, id, severity, message) -> {
+				if (!severity.equals("NOTIFICATION"))
+					System.err.println(severity + "\n" + source + "\n" + type + "\n" + message);
+			});
+		}
 		if (physicsEngine != null) {
-			if(System.getProperty("os.name").contains("mac")) {
-				physicsEngine.run();
-			}
-			else {
-				physicsEngine.start();
-			}
+			physicsEngine.start();
+			Metrics.trackThread(physicsEngine);
 		}
 	}
 	
@@ -89,10 +109,42 @@ public class Engine {
 	 * @throws Exception 				Thrown if shader program cannot be created or other code fails
 	 */
 	public static void update(Scene scene, Window window) throws Exception {
-		scene.input(window);
-		renderEngine.update(scene);
-		physicsEngine.update(scene);
-		window.update();
+		if (!timerStarted) {
+			Integer ups = Application.getValue("UPS");
+			if (ups != null && ups > 0)
+				timeStep = 1f / ups;
+			timer.init();
+			timerStarted = true;
+		}
+		float frameTime = timer.getElapsedTime();
+		accumulator += Math.min(frameTime, MAX_FRAME_TIME);
+		Profiler.begin(PROFILE_UPDATE);
+		try {
+			scene.input(window);
+			boolean threaded = physicsEngine != null && physicsEngine.isRunning();
+			while (accumulator >= timeStep) {
+				if (threaded)
+					physicsEngine.updateColliders(scene, timeStep);
+				else if (physicsEngine != null)
+					physicsEngine.update(scene, timeStep);
+				accumulator -= timeStep;
+			}
+			alpha = accumulator / timeStep;
+			if (physicsEngine != null) {
+				physicsEngine.acquire();
+				if (threaded)
+					alpha = physicsEngine.getInterpolationAlpha();
+				physicsEngine.apply(alpha);
+			}
+			scene.updateStreaming();
+			TransformStore.updateAll();
+			scene.updateTransforms();
+			renderEngine.update(scene);
+			window.update();
+			Metrics.endFrame(frameTime);
+		} finally {
+			Profiler.end();
+		}
 		if (window.isVsync())
 			sync();
 	}
@@ -104,12 +156,15 @@ public class Engine {
 	 */
 	public static void close() throws Exception {
 		if (physicsEngine != null) {
+			physicsEngine.dispose();
 			physicsEngine.join();
 		}
 		renderEngine.dispose();
 		renderEngine.join();
-		glErrorCallback.free();
+		if (glErrorCallback != null)
+			glErrorCallback.free();
 		Loader.getInstance().dispose();
+		JobSystem.getInstance().dispose();
 	}
 	
 	/**
@@ -121,11 +176,48 @@ public class Engine {
 		Engine.physicsEngine = engine;
 	}
 	
+	/**
+	 * Gets the length of a single simulation step
+	 * 
+	 * @return		Fixed time step, in seconds
+	 */
+	public static float getTimeStep() {
+		return timeStep;
+	}
+	
+	/**
+	 * Gets the fraction of a simulation step that has elapsed since the last
+	 * step was taken.  The physics engine blends the transforms of its bodies
+	 * between the previous and current step by this factor before the frame
+	 * is rendered; game code may use it to interpolate its own state the
+	 * same way.
+	 * 
+	 * @return		Interpolation factor in the range [0, 1]
+	 */
+	public static float getInterpolationAlpha() {
+		return alpha;
+	}
+	
+	private static void createJobSystem() {
+		Integer workers = Application.getValue("WORKER_THREADS");
+		if (workers != null && workers > 0)
+			JobSystem.create(workers);
+		else
+			JobSystem.create();
+		Metrics.trackThread(Thread.currentThread());
+		for (Thread worker : JobSystem.getInstance().getWorkerThreads())
+			Metrics.trackThread(worker);
+	}
+	
 	private static void sync() throws InterruptedException {
 		float loopSlot = 1f / Window.REFRESH_RATE;
 		double endTime = timer.getLastLoopTime() + loopSlot;
-		while (timer.getTime() < endTime) {
-			
+		double remaining;
+		while ((remaining = endTime - timer.getTime()) > 0) {
+			if (remaining > 0.001)
+				LockSupport.parkNanos((long) ((remaining - 0.001) * 1_000_000_000L));
+			else
+				Thread.yield();
 		}
 	}
 
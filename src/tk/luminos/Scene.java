@@ -1,9 +1,19 @@
 package tk.luminos;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import tk.luminos.display.Window;
+import tk.luminos.ecs.ComponentType;
+import tk.luminos.ecs.Query;
+import tk.luminos.ecs.World;
+import tk.luminos.events.EventBus;
+import tk.luminos.events.EventListener;
+import tk.luminos.events.GameObjectAddedEvent;
+import tk.luminos.events.GameObjectRemovedEvent;
+import tk.luminos.events.MPSCQueue;
 import tk.luminos.gameobjects.GameObject;
 import tk.luminos.gameobjects.Terrain;
 import tk.luminos.graphics.Camera;
@@ -12,6 +22,11 @@ import tk.luminos.graphics.Light;
 import tk.luminos.graphics.PointLight;
 import tk.luminos.graphics.SceneManager;
 import tk.luminos.graphics.water.WaterTile;
+import tk.luminos.maths.Frustum;
+import tk.luminos.maths.Vector3;
+import tk.luminos.spatial.DynamicAABBTree;
+import tk.luminos.streaming.WorldStreamer;
+import tk.luminos.util.SlotMap;
 
 /**
  * 
@@ -24,10 +39,41 @@ import tk.luminos.graphics.water.WaterTile;
 
 public abstract class Scene {
 	
-	private List<GameObject> objects;
+	/**
+	 * Component type of the game object behind a scene entity
+	 */
+	public static final ComponentType<GameObject> GAME_OBJECT = ComponentType.of(GameObject.class);
+	
+	/**
+	 * Maximum number of game objects updated by a single job
+	 */
+	public static final int UPDATE_BATCH_SIZE = 256;
+	
+	/**
+	 * Distance the spatial index enlarges bounds by, so that objects only
+	 * move within the index once they have travelled this far
+	 */
+	public static final float INDEX_MARGIN = 2;
+	
+	private final World world = new World();
+	private final Query updates = world.query(GAME_OBJECT);
+	private final DynamicAABBTree<GameObject> objectIndex = new DynamicAABBTree<GameObject>(INDEX_MARGIN);
+	private final DynamicAABBTree<PointLight> lightIndex = new DynamicAABBTree<PointLight>(INDEX_MARGIN);
+	private int[] lightProxies = new int[16];
+	private float maxRenderDistance = 0;
+	private boolean maxRenderDistanceStale = false;
+	private WorldStreamer streamer;
+	private EventBus eventBus;
+	private SlotMap<GameObject> objects;
+	private final MPSCQueue<GameObject> pendingRemovals = new MPSCQueue<GameObject>();
+	private final MPSCQueue<GameObject> moved = new MPSCQueue<GameObject>();
+	private final EventListener<GameObject> refreshBounds = this::refreshBounds;
+	private final Comparator<GameObject> insertionOrder = 
+			(a, b) -> Long.compare(objects.sequenceOf(a.getHandle()), objects.sequenceOf(b.getHandle()));
 	private List<Terrain> terrains;
 	private List<WaterTile> tiles;
 	private List<PointLight> pointLights;
+	private List<PointLight> pointLightView;
 	
 	protected DirectionalLight directionalLight;
 	protected Camera camera;
@@ -37,10 +83,11 @@ public abstract class Scene {
 	 * Creates new Scene object
 	 */
 	public Scene() {
-		objects = new ArrayList<GameObject>();
+		objects = new SlotMap<GameObject>();
 		terrains = new ArrayList<Terrain>();
 		tiles = new ArrayList<WaterTile>();
 		pointLights = new ArrayList<PointLight>();
+		pointLightView = Collections.unmodifiableList(pointLights);
 	}
 
 	/**
@@ -54,12 +101,36 @@ public abstract class Scene {
 	
 	/**
 	 * 
-	 * Gets the GameObjects in a scene 
+	 * Gets a read only view of the GameObjects in a scene, in the order they
+	 * were added.  Removing an object does not reorder the others.
 	 * 
 	 * @return	Game Objects in scene
 	 */
 	public List<GameObject> getGameObjects() {
-		return objects;
+		return objects.asOrderedList();
+	}
+	
+	/**
+	 * Sorts game objects of the scene into the order they were added, so
+	 * that the results of spatial queries are drawn in a stable order.
+	 * Objects no longer in the scene are moved to the front.
+	 * 
+	 * @param dest		Game objects to sort
+	 * @return			Sorted list
+	 */
+	public List<GameObject> sortByInsertion(List<GameObject> dest) {
+		dest.sort(insertionOrder);
+		return dest;
+	}
+	
+	/**
+	 * Gets the GameObject a handle refers to
+	 * 
+	 * @param handle	Handle returned when the object was added
+	 * @return			Game object, or null if it has been removed
+	 */
+	public GameObject getGameObject(long handle) {
+		return objects.get(handle);
 	}
 		
 	/**
@@ -74,12 +145,14 @@ public abstract class Scene {
 	
 	/**
 	 * 
-	 * Gets the Lights in a scene
+	 * Gets the Lights in a scene.  The list is read only; lights are added
+	 * and removed with {@link #addLight(Light)} and
+	 * {@link #removeLight(Light)}.
 	 * 
 	 * @return	Lights in scene
 	 */
 	public List<PointLight> getPointLights() {
-		return pointLights;
+		return pointLightView;
 	}
 	
 	/**
@@ -92,12 +165,16 @@ public abstract class Scene {
 	}
 	
 	/**
-	 * Renders scene to world
+	 * Renders scene to world.  By default the scene is drawn through its
+	 * spatial index with {@link SceneManager#renderWorld(Scene, Vector3)},
+	 * focused on the focal object, or the camera if there is none.
 	 * 
 	 * @param mangager		Abstracts the rendering process
 	 */
 	public void render(SceneManager mangager) {
-		
+		if (camera == null)
+			return;
+		mangager.renderWorld(this, gameObject != null ? gameObject.getPosition() : camera.getPosition());
 	}
 	
 	/**
@@ -127,14 +204,268 @@ public abstract class Scene {
 		return camera;
 	}
 
+	/**
+	 * Sets the bus the scene publishes {@link GameObjectAddedEvent} and
+	 * {@link GameObjectRemovedEvent} to.  The application sets its own bus
+	 * on the scene it renders.
+	 * 
+	 * @param eventBus		Event bus, or null to publish nothing
+	 */
+	public void setEventBus(EventBus eventBus) {
+		this.eventBus = eventBus;
+	}
+	
+	/**
+	 * Gets the bus the scene publishes its events to
+	 * 
+	 * @return		Event bus, or null
+	 */
+	public EventBus getEventBus() {
+		return eventBus;
+	}
+
+	/**
+	 * Sets the streamer loading and unloading cells of the scene around the
+	 * focal object, or the camera if there is no focal object
+	 * 
+	 * @param streamer		World streamer, or null to disable streaming
+	 */
+	public void setStreamer(WorldStreamer streamer) {
+		this.streamer = streamer;
+	}
+	
+	/**
+	 * Gets the streamer loading and unloading cells of the scene
+	 * 
+	 * @return		World streamer, or null if streaming is disabled
+	 */
+	public WorldStreamer getStreamer() {
+		return streamer;
+	}
+	
+	/**
+	 * Streams cells in and out around the focal object or camera
+	 */
+	public void updateStreaming() {
+		if (streamer == null)
+			return;
+		if (gameObject != null)
+			streamer.update(this, gameObject.getPosition());
+		else if (camera != null)
+			streamer.update(this, camera.getPosition());
+	}
+	
+	/**
+	 * Updates the cached world transforms of the game objects that moved
+	 * since the last update and refits the spatial indices.  Objects that
+	 * did not move are not visited.
+	 */
+	public void updateTransforms() {
+		pendingRemovals.drain(this::removeGameObject);
+		moved.drain(refreshBounds);
+		for (int i = 0; i < pointLights.size(); i++) {
+			Vector3 position = pointLights.get(i).getPosition();
+			lightIndex.move(lightProxies[i], position.x, position.y, position.z, position.x, position.y, position.z);
+		}
+	}
+	
+	/**
+	 * Gets the spatial index of the game objects in the scene
+	 * 
+	 * @return	Game object index
+	 */
+	public DynamicAABBTree<GameObject> getObjectIndex() {
+		return objectIndex;
+	}
+	
+	/**
+	 * Gets the spatial index of the point lights in the scene
+	 * 
+	 * @return	Point light index
+	 */
+	public DynamicAABBTree<PointLight> getLightIndex() {
+		return lightIndex;
+	}
+	
+	/**
+	 * Gets the largest render distance of any game object in the scene.
+	 * Recomputed once after the object holding it is removed.
+	 * 
+	 * @return	Maximum render distance
+	 */
+	public float getMaxRenderDistance() {
+		if (maxRenderDistanceStale) {
+			maxRenderDistance = 0;
+			for (int i = 0; i < objects.size(); i++)
+				maxRenderDistance = Math.max(maxRenderDistance, objects.getAt(i).getRenderDistance());
+			maxRenderDistanceStale = false;
+		}
+		return maxRenderDistance;
+	}
+	
+	/**
+	 * Finds the game objects whose bounds may intersect a frustum
+	 * 
+	 * @param frustum		Frustum to test against
+	 * @param dest			List receiving the game objects
+	 * @return				Destination list
+	 */
+	public List<GameObject> queryFrustum(Frustum frustum, List<GameObject> dest) {
+		objectIndex.queryFrustum(frustum, dest::add);
+		return dest;
+	}
+	
+	/**
+	 * Finds the game objects whose bounds may lie within a distance of a point
+	 * 
+	 * @param center		Center of the query
+	 * @param radius		Distance from the center
+	 * @param dest			List receiving the game objects
+	 * @return				Destination list
+	 */
+	public List<GameObject> queryRadius(Vector3 center, float radius, List<GameObject> dest) {
+		objectIndex.querySphere(center.x, center.y, center.z, radius, dest::add);
+		return dest;
+	}
+	
+	/**
+	 * Finds the point lights within a distance of a point
+	 * 
+	 * @param center		Center of the query
+	 * @param radius		Distance from the center
+	 * @param dest			List receiving the lights
+	 * @return				Destination list
+	 */
+	public List<PointLight> queryLights(Vector3 center, float radius, List<PointLight> dest) {
+		lightIndex.querySphere(center.x, center.y, center.z, radius, dest::add);
+		return dest;
+	}
+	
+	/**
+	 * Finds the game objects closest to a point, nearest first
+	 * 
+	 * @param point			Point to measure from
+	 * @param k				Maximum number of game objects to find
+	 * @param dest			List receiving the game objects
+	 * @return				Destination list
+	 */
+	public List<GameObject> nearest(Vector3 point, int k, List<GameObject> dest) {
+		objectIndex.nearest(point.x, point.y, point.z, k, dest);
+		return dest;
+	}
+	
+	/**
+	 * Finds the game object whose bounds are hit first by a ray
+	 * 
+	 * @param origin		Origin of the ray
+	 * @param direction		Direction of the ray
+	 * @param maxDistance	Length of the ray, in multiples of the direction
+	 * @return				Closest game object hit, or null
+	 */
+	public GameObject raycast(Vector3 origin, Vector3 direction, float maxDistance) {
+		return objectIndex.raycast(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance);
+	}
+
+	/**
+	 * Gets the entity storage of the scene.  Every game object added to the
+	 * scene is an entity holding a {@link #GAME_OBJECT} component, which
+	 * {@link #updateGameObjects()} queries.  Games may add components of
+	 * their own to these entities and run systems over them the same way.
+	 * 
+	 * @return	Entity storage
+	 */
+	public World getWorld() {
+		return world;
+	}
+	
+	/**
+	 * Calls {@link GameObject#update()} on every game object in the scene,
+	 * in batches of {@link #UPDATE_BATCH_SIZE} across the job system.  The
+	 * objects are found by querying the {@link #getWorld() world} for
+	 * entities with a {@link #GAME_OBJECT} component, so no order is
+	 * guaranteed between them.  Objects may only be removed during the
+	 * update through {@link #removeGameObjectLater(GameObject)}.
+	 */
+	public void updateGameObjects() {
+		updates.parallelForEach(UPDATE_BATCH_SIZE, (archetype, start, end) -> {
+			Object[] column = archetype.getColumn(GAME_OBJECT);
+			for (int i = start; i < end; i++)
+				((GameObject) column[i]).update();
+		});
+	}
+
 	/**
 	 * Adds game object to the scene
 	 * 
 	 * @param object		Object added to scene
+	 * @return				Handle of the object in the scene
+	 */
+	public long addGameObject(GameObject object) {
+		object.getTransformation().acquire();
+		long handle = objects.add(object);
+		object.setHandle(handle);
+		object.setID("DEFAULT" + handle);
+		int entity = world.create();
+		world.add(entity, GAME_OBJECT, object);
+		object.setEntity(entity);
+		object.setMovedQueue(moved);
+		Vector3 position = object.getPosition();
+		float radius = object.getBoundingRadius();
+		object.setProxy(objectIndex.insert(object, position.x - radius, position.y - radius, position.z - radius, 
+				position.x + radius, position.y + radius, position.z + radius));
+		maxRenderDistance = Math.max(maxRenderDistance, object.getRenderDistance());
+		if (eventBus != null && eventBus.hasListeners(GameObjectAddedEvent.class))
+			eventBus.publish(new GameObjectAddedEvent(this, object, handle));
+		return handle;
+	}
+	
+	/**
+	 * Queues a game object to be removed from the scene before the next
+	 * transform update.  Safe to call from any thread, including from
+	 * {@link GameObject#update()}.
+	 * 
+	 * @param object		Object to remove
 	 */
-	public void addGameObject(GameObject object) {
-		object.setID("DEFAULT" + objects.size());
-		objects.add(object);
+	public void removeGameObjectLater(GameObject object) {
+		pendingRemovals.offer(object);
+	}
+	
+	/**
+	 * Removes a game object from the scene in constant time.  Must be called
+	 * from the game thread outside of game object updates.  An object whose
+	 * transform is held in a {@link tk.luminos.gameobjects.TransformStore}
+	 * gives its slot back, and takes a new one if it is added again.
+	 * 
+	 * @param handle		Handle returned when the object was added
+	 * @return				Removed object, or null if the handle is stale
+	 */
+	public GameObject removeGameObject(long handle) {
+		GameObject object = objects.remove(handle);
+		if (object == null)
+			return null;
+		world.destroy(object.getEntity());
+		objectIndex.remove(object.getProxy());
+		object.setEntity(-1);
+		object.setProxy(-1);
+		object.setHandle(SlotMap.NULL_HANDLE);
+		object.setMovedQueue(null);
+		object.getTransformation().release();
+		if (object.getRenderDistance() >= maxRenderDistance)
+			maxRenderDistanceStale = true;
+		if (eventBus != null && eventBus.hasListeners(GameObjectRemovedEvent.class))
+			eventBus.publish(new GameObjectRemovedEvent(this, object, handle));
+		return object;
+	}
+	
+	/**
+	 * Removes a game object from the scene in constant time.  Must be called
+	 * from the game thread outside of game object updates.
+	 * 
+	 * @param object		Object to remove
+	 * @return				If the object was in the scene
+	 */
+	public boolean removeGameObject(GameObject object) {
+		return object.getHandle() != SlotMap.NULL_HANDLE && objects.get(object.getHandle()) == object && removeGameObject(object.getHandle()) != null;
 	}
 	
 	/**
@@ -146,14 +477,50 @@ public abstract class Scene {
 		terrains.add(terrain);
 	}
 
+	/**
+	 * Removes terrain from the scene
+	 * 
+	 * @param terrain		Terrain removed from scene
+	 * @return				If the terrain was in the scene
+	 */
+	public boolean removeTerrain(Terrain terrain) {
+		return terrains.remove(terrain);
+	}
+
 	/**
 	 * Adds light to the scene
 	 * 
 	 * @param light			Light added to scene
 	 */
 	public void addLight(Light light) {
-		if (light instanceof PointLight) 
-			pointLights.add((PointLight) light);
+		if (light instanceof PointLight) {
+			PointLight pointLight = (PointLight) light;
+			Vector3 position = pointLight.getPosition();
+			if (pointLights.size() == lightProxies.length) {
+				int[] lightProxies = new int[this.lightProxies.length * 2];
+				System.arraycopy(this.lightProxies, 0, lightProxies, 0, this.lightProxies.length);
+				this.lightProxies = lightProxies;
+			}
+			lightProxies[pointLights.size()] = lightIndex.insert(pointLight, position.x, position.y, position.z, position.x, position.y, position.z);
+			pointLights.add(pointLight);
+		}
+	}
+	
+	/**
+	 * Removes a light from the scene.  The remaining point lights keep their
+	 * order.
+	 * 
+	 * @param light			Light to remove
+	 * @return				If the light was in the scene
+	 */
+	public boolean removeLight(Light light) {
+		int index = pointLights.indexOf(light);
+		if (index < 0)
+			return false;
+		lightIndex.remove(lightProxies[index]);
+		pointLights.remove(index);
+		System.arraycopy(lightProxies, index + 1, lightProxies, index, pointLights.size() - index);
+		return true;
 	}
 	
 	/**
@@ -164,5 +531,35 @@ public abstract class Scene {
 	public void addWaterTile(WaterTile tile) {
 		tiles.add(tile);
 	}
+	
+	/**
+	 * Removes water tile from the scene
+	 * 
+	 * @param tile			Water tile removed from scene
+	 * @return				If the tile was in the scene
+	 */
+	public boolean removeWaterTile(WaterTile tile) {
+		return tiles.remove(tile);
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private void refreshBounds(GameObject object) {
+		if (objects.get(object.getHandle()) != object)
+			return;
+		object.clearMoved();
+		object.getWorldMatrix();
+		updateBounds(object);
+	}
+	
+	private void updateBounds(GameObject object) {
+		if (object.getProxy() < 0)
+			return;
+		Vector3 position = object.getPosition();
+		float radius = object.getBoundingRadius();
+		objectIndex.move(object.getProxy(), position.x - radius, position.y - radius, position.z - radius, 
+				position.x + radius, position.y + radius, position.z + radius);
+		maxRenderDistance = Math.max(maxRenderDistance, object.getRenderDistance());
+	}
 
 }
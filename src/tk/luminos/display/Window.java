@@ -49,7 +49,6 @@ import static org.lwjgl.opengl.GL11.GL_RGBA;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
 import static org.lwjgl.opengl.GL11.GL_VENDOR;
 import static org.lwjgl.opengl.GL11.GL_VERSION;
-import static org.lwjgl.opengl.GL11.glClear;
 import static org.lwjgl.opengl.GL11.glEnable;
 import static org.lwjgl.opengl.GL11.glGetString;
 import static org.lwjgl.opengl.GL11.glReadBuffer;
@@ -59,6 +58,7 @@ import static org.lwjgl.opengl.GL13.GL_MULTISAMPLE;
 import static org.lwjgl.system.MemoryUtil.NULL;
 import static tk.luminos.Engine.ERROR_STREAM;
 import static tk.luminos.Luminos.ExitStatus.FAILURE_GENERAL;
+import static tk.luminos.graphics.backend.Graphics.glClear;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
@@ -81,12 +81,15 @@ import org.lwjgl.system.Platform;
 import tk.luminos.Application;
 import tk.luminos.Luminos;
 import tk.luminos.filesystem.ResourceLoader;
+import tk.luminos.graphics.backend.Graphics;
+import tk.luminos.graphics.backend.RecordingBackend;
 import tk.luminos.graphics.render.ImageRenderer;
 import tk.luminos.input.Keyboard;
 import tk.luminos.input.Mouse;
 import tk.luminos.input.MousePosition;
 import tk.luminos.loaders.AssetCache;
 import tk.luminos.loaders.Loader;
+import tk.luminos.metrics.Metrics;
 
 /**
  * 
@@ -113,7 +116,7 @@ public class Window {
 
 	private String title;
 	private int width, height;
-	private boolean vsync, fullscreen, visible = false, resizable, vismouse;
+	private boolean vsync, fullscreen, visible = false, resizable, vismouse, headless = false;
 	private long window;
 	private FrameRateCounter frameRateCounter;
 	private Device device;
@@ -144,6 +147,22 @@ public class Window {
 		return (instance = new Window(title, width, height, vsync, fullscreen, resizable, vismouse));
 	}
 	
+	/**
+	 * Creates a new headless window.  No GLFW or OpenGL context is created;
+	 * graphics calls are sent to a {@link RecordingBackend} that counts the
+	 * work submitted each frame instead of driving a device.
+	 * 
+	 * @param title 		Title of the window
+	 * @param width			Width of the virtual frame buffer
+	 * @param height		Height of the virtual frame buffer
+	 * @return				New global headless window
+	 */
+	public static Window createHeadless(String title, int width, int height) {
+		if (instance != null) 
+			throw new RuntimeException("Window already initialized!");
+		return (instance = new Window(title, width, height));
+	}
+	
 	/**
 	 * Gets the current global instance of the Window
 	 * 
@@ -179,6 +198,46 @@ public class Window {
 				
 		init();
 	}
+	
+	/**
+	 * Constructor that creates a headless window
+	 * 
+	 * @param title 		Title of the window
+	 * @param width			Width of the virtual frame buffer
+	 * @param height		Height of the virtual frame buffer
+	 */
+	private Window(String title, int width, int height) {
+		this.title = title;
+		this.width = width;
+		this.height = height;
+		ASPECT_RATIO = (float) width / (float) height;
+		this.headless = true;
+		
+		initHeadless();
+	}
+	
+	/**
+	 * Initializes the engine state normally set up alongside the GLFW context
+	 */
+	private void initHeadless() {
+		if (!(Graphics.getBackend() instanceof RecordingBackend))
+			Graphics.setBackend(new RecordingBackend());
+		installMetrics();
+		
+		frameRateCounter = new FrameRateCounter(true);
+		
+		Loader.create();
+		
+		Application.setValue("FULLSCREEN", 0);
+		Application.setValue("VSYNC", 0);
+		Application.setValue("RESIZABLE", 0);
+		Application.setValue("MOUSE_VISIBLE", 0);
+		
+		Application.setValue("WIDTH", width);
+		Application.setValue("HEIGHT", height);
+		
+		AssetCache.load();
+	}
 
 	/**
 	 * Method that does full initialization of GLFW and OpenGL
@@ -287,8 +346,10 @@ public class Window {
 		} 
 		else 
 			glfwSetInputMode(window, GLFW_CURSOR, GLFW_CURSOR_NORMAL);
+		
+		installMetrics();
 
-		frameRateCounter = new FrameRateCounter();
+		frameRateCounter = new FrameRateCounter(false);
 
 		Loader.create();
 		ImageRenderer gr = new ImageRenderer();
@@ -310,6 +371,21 @@ public class Window {
 		AssetCache.load();
 	}
 	
+	/**
+	 * Publishes the engine metrics if enabled by the METRICS setting.  A
+	 * setting of 2 also counts graphics calls by wrapping the backend in a
+	 * {@link RecordingBackend}.  Done before any resources are loaded so
+	 * that they are counted as resident.
+	 */
+	private void installMetrics() {
+		Integer metrics = Application.getValue("METRICS");
+		if (metrics == null || metrics == 0)
+			return;
+		if (metrics == 2 && !(Graphics.getBackend() instanceof RecordingBackend))
+			Graphics.setBackend(new RecordingBackend(Graphics.getBackend()));
+		Metrics.install();
+	}
+	
 	/**
 	 * Sets window position
 	 * 
@@ -317,6 +393,8 @@ public class Window {
 	 * @param y		y position
 	 */
 	public void setPosition(int x, int y) {
+		if (headless)
+			return;
 		GLFW.glfwSetWindowPos(window, x, y);
 	}
 
@@ -334,8 +412,12 @@ public class Window {
 	 */
 	public void update() throws Exception {
 		frameRateCounter.start();
-		glfwPollEvents();
-		glfwSwapBuffers(window);
+		if (!headless) {
+			glfwPollEvents();
+			glfwSwapBuffers(window);
+		}
+		if (Graphics.getBackend() instanceof RecordingBackend)
+			((RecordingBackend) Graphics.getBackend()).endFrame();
 		clear();
 		frameRateCounter.calculate();
 	}
@@ -344,6 +426,10 @@ public class Window {
 	 * Releases all callbacks and disposes of the window
 	 */
 	public void close() {        
+		if (headless) {
+			instance = null;
+			return;
+		}
 		keyCallback.free();
 		mouseButtonCallback.free();
 		mousePosition.free();
@@ -360,6 +446,8 @@ public class Window {
 	 * @return Value of whether the window should dispose or remain opened
 	 */
 	public boolean shouldClose() {
+		if (headless)
+			return false;
 		return glfwWindowShouldClose(window);
 	}
 
@@ -469,7 +557,8 @@ public class Window {
 	 */
 	public void setTitle(String title) {
 		this.title = title;
-		glfwSetWindowTitle(window, title);
+		if (!headless)
+			glfwSetWindowTitle(window, title);
 	}
 
 	/**
@@ -499,6 +588,15 @@ public class Window {
 		return visible;
 	}
 
+	/**
+	 * Gets if the window was created without a GLFW or OpenGL context
+	 * 
+	 * @return Value of whether the window is headless
+	 */
+	public boolean isHeadless() {
+		return headless;
+	}
+
 	/**
 	 * Gets the ability to resize the GLFWWindow instance
 	 * 
@@ -577,7 +675,7 @@ public class Window {
 	 * @throws Exception  thrown if GLFW is not initialized
 	 */
 	public void primeFPSCounter() throws Exception {
-		frameRateCounter.start = GLFW.glfwGetTime();
+		frameRateCounter.start = frameRateCounter.getTime();
 	}
 
 	/**
@@ -630,6 +728,8 @@ public class Window {
 	 * Makes window visible and focuses window
 	 */
 	public void showWindow() {
+		if (headless)
+			return;
 		glfwShowWindow(window);
 		glfwFocusWindow(window);
 	}
@@ -663,12 +763,24 @@ class FrameRateCounter {
 	private double end;
 	protected short frames = 0;
 	protected int fps = 100;
+	private boolean headless;
 
 	/**
 	 * Constructor of the frame rate counter
+	 * 
+	 * @param headless		Measure time with the system timer rather than GLFW
 	 */
-	public FrameRateCounter() {
-
+	public FrameRateCounter(boolean headless) {
+		this.headless = headless;
+	}
+	
+	/**
+	 * Gets the current time
+	 * 
+	 * @return Time in seconds
+	 */
+	public double getTime() {
+		return headless ? System.nanoTime() / 1_000_000_000.0 : GLFW.glfwGetTime();
 	}
 
 	/**
@@ -677,8 +789,8 @@ class FrameRateCounter {
 	 * @throws LuminosException		Checks if GLFW has been initialized
 	 */
 	public void start() throws Exception {
-		if(glfwInit()) {
-			delta = GLFW.glfwGetTime();
+		if(headless || glfwInit()) {
+			delta = getTime();
 		} else {
 			throw new Exception("GLFW NOT INITIALISED");
 		}
@@ -690,8 +802,8 @@ class FrameRateCounter {
 	 * @throws LuminosException		Checks if GLFW has been initialized
 	 */
 	public void calculate() throws Exception {
-		if(glfwInit()) {
-			end = GLFW.glfwGetTime();
+		if(headless || glfwInit()) {
+			end = getTime();
 		} else {
 			throw new Exception("GLFW NOT INITIALISED");
 		}
@@ -699,7 +811,7 @@ class FrameRateCounter {
 		if(end - start >= 1) {
 			fps = frames;
 			frames = 0;
-			start = GLFW.glfwGetTime();
+			start = getTime();
 			System.out.println(fps);
 		}
 		frames++;
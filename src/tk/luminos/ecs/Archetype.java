@@ -0,0 +1,209 @@
+package tk.luminos.ecs;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Group of entities sharing the same set of component types.  Components
+ * are stored in one packed column per type, so iterating a type touches a
+ * single contiguous array.  Rows are kept dense by moving the last row into
+ * any removed row.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public final class Archetype {
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	private final BitSet signature;
+	private final int[] types;
+	private final int[] columnOf;
+	private Object[][] columns;
+	private int[] entities;
+	private int size = 0;
+	
+	final Map<Integer, Archetype> addEdges = new HashMap<Integer, Archetype>();
+	final Map<Integer, Archetype> removeEdges = new HashMap<Integer, Archetype>();
+	
+	/**
+	 * Creates an archetype for a signature
+	 * 
+	 * @param signature		Ids of the component types held by the archetype
+	 */
+	Archetype(BitSet signature) {
+		this.signature = (BitSet) signature.clone();
+		this.types = signature.stream().toArray();
+		this.columnOf = new int[signature.length()];
+		for (int i = 0; i < columnOf.length; i++)
+			columnOf[i] = -1;
+		for (int i = 0; i < types.length; i++)
+			columnOf[types[i]] = i;
+		this.columns = new Object[types.length][INITIAL_CAPACITY];
+		this.entities = new int[INITIAL_CAPACITY];
+	}
+	
+	/**
+	 * Gets the number of entities in the archetype
+	 * 
+	 * @return		Number of rows
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Gets the entity stored in each row.  Only the first {@link #size()}
+	 * entries are valid.
+	 * 
+	 * @return		Entities by row
+	 */
+	public int[] getEntities() {
+		return entities;
+	}
+	
+	/**
+	 * Gets the entity stored in a row
+	 * 
+	 * @param row		Row index
+	 * @return			Entity
+	 */
+	public int getEntity(int row) {
+		return entities[row];
+	}
+	
+	/**
+	 * Checks if the archetype holds a component type
+	 * 
+	 * @param type		Component type
+	 * @return			If the type is part of the signature
+	 */
+	public boolean has(ComponentType<?> type) {
+		return type.getId() < columnOf.length && columnOf[type.getId()] >= 0;
+	}
+	
+	/**
+	 * Gets the packed column of a component type.  Only the first
+	 * {@link #size()} entries are valid, and the array is replaced when the
+	 * archetype grows.
+	 * 
+	 * @param type		Component type
+	 * @return			Components by row
+	 * @throws IllegalArgumentException		Thrown if the archetype does not hold the type
+	 */
+	public Object[] getColumn(ComponentType<?> type) {
+		return columns[column(type)];
+	}
+	
+	/**
+	 * Gets the component of a row
+	 * 
+	 * @param type		Component type
+	 * @param row		Row index
+	 * @return			Component
+	 */
+	public <T> T get(ComponentType<T> type, int row) {
+		return type.getType().cast(columns[column(type)][row]);
+	}
+	
+	/**
+	 * Sets the component of a row
+	 * 
+	 * @param type		Component type
+	 * @param row		Row index
+	 * @param value		Component
+	 */
+	public <T> void set(ComponentType<T> type, int row, T value) {
+		columns[column(type)][row] = value;
+	}
+	
+	/**
+	 * Gets the signature of the archetype
+	 * 
+	 * @return		Copy of the component type ids
+	 */
+	public BitSet getSignature() {
+		return (BitSet) signature.clone();
+	}
+	
+	/**
+	 * Gets the number of component types in the archetype
+	 * 
+	 * @return		Number of columns
+	 */
+	public int getTypeCount() {
+		return types.length;
+	}
+	
+//***********************************Package Methods*******************************************//
+	
+	boolean matches(BitSet required) {
+		BitSet missing = (BitSet) required.clone();
+		missing.andNot(signature);
+		return missing.isEmpty();
+	}
+	
+	BitSet signature() {
+		return signature;
+	}
+	
+	int add(int entity) {
+		if (size == entities.length) {
+			int capacity = entities.length * 2;
+			int[] entities = new int[capacity];
+			System.arraycopy(this.entities, 0, entities, 0, size);
+			this.entities = entities;
+			for (int i = 0; i < columns.length; i++) {
+				Object[] column = new Object[capacity];
+				System.arraycopy(columns[i], 0, column, 0, size);
+				columns[i] = column;
+			}
+		}
+		entities[size] = entity;
+		return size++;
+	}
+	
+	/**
+	 * Removes a row by moving the last row into it
+	 * 
+	 * @param row		Row to remove
+	 * @return			Entity moved into the row, or -1 if the last row was removed
+	 */
+	int remove(int row) {
+		int last = --size;
+		int moved = -1;
+		if (row != last) {
+			moved = entities[last];
+			entities[row] = moved;
+			for (Object[] column : columns)
+				column[row] = column[last];
+		}
+		for (Object[] column : columns)
+			column[last] = null;
+		return moved;
+	}
+	
+	/**
+	 * Copies the components shared with another archetype from one row into
+	 * a row of the other archetype
+	 */
+	void copyRow(int row, Archetype dest, int destRow) {
+		for (int i = 0; i < types.length; i++) {
+			int type = types[i];
+			if (type < dest.columnOf.length && dest.columnOf[type] >= 0)
+				dest.columns[dest.columnOf[type]][destRow] = columns[i][row];
+		}
+	}
+	
+//***********************************Private Methods*******************************************//
+	
+	private int column(ComponentType<?> type) {
+		int id = type.getId();
+		int column = id < columnOf.length ? columnOf[id] : -1;
+		if (column < 0)
+			throw new IllegalArgumentException("Archetype does not hold " + type);
+		return column;
+	}
+
+}
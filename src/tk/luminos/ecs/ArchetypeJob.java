@@ -0,0 +1,20 @@
+package tk.luminos.ecs;
+
+/**
+ * Job executed over a contiguous range of rows of an archetype
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public interface ArchetypeJob {
+	
+	/**
+	 * Executes the job over a range of rows
+	 * 
+	 * @param archetype		Archetype holding the rows
+	 * @param start			First row of the range, inclusive
+	 * @param end			Last row of the range, exclusive
+	 */
+	public void execute(Archetype archetype, int start, int end);
+
+}
@@ -0,0 +1,76 @@
+package tk.luminos.ecs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Integer identifier of a component class.  Every class maps to exactly one
+ * type, and ids are assigned densely from zero so they can index arrays
+ * and bit sets.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ * 
+ * @param <T>		Component class
+ */
+public final class ComponentType<T> {
+	
+	private static final Map<Class<?>, ComponentType<?>> types = new ConcurrentHashMap<Class<?>, ComponentType<?>>();
+	private static final AtomicInteger next = new AtomicInteger();
+	
+	private final int id;
+	private final Class<T> type;
+	
+	private ComponentType(int id, Class<T> type) {
+		this.id = id;
+		this.type = type;
+	}
+	
+	/**
+	 * Gets the component type of a class, registering it on first use
+	 * 
+	 * @param type		Component class
+	 * @return			Component type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ComponentType<T> of(Class<T> type) {
+		ComponentType<?> result = types.get(type);
+		if (result == null)
+			result = types.computeIfAbsent(type, t -> new ComponentType<T>(next.getAndIncrement(), type));
+		return (ComponentType<T>) result;
+	}
+	
+	/**
+	 * Gets the number of registered component types
+	 * 
+	 * @return		Number of types
+	 */
+	public static int getCount() {
+		return next.get();
+	}
+	
+	/**
+	 * Gets the id of the type
+	 * 
+	 * @return		Dense integer id
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	/**
+	 * Gets the component class
+	 * 
+	 * @return		Component class
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+	
+	@Override
+	public String toString() {
+		return type.getSimpleName() + "#" + id;
+	}
+
+}
@@ -0,0 +1,98 @@
+package tk.luminos.ecs;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
+
+/**
+ * Iterates every entity of a world holding a set of component types.  The
+ * matching archetypes are cached and only new archetypes are tested on each
+ * iteration.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class Query {
+	
+	private final World world;
+	private final BitSet required;
+	private final List<Archetype> matches = new ArrayList<Archetype>();
+	private int checked = 0;
+	
+	Query(World world, BitSet required) {
+		this.world = world;
+		this.required = required;
+	}
+	
+	/**
+	 * Gets the archetypes matching the query
+	 * 
+	 * @return		Matching archetypes
+	 */
+	public List<Archetype> getArchetypes() {
+		refresh();
+		return matches;
+	}
+	
+	/**
+	 * Counts the entities matching the query
+	 * 
+	 * @return		Number of matching entities
+	 */
+	public int count() {
+		refresh();
+		int count = 0;
+		for (int i = 0; i < matches.size(); i++)
+			count += matches.get(i).size();
+		return count;
+	}
+	
+	/**
+	 * Runs a job over every matching archetype on the calling thread
+	 * 
+	 * @param job		Job to run
+	 */
+	public void forEach(ArchetypeJob job) {
+		refresh();
+		for (int i = 0; i < matches.size(); i++) {
+			Archetype archetype = matches.get(i);
+			if (archetype.size() > 0)
+				job.execute(archetype, 0, archetype.size());
+		}
+	}
+	
+	/**
+	 * Splits every matching archetype into batches and runs a job per batch
+	 * across the job system, waiting for all of them to finish.  The world
+	 * must not be modified until this returns.
+	 * 
+	 * @param batchSize		Maximum number of rows per job
+	 * @param job			Job to run
+	 */
+	public void parallelForEach(int batchSize, ArchetypeJob job) {
+		refresh();
+		JobSystem jobs = JobSystem.getInstance();
+		JobCounter counter = new JobCounter();
+		for (int i = 0; i < matches.size(); i++) {
+			Archetype archetype = matches.get(i);
+			if (archetype.size() > 0)
+				jobs.parallelFor(archetype.size(), batchSize, (start, end) -> job.execute(archetype, start, end), counter, null);
+		}
+		jobs.waitFor(counter);
+	}
+	
+//***********************************Private Methods*******************************************//
+	
+	private void refresh() {
+		int count = world.getArchetypeCount();
+		for (; checked < count; checked++) {
+			Archetype archetype = world.getArchetype(checked);
+			if (archetype.matches(required))
+				matches.add(archetype);
+		}
+	}
+
+}
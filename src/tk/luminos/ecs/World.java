@@ -0,0 +1,242 @@
+package tk.luminos.ecs;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Archetype based entity storage.  Entities are integer ids; each entity
+ * lives in the archetype matching its set of component types, and moves
+ * between archetypes as components are added and removed.  A world must
+ * only be modified from one thread at a time, though queries may iterate
+ * it across the job system.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class World {
+	
+	private final List<Archetype> archetypes = new ArrayList<Archetype>();
+	private final Map<BitSet, Archetype> bySignature = new HashMap<BitSet, Archetype>();
+	private final Archetype empty;
+	
+	private Archetype[] entityArchetype = new Archetype[64];
+	private int[] entityRow = new int[64];
+	private int[] free = new int[64];
+	private int freeCount = 0;
+	private int next = 0;
+	private int count = 0;
+	
+	/**
+	 * Creates an empty world
+	 */
+	public World() {
+		empty = archetype(new BitSet());
+	}
+	
+	/**
+	 * Creates an entity with no components
+	 * 
+	 * @return		Entity id
+	 */
+	public int create() {
+		int entity;
+		if (freeCount > 0)
+			entity = free[--freeCount];
+		else {
+			if (next == entityArchetype.length)
+				grow(next * 2);
+			entity = next++;
+		}
+		entityArchetype[entity] = empty;
+		entityRow[entity] = empty.add(entity);
+		count++;
+		return entity;
+	}
+	
+	/**
+	 * Destroys an entity and all of its components
+	 * 
+	 * @param entity		Entity id
+	 */
+	public void destroy(int entity) {
+		Archetype archetype = archetypeOf(entity);
+		removeRow(archetype, entityRow[entity]);
+		entityArchetype[entity] = null;
+		free[freeCount++] = entity;
+		count--;
+	}
+	
+	/**
+	 * Checks if an entity exists
+	 * 
+	 * @param entity		Entity id
+	 * @return				If the entity has been created and not destroyed
+	 */
+	public boolean isAlive(int entity) {
+		return entity >= 0 && entity < next && entityArchetype[entity] != null;
+	}
+	
+	/**
+	 * Gets the number of live entities
+	 * 
+	 * @return		Number of entities
+	 */
+	public int getEntityCount() {
+		return count;
+	}
+	
+	/**
+	 * Adds or replaces a component of an entity
+	 * 
+	 * @param entity		Entity id
+	 * @param type			Component type
+	 * @param value			Component
+	 */
+	public <T> void add(int entity, ComponentType<T> type, T value) {
+		Archetype source = archetypeOf(entity);
+		if (source.has(type)) {
+			source.set(type, entityRow[entity], value);
+			return;
+		}
+		Archetype dest = source.addEdges.get(type.getId());
+		if (dest == null) {
+			BitSet signature = (BitSet) source.signature().clone();
+			signature.set(type.getId());
+			dest = archetype(signature);
+			source.addEdges.put(type.getId(), dest);
+		}
+		int row = move(entity, source, dest);
+		dest.set(type, row, value);
+	}
+	
+	/**
+	 * Removes a component from an entity
+	 * 
+	 * @param entity		Entity id
+	 * @param type			Component type
+	 * @return				Removed component, or null if the entity did not have one
+	 */
+	public <T> T remove(int entity, ComponentType<T> type) {
+		Archetype source = archetypeOf(entity);
+		if (!source.has(type))
+			return null;
+		T value = source.get(type, entityRow[entity]);
+		Archetype dest = source.removeEdges.get(type.getId());
+		if (dest == null) {
+			BitSet signature = (BitSet) source.signature().clone();
+			signature.clear(type.getId());
+			dest = archetype(signature);
+			source.removeEdges.put(type.getId(), dest);
+		}
+		move(entity, source, dest);
+		return value;
+	}
+	
+	/**
+	 * Gets a component of an entity
+	 * 
+	 * @param entity		Entity id
+	 * @param type			Component type
+	 * @return				Component, or null if the entity does not have one
+	 */
+	public <T> T get(int entity, ComponentType<T> type) {
+		Archetype archetype = archetypeOf(entity);
+		if (!archetype.has(type))
+			return null;
+		return archetype.get(type, entityRow[entity]);
+	}
+	
+	/**
+	 * Checks if an entity has a component
+	 * 
+	 * @param entity		Entity id
+	 * @param type			Component type
+	 * @return				If the entity has the component
+	 */
+	public boolean has(int entity, ComponentType<?> type) {
+		return archetypeOf(entity).has(type);
+	}
+	
+	/**
+	 * Creates a query over every entity holding all of the given types
+	 * 
+	 * @param types			Required component types
+	 * @return				Query
+	 */
+	public Query query(ComponentType<?>... types) {
+		BitSet required = new BitSet();
+		for (ComponentType<?> type : types)
+			required.set(type.getId());
+		return new Query(this, required);
+	}
+	
+	/**
+	 * Gets every archetype created so far, in creation order
+	 * 
+	 * @return		Unmodifiable list of archetypes
+	 */
+	public List<Archetype> getArchetypes() {
+		return Collections.unmodifiableList(archetypes);
+	}
+	
+//***********************************Package Methods*******************************************//
+	
+	int getArchetypeCount() {
+		return archetypes.size();
+	}
+	
+	Archetype getArchetype(int index) {
+		return archetypes.get(index);
+	}
+	
+//***********************************Private Methods*******************************************//
+	
+	private Archetype archetypeOf(int entity) {
+		if (!isAlive(entity))
+			throw new IllegalArgumentException("Entity " + entity + " does not exist");
+		return entityArchetype[entity];
+	}
+	
+	private Archetype archetype(BitSet signature) {
+		Archetype archetype = bySignature.get(signature);
+		if (archetype == null) {
+			archetype = new Archetype(signature);
+			bySignature.put(archetype.signature(), archetype);
+			archetypes.add(archetype);
+		}
+		return archetype;
+	}
+	
+	private int move(int entity, Archetype source, Archetype dest) {
+		int sourceRow = entityRow[entity];
+		int row = dest.add(entity);
+		source.copyRow(sourceRow, dest, row);
+		removeRow(source, sourceRow);
+		entityArchetype[entity] = dest;
+		entityRow[entity] = row;
+		return row;
+	}
+	
+	private void removeRow(Archetype archetype, int row) {
+		int moved = archetype.remove(row);
+		if (moved >= 0)
+			entityRow[moved] = row;
+	}
+	
+	private void grow(int capacity) {
+		Archetype[] entityArchetype = new Archetype[capacity];
+		System.arraycopy(this.entityArchetype, 0, entityArchetype, 0, next);
+		this.entityArchetype = entityArchetype;
+		int[] entityRow = new int[capacity];
+		System.arraycopy(this.entityRow, 0, entityRow, 0, next);
+		this.entityRow = entityRow;
+		int[] free = new int[capacity];
+		System.arraycopy(this.free, 0, free, 0, freeCount);
+		this.free = free;
+	}
+
+}
@@ -0,0 +1,147 @@
+package tk.luminos.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tk.luminos.profiler.Profiler;
+
+/**
+ * 
+ * Typed publish/subscribe event bus.  Listeners subscribe to an event
+ * class and receive every event of that class or any subclass.  Events
+ * may be published from any thread; they are queued and delivered in
+ * order on the thread that calls {@link #drain()}, which is the game
+ * thread once per frame.  {@link #dispatch(Object)} delivers immediately
+ * on the calling thread.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+
+public class EventBus {
+	
+	private static final EventListener<?>[] NO_LISTENERS = new EventListener<?>[0];
+	private static final int PROFILE_DRAIN = Profiler.register("EventBus.drain");
+	
+	private final Map<Class<?>, List<EventListener<?>>> subscriptions = new ConcurrentHashMap<Class<?>, List<EventListener<?>>>();
+	private final Map<Class<?>, EventListener<?>[]> resolved = new ConcurrentHashMap<Class<?>, EventListener<?>[]>();
+	private final AtomicInteger version = new AtomicInteger();
+	private final MPSCQueue<Object> queue = new MPSCQueue<Object>();
+	private final EventListener<Object> dispatcher = this::dispatch;
+	
+	/**
+	 * Subscribes a listener to events of a type and its subtypes
+	 * 
+	 * @param type			Class of event to receive
+	 * @param listener		Listener to notify
+	 * @return				The listener, for later unsubscription
+	 */
+	public <T> EventListener<? super T> subscribe(Class<T> type, EventListener<? super T> listener) {
+		subscriptions.computeIfAbsent(type, k -> new CopyOnWriteArrayList<EventListener<?>>()).add(listener);
+		version.incrementAndGet();
+		resolved.clear();
+		return listener;
+	}
+	
+	/**
+	 * Removes a listener from events of a type
+	 * 
+	 * @param type			Class of event the listener was subscribed to
+	 * @param listener		Listener to remove
+	 * @return				If the listener was subscribed
+	 */
+	public boolean unsubscribe(Class<?> type, EventListener<?> listener) {
+		List<EventListener<?>> listeners = subscriptions.get(type);
+		if (listeners == null || !listeners.remove(listener))
+			return false;
+		version.incrementAndGet();
+		resolved.clear();
+		return true;
+	}
+	
+	/**
+	 * Queues an event for delivery on the next {@link #drain()}.  Safe to
+	 * call from any thread.
+	 * 
+	 * @param event		Event to publish
+	 */
+	public void publish(Object event) {
+		queue.offer(event);
+	}
+	
+	/**
+	 * Delivers an event to its listeners immediately on the calling thread
+	 * 
+	 * @param event		Event to deliver
+	 */
+	@SuppressWarnings("unchecked")
+	public void dispatch(Object event) {
+		for (EventListener<?> listener : getListeners(event.getClass()))
+			((EventListener<Object>) listener).handle(event);
+	}
+	
+	/**
+	 * Delivers every event queued before the call.  Events published by
+	 * listeners during the drain are delivered on the following drain.
+	 * 
+	 * @return		Number of events delivered
+	 */
+	public int drain() {
+		if (queue.isEmpty())
+			return 0;
+		Profiler.begin(PROFILE_DRAIN);
+		try {
+			return queue.drain(dispatcher);
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	/**
+	 * Checks if any listener would receive events of a type
+	 * 
+	 * @param type		Class of event
+	 * @return			If the type has listeners
+	 */
+	public boolean hasListeners(Class<?> type) {
+		return getListeners(type).length != 0;
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private EventListener<?>[] getListeners(Class<?> type) {
+		EventListener<?>[] listeners = resolved.get(type);
+		if (listeners == null) {
+			int current = version.get();
+			listeners = resolve(type);
+			resolved.put(type, listeners);
+			if (version.get() != current)
+				resolved.remove(type);
+		}
+		return listeners;
+	}
+	
+	private EventListener<?>[] resolve(Class<?> type) {
+		List<EventListener<?>> listeners = new ArrayList<EventListener<?>>();
+		collect(type, listeners, new ArrayList<Class<?>>());
+		return listeners.isEmpty() ? NO_LISTENERS : listeners.toArray(NO_LISTENERS);
+	}
+	
+	private void collect(Class<?> type, List<EventListener<?>> listeners, List<Class<?>> visited) {
+		if (type == null || visited.contains(type))
+			return;
+		visited.add(type);
+		List<EventListener<?>> subscribed = subscriptions.get(type);
+		if (subscribed != null)
+			listeners.addAll(subscribed);
+		for (Class<?> inter : type.getInterfaces())
+			collect(inter, listeners, visited);
+		collect(type.getSuperclass(), listeners, visited);
+	}
+
+}
@@ -0,0 +1,22 @@
+package tk.luminos.events;
+
+/**
+ * 
+ * Receives events of a given type from an {@link EventBus}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of event handled
+ */
+@FunctionalInterface
+public interface EventListener<T> {
+	
+	/**
+	 * Handles an event published to the bus
+	 * 
+	 * @param event		Event to handle
+	 */
+	public void handle(T event);
+
+}
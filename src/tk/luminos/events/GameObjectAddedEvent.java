@@ -0,0 +1,27 @@
+package tk.luminos.events;
+
+import tk.luminos.Scene;
+import tk.luminos.gameobjects.GameObject;
+
+/**
+ * 
+ * Published when a game object is added to a {@link Scene}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class GameObjectAddedEvent extends GameObjectEvent {
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param scene		Scene the object was added to
+	 * @param object	Object added
+	 * @param handle	Handle of the object in the scene
+	 */
+	public GameObjectAddedEvent(Scene scene, GameObject object, long handle) {
+		super(scene, object, handle);
+	}
+
+}
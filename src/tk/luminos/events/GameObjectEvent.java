@@ -0,0 +1,62 @@
+package tk.luminos.events;
+
+import tk.luminos.Scene;
+import tk.luminos.gameobjects.GameObject;
+
+/**
+ * 
+ * Base of the events published when the game objects of a {@link Scene}
+ * change.  Subscribing to this class receives every such event.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public abstract class GameObjectEvent {
+	
+	private final Scene scene;
+	private final GameObject object;
+	private final long handle;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param scene		Scene the object belongs to
+	 * @param object	Object that changed
+	 * @param handle	Handle of the object in the scene
+	 */
+	protected GameObjectEvent(Scene scene, GameObject object, long handle) {
+		this.scene = scene;
+		this.object = object;
+		this.handle = handle;
+	}
+	
+	/**
+	 * Gets the scene the object belongs to
+	 * 
+	 * @return		Scene of the object
+	 */
+	public Scene getScene() {
+		return scene;
+	}
+	
+	/**
+	 * Gets the object that changed
+	 * 
+	 * @return		Game object
+	 */
+	public GameObject getObject() {
+		return object;
+	}
+	
+	/**
+	 * Gets the handle of the object in the scene.  Handles of removed
+	 * objects are stale.
+	 * 
+	 * @return		Handle of the object
+	 */
+	public long getHandle() {
+		return handle;
+	}
+
+}
@@ -0,0 +1,27 @@
+package tk.luminos.events;
+
+import tk.luminos.Scene;
+import tk.luminos.gameobjects.GameObject;
+
+/**
+ * 
+ * Published when a game object is removed from a {@link Scene}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class GameObjectRemovedEvent extends GameObjectEvent {
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param scene		Scene the object was removed from
+	 * @param object	Object removed
+	 * @param handle	Handle the object had in the scene
+	 */
+	public GameObjectRemovedEvent(Scene scene, GameObject object, long handle) {
+		super(scene, object, handle);
+	}
+
+}
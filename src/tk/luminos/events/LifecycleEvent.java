@@ -0,0 +1,52 @@
+package tk.luminos.events;
+
+/**
+ * 
+ * Delivered immediately when the application's frame loop starts and when
+ * it stops
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class LifecycleEvent {
+	
+	/**
+	 * Stages of the application's life
+	 */
+	public enum Stage {
+		
+		/**
+		 * The frame loop is about to run its first frame
+		 */
+		STARTED,
+		
+		/**
+		 * The frame loop has run its last frame and the application is
+		 * about to close
+		 */
+		CLOSING
+		
+	}
+	
+	private final Stage stage;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param stage		Stage the application reached
+	 */
+	public LifecycleEvent(Stage stage) {
+		this.stage = stage;
+	}
+	
+	/**
+	 * Gets the stage the application reached
+	 * 
+	 * @return		Stage of the application
+	 */
+	public Stage getStage() {
+		return stage;
+	}
+
+}
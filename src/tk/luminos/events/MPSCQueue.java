@@ -0,0 +1,107 @@
+package tk.luminos.events;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 
+ * Unbounded lock-free queue that may be offered to from any number of
+ * threads but must only be polled from a single thread.  Producers
+ * contend on a single atomic swap of the tail; the consumer never
+ * contends with producers.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of element held
+ */
+public class MPSCQueue<T> {
+	
+	private final AtomicReference<Node<T>> tail;
+	private Node<T> head;
+	
+	/**
+	 * Constructor
+	 */
+	public MPSCQueue() {
+		head = new Node<T>(null);
+		tail = new AtomicReference<Node<T>>(head);
+	}
+	
+	/**
+	 * Adds an element to the queue.  Safe to call from any thread.
+	 * 
+	 * @param value		Element to add
+	 */
+	public void offer(T value) {
+		if (value == null)
+			throw new NullPointerException("Queue does not accept null elements");
+		Node<T> node = new Node<T>(value);
+		Node<T> previous = tail.getAndSet(node);
+		previous.next = node;
+	}
+	
+	/**
+	 * Removes the oldest element of the queue.  Must only be called from
+	 * the consuming thread.  An element whose producer has not yet finished
+	 * linking it may be missed, in which case it is returned by a later poll.
+	 * 
+	 * @return		Oldest element, or null if none is available
+	 */
+	public T poll() {
+		Node<T> next = head.next;
+		if (next == null)
+			return null;
+		T value = next.value;
+		next.value = null;
+		head = next;
+		return value;
+	}
+	
+	/**
+	 * Removes the elements that were in the queue when the call began and
+	 * passes them to the listener in order.  Elements offered while
+	 * draining, including by the listener itself, are left for the next
+	 * drain.  Must only be called from the consuming thread.
+	 * 
+	 * @param listener		Receives each element
+	 * @return				Number of elements drained
+	 */
+	public int drain(EventListener<? super T> listener) {
+		Node<T> last = tail.get();
+		int count = 0;
+		while (head != last) {
+			Node<T> next = head.next;
+			if (next == null)
+				break;
+			T value = next.value;
+			next.value = null;
+			head = next;
+			count++;
+			listener.handle(value);
+		}
+		return count;
+	}
+	
+	/**
+	 * Checks if the queue has no elements available to the consumer
+	 * 
+	 * @return		If the queue is empty
+	 */
+	public boolean isEmpty() {
+		return head.next == null;
+	}
+	
+//**************************************Node Class*******************************************//
+	
+	private static class Node<T> {
+		
+		private T value;
+		private volatile Node<T> next;
+		
+		private Node(T value) {
+			this.value = value;
+		}
+		
+	}
+
+}
@@ -0,0 +1,47 @@
+package tk.luminos.events;
+
+import tk.luminos.Scene;
+
+/**
+ * 
+ * Published when the application switches the scene it renders
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class SceneChangedEvent {
+	
+	private final Scene previous;
+	private final Scene current;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param previous		Scene rendered before, or null
+	 * @param current		Scene rendered from now on, or null
+	 */
+	public SceneChangedEvent(Scene previous, Scene current) {
+		this.previous = previous;
+		this.current = current;
+	}
+	
+	/**
+	 * Gets the scene rendered before the change
+	 * 
+	 * @return		Previous scene, or null
+	 */
+	public Scene getPrevious() {
+		return previous;
+	}
+	
+	/**
+	 * Gets the scene rendered from now on
+	 * 
+	 * @return		Current scene, or null
+	 */
+	public Scene getCurrent() {
+		return current;
+	}
+
+}
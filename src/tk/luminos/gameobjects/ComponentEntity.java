@@ -1,17 +1,38 @@
 package tk.luminos.gameobjects;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Creates a new component based entity
+ * Creates a new component based entity.  Component names are mapped once
+ * to dense integer ids and components are stored in an array indexed by
+ * id, so hot paths can look up components with {@link #getComponent(int)}
+ * instead of hashing a string.
  * 
  * @author Nick Clark 
  * @version 1.0
  */
 public abstract class ComponentEntity implements Renderable {
 	
-	protected Map<String, Component<?>> components = new HashMap<String, Component<?>>();
+	private static final Map<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+	private static final AtomicInteger nextId = new AtomicInteger();
+	private static final Component<?>[] EMPTY = new Component<?>[0];
+	
+	protected Component<?>[] components = EMPTY;
+	
+	/**
+	 * Gets the id of a component name, registering it on first use
+	 * 
+	 * @param name		name of component
+	 * @return			id of component
+	 */
+	public static int getComponentId(String name) {
+		Integer id = ids.get(name);
+		if (id == null)
+			id = ids.computeIfAbsent(name, n -> nextId.getAndIncrement());
+		return id;
+	}
 	
 	/**
 	 * Get the component corresponding to the given name
@@ -21,7 +42,18 @@ public abstract class ComponentEntity implements Renderable {
 	 */
 	public final Component<?> getComponent(String name)
 	{
-		return components.get(name);
+		return getComponent(getComponentId(name));
+	}
+	
+	/**
+	 * Get the component corresponding to the given id
+	 * 
+	 * @param id		id of component
+	 * @return			value of component
+	 */
+	public final Component<?> getComponent(int id)
+	{
+		return id < components.length ? components[id] : null;
 	}
 	
 	/**
@@ -32,7 +64,23 @@ public abstract class ComponentEntity implements Renderable {
 	 */
 	public final void addComponent(String name, Component<?> value)
 	{
-		components.put(name, value);
+		addComponent(getComponentId(name), value);
+	}
+	
+	/**
+	 * Adds a component to the entity
+	 * 
+	 * @param id		id of component
+	 * @param value		Value of component
+	 */
+	public final void addComponent(int id, Component<?> value)
+	{
+		if (id >= components.length) {
+			Component<?>[] components = new Component<?>[id + 1];
+			System.arraycopy(this.components, 0, components, 0, this.components.length);
+			this.components = components;
+		}
+		components[id] = value;
 	}
 	
 	/**
@@ -43,7 +91,22 @@ public abstract class ComponentEntity implements Renderable {
 	 */
 	public final Component<?> remove(String name)
 	{
-		return components.remove(name);
+		return remove(getComponentId(name));
+	}
+	
+	/**
+	 * Removes the component corresponding to the given id
+	 * 
+	 * @param id		id of component
+	 * @return			value of component
+	 */
+	public final Component<?> remove(int id)
+	{
+		if (id >= components.length)
+			return null;
+		Component<?> value = components[id];
+		components[id] = null;
+		return value;
 	}
 
 }
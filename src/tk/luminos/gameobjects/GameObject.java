@@ -1,17 +1,25 @@
 package tk.luminos.gameobjects;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import tk.luminos.events.MPSCQueue;
 import tk.luminos.graphics.SceneObject;
 import tk.luminos.graphics.models.TexturedModel;
+import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Quaternion;
 import tk.luminos.maths.Vector3;
 import tk.luminos.serialization.DBObject;
 import tk.luminos.serialization.DBObjectType;
 import tk.luminos.serialization.Serializable;
+import tk.luminos.util.SlotMap;
 
 /**
  * 
- * Base class for game objects
+ * Base class for game objects.  Objects form a hierarchy: the world matrix
+ * of a child is the world matrix of its parent multiplied by its own local
+ * transformation.  World transforms are cached and only recomputed when the
+ * object or one of its ancestors changes.
  * 
  * @author Nick Clark
  * @version 1.0
@@ -20,13 +28,34 @@ import tk.luminos.serialization.Serializable;
 
 public class GameObject extends ComponentEntity implements Serializable<DBObject>, SceneObject {
 	
+	private static final int MODEL = getComponentId("model");
+	
+	/**
+	 * Bounding radius given to objects that do not set one
+	 */
+	public static final float DEFAULT_BOUNDING_RADIUS = 10;
+	
 	private boolean isRenderable;
 	private float renderDistance;
 	private Transformation transform;
 	private String id = "DEFAULT";
+	private int entity = -1;
+	private long handle = SlotMap.NULL_HANDLE;
+	private int proxy = -1;
+	private float boundingRadius = DEFAULT_BOUNDING_RADIUS;
 	
 	private List<GameObject> children = null;
 	private GameObject parent = null;
+	
+	private final Matrix4 worldMatrix = new Matrix4();
+	private Vector3 worldPosition;
+	private Vector3 worldRotation;
+	private Quaternion worldOrientation;
+	private Quaternion localOrientation;
+	private boolean worldDirty = true;
+	private boolean worldRotationStale = false;
+	private MPSCQueue<GameObject> moved;
+	private volatile boolean movedQueued = false;
 		
 	/**
 	 * Creates new game object
@@ -37,7 +66,7 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @param scale		scale of object
 	 */
 	public GameObject(TexturedModel model, Vector3 position, Vector3 rotation, Vector3 scale) {
-		this.addComponent("model", new Model(model));
+		this.addComponent(MODEL, new Model(model));
 		transform = new Transformation(position, rotation, scale);
 		transform.constructModelMatrix();
 		isRenderable = true;
@@ -53,11 +82,30 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @param children	children of object
 	 */
 	public GameObject(TexturedModel model, Vector3 position, Vector3 rotation, Vector3 scale, List<GameObject> children) {
-		this.addComponent("model", new Model(model));
+		this.addComponent(MODEL, new Model(model));
 		transform = new Transformation(position, rotation, scale);
 		transform.constructModelMatrix();
 		isRenderable = true;
 		this.children = children;
+		if (children != null) {
+			for (GameObject child : children)
+				child.parent = this;
+		}
+	}
+	
+	/**
+	 * Creates new game object whose transform is held in a transform store
+	 * 
+	 * @param model		model to render
+	 * @param store		store holding the transform
+	 * @param position	position of object
+	 * @param rotation	rotation of object
+	 * @param scale		scale of object
+	 */
+	public GameObject(TexturedModel model, TransformStore store, Vector3 position, Vector3 rotation, Vector3 scale) {
+		this.addComponent(MODEL, new Model(model));
+		transform = new Transformation(store, position, rotation, scale);
+		isRenderable = true;
 	}
 	
 	/**
@@ -66,8 +114,8 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @param position	new position
 	 */
 	public final void setPosition(Vector3 position) {
-		transform.position = position;
-		transform.constructModelMatrix();
+		transform.setPosition(position);
+		markDirty();
 	}
 	
 	/**
@@ -76,8 +124,28 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @param rotation	new rotation
 	 */
 	public final void setRotation(Vector3 rotation) {
-		transform.rotation = rotation;
-		transform.constructModelMatrix();
+		transform.setRotation(rotation);
+		markDirty();
+	}
+	
+	/**
+	 * Sets rotation of object as a unit quaternion
+	 * 
+	 * @param orientation	new rotation
+	 */
+	public final void setOrientation(Quaternion orientation) {
+		transform.setOrientation(orientation);
+		markDirty();
+	}
+	
+	/**
+	 * Gets the local rotation of object as a quaternion
+	 * 
+	 * @param dest		quaternion to store the rotation in
+	 * @return			destination quaternion
+	 */
+	public final Quaternion getOrientation(Quaternion dest) {
+		return transform.getOrientation(dest);
 	}
 	
 	/**
@@ -86,12 +154,39 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @param scale		new scale
 	 */
 	public final void setScale(Vector3 scale) {
-		transform.scale = scale;
-		transform.constructModelMatrix();
+		transform.setScale(scale);
+		markDirty();
+	}
+	
+	/**
+	 * Sets position, rotation and scale of object, rebuilding the model
+	 * matrix once
+	 * 
+	 * @param position	new position
+	 * @param rotation	new rotation
+	 * @param scale		new scale
+	 */
+	public final void setTransformation(Vector3 position, Vector3 rotation, Vector3 scale) {
+		transform.set(position, rotation, scale);
+		markDirty();
+	}
+	
+	/**
+	 * Sets position, orientation and scale of object, rebuilding the model
+	 * matrix once
+	 * 
+	 * @param position		new position
+	 * @param orientation	new rotation
+	 * @param scale			new scale
+	 */
+	public final void setTransformation(Vector3 position, Quaternion orientation, Vector3 scale) {
+		transform.set(position, orientation, scale);
+		markDirty();
 	}
 	
 	/**
-	 * Gets the model matrix
+	 * Gets the local transformation.  Changes made directly to the
+	 * transformation must be followed by {@link #markDirty()}.
 	 * 
 	 * @return	model matrix
 	 */
@@ -99,37 +194,123 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 		return transform;
 	}
 	
+	/**
+	 * Gets the cached world matrix, recomputing it if the object or one of
+	 * its ancestors has changed
+	 * 
+	 * @return	world matrix
+	 */
+	public final Matrix4 getWorldMatrix() {
+		if (worldDirty)
+			computeWorldTransform();
+		return worldMatrix;
+	}
+	
+	/**
+	 * Flags the world transform of this object and all of its descendants
+	 * as out of date.  Objects in a scene are also offered once to its
+	 * queue of moved objects, whether or not their world transform has
+	 * been recomputed since they last moved.
+	 */
+	public final void markDirty() {
+		boolean queue = moved != null && !movedQueued;
+		if (worldDirty && !queue)
+			return;
+		worldDirty = true;
+		if (queue) {
+			movedQueued = true;
+			moved.offer(this);
+		}
+		if (children != null) {
+			for (GameObject child : children)
+				child.markDirty();
+		}
+	}
+	
+	/**
+	 * Checks if the world transform is out of date
+	 * 
+	 * @return	if the world transform must be recomputed
+	 */
+	public final boolean isDirty() {
+		return worldDirty;
+	}
+	
+	/**
+	 * Recomputes the world transform of this object and, top down, of all
+	 * of its descendants
+	 */
+	public final void updateWorldTransform() {
+		if (worldDirty)
+			computeWorldTransform();
+		if (children != null) {
+			for (GameObject child : children)
+				child.updateWorldTransform();
+		}
+	}
+	
 	/**
 	 * Gets model
 	 * 
 	 * @return	model
 	 */
 	public final TexturedModel getModel() {
-		return (TexturedModel) this.getComponent("model").getComponent();
+		return (TexturedModel) this.getComponent(MODEL).getComponent();
 	}
 	
 	/**
-	 * Gets transformation position
+	 * Gets world position.  The returned vector is cached and must not be
+	 * modified for objects with a parent.
 	 * 
 	 * @return	position
 	 */
 	public final Vector3 getPosition() {
 		if (parent == null)
-			return transform.position;
-		else 
-			return Vector3.add(transform.position, parent.transform.position, null);
+			return transform.getPosition();
+		getWorldMatrix();
+		return worldPosition;
+	}
+	
+	/**
+	 * Gets world position without allocating
+	 * 
+	 * @param dest	vector to store the position in
+	 * @return	position
+	 */
+	public final Vector3 getPosition(Vector3 dest) {
+		return dest.set(getPosition());
 	}
 	
 	/**
-	 * Gets transformation rotation
+	 * Gets world rotation as Euler angles, converted from
+	 * {@link #getWorldOrientation(Quaternion)}.  The returned vector is
+	 * cached and must not be modified for objects with a parent.
 	 * 
 	 * @return	rotation
 	 */
 	public final Vector3 getRotation() {
 		if (parent == null)
-			return transform.rotation;
-		else 
-			return Vector3.add(transform.rotation, parent.transform.rotation, null);
+			return transform.getRotation();
+		getWorldMatrix();
+		if (worldRotationStale) {
+			worldOrientation.toEuler(worldRotation);
+			worldRotationStale = false;
+		}
+		return worldRotation;
+	}
+	
+	/**
+	 * Gets world rotation as a quaternion, the local orientations up the
+	 * hierarchy composed from the root down
+	 * 
+	 * @param dest	quaternion to store the rotation in
+	 * @return	destination quaternion
+	 */
+	public final Quaternion getWorldOrientation(Quaternion dest) {
+		if (parent == null)
+			return transform.getOrientation(dest);
+		getWorldMatrix();
+		return dest.set(worldOrientation);
 	}
 	
 	/**
@@ -138,7 +319,7 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @return	scale
 	 */
 	public final Vector3 getScale() {
-		return transform.scale;
+		return transform.getScale();
 	}
 	
 	/**
@@ -166,6 +347,7 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 */
 	public final void setRenderDistance(float renderDistance) {
 		this.renderDistance = renderDistance;
+		markDirty();
 	}
 
 	/**
@@ -197,6 +379,103 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 		this.id = id;
 	}
 	
+	/**
+	 * Gets the radius of a sphere around the world position enclosing the
+	 * object
+	 * 
+	 * @return		bounding radius
+	 */
+	public final float getBoundingRadius() {
+		return boundingRadius;
+	}
+	
+	/**
+	 * Sets the radius of a sphere around the world position enclosing the
+	 * object
+	 * 
+	 * @param boundingRadius	new bounding radius
+	 */
+	public final void setBoundingRadius(float boundingRadius) {
+		this.boundingRadius = boundingRadius;
+		markDirty();
+	}
+	
+	/**
+	 * Gets the handle of the object in its scene
+	 * 
+	 * @return handle, or {@link SlotMap#NULL_HANDLE} if the object is not in a scene
+	 */
+	public long getHandle() {
+		return handle;
+	}
+	
+	/**
+	 * Sets the handle of the object in its scene
+	 * 
+	 * @param handle	handle
+	 */
+	public void setHandle(long handle) {
+		this.handle = handle;
+	}
+	
+	/**
+	 * Gets the proxy of the object in its scene's spatial index
+	 * 
+	 * @return proxy, or -1 if the object has not been added to a scene
+	 */
+	public int getProxy() {
+		return proxy;
+	}
+	
+	/**
+	 * Sets the proxy of the object in its scene's spatial index
+	 * 
+	 * @param proxy		proxy
+	 */
+	public void setProxy(int proxy) {
+		this.proxy = proxy;
+	}
+	
+	/**
+	 * Gets the id of the entity representing the object in its scene's
+	 * {@link tk.luminos.ecs.World}
+	 * 
+	 * @return entity id, or -1 if the object has not been added to a scene
+	 */
+	public int getEntity() {
+		return entity;
+	}
+	
+	/**
+	 * Sets the id of the entity representing the object in its scene's
+	 * {@link tk.luminos.ecs.World}
+	 * 
+	 * @param entity	entity id
+	 */
+	public void setEntity(int entity) {
+		this.entity = entity;
+	}
+	
+	/**
+	 * Sets the queue the object offers itself to the first time it moves
+	 * after being taken off it, so that its scene only updates the bounds
+	 * of objects that moved
+	 * 
+	 * @param moved		queue of moved objects, or null
+	 */
+	public void setMovedQueue(MPSCQueue<GameObject> moved) {
+		this.moved = moved;
+		this.movedQueued = false;
+	}
+	
+	/**
+	 * Lets the object offer itself to its queue of moved objects again once
+	 * it has been taken off it
+	 */
+	public void clearMoved() {
+		movedQueued = false;
+	}
+	
 	/**
 	 * Gets the children
 	 * 
@@ -218,11 +497,16 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	/**
 	 * Adds a child game object
 	 * 
-	 * @parma child		child to add
+	 * @param child		child to add
 	 */
 	public void addChild(GameObject child) {
+		if (child.parent != null)
+			child.parent.removeChild(child);
+		if (children == null)
+			children = new ArrayList<GameObject>();
 		this.children.add(child);
 		child.parent = this;
+		child.markDirty();
 	}
 	
 	/**
@@ -231,8 +515,16 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	 * @param child		child to remove
 	 */
 	public void removeChild(GameObject child) {
-		this.children.remove(child);
+		if (child.parent != this)
+			return;
+		for (int i = 0; i < children.size(); i++) {
+			if (children.get(i) == child) {
+				children.remove(i);
+				break;
+			}
+		}
 		child.parent = null;
+		child.markDirty();
 	}
 	
 	/**
@@ -259,10 +551,34 @@ public class GameObject extends ComponentEntity implements Serializable<DBObject
 	
 	public DBObject serialize(String name) {
 		DBObject object = new DBObject(name, DBObjectType.GAMEOBJECT);
-		object.addArray(transform.position.serialize("position"));
-		object.addArray(transform.rotation.serialize("rotation"));
-		object.addArray(transform.scale.serialize("scale"));
+		object.addArray(transform.getPosition().serialize("position"));
+		object.addArray(transform.getRotation().serialize("rotation"));
+		object.addArray(transform.getScale().serialize("scale"));
 		return object;
 	}
 	
+//**************************************Private Methods*******************************************//
+	
+	private void computeWorldTransform() {
+		Matrix4 local = transform.getComponent();
+		if (parent == null)
+			Matrix4.load(local, worldMatrix);
+		else {
+			Matrix4.mul(parent.getWorldMatrix(), local, worldMatrix);
+			if (worldPosition == null) {
+				worldPosition = new Vector3();
+				worldRotation = new Vector3();
+				worldOrientation = new Quaternion();
+				localOrientation = new Quaternion();
+			}
+			worldPosition.x = worldMatrix.m30;
+			worldPosition.y = worldMatrix.m31;
+			worldPosition.z = worldMatrix.m32;
+			parent.getWorldOrientation(worldOrientation);
+			Quaternion.mul(worldOrientation, transform.getOrientation(localOrientation), worldOrientation);
+			worldRotationStale = true;
+		}
+		worldDirty = false;
+	}
+	
 }
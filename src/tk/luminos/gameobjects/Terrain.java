@@ -13,7 +13,11 @@ import tk.luminos.graphics.ProceduralTerrainTexture;
 import tk.luminos.graphics.TerrainTexture;
 import tk.luminos.graphics.TerrainTexturePack;
 import tk.luminos.graphics.VertexArray;
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
 import tk.luminos.loaders.Loader;
+import tk.luminos.loaders.LuminosImage;
+import tk.luminos.maths.MathStack;
 import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Vector;
 import tk.luminos.maths.Vector2;
@@ -33,6 +37,7 @@ public class Terrain {
 	public static int VERTEX_COUNT = 32;
 	private static float MAX_HEIGHT = 40;
 	private static final float MAX_PIXEL_COLOUR = 256 * 256 * 256;
+	private static final int ROW_BATCH_SIZE = 4;
 	
 	private static Integer SIZE = Application.getValue("SIZE");
 
@@ -42,6 +47,8 @@ public class Terrain {
 	private TerrainTexturePack texturePack;
 	private TerrainTexture blendMap;
 	private boolean renderable = true;
+	private boolean ownsBlendMap = false;
+	private LuminosImage blendImage;
 	private FractalNoise noise;
 
 	private float[][] heights;
@@ -57,12 +64,30 @@ public class Terrain {
 	 * @param texturePack	Texture Pack to use
 	 */
 	public Terrain(float gridX, float gridZ, int seed, TerrainTexturePack texturePack) {
+		this(gridX, gridZ, seed, texturePack, true);
+	}
+	
+	/**
+	 * Constructor.  The heights, mesh and blend map are generated on the
+	 * calling thread.  Without upload nothing touches the GPU, so the terrain
+	 * may be generated on a background thread and {@link #upload()} called
+	 * on the GL thread before it is rendered.
+	 * 
+	 * @param gridX			Terrain Grid X Position
+	 * @param gridZ			Terrain Grid Z Position
+	 * @param seed			PerlinNoise seed
+	 * @param texturePack	Texture Pack to use
+	 * @param upload		If the mesh and blend map are uploaded right away
+	 */
+	public Terrain(float gridX, float gridZ, int seed, TerrainTexturePack texturePack, boolean upload) {
 		this.texturePack = texturePack;
 		this.x = gridX * SIZE;
 		this.z = gridZ * SIZE;
 		this.noise = new FractalNoise((int) gridX, (int) gridZ, VERTEX_COUNT, seed, TerrainType.Type.HILLS);
-		this.model = generateTerrain(noise);
-		this.blendMap = new TerrainTexture(Loader.getInstance().loadTexture(ProceduralTerrainTexture.generateTerrainMap(this)));
+		generateTerrain(noise);
+		this.blendImage = LuminosImage.loadImage(ProceduralTerrainTexture.generateTerrainMap(this), LuminosImage.Format.RGBA);
+		if (upload)
+			upload();
 	}
 
 	/**
@@ -225,14 +250,23 @@ public class Terrain {
 		float zCoord = (terrainZ % gridSquareSize)/gridSquareSize;
 		float answer;
 
-		if (xCoord <= (1-zCoord)) {
-			answer = MathUtils.barryCentric(new Vector3(0, heights[gridX][gridZ], 0), new Vector3(1,
-					heights[gridX + 1][gridZ], 0), new Vector3(0,
-							heights[gridX][gridZ + 1], 1), new Vector2(xCoord, zCoord));
-		} else {
-			answer = MathUtils.barryCentric(new Vector3(1, heights[gridX + 1][gridZ], 0), new Vector3(1,
-					heights[gridX + 1][gridZ + 1], 1), new Vector3(0,
-							heights[gridX][gridZ + 1], 1), new Vector2(xCoord, zCoord));
+		MathStack stack = MathStack.get();
+		stack.push();
+		try {
+			Vector2 pos = stack.vector2();
+			pos.x = xCoord;
+			pos.y = zCoord;
+			if (xCoord <= (1-zCoord)) {
+				answer = MathUtils.barryCentric(stack.vector3(0, heights[gridX][gridZ], 0), stack.vector3(1,
+						heights[gridX + 1][gridZ], 0), stack.vector3(0,
+								heights[gridX][gridZ + 1], 1), pos);
+			} else {
+				answer = MathUtils.barryCentric(stack.vector3(1, heights[gridX + 1][gridZ], 0), stack.vector3(1,
+						heights[gridX + 1][gridZ + 1], 1), stack.vector3(0,
+								heights[gridX][gridZ + 1], 1), pos);
+			}
+		} finally {
+			stack.pop();
 		}
 
 		return answer;
@@ -243,37 +277,36 @@ public class Terrain {
 	private int[] indices;
 
 	/**
-	 * Generates raw model of terrain
+	 * Generates heights and mesh data of terrain
 	 * 
-		 * @param noise		Fractal Noise to be used in terrain height generation
-	 * @return 			Model of terrain
+	 * @param noise		Fractal Noise to be used in terrain height generation
 	 */
-	private VertexArray generateTerrain(FractalNoise noise) {
+	private void generateTerrain(FractalNoise noise) {
 		int count = (int) Math.pow(VERTEX_COUNT, 2);
 		heights = new float[VERTEX_COUNT][VERTEX_COUNT];
 		vertices = new float[count * 3];
 		normals = new float[count * 3];
 		textureCoords = new float[count * 2];
 		indices = new int[6 * (VERTEX_COUNT - 1) * (VERTEX_COUNT * 1)];
-		int vertexPointer = 0;
-		for(int i = 0; i < VERTEX_COUNT; i++) {
-			for(int j = 0; j < VERTEX_COUNT; j++) {
-				vertices[vertexPointer * 3] = (float) j / ((float) VERTEX_COUNT - 1) * SIZE;
-				float height = getHeight(j, i, noise);
-				vertices[vertexPointer * 3 + 1] = height;
-				heights[j][i] = height;
-				vertices[vertexPointer * 3 + 2] = (float) i / ((float) VERTEX_COUNT - 1) * SIZE;
-				Vector3 normal = calculateNormal(j, i, noise);
-				normals[vertexPointer * 3] = normal.x;
-				normals[vertexPointer * 3 + 1] = normal.y;
-				normals[vertexPointer * 3 + 2] = normal.z;
-				textureCoords[vertexPointer * 2] = (float) j / ((float) VERTEX_COUNT - 1);
-				textureCoords[vertexPointer * 2 + 1] = (float) i / ((float) VERTEX_COUNT - 1);
-				vertexPointer++;
-
+		JobCounter rows = JobSystem.getInstance().parallelFor(VERTEX_COUNT, ROW_BATCH_SIZE, (start, end) -> {
+			for(int i = start; i < end; i++) {
+				for(int j = 0; j < VERTEX_COUNT; j++) {
+					int vertexPointer = i * VERTEX_COUNT + j;
+					vertices[vertexPointer * 3] = (float) j / ((float) VERTEX_COUNT - 1) * SIZE;
+					float height = getHeight(j, i, noise);
+					vertices[vertexPointer * 3 + 1] = height;
+					heights[j][i] = height;
+					vertices[vertexPointer * 3 + 2] = (float) i / ((float) VERTEX_COUNT - 1) * SIZE;
+					Vector3 normal = calculateNormal(j, i, noise);
+					normals[vertexPointer * 3] = normal.x;
+					normals[vertexPointer * 3 + 1] = normal.y;
+					normals[vertexPointer * 3 + 2] = normal.z;
+					textureCoords[vertexPointer * 2] = (float) j / ((float) VERTEX_COUNT - 1);
+					textureCoords[vertexPointer * 2 + 1] = (float) i / ((float) VERTEX_COUNT - 1);
+				}
 			}
-
-		}
+		});
+		JobSystem.getInstance().waitFor(rows);
 
 		int pointer = 0;
 		for (int gz = 0; gz < VERTEX_COUNT - 1; gz++) {
@@ -290,8 +323,6 @@ public class Terrain {
 				indices[pointer++] = bottomRight;
 			}
 		}
-		
-		return Loader.getInstance().load(vertices, textureCoords, normals, indices);
 	}
 
 	/**
@@ -410,6 +441,36 @@ public class Terrain {
 	public FractalNoise getNoise() {
 		return noise;
 	}
+	
+	/**
+	 * Uploads the mesh and blend map of a terrain generated without upload.
+	 * Must be called on the GL thread.  Does nothing if they are uploaded.
+	 */
+	public void upload() {
+		if (blendImage == null)
+			return;
+		this.model = Loader.getInstance().load(vertices, textureCoords, normals, indices);
+		this.blendMap = new TerrainTexture(Loader.getInstance().loadTexture(blendImage));
+		this.ownsBlendMap = true;
+		this.blendImage = null;
+	}
+	
+	/**
+	 * Deletes the terrain's mesh, and the blend map if the terrain generated
+	 * it, from the VRAM.  The texture pack is shared and left alone.  The
+	 * terrain must not be rendered afterwards.
+	 */
+	public void dispose() {
+		if (model != null) {
+			model.delete();
+			model = null;
+		}
+		if (ownsBlendMap) {
+			Loader.getInstance().deleteTexture(blendMap.getID());
+			ownsBlendMap = false;
+		}
+		blendImage = null;
+	}
 
 
 //**************************************************Private Methods*********************************************//
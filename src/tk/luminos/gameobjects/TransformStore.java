@@ -0,0 +1,480 @@
+package tk.luminos.gameobjects;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
+import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+import tk.luminos.profiler.Profiler;
+
+/**
+ * Struct-of-arrays storage for the transforms of many {@link GameObject
+ * GameObjects}.  Positions, rotations, scales and model matrices are held in
+ * contiguous float arrays indexed by slot; a {@link Transformation} created
+ * with a store is only a handle to its slot.  Writes mark the slot dirty and
+ * the model matrices of every dirty slot are rebuilt in bulk, in parallel,
+ * by {@link #update()}, which the engine calls once per frame before
+ * rendering.
+ * <p>
+ * Transform components may be written from any thread as long as each slot
+ * is only written by one thread at a time.  Slots must only be allocated or
+ * freed from the game thread, outside of {@link #update()}.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class TransformStore {
+	
+	/**
+	 * Number of floats per matrix
+	 */
+	public static final int MATRIX_STRIDE = 16;
+	
+	private static final int VECTOR_STRIDE = 3;
+	private static final int QUATERNION_STRIDE = 4;
+	private static final int UPDATE_BATCH_SIZE = 1024;
+	private static final int PROFILE_UPDATE = Profiler.register("TransformStore.update");
+	private static final List<TransformStore> stores = new CopyOnWriteArrayList<TransformStore>();
+	
+	private float[] positions;
+	private float[] rotations;
+	private float[] orientations;
+	private boolean[] oriented;
+	private float[] scales;
+	private float[] matrices;
+	private boolean[] dirty;
+	private boolean[] used;
+	private int[] free;
+	private int freeCount = 0;
+	private int size = 0;
+	private final AtomicInteger dirtyMin = new AtomicInteger(Integer.MAX_VALUE);
+	private final AtomicInteger dirtyMax = new AtomicInteger(-1);
+	
+	/**
+	 * Creates a transform store and registers it to be updated by the engine
+	 * 
+	 * @param capacity		Initial number of slots
+	 */
+	public TransformStore(int capacity) {
+		capacity = Math.max(1, capacity);
+		positions = new float[capacity * VECTOR_STRIDE];
+		rotations = new float[capacity * VECTOR_STRIDE];
+		orientations = new float[capacity * QUATERNION_STRIDE];
+		oriented = new boolean[capacity];
+		scales = new float[capacity * VECTOR_STRIDE];
+		matrices = new float[capacity * MATRIX_STRIDE];
+		dirty = new boolean[capacity];
+		used = new boolean[capacity];
+		free = new int[capacity];
+		stores.add(this);
+	}
+	
+	/**
+	 * Rebuilds the dirty matrices of every registered store
+	 */
+	public static void updateAll() {
+		for (TransformStore store : stores)
+			store.update();
+	}
+	
+	/**
+	 * Stops the engine from updating the store
+	 */
+	public void dispose() {
+		stores.remove(this);
+	}
+	
+	/**
+	 * Allocates a slot holding the identity transform
+	 * 
+	 * @return		Index of the slot
+	 */
+	public int allocate() {
+		int slot;
+		if (freeCount > 0)
+			slot = free[--freeCount];
+		else {
+			if (size == used.length)
+				grow(used.length * 2);
+			slot = size++;
+		}
+		used[slot] = true;
+		int v = slot * VECTOR_STRIDE;
+		positions[v] = positions[v + 1] = positions[v + 2] = 0;
+		rotations[v] = rotations[v + 1] = rotations[v + 2] = 0;
+		oriented[slot] = false;
+		scales[v] = scales[v + 1] = scales[v + 2] = 1;
+		markDirty(slot);
+		return slot;
+	}
+	
+	/**
+	 * Releases a slot for reuse
+	 * 
+	 * @param slot		Index of the slot
+	 */
+	public void free(int slot) {
+		if (!used[slot])
+			return;
+		used[slot] = false;
+		dirty[slot] = false;
+		free[freeCount++] = slot;
+	}
+	
+	/**
+	 * Gets the number of slots in use
+	 * 
+	 * @return		Number of live transforms
+	 */
+	public int getCount() {
+		return size - freeCount;
+	}
+	
+	/**
+	 * Gets one past the highest slot ever allocated
+	 * 
+	 * @return		Upper bound of the slot indices
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	/**
+	 * Checks if a slot is allocated
+	 * 
+	 * @param slot		Index of the slot
+	 * @return			If the slot is in use
+	 */
+	public boolean isUsed(int slot) {
+		return used[slot];
+	}
+	
+	/**
+	 * Sets the position of a slot
+	 * 
+	 * @param slot		Index of the slot
+	 * @param x			X position
+	 * @param y			Y position
+	 * @param z			Z position
+	 */
+	public void setPosition(int slot, float x, float y, float z) {
+		set(positions, slot, x, y, z);
+	}
+	
+	/**
+	 * Sets the rotation of a slot
+	 * 
+	 * @param slot		Index of the slot
+	 * @param x			Rotation about the X axis, in degrees
+	 * @param y			Rotation about the Y axis, in degrees
+	 * @param z			Rotation about the Z axis, in degrees
+	 */
+	public void setRotation(int slot, float x, float y, float z) {
+		oriented[slot] = false;
+		set(rotations, slot, x, y, z);
+	}
+	
+	/**
+	 * Sets the rotation of a slot as a unit quaternion.  The slot keeps the
+	 * quaternion until its Euler rotation is set again.
+	 * 
+	 * @param slot		Index of the slot
+	 * @param x			x component of the quaternion
+	 * @param y			y component of the quaternion
+	 * @param z			z component of the quaternion
+	 * @param w			w component of the quaternion
+	 */
+	public void setOrientation(int slot, float x, float y, float z, float w) {
+		int q = slot * QUATERNION_STRIDE;
+		orientations[q] = x;
+		orientations[q + 1] = y;
+		orientations[q + 2] = z;
+		orientations[q + 3] = w;
+		oriented[slot] = true;
+		markDirty(slot);
+	}
+	
+	/**
+	 * Sets the scale of a slot
+	 * 
+	 * @param slot		Index of the slot
+	 * @param x			X scale
+	 * @param y			Y scale
+	 * @param z			Z scale
+	 */
+	public void setScale(int slot, float x, float y, float z) {
+		set(scales, slot, x, y, z);
+	}
+	
+	/**
+	 * Gets the position of a slot
+	 * 
+	 * @param slot		Index of the slot
+	 * @param dest		Vector to store the position in
+	 * @return			Destination vector
+	 */
+	public Vector3 getPosition(int slot, Vector3 dest) {
+		return get(positions, slot, dest);
+	}
+	
+	/**
+	 * Gets the rotation of a slot
+	 * 
+	 * @param slot		Index of the slot
+	 * @param dest		Vector to store the rotation in
+	 * @return			Destination vector
+	 */
+	public Vector3 getRotation(int slot, Vector3 dest) {
+		return get(rotations, slot, dest);
+	}
+	
+	/**
+	 * Gets the rotation of a slot as a quaternion, converting the Euler
+	 * rotation if the slot does not hold a quaternion
+	 * 
+	 * @param slot		Index of the slot
+	 * @param dest		Quaternion to store the rotation in
+	 * @return			Destination quaternion
+	 */
+	public Quaternion getOrientation(int slot, Quaternion dest) {
+		if (!oriented[slot]) {
+			int v = slot * VECTOR_STRIDE;
+			return Quaternion.fromEuler(rotations[v], rotations[v + 1], rotations[v + 2], dest);
+		}
+		int q = slot * QUATERNION_STRIDE;
+		return dest.set(orientations[q], orientations[q + 1], orientations[q + 2], orientations[q + 3]);
+	}
+	
+	/**
+	 * Checks if the rotation of a slot is held as a quaternion
+	 * 
+	 * @param slot		Index of the slot
+	 * @return			If the slot holds a quaternion
+	 */
+	public boolean isOriented(int slot) {
+		return oriented[slot];
+	}
+	
+	/**
+	 * Gets the scale of a slot
+	 * 
+	 * @param slot		Index of the slot
+	 * @param dest		Vector to store the scale in
+	 * @return			Destination vector
+	 */
+	public Vector3 getScale(int slot, Vector3 dest) {
+		return get(scales, slot, dest);
+	}
+	
+	/**
+	 * Gets the model matrix of a slot, rebuilding it first if it is dirty
+	 * 
+	 * @param slot		Index of the slot
+	 * @param dest		Matrix to store the model matrix in
+	 * @return			Destination matrix
+	 */
+	public Matrix4 getMatrix(int slot, Matrix4 dest) {
+		if (dirty[slot])
+			updateMatrix(slot);
+		int m = slot * MATRIX_STRIDE;
+		dest.m00 = matrices[m];
+		dest.m01 = matrices[m + 1];
+		dest.m02 = matrices[m + 2];
+		dest.m03 = matrices[m + 3];
+		dest.m10 = matrices[m + 4];
+		dest.m11 = matrices[m + 5];
+		dest.m12 = matrices[m + 6];
+		dest.m13 = matrices[m + 7];
+		dest.m20 = matrices[m + 8];
+		dest.m21 = matrices[m + 9];
+		dest.m22 = matrices[m + 10];
+		dest.m23 = matrices[m + 11];
+		dest.m30 = matrices[m + 12];
+		dest.m31 = matrices[m + 13];
+		dest.m32 = matrices[m + 14];
+		dest.m33 = matrices[m + 15];
+		return dest;
+	}
+	
+	/**
+	 * Gets the backing array of model matrices, in column major order with
+	 * {@value #MATRIX_STRIDE} floats per slot.  Only valid for slots that are
+	 * not dirty.
+	 * 
+	 * @return		Model matrices
+	 */
+	public float[] getMatrices() {
+		return matrices;
+	}
+	
+	/**
+	 * Checks if the model matrix of a slot is out of date
+	 * 
+	 * @param slot		Index of the slot
+	 * @return			If the slot is dirty
+	 */
+	public boolean isDirty(int slot) {
+		return dirty[slot];
+	}
+	
+	/**
+	 * Rebuilds the model matrix of a single slot
+	 * 
+	 * @param slot		Index of the slot
+	 */
+	public void updateMatrix(int slot) {
+		dirty[slot] = false;
+		compose(slot);
+	}
+	
+	/**
+	 * Rebuilds the model matrix of every dirty slot.  Large dirty ranges are
+	 * split across the job system.
+	 */
+	public void update() {
+		int min = dirtyMin.getAndSet(Integer.MAX_VALUE);
+		int max = dirtyMax.getAndSet(-1);
+		if (max < min)
+			return;
+		Profiler.begin(PROFILE_UPDATE);
+		try {
+			int count = max - min + 1;
+			if (count <= UPDATE_BATCH_SIZE)
+				updateRange(min, max + 1);
+			else {
+				JobSystem jobs = JobSystem.getInstance();
+				JobCounter counter = jobs.parallelFor(count, UPDATE_BATCH_SIZE, (start, end) -> updateRange(min + start, min + end));
+				jobs.waitFor(counter);
+			}
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private void updateRange(int start, int end) {
+		for (int slot = start; slot < end; slot++) {
+			if (dirty[slot]) {
+				dirty[slot] = false;
+				compose(slot);
+			}
+		}
+	}
+	
+	private void compose(int slot) {
+		if (oriented[slot]) {
+			composeOriented(slot);
+			return;
+		}
+		int v = slot * VECTOR_STRIDE;
+		int m = slot * MATRIX_STRIDE;
+		double rx = Math.toRadians(rotations[v]);
+		double ry = Math.toRadians(rotations[v + 1]);
+		double rz = Math.toRadians(rotations[v + 2]);
+		float cx = (float) Math.cos(rx), sx = (float) Math.sin(rx);
+		float cy = (float) Math.cos(ry), sy = (float) Math.sin(ry);
+		float cz = (float) Math.cos(rz), sz = (float) Math.sin(rz);
+		float scaleX = scales[v], scaleY = scales[v + 1], scaleZ = scales[v + 2];
+		
+		matrices[m] = cy * cz * scaleX;
+		matrices[m + 1] = (cx * sz + sx * sy * cz) * scaleX;
+		matrices[m + 2] = (sx * sz - cx * sy * cz) * scaleX;
+		matrices[m + 3] = 0;
+		matrices[m + 4] = -cy * sz * scaleY;
+		matrices[m + 5] = (cx * cz - sx * sy * sz) * scaleY;
+		matrices[m + 6] = (sx * cz + cx * sy * sz) * scaleY;
+		matrices[m + 7] = 0;
+		matrices[m + 8] = sy * scaleZ;
+		matrices[m + 9] = -sx * cy * scaleZ;
+		matrices[m + 10] = cx * cy * scaleZ;
+		matrices[m + 11] = 0;
+		matrices[m + 12] = positions[v];
+		matrices[m + 13] = positions[v + 1];
+		matrices[m + 14] = positions[v + 2];
+		matrices[m + 15] = 1;
+	}
+	
+	private void composeOriented(int slot) {
+		int v = slot * VECTOR_STRIDE;
+		int q = slot * QUATERNION_STRIDE;
+		int m = slot * MATRIX_STRIDE;
+		float x = orientations[q], y = orientations[q + 1], z = orientations[q + 2], w = orientations[q + 3];
+		float xx = x * x, yy = y * y, zz = z * z;
+		float xy = x * y, xz = x * z, yz = y * z;
+		float xw = x * w, yw = y * w, zw = z * w;
+		float scaleX = scales[v], scaleY = scales[v + 1], scaleZ = scales[v + 2];
+		
+		matrices[m] = (1 - 2 * (yy + zz)) * scaleX;
+		matrices[m + 1] = 2 * (xy + zw) * scaleX;
+		matrices[m + 2] = 2 * (xz - yw) * scaleX;
+		matrices[m + 3] = 0;
+		matrices[m + 4] = 2 * (xy - zw) * scaleY;
+		matrices[m + 5] = (1 - 2 * (xx + zz)) * scaleY;
+		matrices[m + 6] = 2 * (yz + xw) * scaleY;
+		matrices[m + 7] = 0;
+		matrices[m + 8] = 2 * (xz + yw) * scaleZ;
+		matrices[m + 9] = 2 * (yz - xw) * scaleZ;
+		matrices[m + 10] = (1 - 2 * (xx + yy)) * scaleZ;
+		matrices[m + 11] = 0;
+		matrices[m + 12] = positions[v];
+		matrices[m + 13] = positions[v + 1];
+		matrices[m + 14] = positions[v + 2];
+		matrices[m + 15] = 1;
+	}
+	
+	private void set(float[] array, int slot, float x, float y, float z) {
+		int v = slot * VECTOR_STRIDE;
+		array[v] = x;
+		array[v + 1] = y;
+		array[v + 2] = z;
+		markDirty(slot);
+	}
+	
+	private Vector3 get(float[] array, int slot, Vector3 dest) {
+		int v = slot * VECTOR_STRIDE;
+		dest.x = array[v];
+		dest.y = array[v + 1];
+		dest.z = array[v + 2];
+		return dest;
+	}
+	
+	private void markDirty(int slot) {
+		dirty[slot] = true;
+		if (slot < dirtyMin.get())
+			dirtyMin.accumulateAndGet(slot, Math::min);
+		if (slot > dirtyMax.get())
+			dirtyMax.accumulateAndGet(slot, Math::max);
+	}
+	
+	private void grow(int capacity) {
+		positions = copyOf(positions, capacity * VECTOR_STRIDE);
+		rotations = copyOf(rotations, capacity * VECTOR_STRIDE);
+		orientations = copyOf(orientations, capacity * QUATERNION_STRIDE);
+		boolean[] oriented = new boolean[capacity];
+		System.arraycopy(this.oriented, 0, oriented, 0, this.oriented.length);
+		this.oriented = oriented;
+		scales = copyOf(scales, capacity * VECTOR_STRIDE);
+		matrices = copyOf(matrices, capacity * MATRIX_STRIDE);
+		boolean[] dirty = new boolean[capacity];
+		System.arraycopy(this.dirty, 0, dirty, 0, this.dirty.length);
+		this.dirty = dirty;
+		boolean[] used = new boolean[capacity];
+		System.arraycopy(this.used, 0, used, 0, this.used.length);
+		this.used = used;
+		int[] free = new int[capacity];
+		System.arraycopy(this.free, 0, free, 0, freeCount);
+		this.free = free;
+	}
+	
+	private static float[] copyOf(float[] array, int length) {
+		float[] copy = new float[length];
+		System.arraycopy(array, 0, copy, 0, array.length);
+		return copy;
+	}
+
+}
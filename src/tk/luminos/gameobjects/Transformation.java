@@ -2,10 +2,21 @@ package tk.luminos.gameobjects;
 
 import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Quaternion;
 import tk.luminos.maths.Vector3;
 
 /**
- * Transformation matrix of entity
+ * Transformation matrix of entity.  A transformation either owns its model
+ * matrix or, when created with a {@link TransformStore}, keeps it in a slot
+ * of the store where it is rebuilt in bulk once per frame.  The rotation is
+ * held as Euler angles until an orientation quaternion is set, after which
+ * matrix rebuilds convert the quaternion directly and the Euler angles are
+ * only derived on request.
+ * <p>
+ * The store is the only copy of a stored transformation, so writes made
+ * straight to the store are seen by the getters.  The vectors they return
+ * are refreshed from the store on every call; changes made to them are
+ * only written back by {@link #constructModelMatrix()}.
  * 
  * @author Nick Clark
  * @version 1.0
@@ -16,6 +27,12 @@ public class Transformation extends Component<Matrix4> {
 	Vector3 rotation;
 	Vector3 scale;
 	
+	private final TransformStore store;
+	private int slot = -1;
+	private Quaternion orientation;
+	private boolean rotationStale = false;
+	private final Quaternion stored;
+	
 	/**
 	 * Creates new transformation matrix
 	 * 
@@ -28,13 +45,320 @@ public class Transformation extends Component<Matrix4> {
 		this.position = position;
 		this.rotation = rotation;
 		this.scale = scale;
+		this.store = null;
+		this.stored = null;
+	}
+	
+	/**
+	 * Creates new transformation stored in a slot of a transform store
+	 * 
+	 * @param store			store holding the transformation
+	 * @param position		position of component entity
+	 * @param rotation		rotation of component entity
+	 * @param scale			scale of component entity
+	 */
+	public Transformation(TransformStore store, Vector3 position, Vector3 rotation, Vector3 scale) {
+		super(null);
+		this.store = store;
+		this.slot = store.allocate();
+		this.position = new Vector3(position);
+		this.rotation = new Vector3(rotation);
+		this.scale = new Vector3(scale);
+		this.stored = new Quaternion();
+		constructModelMatrix();
+	}
+	
+	/**
+	 * Gets the position
+	 * 
+	 * @return		position of component entity
+	 */
+	public Vector3 getPosition() {
+		if (isBound())
+			store.getPosition(slot, position);
+		return position;
+	}
+	
+	/**
+	 * Gets the rotation.  While an orientation is set this is the equivalent
+	 * Euler rotation, and changes made to it are ignored.
+	 * 
+	 * @return		rotation of component entity
+	 */
+	public Vector3 getRotation() {
+		if (isBound()) {
+			if (store.isOriented(slot))
+				store.getOrientation(slot, stored).toEuler(rotation);
+			else
+				store.getRotation(slot, rotation);
+			return rotation;
+		}
+		if (rotationStale) {
+			orientation.toEuler(rotation);
+			rotationStale = false;
+		}
+		return rotation;
+	}
+	
+	/**
+	 * Gets the rotation as a quaternion
+	 * 
+	 * @param dest			quaternion to store the rotation in
+	 * @return				destination quaternion
+	 */
+	public Quaternion getOrientation(Quaternion dest) {
+		if (isBound())
+			return store.getOrientation(slot, dest);
+		if (orientation != null)
+			return dest.set(orientation);
+		return Quaternion.fromEuler(rotation, dest);
+	}
+	
+	/**
+	 * Checks if the rotation is held as a quaternion
+	 * 
+	 * @return		if an orientation is set
+	 */
+	public boolean hasOrientation() {
+		if (isBound())
+			return store.isOriented(slot);
+		return orientation != null;
+	}
+	
+	/**
+	 * Gets the scale
+	 * 
+	 * @return		scale of component entity
+	 */
+	public Vector3 getScale() {
+		if (isBound())
+			store.getScale(slot, scale);
+		return scale;
+	}
+	
+	/**
+	 * Sets the position and updates the model matrix
+	 * 
+	 * @param position		position of component entity
+	 */
+	public void setPosition(Vector3 position) {
+		if (store == null) {
+			this.position = position;
+			constructModelMatrix();
+		}
+		else if (isBound())
+			store.setPosition(slot, position.x, position.y, position.z);
+	}
+	
+	/**
+	 * Sets the rotation and updates the model matrix
+	 * 
+	 * @param rotation		rotation of component entity
+	 */
+	public void setRotation(Vector3 rotation) {
+		if (store == null) {
+			clearOrientation();
+			this.rotation = rotation;
+			constructModelMatrix();
+		}
+		else if (isBound())
+			store.setRotation(slot, rotation.x, rotation.y, rotation.z);
+	}
+	
+	/**
+	 * Sets the rotation as a unit quaternion and updates the model matrix.
+	 * The quaternion is copied.
+	 * 
+	 * @param orientation	rotation of component entity
+	 */
+	public void setOrientation(Quaternion orientation) {
+		if (store == null) {
+			setOrientationComponent(orientation);
+			constructModelMatrix();
+		}
+		else if (isBound())
+			store.setOrientation(slot, orientation.x, orientation.y, orientation.z, orientation.w);
+	}
+	
+	/**
+	 * Sets the scale and updates the model matrix
+	 * 
+	 * @param scale			scale of component entity
+	 */
+	public void setScale(Vector3 scale) {
+		if (store == null) {
+			this.scale = scale;
+			constructModelMatrix();
+		}
+		else if (isBound())
+			store.setScale(slot, scale.x, scale.y, scale.z);
+	}
+	
+	/**
+	 * Sets position, rotation and scale, updating the model matrix once
+	 * 
+	 * @param position		position of component entity
+	 * @param rotation		rotation of component entity
+	 * @param scale			scale of component entity
+	 */
+	public void set(Vector3 position, Vector3 rotation, Vector3 scale) {
+		if (store == null) {
+			clearOrientation();
+			this.position = position;
+			this.rotation = rotation;
+			this.scale = scale;
+			constructModelMatrix();
+		}
+		else if (isBound()) {
+			store.setPosition(slot, position.x, position.y, position.z);
+			store.setRotation(slot, rotation.x, rotation.y, rotation.z);
+			store.setScale(slot, scale.x, scale.y, scale.z);
+		}
+	}
+	
+	/**
+	 * Sets position, orientation and scale, updating the model matrix once
+	 * 
+	 * @param position		position of component entity
+	 * @param orientation	rotation of component entity
+	 * @param scale			scale of component entity
+	 */
+	public void set(Vector3 position, Quaternion orientation, Vector3 scale) {
+		if (store == null) {
+			setOrientationComponent(orientation);
+			this.position = position;
+			this.scale = scale;
+			constructModelMatrix();
+		}
+		else if (isBound()) {
+			store.setPosition(slot, position.x, position.y, position.z);
+			store.setOrientation(slot, orientation.x, orientation.y, orientation.z, orientation.w);
+			store.setScale(slot, scale.x, scale.y, scale.z);
+		}
+	}
+	
+	/**
+	 * Gets the model matrix.  Stored transformations copy the matrix out of
+	 * the store into a cached matrix; prefer {@link #getMatrix(Matrix4)}.
+	 * 
+	 * @return		model matrix
+	 */
+	@Override
+	public Matrix4 getComponent() {
+		if (isBound()) {
+			if (obj == null)
+				obj = new Matrix4();
+			store.getMatrix(slot, obj);
+		}
+		return obj;
 	}
 	
 	/**
-	 * Reconstructs matrix
+	 * Copies the model matrix into a matrix without allocating
+	 * 
+	 * @param dest			matrix to store the model matrix in
+	 * @return				destination matrix
+	 */
+	public Matrix4 getMatrix(Matrix4 dest) {
+		if (isBound())
+			return store.getMatrix(slot, dest);
+		return Matrix4.load(obj, dest);
+	}
+	
+	/**
+	 * Reconstructs matrix.  Stored transformations only write the vectors
+	 * returned by their getters back into the store and mark the slot
+	 * dirty; the rotation is left alone while the slot holds a quaternion.
 	 */
 	public void constructModelMatrix() {
-		obj = MathUtils.createTransformationMatrix(position, rotation, scale);
+		if (store == null) {
+			if (orientation != null)
+				MathUtils.createTransformationMatrix(position, orientation, scale, obj);
+			else
+				MathUtils.createTransformationMatrix(position, rotation, scale, obj);
+			return;
+		}
+		if (!isBound())
+			return;
+		store.setPosition(slot, position.x, position.y, position.z);
+		if (!store.isOriented(slot))
+			store.setRotation(slot, rotation.x, rotation.y, rotation.z);
+		store.setScale(slot, scale.x, scale.y, scale.z);
+	}
+	
+	/**
+	 * Checks if the transformation lives in a transform store
+	 * 
+	 * @return		if the transformation is stored
+	 */
+	public boolean isStored() {
+		return store != null;
+	}
+	
+	/**
+	 * Gets the store holding the transformation
+	 * 
+	 * @return		transform store, or null
+	 */
+	public TransformStore getStore() {
+		return store;
+	}
+	
+	/**
+	 * Gets the slot of the transformation in its store
+	 * 
+	 * @return		slot index, or -1 if not stored
+	 */
+	public int getSlot() {
+		return slot;
+	}
+	
+	/**
+	 * Takes a new slot in the transform store after {@link #release()},
+	 * holding the values the transformation kept when it was released.  Does
+	 * nothing if the transformation is not stored or already holds a slot.
+	 */
+	public void acquire() {
+		if (store == null || slot >= 0)
+			return;
+		slot = store.allocate();
+		constructModelMatrix();
+	}
+	
+	/**
+	 * Releases the slot held in the transform store.  The transformation
+	 * keeps the values it last read from the store, and ignores changes
+	 * until it {@link #acquire() acquires} a slot again.
+	 */
+	public void release() {
+		if (isBound()) {
+			getPosition();
+			getRotation();
+			getScale();
+			getComponent();
+			store.free(slot);
+			slot = -1;
+		}
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private boolean isBound() {
+		return store != null && slot >= 0;
+	}
+	
+	private void setOrientationComponent(Quaternion orientation) {
+		if (this.orientation == null) {
+			this.orientation = new Quaternion();
+			this.rotation = new Vector3();
+		}
+		this.orientation.set(orientation);
+		rotationStale = true;
+	}
+	
+	private void clearOrientation() {
+		orientation = null;
+		rotationStale = false;
 	}
 
 }
@@ -2,6 +2,8 @@ package tk.luminos.graphics;
 
 import tk.luminos.gameobjects.GameObject;
 import tk.luminos.graphics.render.SceneRenderer;
+import tk.luminos.maths.MathUtils;
+import tk.luminos.maths.Matrix4;
 import tk.luminos.maths.Vector3;
 
 /**
@@ -22,6 +24,11 @@ public class Camera {
 	private float yaw = 0;
 	private float roll = 0;
 	
+	private Matrix4 viewMatrix = new Matrix4();
+	private Matrix4 inverseViewMatrix = new Matrix4();
+	private float viewX = Float.NaN, viewY, viewZ, viewPitch, viewYaw;
+	private boolean inverseValid = false;
+	
 	private GameObject player;
 	
 	/**
@@ -105,6 +112,41 @@ public class Camera {
 		this.pitch = pitch;
 	}
 	
+	/**
+	 * Gets the view matrix of the camera.  It is rebuilt only when the
+	 * position, pitch or yaw have changed since the last call, and must not
+	 * be modified.
+	 * 
+	 * @return View matrix of the camera
+	 */
+	public Matrix4 getViewMatrix() {
+		if (position.x != viewX || position.y != viewY || position.z != viewZ || pitch != viewPitch || yaw != viewYaw) {
+			viewX = position.x;
+			viewY = position.y;
+			viewZ = position.z;
+			viewPitch = pitch;
+			viewYaw = yaw;
+			MathUtils.createViewMatrix(viewX, viewY, viewZ, viewPitch, viewYaw, viewMatrix);
+			inverseValid = false;
+		}
+		return viewMatrix;
+	}
+	
+	/**
+	 * Gets the inverse of the view matrix of the camera, which transforms
+	 * eye space to world space.  It must not be modified.
+	 * 
+	 * @return Inverse view matrix of the camera
+	 */
+	public Matrix4 getInverseViewMatrix() {
+		getViewMatrix();
+		if (!inverseValid) {
+			Matrix4.invertRigid(viewMatrix, inverseViewMatrix);
+			inverseValid = true;
+		}
+		return inverseViewMatrix;
+	}
+	
 	//**********************************Private Methods*******************************************//
 	
 	/**
@@ -15,17 +15,8 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDeleteTextures;
-import static org.lwjgl.opengl.GL11.glDrawBuffer;
-import static org.lwjgl.opengl.GL11.glGenTextures;
-import static org.lwjgl.opengl.GL11.glReadBuffer;
-import static org.lwjgl.opengl.GL11.glTexImage2D;
-import static org.lwjgl.opengl.GL11.glTexParameteri;
-import static org.lwjgl.opengl.GL11.glViewport;
 import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
 import static org.lwjgl.opengl.GL14.GL_DEPTH_COMPONENT24;
-import static org.lwjgl.opengl.GL20.glDrawBuffers;
 import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT0;
 import static org.lwjgl.opengl.GL30.GL_COLOR_ATTACHMENT1;
 import static org.lwjgl.opengl.GL30.GL_DEPTH_ATTACHMENT;
@@ -33,18 +24,27 @@ import static org.lwjgl.opengl.GL30.GL_DRAW_FRAMEBUFFER;
 import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
 import static org.lwjgl.opengl.GL30.GL_READ_FRAMEBUFFER;
 import static org.lwjgl.opengl.GL30.GL_RENDERBUFFER;
-import static org.lwjgl.opengl.GL30.glBindFramebuffer;
-import static org.lwjgl.opengl.GL30.glBindRenderbuffer;
-import static org.lwjgl.opengl.GL30.glBlitFramebuffer;
-import static org.lwjgl.opengl.GL30.glDeleteFramebuffers;
-import static org.lwjgl.opengl.GL30.glDeleteRenderbuffers;
-import static org.lwjgl.opengl.GL30.glFramebufferRenderbuffer;
-import static org.lwjgl.opengl.GL30.glFramebufferTexture2D;
-import static org.lwjgl.opengl.GL30.glGenFramebuffers;
-import static org.lwjgl.opengl.GL30.glGenRenderbuffers;
-import static org.lwjgl.opengl.GL30.glRenderbufferStorage;
-import static org.lwjgl.opengl.GL30.glRenderbufferStorageMultisample;
 import static org.lwjgl.system.MemoryUtil.NULL;
+import static tk.luminos.graphics.backend.Graphics.glBindFramebuffer;
+import static tk.luminos.graphics.backend.Graphics.glBindRenderbuffer;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glBlitFramebuffer;
+import static tk.luminos.graphics.backend.Graphics.glDeleteFramebuffers;
+import static tk.luminos.graphics.backend.Graphics.glDeleteRenderbuffers;
+import static tk.luminos.graphics.backend.Graphics.glDeleteTextures;
+import static tk.luminos.graphics.backend.Graphics.glDrawBuffer;
+import static tk.luminos.graphics.backend.Graphics.glDrawBuffers;
+import static tk.luminos.graphics.backend.Graphics.glFramebufferRenderbuffer;
+import static tk.luminos.graphics.backend.Graphics.glFramebufferTexture2D;
+import static tk.luminos.graphics.backend.Graphics.glGenFramebuffers;
+import static tk.luminos.graphics.backend.Graphics.glGenRenderbuffers;
+import static tk.luminos.graphics.backend.Graphics.glGenTextures;
+import static tk.luminos.graphics.backend.Graphics.glReadBuffer;
+import static tk.luminos.graphics.backend.Graphics.glRenderbufferStorage;
+import static tk.luminos.graphics.backend.Graphics.glRenderbufferStorageMultisample;
+import static tk.luminos.graphics.backend.Graphics.glTexImage2D;
+import static tk.luminos.graphics.backend.Graphics.glTexParameteri;
+import static tk.luminos.graphics.backend.Graphics.glViewport;
 
 import java.nio.IntBuffer;
 
@@ -3,7 +3,6 @@ package tk.luminos.graphics;
 import tk.luminos.maths.Frustum;
 import tk.luminos.maths.Matrix4;
 import tk.luminos.maths.Vector3;
-import tk.luminos.physics.BoundingSphere;
 
 /**
  * Allows for frustum culling
@@ -14,6 +13,7 @@ import tk.luminos.physics.BoundingSphere;
 public class FrustumIntersectionFilter {
 	
 	private Frustum intersect;
+	private final Matrix4 projectionView = new Matrix4();
 	
 	/**
 	 * Creates new frustum intersection filter
@@ -29,8 +29,7 @@ public class FrustumIntersectionFilter {
 	 * @param view		view matrix
 	 */
 	public void update(Matrix4 proj, Matrix4 view) {
-		Matrix4 pv = Matrix4.mul(proj, view, null);
-		intersect.set(pv);
+		intersect.set(Matrix4.mul(proj, view, projectionView));
 	}
 	
 	/**
@@ -43,8 +42,24 @@ public class FrustumIntersectionFilter {
 		return intersect.point(pos);
 	}
 	
+	/**
+	 * Checks if a sphere is at least partly inside the viewing frustum
+	 * 
+	 * @param pos		center of the sphere
+	 * @param rad		radius of the sphere
+	 * @return			is inside
+	 */
 	public boolean inside(Vector3 pos, float rad) {
-		return intersect.boundingSphere(new BoundingSphere(pos, rad));
+		return intersect.sphere(pos.x, pos.y, pos.z, rad);
+	}
+	
+	/**
+	 * Gets the viewing frustum, for batch and hierarchical culling
+	 * 
+	 * @return			viewing frustum
+	 */
+	public Frustum getFrustum() {
+		return intersect;
 	}
 
 }
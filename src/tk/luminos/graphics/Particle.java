@@ -123,6 +123,15 @@ public class Particle {
 		return elapsedTime < life;
 	}
 	
+	/**
+	 * Checks if the particle has outlived its life span
+	 * 
+	 * @return Whether the particle is alive
+	 */
+	public boolean isAlive() {
+		return elapsedTime < life;
+	}
+	
 	/**
 	 * Gets particles's position
 	 * 
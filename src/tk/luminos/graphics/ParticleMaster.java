@@ -8,6 +8,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import tk.luminos.display.Window;
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
+import tk.luminos.metrics.FrameCounter;
+import tk.luminos.metrics.Metrics;
+import tk.luminos.profiler.Profiler;
 
 /**
  * 
@@ -22,6 +27,10 @@ public class ParticleMaster {
 	
 	public static Map<ParticleTexture, List<Particle>> particles = new HashMap<ParticleTexture, List<Particle>>();
 	
+	private static final int UPDATE_BATCH_SIZE = 1024;
+	private static final int PROFILE_UPDATE = Profiler.register("ParticleMaster.update");
+	private static final FrameCounter ALIVE = Metrics.counter("ParticleMaster.alive");
+	
 	/**
 	 * Adds {@link Particle} to list
 	 * 
@@ -53,21 +62,28 @@ public class ParticleMaster {
 	 * @param window	{@link Window} to get frame time of
 	 */
 	public static void update(Window window) {
-		Iterator<Entry<ParticleTexture, List<Particle>>> mapIterator = (Iterator<Entry<ParticleTexture, List<Particle>>>) particles.entrySet().iterator();
-		while(mapIterator.hasNext()) {
-			List<Particle> list = mapIterator.next().getValue();
-			Iterator<Particle> iterator = list.iterator();
-			while(iterator.hasNext()) {
-				Particle p = iterator.next();
-				boolean stillAlive = p.update(window);
-				if(!stillAlive) {
-					iterator.remove();
-					if(list.isEmpty()) {
-						mapIterator.remove();
-					}
+		Profiler.begin(PROFILE_UPDATE);
+		try {
+			JobSystem jobs = JobSystem.getInstance();
+			JobCounter updates = new JobCounter();
+			for (List<Particle> list : particles.values()) {
+				jobs.parallelFor(list.size(), UPDATE_BATCH_SIZE, (start, end) -> {
+					for (int i = start; i < end; i++)
+						list.get(i).update(window);
+				}, updates, null);
+			}
+			jobs.waitFor(updates);
+			Iterator<Entry<ParticleTexture, List<Particle>>> mapIterator = particles.entrySet().iterator();
+			while(mapIterator.hasNext()) {
+				List<Particle> list = mapIterator.next().getValue();
+				list.removeIf(p -> !p.isAlive());
+				ALIVE.add(list.size());
+				if(list.isEmpty()) {
+					mapIterator.remove();
 				}
 			}
-			
+		} finally {
+			Profiler.end();
 		}
 	}
 
@@ -1,8 +1,10 @@
 package tk.luminos.graphics;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import tk.luminos.Application;
+import tk.luminos.Scene;
 import tk.luminos.gameobjects.GameObject;
 import tk.luminos.gameobjects.Terrain;
 import tk.luminos.graphics.render.PostProcessRenderer;
@@ -12,6 +14,7 @@ import tk.luminos.graphics.shaders.PostProcess;
 import tk.luminos.graphics.water.WaterTile;
 import tk.luminos.maths.Vector3;
 import tk.luminos.maths.Vector4;
+import tk.luminos.profiler.Profiler;
 
 /**
  * Generates scene manager
@@ -24,10 +27,16 @@ public class SceneManager {
 	private SceneRenderer masterRenderer;
 	private FrameBufferObject input, output;
 	private PostProcessRenderer postProcessRenderer;
+	private final FrustumIntersectionFilter filter = new FrustumIntersectionFilter();
+	private final List<GameObject> visible = new ArrayList<GameObject>();
+	private final List<GameObject> reflected = new ArrayList<GameObject>();
+	private final List<GameObject> casters = new ArrayList<GameObject>();
 	
 	private static int WIDTH = Application.getValue("WIDTH");
 	private static int HEIGHT = Application.getValue("HEIGHT");
 	private static boolean POSTPROCESS = Application.getValue("POSTPROCESS") == 1;
+	
+	private static final int PROFILE_RENDER_WORLD = Profiler.register("SceneManager.renderWorld");
 		
 	/**
 	 * Creates new scene manager
@@ -43,7 +52,8 @@ public class SceneManager {
 	}
 
 	/**
-	 * Renders world 
+	 * Renders world from lists of game objects, which every pass scans in
+	 * full.  Scenes should prefer {@link #renderWorld(Scene, Vector3)}.
 	 * 
 	 * @param gameObjects		game objects
 	 * @param terrains			terrain
@@ -54,17 +64,41 @@ public class SceneManager {
 	 * @param camera			camera
 	 */
 	public void renderWorld(List<GameObject> gameObjects, List<Terrain> terrains, List<PointLight> lights, DirectionalLight sun, List<WaterTile> waterTiles, Vector3 focalPoint, Camera camera) {
-		masterRenderer.prepareWater(gameObjects, terrains, lights, sun, focalPoint, camera);
-		masterRenderer.renderShadowMap(gameObjects, terrains, camera.getPosition(), sun);
-		if(POSTPROCESS) 
-			input.bindFrameBuffer();
-		masterRenderer.renderScene(gameObjects, terrains, lights, sun, focalPoint, camera, new Vector4(0, 1, 0, Float.POSITIVE_INFINITY));
-		masterRenderer.renderWater(waterTiles, camera, lights);
-		if(POSTPROCESS) {
-			input.unbindFrameBuffer();
-			input.resolveToFBO(output);
-			postProcessRenderer.render(output.getColorTexture());
-		}
+		render(gameObjects, gameObjects, gameObjects, terrains, lights, sun, waterTiles, focalPoint, camera);
+	}
+
+	/**
+	 * Renders a scene, using its spatial index to find the game objects of
+	 * each pass.  The main and refraction passes draw the objects in the
+	 * camera's frustum, the reflection pass those in the frustum of the
+	 * camera mirrored below the water, and the shadow pass those within
+	 * {@link ShadowBox#SHADOW_DISTANCE} of the camera.  Without frustum
+	 * culling the camera passes take the objects within the scene's
+	 * {@link Scene#getMaxRenderDistance() render distance} instead.  Each
+	 * pass draws its objects in the order they were added to the scene.
+	 * 
+	 * @param scene				scene to render
+	 * @param focalPoint		focal point
+	 */
+	public void renderWorld(Scene scene, Vector3 focalPoint) {
+		Camera camera = scene.getCamera();
+		Vector3 eye = camera.getPosition();
+		float renderDistance = scene.getMaxRenderDistance();
+		visible.clear();
+		reflected.clear();
+		casters.clear();
+		query(scene, camera, renderDistance, visible);
+		float distance = 2 * eye.y;
+		eye.y -= distance;
+		camera.invertPitch();
+		query(scene, camera, renderDistance, reflected);
+		eye.y += distance;
+		camera.invertPitch();
+		scene.queryRadius(eye, ShadowBox.SHADOW_DISTANCE, casters);
+		scene.sortByInsertion(visible);
+		scene.sortByInsertion(reflected);
+		scene.sortByInsertion(casters);
+		render(visible, reflected, casters, scene.getTerrains(), scene.getPointLights(), scene.getDirectionalLight(), scene.getWaterTiles(), focalPoint, camera);
 	}
 
 	/**
@@ -102,4 +136,35 @@ public class SceneManager {
 		postProcessRenderer.clearAllShaders();
 	}
 
-}
\ No newline at end of file
+//**************************************Private Methods*******************************************//
+	
+	private void render(List<GameObject> visible, List<GameObject> reflected, List<GameObject> casters, List<Terrain> terrains, 
+			List<PointLight> lights, DirectionalLight sun, List<WaterTile> waterTiles, Vector3 focalPoint, Camera camera) {
+		Profiler.begin(PROFILE_RENDER_WORLD);
+		try {
+			masterRenderer.prepareWater(reflected, visible, terrains, lights, sun, focalPoint, camera);
+			masterRenderer.renderShadowMap(casters, terrains, camera.getPosition(), sun);
+			if(POSTPROCESS) 
+				input.bindFrameBuffer();
+			masterRenderer.renderScene(visible, terrains, lights, sun, focalPoint, camera, new Vector4(0, 1, 0, Float.POSITIVE_INFINITY));
+			masterRenderer.renderWater(waterTiles, camera, lights);
+			if(POSTPROCESS) {
+				input.unbindFrameBuffer();
+				input.resolveToFBO(output);
+				postProcessRenderer.render(output.getColorTexture());
+			}
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	private void query(Scene scene, Camera camera, float renderDistance, List<GameObject> dest) {
+		if (SceneRenderer.FRUSTUM_CULLING) {
+			filter.update(masterRenderer.getProjectionMatrix(), camera.getViewMatrix());
+			scene.queryFrustum(filter.getFrustum(), dest);
+		}
+		else
+			scene.queryRadius(camera.getPosition(), renderDistance, dest);
+	}
+
+}
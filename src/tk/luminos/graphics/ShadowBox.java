@@ -29,18 +29,22 @@ public class ShadowBox {
     private float minY, maxY;
     private float minZ, maxZ;
     private Matrix4 lightViewMatrix;
+    private Matrix4 inverseLightViewMatrix;
     private Camera cam;
+    private Vector4 center = new Vector4();
  
     private float farHeight, farWidth, nearHeight, nearWidth;
  
     /**
      * Constructor		
      * 
-     * @param lightViewMatrix	view matrix in the light position
-     * @param camera			{@link Camera} to render with
+     * @param lightViewMatrix			view matrix in the light position
+     * @param inverseLightViewMatrix	inverse of the light view matrix, kept up to date by its owner
+     * @param camera					{@link Camera} to render with
      */
-    public ShadowBox(Matrix4 lightViewMatrix, Camera camera) {
+    public ShadowBox(Matrix4 lightViewMatrix, Matrix4 inverseLightViewMatrix, Camera camera) {
         this.lightViewMatrix = lightViewMatrix;
+        this.inverseLightViewMatrix = inverseLightViewMatrix;
         this.cam = camera;
         calculateWidthsAndHeights();
     }
@@ -102,11 +106,12 @@ public class ShadowBox {
         float x = (minX + maxX) / 2f;
         float y = (minY + maxY) / 2f;
         float z = (minZ + maxZ) / 2f;
-        Vector4 cen = new Vector4(x, y, z, 1);
-        Matrix4 invertedLight = new Matrix4();
-        Matrix4.invert(lightViewMatrix, invertedLight);
-        Vector4 temp = Matrix4.transform(invertedLight, cen, null);
-        return new Vector3(temp.x, temp.y, temp.z);
+        center.x = x;
+        center.y = y;
+        center.z = z;
+        center.w = 1;
+        Matrix4.transform(inverseLightViewMatrix, center, center);
+        return new Vector3(center.x, center.y, center.z);
     }
  
     /**
@@ -9,22 +9,22 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDeleteTextures;
-import static org.lwjgl.opengl.GL11.glDrawBuffer;
-import static org.lwjgl.opengl.GL11.glGenTextures;
-import static org.lwjgl.opengl.GL11.glTexImage2D;
-import static org.lwjgl.opengl.GL11.glTexParameteri;
-import static org.lwjgl.opengl.GL11.glViewport;
 import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
 import static org.lwjgl.opengl.GL14.GL_DEPTH_COMPONENT16;
 import static org.lwjgl.opengl.GL30.GL_DEPTH_ATTACHMENT;
 import static org.lwjgl.opengl.GL30.GL_DRAW_FRAMEBUFFER;
 import static org.lwjgl.opengl.GL30.GL_FRAMEBUFFER;
-import static org.lwjgl.opengl.GL30.glBindFramebuffer;
-import static org.lwjgl.opengl.GL30.glDeleteFramebuffers;
-import static org.lwjgl.opengl.GL30.glGenFramebuffers;
-import static org.lwjgl.opengl.GL32.glFramebufferTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindFramebuffer;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glDeleteFramebuffers;
+import static tk.luminos.graphics.backend.Graphics.glDeleteTextures;
+import static tk.luminos.graphics.backend.Graphics.glDrawBuffer;
+import static tk.luminos.graphics.backend.Graphics.glFramebufferTexture;
+import static tk.luminos.graphics.backend.Graphics.glGenFramebuffers;
+import static tk.luminos.graphics.backend.Graphics.glGenTextures;
+import static tk.luminos.graphics.backend.Graphics.glTexImage2D;
+import static tk.luminos.graphics.backend.Graphics.glTexParameteri;
+import static tk.luminos.graphics.backend.Graphics.glViewport;
 
 import java.nio.ByteBuffer;
 
@@ -11,18 +11,21 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
 import static org.lwjgl.opengl.GL11.GL_UNPACK_ALIGNMENT;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glGenTextures;
-import static org.lwjgl.opengl.GL11.glPixelStorei;
-import static org.lwjgl.opengl.GL11.glTexImage2D;
-import static org.lwjgl.opengl.GL11.glTexParameteri;
 import static org.lwjgl.opengl.GL12.GL_CLAMP_TO_EDGE;
-import static org.lwjgl.opengl.GL30.glGenerateMipmap;
+import static org.lwjgl.stb.STBImage.stbi_failure_reason;
+import static org.lwjgl.stb.STBImage.stbi_image_free;
 import static org.lwjgl.stb.STBImage.stbi_load_from_memory;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glGenTextures;
+import static tk.luminos.graphics.backend.Graphics.glGenerateMipmap;
+import static tk.luminos.graphics.backend.Graphics.glPixelStorei;
+import static tk.luminos.graphics.backend.Graphics.glTexImage2D;
+import static tk.luminos.graphics.backend.Graphics.glTexParameteri;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.system.MemoryStack;
 
 import tk.luminos.filesystem.ResourceLoader;
@@ -58,30 +61,67 @@ public class Texture {
 	}
 	
 	public Texture(String fileName) throws Exception {
-		this(ResourceLoader.ioResourceToByteBuffer(fileName, 1024));
+		this(decode(fileName));
 	}
 	
 	public Texture(ByteBuffer image) {
-		try (MemoryStack stack = MemoryStack.stackPush()) {
-			IntBuffer w = stack.mallocInt(1);
-            IntBuffer h = stack.mallocInt(1);
-            IntBuffer avChannels = stack.mallocInt(1);
-
-            ByteBuffer decodedImage = stbi_load_from_memory(image, w, h, avChannels, 4);
-
-            this.width = w.get();
-            this.height = h.get();
+		this(decode(image));
+	}
+	
+	/**
+	 * Uploads an image decoded with {@link #decode(String)}
+	 * 
+	 * @param image		RGBA pixels of the image
+	 */
+	public Texture(TextureData image) {
+		this.width = image.getWidth();
+		this.height = image.getHeight();
 
-            this.id = glGenTextures();
-            Loader.textures.add(id);
-            glBindTexture(GL_TEXTURE_2D, this.id);
+		this.id = glGenTextures();
+		Loader.textures.add(id);
+		glBindTexture(GL_TEXTURE_2D, this.id);
 
-            glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
+		glPixelStorei(GL_UNPACK_ALIGNMENT, 1);
 
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, this.width, this.height, 0, GL_RGBA, GL_UNSIGNED_BYTE, decodedImage);
-            glGenerateMipmap(GL_TEXTURE_2D);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+		glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, this.width, this.height, 0, GL_RGBA, GL_UNSIGNED_BYTE, image.getBuffer());
+		glGenerateMipmap(GL_TEXTURE_2D);
+	}
+	
+	/**
+	 * Reads and decodes an image file to RGBA pixels.  Does not touch the
+	 * GPU, so it may be called from any thread.
+	 * 
+	 * @param fileName		location of the image file
+	 * @return				RGBA pixels of the image
+	 * @throws Exception	Exception for if file isn't found or cannot be decoded
+	 */
+	public static TextureData decode(String fileName) throws Exception {
+		return decode(ResourceLoader.ioResourceToByteBuffer(fileName, 1024));
+	}
+	
+	/**
+	 * Decodes an encoded image to RGBA pixels.  Does not touch the GPU, so it
+	 * may be called from any thread.
+	 * 
+	 * @param image		encoded image
+	 * @return			RGBA pixels of the image
+	 * @throws IllegalArgumentException		Thrown if the image cannot be decoded
+	 */
+	public static TextureData decode(ByteBuffer image) {
+		try (MemoryStack stack = MemoryStack.stackPush()) {
+			IntBuffer w = stack.mallocInt(1);
+			IntBuffer h = stack.mallocInt(1);
+			IntBuffer avChannels = stack.mallocInt(1);
+
+			ByteBuffer decodedImage = stbi_load_from_memory(image, w, h, avChannels, 4);
+			if (decodedImage == null)
+				throw new IllegalArgumentException("Could not decode image: " + stbi_failure_reason());
+			ByteBuffer pixels = BufferUtils.createByteBuffer(decodedImage.remaining());
+			pixels.put(decodedImage).flip();
+			stbi_image_free(decodedImage);
+			return new TextureData(pixels, w.get(0), h.get(0));
 		}
 	}
 
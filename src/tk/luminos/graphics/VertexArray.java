@@ -4,13 +4,13 @@ import static org.lwjgl.opengl.GL11.GL_FLOAT;
 import static org.lwjgl.opengl.GL11.GL_INT;
 import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
 import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
-import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
-import static org.lwjgl.opengl.GL30.glGenVertexArrays;
-import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+import static tk.luminos.graphics.backend.Graphics.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glDeleteVertexArrays;
+import static tk.luminos.graphics.backend.Graphics.glDisableVertexAttribArray;
+import static tk.luminos.graphics.backend.Graphics.glEnableVertexAttribArray;
+import static tk.luminos.graphics.backend.Graphics.glGenVertexArrays;
+import static tk.luminos.graphics.backend.Graphics.glVertexAttribDivisor;
+import static tk.luminos.graphics.backend.Graphics.glVertexAttribPointer;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -157,7 +157,8 @@ public class VertexArray {
 		glDeleteVertexArrays(id);
 		for (VertexBuffer vbo : vbos)
 			vbo.delete();
-		index.delete();
+		if (index != null)
+			index.delete();
 	}
 
 }
@@ -2,10 +2,10 @@ package tk.luminos.graphics;
 
 import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
 import static org.lwjgl.opengl.GL15.GL_STREAM_DRAW;
-import static org.lwjgl.opengl.GL15.glBindBuffer;
-import static org.lwjgl.opengl.GL15.glBufferData;
-import static org.lwjgl.opengl.GL15.glDeleteBuffers;
-import static org.lwjgl.opengl.GL15.glGenBuffers;
+import static tk.luminos.graphics.backend.Graphics.glBindBuffer;
+import static tk.luminos.graphics.backend.Graphics.glBufferData;
+import static tk.luminos.graphics.backend.Graphics.glDeleteBuffers;
+import static tk.luminos.graphics.backend.Graphics.glGenBuffers;
 
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
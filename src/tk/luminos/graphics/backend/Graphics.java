@@ -0,0 +1,360 @@
+package tk.luminos.graphics.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Static entry point for every graphics call made by the engine.  Calls are
+ * forwarded to the active {@link GraphicsBackend}, which by default drives the
+ * current OpenGL context.  Renderers import these functions statically in
+ * place of the LWJGL bindings.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class Graphics {
+	
+	private static GraphicsBackend backend = new OpenGLBackend();
+	
+	/**
+	 * Gets the active backend
+	 * 
+	 * @return		Active backend
+	 */
+	public static GraphicsBackend getBackend() {
+		return backend;
+	}
+	
+	/**
+	 * Sets the active backend.  Must be called before any graphics resources
+	 * are created.
+	 * 
+	 * @param backend		New backend
+	 */
+	public static void setBackend(GraphicsBackend backend) {
+		Graphics.backend = backend;
+	}
+	
+	/**
+	 * Checks if anisotropic texture filtering is supported by the backend
+	 * 
+	 * @return		If anisotropic filtering is supported
+	 */
+	public static boolean isAnisotropicFilteringSupported() {
+		return backend.isAnisotropicFilteringSupported();
+	}
+	
+	public static void glActiveTexture(int texture) {
+		backend.glActiveTexture(texture);
+	}
+	
+	public static void glAttachShader(int program, int shader) {
+		backend.glAttachShader(program, shader);
+	}
+	
+	public static void glBindAttribLocation(int program, int index, CharSequence name) {
+		backend.glBindAttribLocation(program, index, name);
+	}
+	
+	public static void glBindBuffer(int target, int buffer) {
+		backend.glBindBuffer(target, buffer);
+	}
+	
+	public static void glBindFramebuffer(int target, int framebuffer) {
+		backend.glBindFramebuffer(target, framebuffer);
+	}
+	
+	public static void glBindRenderbuffer(int target, int renderbuffer) {
+		backend.glBindRenderbuffer(target, renderbuffer);
+	}
+	
+	public static void glBindTexture(int target, int texture) {
+		backend.glBindTexture(target, texture);
+	}
+	
+	public static void glBindVertexArray(int array) {
+		backend.glBindVertexArray(array);
+	}
+	
+	public static void glBlendFunc(int sfactor, int dfactor) {
+		backend.glBlendFunc(sfactor, dfactor);
+	}
+	
+	public static void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
+		backend.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+	}
+	
+	public static void glBufferData(int target, long size, int usage) {
+		backend.glBufferData(target, size, usage);
+	}
+	
+	public static void glBufferData(int target, FloatBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+	
+	public static void glBufferData(int target, IntBuffer data, int usage) {
+		backend.glBufferData(target, data, usage);
+	}
+	
+	public static void glClear(int mask) {
+		backend.glClear(mask);
+	}
+	
+	public static void glClearColor(float red, float green, float blue, float alpha) {
+		backend.glClearColor(red, green, blue, alpha);
+	}
+	
+	public static void glCompileShader(int shader) {
+		backend.glCompileShader(shader);
+	}
+	
+	public static int glCreateProgram() {
+		return backend.glCreateProgram();
+	}
+	
+	public static int glCreateShader(int type) {
+		return backend.glCreateShader(type);
+	}
+	
+	public static void glCullFace(int mode) {
+		backend.glCullFace(mode);
+	}
+	
+	public static void glDeleteBuffers(int buffer) {
+		backend.glDeleteBuffers(buffer);
+	}
+	
+	public static void glDeleteFramebuffers(int framebuffer) {
+		backend.glDeleteFramebuffers(framebuffer);
+	}
+	
+	public static void glDeleteProgram(int program) {
+		backend.glDeleteProgram(program);
+	}
+	
+	public static void glDeleteRenderbuffers(int renderbuffer) {
+		backend.glDeleteRenderbuffers(renderbuffer);
+	}
+	
+	public static void glDeleteShader(int shader) {
+		backend.glDeleteShader(shader);
+	}
+	
+	public static void glDeleteTextures(int texture) {
+		backend.glDeleteTextures(texture);
+	}
+	
+	public static void glDeleteVertexArrays(int array) {
+		backend.glDeleteVertexArrays(array);
+	}
+	
+	public static void glDepthFunc(int func) {
+		backend.glDepthFunc(func);
+	}
+	
+	public static void glDepthMask(boolean flag) {
+		backend.glDepthMask(flag);
+	}
+	
+	public static void glDetachShader(int program, int shader) {
+		backend.glDetachShader(program, shader);
+	}
+	
+	public static void glDisable(int target) {
+		backend.glDisable(target);
+	}
+	
+	public static void glDisableVertexAttribArray(int index) {
+		backend.glDisableVertexAttribArray(index);
+	}
+	
+	public static void glDrawArrays(int mode, int first, int count) {
+		backend.glDrawArrays(mode, first, count);
+	}
+	
+	public static void glDrawBuffer(int buf) {
+		backend.glDrawBuffer(buf);
+	}
+	
+	public static void glDrawBuffers(IntBuffer bufs) {
+		backend.glDrawBuffers(bufs);
+	}
+	
+	public static void glDrawElements(int mode, int count, int type, long indices) {
+		backend.glDrawElements(mode, count, type, indices);
+	}
+	
+	public static void glEnable(int target) {
+		backend.glEnable(target);
+	}
+	
+	public static void glEnableVertexAttribArray(int index) {
+		backend.glEnableVertexAttribArray(index);
+	}
+	
+	public static void glFlush() {
+		backend.glFlush();
+	}
+	
+	public static void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		backend.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+	
+	public static void glFramebufferTexture(int target, int attachment, int texture, int level) {
+		backend.glFramebufferTexture(target, attachment, texture, level);
+	}
+	
+	public static void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		backend.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+	
+	public static void glFrontFace(int dir) {
+		backend.glFrontFace(dir);
+	}
+	
+	public static int glGenBuffers() {
+		return backend.glGenBuffers();
+	}
+	
+	public static int glGenFramebuffers() {
+		return backend.glGenFramebuffers();
+	}
+	
+	public static int glGenRenderbuffers() {
+		return backend.glGenRenderbuffers();
+	}
+	
+	public static int glGenTextures() {
+		return backend.glGenTextures();
+	}
+	
+	public static int glGenVertexArrays() {
+		return backend.glGenVertexArrays();
+	}
+	
+	public static void glGenerateMipmap(int target) {
+		backend.glGenerateMipmap(target);
+	}
+	
+	public static float glGetFloat(int pname) {
+		return backend.glGetFloat(pname);
+	}
+	
+	public static int glGetInteger(int pname) {
+		return backend.glGetInteger(pname);
+	}
+	
+	public static String glGetProgramInfoLog(int program, int maxLength) {
+		return backend.glGetProgramInfoLog(program, maxLength);
+	}
+	
+	public static int glGetProgrami(int program, int pname) {
+		return backend.glGetProgrami(program, pname);
+	}
+	
+	public static String glGetShaderInfoLog(int shader, int maxLength) {
+		return backend.glGetShaderInfoLog(shader, maxLength);
+	}
+	
+	public static int glGetShaderi(int shader, int pname) {
+		return backend.glGetShaderi(shader, pname);
+	}
+	
+	public static String glGetString(int name) {
+		return backend.glGetString(name);
+	}
+	
+	public static int glGetUniformLocation(int program, CharSequence name) {
+		return backend.glGetUniformLocation(program, name);
+	}
+	
+	public static void glLinkProgram(int program) {
+		backend.glLinkProgram(program);
+	}
+	
+	public static void glPixelStorei(int pname, int param) {
+		backend.glPixelStorei(pname, param);
+	}
+	
+	public static void glPolygonMode(int face, int mode) {
+		backend.glPolygonMode(face, mode);
+	}
+	
+	public static void glReadBuffer(int src) {
+		backend.glReadBuffer(src);
+	}
+	
+	public static void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+		backend.glRenderbufferStorage(target, internalformat, width, height);
+	}
+	
+	public static void glRenderbufferStorageMultisample(int target, int samples, int internalformat, int width, int height) {
+		backend.glRenderbufferStorageMultisample(target, samples, internalformat, width, height);
+	}
+	
+	public static void glShaderSource(int shader, CharSequence string) {
+		backend.glShaderSource(shader, string);
+	}
+	
+	public static void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+	
+	public static void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, long pixels) {
+		backend.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+	
+	public static void glTexParameterf(int target, int pname, float param) {
+		backend.glTexParameterf(target, pname, param);
+	}
+	
+	public static void glTexParameteri(int target, int pname, int param) {
+		backend.glTexParameteri(target, pname, param);
+	}
+	
+	public static void glUniform1f(int location, float v0) {
+		backend.glUniform1f(location, v0);
+	}
+	
+	public static void glUniform1i(int location, int v0) {
+		backend.glUniform1i(location, v0);
+	}
+	
+	public static void glUniform2f(int location, float v0, float v1) {
+		backend.glUniform2f(location, v0, v1);
+	}
+	
+	public static void glUniform3f(int location, float v0, float v1, float v2) {
+		backend.glUniform3f(location, v0, v1, v2);
+	}
+	
+	public static void glUniform4f(int location, float v0, float v1, float v2, float v3) {
+		backend.glUniform4f(location, v0, v1, v2, v3);
+	}
+	
+	public static void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		backend.glUniformMatrix4fv(location, transpose, value);
+	}
+	
+	public static void glUseProgram(int program) {
+		backend.glUseProgram(program);
+	}
+	
+	public static void glValidateProgram(int program) {
+		backend.glValidateProgram(program);
+	}
+	
+	public static void glVertexAttribDivisor(int index, int divisor) {
+		backend.glVertexAttribDivisor(index, divisor);
+	}
+	
+	public static void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		backend.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+	
+	public static void glViewport(int x, int y, int w, int h) {
+		backend.glViewport(x, y, w, h);
+	}
+
+}
@@ -0,0 +1,414 @@
+package tk.luminos.graphics.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Receives every graphics call made by the engine.  The engine issues its
+ * calls through {@link Graphics}, which forwards them to the active backend.
+ * Method names and parameters mirror the OpenGL functions of the same name.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public interface GraphicsBackend {
+	
+	/**
+	 * Checks if anisotropic texture filtering is supported by the context
+	 * 
+	 * @return		If anisotropic filtering is supported
+	 */
+	public boolean isAnisotropicFilteringSupported();
+	
+	/**
+	 * Selects the active texture unit
+	 */
+	public void glActiveTexture(int texture);
+	
+	/**
+	 * Attaches a shader object to a program
+	 */
+	public void glAttachShader(int program, int shader);
+	
+	/**
+	 * Binds a vertex attribute index to a named attribute variable
+	 */
+	public void glBindAttribLocation(int program, int index, CharSequence name);
+	
+	/**
+	 * Binds a buffer object
+	 */
+	public void glBindBuffer(int target, int buffer);
+	
+	/**
+	 * Binds a frame buffer object
+	 */
+	public void glBindFramebuffer(int target, int framebuffer);
+	
+	/**
+	 * Binds a render buffer object
+	 */
+	public void glBindRenderbuffer(int target, int renderbuffer);
+	
+	/**
+	 * Binds a texture to the active texture unit
+	 */
+	public void glBindTexture(int target, int texture);
+	
+	/**
+	 * Binds a vertex array object
+	 */
+	public void glBindVertexArray(int array);
+	
+	/**
+	 * Sets the blend function
+	 */
+	public void glBlendFunc(int sfactor, int dfactor);
+	
+	/**
+	 * Copies a block of pixels between frame buffers
+	 */
+	public void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter);
+	
+	/**
+	 * Allocates storage for the bound buffer
+	 */
+	public void glBufferData(int target, long size, int usage);
+	
+	/**
+	 * Uploads floats to the bound buffer
+	 */
+	public void glBufferData(int target, FloatBuffer data, int usage);
+	
+	/**
+	 * Uploads integers to the bound buffer
+	 */
+	public void glBufferData(int target, IntBuffer data, int usage);
+	
+	/**
+	 * Clears buffers of the bound frame buffer
+	 */
+	public void glClear(int mask);
+	
+	/**
+	 * Sets the clear color
+	 */
+	public void glClearColor(float red, float green, float blue, float alpha);
+	
+	/**
+	 * Compiles a shader object
+	 */
+	public void glCompileShader(int shader);
+	
+	/**
+	 * Creates a program object
+	 */
+	public int glCreateProgram();
+	
+	/**
+	 * Creates a shader object
+	 */
+	public int glCreateShader(int type);
+	
+	/**
+	 * Sets which faces are culled
+	 */
+	public void glCullFace(int mode);
+	
+	/**
+	 * Deletes a buffer object
+	 */
+	public void glDeleteBuffers(int buffer);
+	
+	/**
+	 * Deletes a frame buffer object
+	 */
+	public void glDeleteFramebuffers(int framebuffer);
+	
+	/**
+	 * Deletes a program object
+	 */
+	public void glDeleteProgram(int program);
+	
+	/**
+	 * Deletes a render buffer object
+	 */
+	public void glDeleteRenderbuffers(int renderbuffer);
+	
+	/**
+	 * Deletes a shader object
+	 */
+	public void glDeleteShader(int shader);
+	
+	/**
+	 * Deletes a texture
+	 */
+	public void glDeleteTextures(int texture);
+	
+	/**
+	 * Deletes a vertex array object
+	 */
+	public void glDeleteVertexArrays(int array);
+	
+	/**
+	 * Sets the depth comparison function
+	 */
+	public void glDepthFunc(int func);
+	
+	/**
+	 * Enables or disables depth writes
+	 */
+	public void glDepthMask(boolean flag);
+	
+	/**
+	 * Detaches a shader object from a program
+	 */
+	public void glDetachShader(int program, int shader);
+	
+	/**
+	 * Disables a server-side capability
+	 */
+	public void glDisable(int target);
+	
+	/**
+	 * Disables a vertex attribute array
+	 */
+	public void glDisableVertexAttribArray(int index);
+	
+	/**
+	 * Draws primitives from array data
+	 */
+	public void glDrawArrays(int mode, int first, int count);
+	
+	/**
+	 * Selects the color buffer to draw into
+	 */
+	public void glDrawBuffer(int buf);
+	
+	/**
+	 * Selects the color buffers to draw into
+	 */
+	public void glDrawBuffers(IntBuffer bufs);
+	
+	/**
+	 * Draws indexed primitives
+	 */
+	public void glDrawElements(int mode, int count, int type, long indices);
+	
+	/**
+	 * Enables a server-side capability
+	 */
+	public void glEnable(int target);
+	
+	/**
+	 * Enables a vertex attribute array
+	 */
+	public void glEnableVertexAttribArray(int index);
+	
+	/**
+	 * Flushes pending commands
+	 */
+	public void glFlush();
+	
+	/**
+	 * Attaches a render buffer to a frame buffer
+	 */
+	public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer);
+	
+	/**
+	 * Attaches a texture to a frame buffer
+	 */
+	public void glFramebufferTexture(int target, int attachment, int texture, int level);
+	
+	/**
+	 * Attaches a two dimensional texture to a frame buffer
+	 */
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level);
+	
+	/**
+	 * Sets the winding of front facing polygons
+	 */
+	public void glFrontFace(int dir);
+	
+	/**
+	 * Generates a buffer object name
+	 */
+	public int glGenBuffers();
+	
+	/**
+	 * Generates a frame buffer object name
+	 */
+	public int glGenFramebuffers();
+	
+	/**
+	 * Generates a render buffer object name
+	 */
+	public int glGenRenderbuffers();
+	
+	/**
+	 * Generates a texture name
+	 */
+	public int glGenTextures();
+	
+	/**
+	 * Generates a vertex array object name
+	 */
+	public int glGenVertexArrays();
+	
+	/**
+	 * Generates mipmaps for the bound texture
+	 */
+	public void glGenerateMipmap(int target);
+	
+	/**
+	 * Queries a float state value
+	 */
+	public float glGetFloat(int pname);
+	
+	/**
+	 * Queries an integer state value
+	 */
+	public int glGetInteger(int pname);
+	
+	/**
+	 * Gets the information log of a program
+	 */
+	public String glGetProgramInfoLog(int program, int maxLength);
+	
+	/**
+	 * Queries a program parameter
+	 */
+	public int glGetProgrami(int program, int pname);
+	
+	/**
+	 * Gets the information log of a shader
+	 */
+	public String glGetShaderInfoLog(int shader, int maxLength);
+	
+	/**
+	 * Queries a shader parameter
+	 */
+	public int glGetShaderi(int shader, int pname);
+	
+	/**
+	 * Queries a string describing the context
+	 */
+	public String glGetString(int name);
+	
+	/**
+	 * Gets the location of a uniform variable
+	 */
+	public int glGetUniformLocation(int program, CharSequence name);
+	
+	/**
+	 * Links a program object
+	 */
+	public void glLinkProgram(int program);
+	
+	/**
+	 * Sets a pixel storage mode
+	 */
+	public void glPixelStorei(int pname, int param);
+	
+	/**
+	 * Sets the polygon rasterization mode
+	 */
+	public void glPolygonMode(int face, int mode);
+	
+	/**
+	 * Selects the color buffer to read from
+	 */
+	public void glReadBuffer(int src);
+	
+	/**
+	 * Allocates storage for the bound render buffer
+	 */
+	public void glRenderbufferStorage(int target, int internalformat, int width, int height);
+	
+	/**
+	 * Allocates multisampled storage for the bound render buffer
+	 */
+	public void glRenderbufferStorageMultisample(int target, int samples, int internalformat, int width, int height);
+	
+	/**
+	 * Sets the source of a shader object
+	 */
+	public void glShaderSource(int shader, CharSequence string);
+	
+	/**
+	 * Specifies a two dimensional texture image
+	 */
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels);
+	
+	/**
+	 * Specifies a two dimensional texture image
+	 */
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, long pixels);
+	
+	/**
+	 * Sets a float texture parameter
+	 */
+	public void glTexParameterf(int target, int pname, float param);
+	
+	/**
+	 * Sets an integer texture parameter
+	 */
+	public void glTexParameteri(int target, int pname, int param);
+	
+	/**
+	 * Uploads a float uniform
+	 */
+	public void glUniform1f(int location, float v0);
+	
+	/**
+	 * Uploads an integer uniform
+	 */
+	public void glUniform1i(int location, int v0);
+	
+	/**
+	 * Uploads a two component uniform
+	 */
+	public void glUniform2f(int location, float v0, float v1);
+	
+	/**
+	 * Uploads a three component uniform
+	 */
+	public void glUniform3f(int location, float v0, float v1, float v2);
+	
+	/**
+	 * Uploads a four component uniform
+	 */
+	public void glUniform4f(int location, float v0, float v1, float v2, float v3);
+	
+	/**
+	 * Uploads a 4x4 matrix uniform
+	 */
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+	
+	/**
+	 * Binds a program object
+	 */
+	public void glUseProgram(int program);
+	
+	/**
+	 * Validates a program object
+	 */
+	public void glValidateProgram(int program);
+	
+	/**
+	 * Sets the instancing divisor of a vertex attribute
+	 */
+	public void glVertexAttribDivisor(int index, int divisor);
+	
+	/**
+	 * Describes the layout of a vertex attribute
+	 */
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+	
+	/**
+	 * Sets the viewport
+	 */
+	public void glViewport(int x, int y, int w, int h);
+
+}
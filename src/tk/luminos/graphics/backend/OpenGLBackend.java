@@ -0,0 +1,419 @@
+package tk.luminos.graphics.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL33;
+
+/**
+ * Backend that forwards every call to the current OpenGL context
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class OpenGLBackend implements GraphicsBackend {
+	
+	@Override
+	public boolean isAnisotropicFilteringSupported() {
+		return GL.getCapabilities().GL_EXT_texture_filter_anisotropic;
+	}
+	
+	@Override
+	public void glActiveTexture(int texture) {
+		GL13.glActiveTexture(texture);
+	}
+	
+	@Override
+	public void glAttachShader(int program, int shader) {
+		GL20.glAttachShader(program, shader);
+	}
+	
+	@Override
+	public void glBindAttribLocation(int program, int index, CharSequence name) {
+		GL20.glBindAttribLocation(program, index, name);
+	}
+	
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		GL15.glBindBuffer(target, buffer);
+	}
+	
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		GL30.glBindFramebuffer(target, framebuffer);
+	}
+	
+	@Override
+	public void glBindRenderbuffer(int target, int renderbuffer) {
+		GL30.glBindRenderbuffer(target, renderbuffer);
+	}
+	
+	@Override
+	public void glBindTexture(int target, int texture) {
+		GL11.glBindTexture(target, texture);
+	}
+	
+	@Override
+	public void glBindVertexArray(int array) {
+		GL30.glBindVertexArray(array);
+	}
+	
+	@Override
+	public void glBlendFunc(int sfactor, int dfactor) {
+		GL11.glBlendFunc(sfactor, dfactor);
+	}
+	
+	@Override
+	public void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
+		GL30.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+	}
+	
+	@Override
+	public void glBufferData(int target, long size, int usage) {
+		GL15.glBufferData(target, size, usage);
+	}
+	
+	@Override
+	public void glBufferData(int target, FloatBuffer data, int usage) {
+		GL15.glBufferData(target, data, usage);
+	}
+	
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		GL15.glBufferData(target, data, usage);
+	}
+	
+	@Override
+	public void glClear(int mask) {
+		GL11.glClear(mask);
+	}
+	
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		GL11.glClearColor(red, green, blue, alpha);
+	}
+	
+	@Override
+	public void glCompileShader(int shader) {
+		GL20.glCompileShader(shader);
+	}
+	
+	@Override
+	public int glCreateProgram() {
+		return GL20.glCreateProgram();
+	}
+	
+	@Override
+	public int glCreateShader(int type) {
+		return GL20.glCreateShader(type);
+	}
+	
+	@Override
+	public void glCullFace(int mode) {
+		GL11.glCullFace(mode);
+	}
+	
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		GL15.glDeleteBuffers(buffer);
+	}
+	
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		GL30.glDeleteFramebuffers(framebuffer);
+	}
+	
+	@Override
+	public void glDeleteProgram(int program) {
+		GL20.glDeleteProgram(program);
+	}
+	
+	@Override
+	public void glDeleteRenderbuffers(int renderbuffer) {
+		GL30.glDeleteRenderbuffers(renderbuffer);
+	}
+	
+	@Override
+	public void glDeleteShader(int shader) {
+		GL20.glDeleteShader(shader);
+	}
+	
+	@Override
+	public void glDeleteTextures(int texture) {
+		GL11.glDeleteTextures(texture);
+	}
+	
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		GL30.glDeleteVertexArrays(array);
+	}
+	
+	@Override
+	public void glDepthFunc(int func) {
+		GL11.glDepthFunc(func);
+	}
+	
+	@Override
+	public void glDepthMask(boolean flag) {
+		GL11.glDepthMask(flag);
+	}
+	
+	@Override
+	public void glDetachShader(int program, int shader) {
+		GL20.glDetachShader(program, shader);
+	}
+	
+	@Override
+	public void glDisable(int target) {
+		GL11.glDisable(target);
+	}
+	
+	@Override
+	public void glDisableVertexAttribArray(int index) {
+		GL20.glDisableVertexAttribArray(index);
+	}
+	
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		GL11.glDrawArrays(mode, first, count);
+	}
+	
+	@Override
+	public void glDrawBuffer(int buf) {
+		GL11.glDrawBuffer(buf);
+	}
+	
+	@Override
+	public void glDrawBuffers(IntBuffer bufs) {
+		GL20.glDrawBuffers(bufs);
+	}
+	
+	@Override
+	public void glDrawElements(int mode, int count, int type, long indices) {
+		GL11.glDrawElements(mode, count, type, indices);
+	}
+	
+	@Override
+	public void glEnable(int target) {
+		GL11.glEnable(target);
+	}
+	
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		GL20.glEnableVertexAttribArray(index);
+	}
+	
+	@Override
+	public void glFlush() {
+		GL11.glFlush();
+	}
+	
+	@Override
+	public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		GL30.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+	
+	@Override
+	public void glFramebufferTexture(int target, int attachment, int texture, int level) {
+		GL32.glFramebufferTexture(target, attachment, texture, level);
+	}
+	
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		GL30.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+	
+	@Override
+	public void glFrontFace(int dir) {
+		GL11.glFrontFace(dir);
+	}
+	
+	@Override
+	public int glGenBuffers() {
+		return GL15.glGenBuffers();
+	}
+	
+	@Override
+	public int glGenFramebuffers() {
+		return GL30.glGenFramebuffers();
+	}
+	
+	@Override
+	public int glGenRenderbuffers() {
+		return GL30.glGenRenderbuffers();
+	}
+	
+	@Override
+	public int glGenTextures() {
+		return GL11.glGenTextures();
+	}
+	
+	@Override
+	public int glGenVertexArrays() {
+		return GL30.glGenVertexArrays();
+	}
+	
+	@Override
+	public void glGenerateMipmap(int target) {
+		GL30.glGenerateMipmap(target);
+	}
+	
+	@Override
+	public float glGetFloat(int pname) {
+		return GL11.glGetFloat(pname);
+	}
+	
+	@Override
+	public int glGetInteger(int pname) {
+		return GL11.glGetInteger(pname);
+	}
+	
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		return GL20.glGetProgramInfoLog(program, maxLength);
+	}
+	
+	@Override
+	public int glGetProgrami(int program, int pname) {
+		return GL20.glGetProgrami(program, pname);
+	}
+	
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		return GL20.glGetShaderInfoLog(shader, maxLength);
+	}
+	
+	@Override
+	public int glGetShaderi(int shader, int pname) {
+		return GL20.glGetShaderi(shader, pname);
+	}
+	
+	@Override
+	public String glGetString(int name) {
+		return GL11.glGetString(name);
+	}
+	
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		return GL20.glGetUniformLocation(program, name);
+	}
+	
+	@Override
+	public void glLinkProgram(int program) {
+		GL20.glLinkProgram(program);
+	}
+	
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		GL11.glPixelStorei(pname, param);
+	}
+	
+	@Override
+	public void glPolygonMode(int face, int mode) {
+		GL11.glPolygonMode(face, mode);
+	}
+	
+	@Override
+	public void glReadBuffer(int src) {
+		GL11.glReadBuffer(src);
+	}
+	
+	@Override
+	public void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+		GL30.glRenderbufferStorage(target, internalformat, width, height);
+	}
+	
+	@Override
+	public void glRenderbufferStorageMultisample(int target, int samples, int internalformat, int width, int height) {
+		GL30.glRenderbufferStorageMultisample(target, samples, internalformat, width, height);
+	}
+	
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		GL20.glShaderSource(shader, string);
+	}
+	
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		GL11.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+	
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, long pixels) {
+		GL11.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+	
+	@Override
+	public void glTexParameterf(int target, int pname, float param) {
+		GL11.glTexParameterf(target, pname, param);
+	}
+	
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		GL11.glTexParameteri(target, pname, param);
+	}
+	
+	@Override
+	public void glUniform1f(int location, float v0) {
+		GL20.glUniform1f(location, v0);
+	}
+	
+	@Override
+	public void glUniform1i(int location, int v0) {
+		GL20.glUniform1i(location, v0);
+	}
+	
+	@Override
+	public void glUniform2f(int location, float v0, float v1) {
+		GL20.glUniform2f(location, v0, v1);
+	}
+	
+	@Override
+	public void glUniform3f(int location, float v0, float v1, float v2) {
+		GL20.glUniform3f(location, v0, v1, v2);
+	}
+	
+	@Override
+	public void glUniform4f(int location, float v0, float v1, float v2, float v3) {
+		GL20.glUniform4f(location, v0, v1, v2, v3);
+	}
+	
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		GL20.glUniformMatrix4fv(location, transpose, value);
+	}
+	
+	@Override
+	public void glUseProgram(int program) {
+		GL20.glUseProgram(program);
+	}
+	
+	@Override
+	public void glValidateProgram(int program) {
+		GL20.glValidateProgram(program);
+	}
+	
+	@Override
+	public void glVertexAttribDivisor(int index, int divisor) {
+		GL33.glVertexAttribDivisor(index, divisor);
+	}
+	
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		GL20.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+	
+	@Override
+	public void glViewport(int x, int y, int w, int h) {
+		GL11.glViewport(x, y, w, h);
+	}
+
+}
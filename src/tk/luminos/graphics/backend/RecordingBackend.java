@@ -0,0 +1,725 @@
+package tk.luminos.graphics.backend;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP_NEGATIVE_Z;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP_POSITIVE_X;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Backend that counts the work submitted by the engine.  Calls are forwarded
+ * to an optional delegate backend; without one no driver is touched, object
+ * names are generated locally and queries report success, which allows the
+ * engine to run a full frame without a window or graphics device.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class RecordingBackend implements GraphicsBackend {
+	
+	/**
+	 * Quantities counted by the backend
+	 */
+	public enum Counter {
+		
+		/**Number of draw calls*/DRAW_CALLS,
+		/**Number of vertices or indices submitted by draw calls*/VERTICES,
+		/**Number of binds and pipeline state changes*/STATE_CHANGES,
+		/**Number of uniform uploads*/UNIFORM_UPLOADS,
+		/**Bytes uploaded to buffer objects*/BUFFER_BYTES,
+		/**Bytes allocated or uploaded to textures*/TEXTURE_BYTES,
+		/**Number of frame buffer clears*/CLEARS;
+		
+	}
+	
+	private static final int COUNTERS = Counter.values().length;
+	private static final int TEXTURE_UNITS = 32;
+	
+	private final GraphicsBackend delegate;
+	private final long[] current = new long[COUNTERS];
+	private final long[] lastFrame = new long[COUNTERS];
+	private final long[] total = new long[COUNTERS];
+	private final Map<Integer, Map<String, Integer>> uniforms = new HashMap<Integer, Map<String, Integer>>();
+	private final Map<Integer, Long> bufferSizes = new HashMap<Integer, Long>();
+	private final Map<Integer, Map<Integer, Long>> textureSizes = new HashMap<Integer, Map<Integer, Long>>();
+	private final int[] boundTextures = new int[TEXTURE_UNITS];
+	private final int[] boundCubeMaps = new int[TEXTURE_UNITS];
+	private int arrayBuffer, elementBuffer, activeTexture;
+	private volatile long residentBufferBytes, residentTextureBytes;
+	private int nextName = 1;
+	private long frames = 0;
+	
+	/**
+	 * Creates a recording backend that does not touch any driver
+	 */
+	public RecordingBackend() {
+		this(null);
+	}
+	
+	/**
+	 * Creates a recording backend
+	 * 
+	 * @param delegate		Backend to forward calls to, or null to run without a driver
+	 */
+	public RecordingBackend(GraphicsBackend delegate) {
+		this.delegate = delegate;
+	}
+	
+	/**
+	 * Gets the backend calls are forwarded to
+	 * 
+	 * @return		Delegate backend, or null if running without a driver
+	 */
+	public GraphicsBackend getDelegate() {
+		return delegate;
+	}
+	
+	/**
+	 * Finishes the current frame, making its counts available through
+	 * {@link #getLastFrame(Counter)}
+	 */
+	public void endFrame() {
+		for (int i = 0; i < COUNTERS; i++) {
+			lastFrame[i] = current[i];
+			total[i] += current[i];
+			current[i] = 0;
+		}
+		frames++;
+	}
+	
+	/**
+	 * Gets a count accumulated since the last completed frame
+	 * 
+	 * @param counter		Counter to get
+	 * @return				Count in the current frame
+	 */
+	public long getCurrent(Counter counter) {
+		return current[counter.ordinal()];
+	}
+	
+	/**
+	 * Gets a count of the last completed frame
+	 * 
+	 * @param counter		Counter to get
+	 * @return				Count in the last frame
+	 */
+	public long getLastFrame(Counter counter) {
+		return lastFrame[counter.ordinal()];
+	}
+	
+	/**
+	 * Gets a count accumulated over every completed frame
+	 * 
+	 * @param counter		Counter to get
+	 * @return				Total count
+	 */
+	public long getTotal(Counter counter) {
+		return total[counter.ordinal()];
+	}
+	
+	/**
+	 * Gets the number of completed frames
+	 * 
+	 * @return		Number of frames
+	 */
+	public long getFrames() {
+		return frames;
+	}
+	
+	/**
+	 * Gets the bytes currently held by buffer objects created through this
+	 * backend
+	 * 
+	 * @return		Resident buffer bytes
+	 */
+	public long getResidentBufferBytes() {
+		return residentBufferBytes;
+	}
+	
+	/**
+	 * Gets the bytes currently held by textures created through this backend
+	 * 
+	 * @return		Resident texture bytes
+	 */
+	public long getResidentTextureBytes() {
+		return residentTextureBytes;
+	}
+	
+	/**
+	 * Clears every counter
+	 */
+	public void reset() {
+		for (int i = 0; i < COUNTERS; i++) {
+			current[i] = lastFrame[i] = total[i] = 0;
+		}
+		frames = 0;
+	}
+	
+	@Override
+	public boolean isAnisotropicFilteringSupported() {
+		return delegate != null && delegate.isAnisotropicFilteringSupported();
+	}
+	
+	@Override
+	public void glActiveTexture(int texture) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		activeTexture = Math.max(0, Math.min(TEXTURE_UNITS - 1, texture - GL_TEXTURE0));
+		if (delegate != null)
+			delegate.glActiveTexture(texture);
+	}
+	
+	@Override
+	public void glAttachShader(int program, int shader) {
+		if (delegate != null)
+			delegate.glAttachShader(program, shader);
+	}
+	
+	@Override
+	public void glBindAttribLocation(int program, int index, CharSequence name) {
+		if (delegate != null)
+			delegate.glBindAttribLocation(program, index, name);
+	}
+	
+	@Override
+	public void glBindBuffer(int target, int buffer) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (target == GL_ARRAY_BUFFER)
+			arrayBuffer = buffer;
+		else if (target == GL_ELEMENT_ARRAY_BUFFER)
+			elementBuffer = buffer;
+		if (delegate != null)
+			delegate.glBindBuffer(target, buffer);
+	}
+	
+	@Override
+	public void glBindFramebuffer(int target, int framebuffer) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glBindFramebuffer(target, framebuffer);
+	}
+	
+	@Override
+	public void glBindRenderbuffer(int target, int renderbuffer) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glBindRenderbuffer(target, renderbuffer);
+	}
+	
+	@Override
+	public void glBindTexture(int target, int texture) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (target == GL_TEXTURE_2D)
+			boundTextures[activeTexture] = texture;
+		else if (target == GL_TEXTURE_CUBE_MAP)
+			boundCubeMaps[activeTexture] = texture;
+		if (delegate != null)
+			delegate.glBindTexture(target, texture);
+	}
+	
+	@Override
+	public void glBindVertexArray(int array) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glBindVertexArray(array);
+	}
+	
+	@Override
+	public void glBlendFunc(int sfactor, int dfactor) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glBlendFunc(sfactor, dfactor);
+	}
+	
+	@Override
+	public void glBlitFramebuffer(int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask, int filter) {
+		if (delegate != null)
+			delegate.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+	}
+	
+	@Override
+	public void glBufferData(int target, long size, int usage) {
+		current[Counter.BUFFER_BYTES.ordinal()] += size;
+		setBufferSize(target, size);
+		if (delegate != null)
+			delegate.glBufferData(target, size, usage);
+	}
+	
+	@Override
+	public void glBufferData(int target, FloatBuffer data, int usage) {
+		current[Counter.BUFFER_BYTES.ordinal()] += (long) data.remaining() << 2;
+		setBufferSize(target, (long) data.remaining() << 2);
+		if (delegate != null)
+			delegate.glBufferData(target, data, usage);
+	}
+	
+	@Override
+	public void glBufferData(int target, IntBuffer data, int usage) {
+		current[Counter.BUFFER_BYTES.ordinal()] += (long) data.remaining() << 2;
+		setBufferSize(target, (long) data.remaining() << 2);
+		if (delegate != null)
+			delegate.glBufferData(target, data, usage);
+	}
+	
+	@Override
+	public void glClear(int mask) {
+		current[Counter.CLEARS.ordinal()]++;
+		if (delegate != null)
+			delegate.glClear(mask);
+	}
+	
+	@Override
+	public void glClearColor(float red, float green, float blue, float alpha) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glClearColor(red, green, blue, alpha);
+	}
+	
+	@Override
+	public void glCompileShader(int shader) {
+		if (delegate != null)
+			delegate.glCompileShader(shader);
+	}
+	
+	@Override
+	public int glCreateProgram() {
+		return delegate != null ? delegate.glCreateProgram() : nextName++;
+	}
+	
+	@Override
+	public int glCreateShader(int type) {
+		return delegate != null ? delegate.glCreateShader(type) : nextName++;
+	}
+	
+	@Override
+	public void glCullFace(int mode) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glCullFace(mode);
+	}
+	
+	@Override
+	public void glDeleteBuffers(int buffer) {
+		Long size = bufferSizes.remove(buffer);
+		if (size != null)
+			residentBufferBytes -= size;
+		if (delegate != null)
+			delegate.glDeleteBuffers(buffer);
+	}
+	
+	@Override
+	public void glDeleteFramebuffers(int framebuffer) {
+		if (delegate != null)
+			delegate.glDeleteFramebuffers(framebuffer);
+	}
+	
+	@Override
+	public void glDeleteProgram(int program) {
+		if (delegate != null)
+			delegate.glDeleteProgram(program);
+	}
+	
+	@Override
+	public void glDeleteRenderbuffers(int renderbuffer) {
+		if (delegate != null)
+			delegate.glDeleteRenderbuffers(renderbuffer);
+	}
+	
+	@Override
+	public void glDeleteShader(int shader) {
+		if (delegate != null)
+			delegate.glDeleteShader(shader);
+	}
+	
+	@Override
+	public void glDeleteTextures(int texture) {
+		Map<Integer, Long> images = textureSizes.remove(texture);
+		if (images != null) {
+			for (long size : images.values())
+				residentTextureBytes -= size;
+		}
+		if (delegate != null)
+			delegate.glDeleteTextures(texture);
+	}
+	
+	@Override
+	public void glDeleteVertexArrays(int array) {
+		if (delegate != null)
+			delegate.glDeleteVertexArrays(array);
+	}
+	
+	@Override
+	public void glDepthFunc(int func) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glDepthFunc(func);
+	}
+	
+	@Override
+	public void glDepthMask(boolean flag) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glDepthMask(flag);
+	}
+	
+	@Override
+	public void glDetachShader(int program, int shader) {
+		if (delegate != null)
+			delegate.glDetachShader(program, shader);
+	}
+	
+	@Override
+	public void glDisable(int target) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glDisable(target);
+	}
+	
+	@Override
+	public void glDisableVertexAttribArray(int index) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glDisableVertexAttribArray(index);
+	}
+	
+	@Override
+	public void glDrawArrays(int mode, int first, int count) {
+		current[Counter.DRAW_CALLS.ordinal()]++;
+		current[Counter.VERTICES.ordinal()] += count;
+		if (delegate != null)
+			delegate.glDrawArrays(mode, first, count);
+	}
+	
+	@Override
+	public void glDrawBuffer(int buf) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glDrawBuffer(buf);
+	}
+	
+	@Override
+	public void glDrawBuffers(IntBuffer bufs) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glDrawBuffers(bufs);
+	}
+	
+	@Override
+	public void glDrawElements(int mode, int count, int type, long indices) {
+		current[Counter.DRAW_CALLS.ordinal()]++;
+		current[Counter.VERTICES.ordinal()] += count;
+		if (delegate != null)
+			delegate.glDrawElements(mode, count, type, indices);
+	}
+	
+	@Override
+	public void glEnable(int target) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glEnable(target);
+	}
+	
+	@Override
+	public void glEnableVertexAttribArray(int index) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glEnableVertexAttribArray(index);
+	}
+	
+	@Override
+	public void glFlush() {
+		if (delegate != null)
+			delegate.glFlush();
+	}
+	
+	@Override
+	public void glFramebufferRenderbuffer(int target, int attachment, int renderbuffertarget, int renderbuffer) {
+		if (delegate != null)
+			delegate.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+	
+	@Override
+	public void glFramebufferTexture(int target, int attachment, int texture, int level) {
+		if (delegate != null)
+			delegate.glFramebufferTexture(target, attachment, texture, level);
+	}
+	
+	@Override
+	public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+		if (delegate != null)
+			delegate.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+	
+	@Override
+	public void glFrontFace(int dir) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glFrontFace(dir);
+	}
+	
+	@Override
+	public int glGenBuffers() {
+		return delegate != null ? delegate.glGenBuffers() : nextName++;
+	}
+	
+	@Override
+	public int glGenFramebuffers() {
+		return delegate != null ? delegate.glGenFramebuffers() : nextName++;
+	}
+	
+	@Override
+	public int glGenRenderbuffers() {
+		return delegate != null ? delegate.glGenRenderbuffers() : nextName++;
+	}
+	
+	@Override
+	public int glGenTextures() {
+		return delegate != null ? delegate.glGenTextures() : nextName++;
+	}
+	
+	@Override
+	public int glGenVertexArrays() {
+		return delegate != null ? delegate.glGenVertexArrays() : nextName++;
+	}
+	
+	@Override
+	public void glGenerateMipmap(int target) {
+		if (delegate != null)
+			delegate.glGenerateMipmap(target);
+	}
+	
+	@Override
+	public float glGetFloat(int pname) {
+		return delegate != null ? delegate.glGetFloat(pname) : 0;
+	}
+	
+	@Override
+	public int glGetInteger(int pname) {
+		return delegate != null ? delegate.glGetInteger(pname) : 0;
+	}
+	
+	@Override
+	public String glGetProgramInfoLog(int program, int maxLength) {
+		return delegate != null ? delegate.glGetProgramInfoLog(program, maxLength) : "";
+	}
+	
+	@Override
+	public int glGetProgrami(int program, int pname) {
+		return delegate != null ? delegate.glGetProgrami(program, pname) : 1;
+	}
+	
+	@Override
+	public String glGetShaderInfoLog(int shader, int maxLength) {
+		return delegate != null ? delegate.glGetShaderInfoLog(shader, maxLength) : "";
+	}
+	
+	@Override
+	public int glGetShaderi(int shader, int pname) {
+		return delegate != null ? delegate.glGetShaderi(shader, pname) : 1;
+	}
+	
+	@Override
+	public String glGetString(int name) {
+		return delegate != null ? delegate.glGetString(name) : "LUMINOS_RECORDING_BACKEND";
+	}
+	
+	@Override
+	public int glGetUniformLocation(int program, CharSequence name) {
+		if (delegate != null)
+			return delegate.glGetUniformLocation(program, name);
+		Map<String, Integer> locations = uniforms.get(program);
+		if (locations == null)
+			uniforms.put(program, locations = new HashMap<String, Integer>());
+		String key = name.toString();
+		Integer location = locations.get(key);
+		if (location == null)
+			locations.put(key, location = locations.size());
+		return location;
+	}
+	
+	@Override
+	public void glLinkProgram(int program) {
+		if (delegate != null)
+			delegate.glLinkProgram(program);
+	}
+	
+	@Override
+	public void glPixelStorei(int pname, int param) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glPixelStorei(pname, param);
+	}
+	
+	@Override
+	public void glPolygonMode(int face, int mode) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glPolygonMode(face, mode);
+	}
+	
+	@Override
+	public void glReadBuffer(int src) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glReadBuffer(src);
+	}
+	
+	@Override
+	public void glRenderbufferStorage(int target, int internalformat, int width, int height) {
+		if (delegate != null)
+			delegate.glRenderbufferStorage(target, internalformat, width, height);
+	}
+	
+	@Override
+	public void glRenderbufferStorageMultisample(int target, int samples, int internalformat, int width, int height) {
+		if (delegate != null)
+			delegate.glRenderbufferStorageMultisample(target, samples, internalformat, width, height);
+	}
+	
+	@Override
+	public void glShaderSource(int shader, CharSequence string) {
+		if (delegate != null)
+			delegate.glShaderSource(shader, string);
+	}
+	
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, ByteBuffer pixels) {
+		long size = pixels != null ? pixels.remaining() : (long) width * height * 4;
+		current[Counter.TEXTURE_BYTES.ordinal()] += size;
+		setTextureSize(target, level, size);
+		if (delegate != null)
+			delegate.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+	
+	@Override
+	public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border, int format, int type, long pixels) {
+		long size = (long) width * height * 4;
+		current[Counter.TEXTURE_BYTES.ordinal()] += size;
+		setTextureSize(target, level, size);
+		if (delegate != null)
+			delegate.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+	
+	@Override
+	public void glTexParameterf(int target, int pname, float param) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glTexParameterf(target, pname, param);
+	}
+	
+	@Override
+	public void glTexParameteri(int target, int pname, int param) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glTexParameteri(target, pname, param);
+	}
+	
+	@Override
+	public void glUniform1f(int location, float v0) {
+		current[Counter.UNIFORM_UPLOADS.ordinal()]++;
+		if (delegate != null)
+			delegate.glUniform1f(location, v0);
+	}
+	
+	@Override
+	public void glUniform1i(int location, int v0) {
+		current[Counter.UNIFORM_UPLOADS.ordinal()]++;
+		if (delegate != null)
+			delegate.glUniform1i(location, v0);
+	}
+	
+	@Override
+	public void glUniform2f(int location, float v0, float v1) {
+		current[Counter.UNIFORM_UPLOADS.ordinal()]++;
+		if (delegate != null)
+			delegate.glUniform2f(location, v0, v1);
+	}
+	
+	@Override
+	public void glUniform3f(int location, float v0, float v1, float v2) {
+		current[Counter.UNIFORM_UPLOADS.ordinal()]++;
+		if (delegate != null)
+			delegate.glUniform3f(location, v0, v1, v2);
+	}
+	
+	@Override
+	public void glUniform4f(int location, float v0, float v1, float v2, float v3) {
+		current[Counter.UNIFORM_UPLOADS.ordinal()]++;
+		if (delegate != null)
+			delegate.glUniform4f(location, v0, v1, v2, v3);
+	}
+	
+	@Override
+	public void glUniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+		current[Counter.UNIFORM_UPLOADS.ordinal()]++;
+		if (delegate != null)
+			delegate.glUniformMatrix4fv(location, transpose, value);
+	}
+	
+	@Override
+	public void glUseProgram(int program) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glUseProgram(program);
+	}
+	
+	@Override
+	public void glValidateProgram(int program) {
+		if (delegate != null)
+			delegate.glValidateProgram(program);
+	}
+	
+	@Override
+	public void glVertexAttribDivisor(int index, int divisor) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glVertexAttribDivisor(index, divisor);
+	}
+	
+	@Override
+	public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glVertexAttribPointer(index, size, type, normalized, stride, pointer);
+	}
+	
+	@Override
+	public void glViewport(int x, int y, int w, int h) {
+		current[Counter.STATE_CHANGES.ordinal()]++;
+		if (delegate != null)
+			delegate.glViewport(x, y, w, h);
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private void setBufferSize(int target, long size) {
+		int buffer = target == GL_ARRAY_BUFFER ? arrayBuffer : target == GL_ELEMENT_ARRAY_BUFFER ? elementBuffer : 0;
+		if (buffer == 0)
+			return;
+		Long previous = bufferSizes.put(buffer, size);
+		residentBufferBytes += size - (previous != null ? previous : 0);
+	}
+	
+	private void setTextureSize(int target, int level, long size) {
+		int texture = 0;
+		if (target == GL_TEXTURE_2D)
+			texture = boundTextures[activeTexture];
+		else if (target >= GL_TEXTURE_CUBE_MAP_POSITIVE_X && target <= GL_TEXTURE_CUBE_MAP_NEGATIVE_Z)
+			texture = boundCubeMaps[activeTexture];
+		if (texture == 0)
+			return;
+		Map<Integer, Long> images = textureSizes.get(texture);
+		if (images == null)
+			textureSizes.put(texture, images = new HashMap<Integer, Long>());
+		Long previous = images.put((target << 8) | level, size);
+		residentTextureBytes += size - (previous != null ? previous : 0);
+	}
+
+}
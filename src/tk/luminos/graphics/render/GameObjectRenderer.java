@@ -5,11 +5,11 @@ import static org.lwjgl.opengl.GL11.GL_CW;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDrawElements;
-import static org.lwjgl.opengl.GL11.glFrontFace;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glDrawElements;
+import static tk.luminos.graphics.backend.Graphics.glFrontFace;
 
 import java.util.List;
 import java.util.Map;
@@ -162,7 +162,7 @@ public class GameObjectRenderer {
 	 * Prepares instance of entity for rendering
 	 */
 	private void prepareInstance(GameObject entity) {
-		shader.setUniform(shader.getLocation("transformationMatrix"), entity.getTransformation().getComponent());
+		shader.setUniform(shader.getLocation("transformationMatrix"), entity.getWorldMatrix());
 		shader.setUniform(shader.getLocation("offset"), new Vector2(0, 0));
 	}
 
@@ -10,16 +10,16 @@ import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
 import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLE_STRIP;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glClear;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glDrawArrays;
-import static org.lwjgl.opengl.GL11.glEnable;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glClear;
+import static tk.luminos.graphics.backend.Graphics.glDisable;
+import static tk.luminos.graphics.backend.Graphics.glDisableVertexAttribArray;
+import static tk.luminos.graphics.backend.Graphics.glDrawArrays;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
+import static tk.luminos.graphics.backend.Graphics.glEnableVertexAttribArray;
 
 import tk.luminos.graphics.FrameBufferObject;
 import tk.luminos.graphics.models.RawModel;
@@ -3,11 +3,11 @@ package tk.luminos.graphics.render;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDrawElements;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glDrawElements;
 
 import java.util.List;
 import java.util.Map;
@@ -17,7 +17,6 @@ import tk.luminos.graphics.Material;
 import tk.luminos.graphics.VertexArray;
 import tk.luminos.graphics.models.TexturedModel;
 import tk.luminos.graphics.shaders.NormalMapShader;
-import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Matrix4;
 import tk.luminos.maths.Vector2;
 
@@ -96,8 +95,7 @@ public class NormalMapRenderer {
     }
  
     private void prepareInstance(GameObject entity) {
-        Matrix4 transformationMatrix = MathUtils.createTransformationMatrix(entity.getPosition(), entity.getRotation(), entity.getScale());
-        shader.setUniform("transformationMatrix", transformationMatrix);
+        shader.setUniform("transformationMatrix", entity.getWorldMatrix());
         shader.setUniform("offset", new Vector2(0, 0));
     }
 	
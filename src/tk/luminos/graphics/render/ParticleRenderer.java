@@ -5,17 +5,17 @@ import static org.lwjgl.opengl.GL11.GL_ONE;
 import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLE_STRIP;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glBlendFunc;
-import static org.lwjgl.opengl.GL11.glDepthMask;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glDrawArrays;
-import static org.lwjgl.opengl.GL11.glEnable;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glBlendFunc;
+import static tk.luminos.graphics.backend.Graphics.glDepthMask;
+import static tk.luminos.graphics.backend.Graphics.glDisable;
+import static tk.luminos.graphics.backend.Graphics.glDisableVertexAttribArray;
+import static tk.luminos.graphics.backend.Graphics.glDrawArrays;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
+import static tk.luminos.graphics.backend.Graphics.glEnableVertexAttribArray;
 
 import java.util.List;
 import java.util.Map;
@@ -26,7 +26,6 @@ import tk.luminos.graphics.ParticleTexture;
 import tk.luminos.graphics.models.RawModel;
 import tk.luminos.graphics.shaders.ParticleShader;
 import tk.luminos.loaders.Loader;
-import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Matrix4;
 import tk.luminos.maths.Vector2;
 import tk.luminos.maths.Vector3;
@@ -43,9 +42,14 @@ import tk.luminos.maths.Vector3;
 public class ParticleRenderer {
 	
 	private static final float[] VERTICES = {-0.5f, 0.5f, -0.5f, -0.5f, 0.5f, 0.5f, 0.5f, -0.5f};
+	private static final Vector3 Z_AXIS = new Vector3(0, 0, 1);
 	
 	private RawModel quad;
 	private ParticleShader shader;
+	private final Matrix4 modelMatrix = new Matrix4();
+	private final Matrix4 modelViewMatrix = new Matrix4();
+	private final Vector3 scale = new Vector3();
+	private final Vector2 texCoordInfo = new Vector2();
 	
 	/**
 	 * Constructor
@@ -69,7 +73,7 @@ public class ParticleRenderer {
 	 * @param camera			Defines camera to get view matrix of
 	 */
 	public void render(Map<ParticleTexture, List<Particle>> particles, Camera camera){
-		Matrix4 viewMatrix = MathUtils.createViewMatrix(camera);
+		Matrix4 viewMatrix = camera.getViewMatrix();
 		prepare();
 		
 		for(ParticleTexture texture : particles.keySet()) {
@@ -79,7 +83,9 @@ public class ParticleRenderer {
 				updateModelViewMatrix(particle.getPosition(), particle.getRotation(), particle.getScale(), viewMatrix);
 				shader.setUniform("texOffset1", particle.getOffsetOne());
 				shader.setUniform("texOffset2", particle.getOffsetTwo());
-				shader.setUniform("texCoordInfo", new Vector2(texture.getNumberOfRows(), particle.getBlend()));
+				texCoordInfo.x = texture.getNumberOfRows();
+				texCoordInfo.y = particle.getBlend();
+				shader.setUniform("texCoordInfo", texCoordInfo);
 				glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.getVertexCount());
 			}
 		}
@@ -128,7 +134,7 @@ public class ParticleRenderer {
 	 * @param viewMatrix	View matrix of camera
 	 */
 	private void updateModelViewMatrix(Vector3 position, float rotation, float scale, Matrix4 viewMatrix) {
-		Matrix4 modelMatrix = new Matrix4();
+		modelMatrix.setIdentity();
 		Matrix4.translate(position, modelMatrix, modelMatrix);
 		modelMatrix.m00 = viewMatrix.m00;
 		modelMatrix.m01 = viewMatrix.m10;
@@ -139,10 +145,9 @@ public class ParticleRenderer {
 		modelMatrix.m20 = viewMatrix.m02;
 		modelMatrix.m21 = viewMatrix.m12;
 		modelMatrix.m22 = viewMatrix.m22;
-		Matrix4.rotate((float) Math.toRadians(rotation), new Vector3(0, 0, 1), modelMatrix, modelMatrix);
-		Matrix4.scale(new Vector3(scale, scale, scale), modelMatrix, modelMatrix);
-		Matrix4 modelViewMatrix = Matrix4.mul(viewMatrix, modelMatrix, null);
-		shader.setUniform("modelViewMatrix", modelViewMatrix);
+		Matrix4.rotate((float) Math.toRadians(rotation), Z_AXIS, modelMatrix, modelMatrix);
+		Matrix4.scale(this.scale.set(scale, scale, scale), modelMatrix, modelMatrix);
+		shader.setUniform("modelViewMatrix", Matrix4.mul(viewMatrix, modelMatrix, modelViewMatrix));
 	}
 
 }
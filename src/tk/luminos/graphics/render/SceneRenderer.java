@@ -9,15 +9,15 @@ import static org.lwjgl.opengl.GL11.GL_FILL;
 import static org.lwjgl.opengl.GL11.GL_FRONT_AND_BACK;
 import static org.lwjgl.opengl.GL11.GL_LESS;
 import static org.lwjgl.opengl.GL11.GL_LINE;
-import static org.lwjgl.opengl.GL11.glClear;
-import static org.lwjgl.opengl.GL11.glClearColor;
-import static org.lwjgl.opengl.GL11.glCullFace;
-import static org.lwjgl.opengl.GL11.glDepthFunc;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glFlush;
-import static org.lwjgl.opengl.GL11.glPolygonMode;
 import static org.lwjgl.opengl.GL30.GL_CLIP_DISTANCE0;
+import static tk.luminos.graphics.backend.Graphics.glClear;
+import static tk.luminos.graphics.backend.Graphics.glClearColor;
+import static tk.luminos.graphics.backend.Graphics.glCullFace;
+import static tk.luminos.graphics.backend.Graphics.glDepthFunc;
+import static tk.luminos.graphics.backend.Graphics.glDisable;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
+import static tk.luminos.graphics.backend.Graphics.glFlush;
+import static tk.luminos.graphics.backend.Graphics.glPolygonMode;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import tk.luminos.Application;
 import tk.luminos.gameobjects.GameObject;
@@ -37,11 +38,16 @@ import tk.luminos.graphics.ShadowBox;
 import tk.luminos.graphics.models.TexturedModel;
 import tk.luminos.graphics.water.WaterFrameBuffers;
 import tk.luminos.graphics.water.WaterTile;
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
 import tk.luminos.loaders.Loader;
 import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Matrix4;
 import tk.luminos.maths.Vector3;
 import tk.luminos.maths.Vector4;
+import tk.luminos.metrics.FrameCounter;
+import tk.luminos.metrics.Metrics;
+import tk.luminos.profiler.Profiler;
 
 /**
  * 
@@ -70,9 +76,30 @@ public class SceneRenderer {
 	public static float BLUE = 235.0f / 255.0f;
 
 	public static Vector3 SKY_COLOR = new Vector3(RED, GREEN, BLUE);
+	
+	private static final int CULL_BATCH_SIZE = 512;
+	
+	private static final int PROFILE_RENDER_SCENE = Profiler.register("SceneRenderer.renderScene");
+	private static final int PROFILE_PREPARE_WATER = Profiler.register("SceneRenderer.prepareWater");
+	private static final int PROFILE_RENDER_SHADOW_MAP = Profiler.register("SceneRenderer.renderShadowMap");
+	
+	private static final String[] PASSES = {"main", "reflection", "refraction", "shadow"};
+	private static final int PASS_MAIN = 0, PASS_REFLECTION = 1, PASS_REFRACTION = 2, PASS_SHADOW = 3;
+	private static final FrameCounter[] VISIBLE = new FrameCounter[PASSES.length];
+	private static final FrameCounter[] CULLED = new FrameCounter[PASSES.length];
+	private static final FrameCounter[] TERRAINS = new FrameCounter[PASSES.length];
+	
+	static {
+		for (int i = 0; i < PASSES.length; i++) {
+			VISIBLE[i] = Metrics.counter("SceneRenderer.visible." + PASSES[i]);
+			CULLED[i] = Metrics.counter("SceneRenderer.culled." + PASSES[i]);
+			TERRAINS[i] = Metrics.counter("SceneRenderer.terrains." + PASSES[i]);
+		}
+	}
 
 	private Matrix4 projectionMatrix;
 	private Matrix4 skyboxMatrix;
+	private final Matrix4 viewMatrix = new Matrix4();
 	
 	private GameObjectRenderer gameObjectRenderer;
 	private NormalMapRenderer normalMapRenderer;
@@ -87,6 +114,8 @@ public class SceneRenderer {
 	private Map<TexturedModel, List<GameObject>> entities = new HashMap<TexturedModel,List<GameObject>>();
 	private Map<TexturedModel, List<GameObject>> normalMapEntities = new HashMap<TexturedModel,List<GameObject>>();
 	private List<Terrain> terrains = new ArrayList<Terrain>();
+	private boolean[] visibility = new boolean[0];
+	private int pass = PASS_MAIN;
 
 	private static SceneRenderer instance;
 	
@@ -129,7 +158,10 @@ public class SceneRenderer {
 	}
 
 	/**
-	 * Renders the entire 3D scene
+	 * Renders the entire 3D scene.  The result of culling the entities
+	 * against the camera is kept by the renderer for this pass only; the
+	 * entities' own {@link GameObject#isRenderable() renderable} flag is read
+	 * but never written.
 	 * 
 	 * @param entities		Entities to be rendered
 	 * @param terrains		Terrains to be rendered
@@ -140,51 +172,71 @@ public class SceneRenderer {
 	 * @param clipPlane		Plane to clip all rendering beyond
 	 */
 	public void renderScene(List<GameObject> entities, List<Terrain> terrains, List<PointLight> lights, DirectionalLight sun, Vector3 focalPoint, Camera camera, Vector4 clipPlane) {
-		fis.update(projectionMatrix, MathUtils.createViewMatrix(camera));
+		Profiler.begin(PROFILE_RENDER_SCENE);
+		try {
+			fis.update(projectionMatrix, Matrix4.load(camera.getViewMatrix(), viewMatrix));
 		
-		Runnable filter = () -> {
-			entities.parallelStream().forEach(entity -> entity.setRenderable(fis.inside(entity.getPosition(), 10)));
-			entities.parallelStream().forEach(entity -> entity.setRenderable(MathUtils.getDistance(entity.getPosition(), camera.getPosition()) < entity.getRenderDistance()));
-		};
-		Thread filterRunner = new Thread(filter);
-		filterRunner.start();
+			Vector3 cameraPosition = camera.getPosition();
+			FrameCounter visibleCount = VISIBLE[pass];
+			FrameCounter culledCount = CULLED[pass];
+			int count = entities.size();
+			if (visibility.length < count)
+				visibility = new boolean[count + (count >> 1)];
+			boolean[] visible = visibility;
+			JobCounter filter = JobSystem.getInstance().parallelFor(count, CULL_BATCH_SIZE, (start, end) -> {
+				int shown = 0;
+				Vector3 position = new Vector3();
+				for (int i = start; i < end; i++) {
+					GameObject entity = entities.get(i);
+					entity.getPosition(position);
+					boolean inside = entity.isRenderable() && MathUtils.getDistance(position, cameraPosition) < entity.getRenderDistance();
+					if (inside && FRUSTUM_CULLING)
+						inside = fis.inside(position, 10);
+					visible[i] = inside;
+					if (inside)
+						shown++;
+				}
+				visibleCount.add(shown);
+				culledCount.add(end - start - shown);
+			});
 		
-		if (terrains == null) 
-			terrains = new ArrayList<Terrain>();
-		Iterator<Terrain> terrainIterator = terrains.iterator();
-		while (terrainIterator.hasNext()) {
-			Terrain terrain = terrainIterator.next();
-			if (terrain.isRenderable())
-				processTerrain(terrain);
-		}
+			if (terrains == null) 
+				terrains = new ArrayList<Terrain>();
+			Iterator<Terrain> terrainIterator = terrains.iterator();
+			while (terrainIterator.hasNext()) {
+				Terrain terrain = terrainIterator.next();
+				if (terrain.isRenderable())
+					processTerrain(terrain);
+			}
 
-		if (lights == null) {
-			lights = new ArrayList<PointLight>();
-		}
+			if (lights == null) {
+				lights = new ArrayList<PointLight>();
+			}
 		
-		while (filterRunner.isAlive()) {};
-		if (!STREAMS) {
-			Iterator<GameObject> gameObjectIterator = entities.iterator();
-			while (gameObjectIterator.hasNext()) {
-				GameObject entity = gameObjectIterator.next();
-				if (entity.isRenderable() && MathUtils.getDistance(entity.getPosition(), camera.getPosition()) < entity.getRenderDistance())
-					processGameObject(entity);
-			}	
-		}
-		else {			
-			this.entities = entities
-					.stream()
-					.parallel()
-					.filter(entity -> entity.isRenderable())
-					.collect(Collectors.groupingBy(GameObject::getModel));
-		}
-		if (WIREFRAME)
-			glPolygonMode(GL_FRONT_AND_BACK, GL_LINE);
-		render(lights, sun, camera, clipPlane);
-		if (WIREFRAME)
-			glPolygonMode(GL_FRONT_AND_BACK, GL_FILL);
+			JobSystem.getInstance().waitFor(filter);
+			if (!STREAMS) {
+				for (int i = 0; i < count; i++) {
+					if (visible[i])
+						processGameObject(entities.get(i));
+				}
+			}
+			else {			
+				this.entities = IntStream.range(0, count)
+						.parallel()
+						.filter(i -> visible[i])
+						.mapToObj(entities::get)
+						.collect(Collectors.groupingBy(GameObject::getModel));
+			}
+			if (WIREFRAME)
+				glPolygonMode(GL_FRONT_AND_BACK, GL_LINE);
+			render(lights, sun, camera, clipPlane);
+			if (WIREFRAME)
+				glPolygonMode(GL_FRONT_AND_BACK, GL_FILL);
 		
-		glFlush();
+			glFlush();
+		} finally {
+			Profiler.end();
+		}
 	}
 
 	/**
@@ -198,36 +250,60 @@ public class SceneRenderer {
 	 * @param camera			Passed to render scene
 	 */
 	public void prepareWater(List<GameObject> gameObjects, List<Terrain> terrains, List<PointLight> lights, DirectionalLight sun, Vector3 focalPoint, Camera camera) {
-		glEnable(GL_CLIP_DISTANCE0);
-		buffers.bindReflectionFrameBuffer();
-		float distance = 2 * (camera.getPosition().y);
-		camera.getPosition().y -= distance;
-		camera.invertPitch();
-		renderScene(gameObjects, terrains, lights, sun, focalPoint, camera, new Vector4(0, 1, 0, 0.01f));
-		camera.getPosition().y += distance;
-		camera.invertPitch();
-		buffers.bindRefractionFrameBuffer();
-		terrainRenderer.getShader().start();
-		terrainRenderer.getShader().setUniform("useWater", 0);
-		terrainRenderer.getShader().stop();
-		List<GameObject> ents = new ArrayList<GameObject>();
-		if (!STREAMS) {
-			for(GameObject entity : gameObjects) {
-				if(entity.getPosition().y < 0) ents.add(entity);
+		prepareWater(gameObjects, gameObjects, terrains, lights, sun, focalPoint, camera);
+	}
+
+	/**
+	 * Prepares water for rendering, with separate candidates for the
+	 * reflection and refraction passes
+	 * 
+	 * @param reflected			Passed to render scene for the reflection
+	 * @param gameObjects		Passed to render scene for the refraction
+	 * @param terrains			Passed to render scene
+	 * @param lights			Passed to render scene
+	 * @param sun				Passed to render scene
+	 * @param focalPoint		Passed to render scene
+	 * @param camera			Passed to render scene
+	 */
+	public void prepareWater(List<GameObject> reflected, List<GameObject> gameObjects, List<Terrain> terrains, List<PointLight> lights, DirectionalLight sun, Vector3 focalPoint, Camera camera) {
+		Profiler.begin(PROFILE_PREPARE_WATER);
+		try {
+			glEnable(GL_CLIP_DISTANCE0);
+			buffers.bindReflectionFrameBuffer();
+			float distance = 2 * (camera.getPosition().y);
+			camera.getPosition().y -= distance;
+			camera.invertPitch();
+			pass = PASS_REFLECTION;
+			renderScene(reflected, terrains, lights, sun, focalPoint, camera, new Vector4(0, 1, 0, 0.01f));
+			camera.getPosition().y += distance;
+			camera.invertPitch();
+			buffers.bindRefractionFrameBuffer();
+			terrainRenderer.getShader().start();
+			terrainRenderer.getShader().setUniform("useWater", 0);
+			terrainRenderer.getShader().stop();
+			List<GameObject> ents = new ArrayList<GameObject>();
+			if (!STREAMS) {
+				for(GameObject entity : gameObjects) {
+					if(entity.getPosition().y < 0) ents.add(entity);
+				}
 			}
+			else {
+				ents = gameObjects.stream().parallel()
+						                   .filter(entity -> entity.getPosition().y < 0)
+						                   .filter(entity -> MathUtils.getDistance(camera.getPosition(), entity.getPosition()) < entity.getRenderDistance())
+										   .collect(Collectors.toList());
+			}
+			pass = PASS_REFRACTION;
+			renderScene(ents, terrains, lights, sun, focalPoint, camera, new Vector4(0, -1, 0, 0));
+			pass = PASS_MAIN;
+			terrainRenderer.getShader().start();
+			terrainRenderer.getShader().setUniform("useWater", 1);
+			terrainRenderer.getShader().stop();
+			buffers.unbindCurrentFrameBuffer();
+			glDisable(GL_CLIP_DISTANCE0);
+		} finally {
+			Profiler.end();
 		}
-		else {
-			ents = gameObjects.stream().parallel()
-					                   .filter(entity -> entity.getPosition().y < 0)
-					                   .filter(entity -> MathUtils.getDistance(camera.getPosition(), entity.getPosition()) < entity.getRenderDistance())
-									   .collect(Collectors.toList());
-		}
-		renderScene(ents, terrains, lights, sun, focalPoint, camera, new Vector4(0, -1, 0, 0));
-		terrainRenderer.getShader().start();
-		terrainRenderer.getShader().setUniform("useWater", 1);
-		terrainRenderer.getShader().stop();
-		buffers.unbindCurrentFrameBuffer();
-		glDisable(GL_CLIP_DISTANCE0);
 	}
 
 	/**
@@ -267,7 +343,7 @@ public class SceneRenderer {
 	 */
 	public void render(List<PointLight> lights, DirectionalLight sun, Camera camera, Vector4 clipPlane){
 		prepare();
-		Matrix4 viewMatrix = MathUtils.createViewMatrix(camera);
+		Matrix4.load(camera.getViewMatrix(), viewMatrix);
 		gameObjectRenderer.getShader().start();
 		gameObjectRenderer.getShader().setUniform(gameObjectRenderer.getShader().getLocation("skyColor"), new Vector3(RED, GREEN, BLUE));
 		gameObjectRenderer.getShader().setUniformPointLights("pointLights", lights);
@@ -282,6 +358,7 @@ public class SceneRenderer {
 		terrainRenderer.getShader().setUniformDirectionalLight("sun", sun);
 		terrainRenderer.getShader().setUniform("viewMatrix", viewMatrix);
 		terrainRenderer.getShader().setUniform("numPointLights", 4);
+		TERRAINS[pass].add(terrains.size());
 		terrainRenderer.render(terrains, shadowRenderer.getToShadowMapSpaceMatrix(), getShadowMapTexture());
 		terrainRenderer.getShader().stop();
 		if (RENDER_SKYBOX)
@@ -321,7 +398,9 @@ public class SceneRenderer {
 	}
 
 	/**
-	 * Render a shadow map
+	 * Render a shadow map.  Casters are the renderable entities within the
+	 * shadow distance of the focal point, whether or not the camera of any
+	 * other pass sees them.
 	 * 
 	 * @param ents			Entities to have shadows
 	 * @param ters			Terrains to have shadows
@@ -329,34 +408,43 @@ public class SceneRenderer {
 	 * @param sun			Focal light
 	 */
 	public void renderShadowMap(List<GameObject> ents, List<Terrain> ters, Vector3 focalPoint, DirectionalLight sun) {
-		if (!WIREFRAME) {
-			if (ents == null) 
-				ents = new ArrayList<GameObject>();
-			if (!STREAMS) {
-				Iterator<GameObject> gameObjects = ents.iterator();
-				while (gameObjects.hasNext()) {
-					GameObject entity = gameObjects.next();
-					if(entity.isRenderable() && MathUtils.getDistance(entity.getPosition(), focalPoint) < (entity.getRenderDistance() < ShadowBox.SHADOW_DISTANCE ? entity.getRenderDistance() : ShadowBox.SHADOW_DISTANCE)) {
-						processGameObject(entity);
+		Profiler.begin(PROFILE_RENDER_SHADOW_MAP);
+		try {
+			if (!WIREFRAME) {
+				if (ents == null) 
+					ents = new ArrayList<GameObject>();
+				if (!STREAMS) {
+					for (int i = 0; i < ents.size(); i++) {
+						GameObject entity = ents.get(i);
+						if (castsShadow(entity, focalPoint))
+							processGameObject(entity);
 					}
 				}
+				else {
+					entities = ents.stream().parallel()
+							.filter(entity -> castsShadow(entity, focalPoint))
+							.collect(Collectors.groupingBy(GameObject::getModel));
+				}
+				if (ters == null)
+					ters = new ArrayList<Terrain>();
+				Iterator<Terrain> terrains = ters.iterator();
+				while (terrains.hasNext()) {
+					Terrain terrain = terrains.next();
+					if (MathUtils.getDistance((Vector3) terrain.getPosition(), focalPoint) < ShadowBox.SHADOW_DISTANCE + ShadowBox.OFFSET) 
+						processTerrain(terrain);
+				}
+				int visible = 0;
+				for (List<GameObject> batch : this.entities.values())
+					visible += batch.size();
+				VISIBLE[PASS_SHADOW].add(visible);
+				CULLED[PASS_SHADOW].add(ents.size() - visible);
+				TERRAINS[PASS_SHADOW].add(this.terrains.size());
+				shadowRenderer.render(this.entities, this.terrains, sun);
+				this.entities.clear();
+				this.terrains.clear();
 			}
-			else {
-				entities = ents.stream().parallel()
-						.filter(entity -> entity.isRenderable() && MathUtils.getDistance(entity.getPosition(), focalPoint) < (entity.getRenderDistance() < ShadowBox.SHADOW_DISTANCE ? entity.getRenderDistance() : ShadowBox.SHADOW_DISTANCE * 2))
-						.collect(Collectors.groupingBy(GameObject::getModel));
-			}
-			if (ters == null)
-				ters = new ArrayList<Terrain>();
-			Iterator<Terrain> terrains = ters.iterator();
-			while (terrains.hasNext()) {
-				Terrain terrain = terrains.next();
-				if (MathUtils.getDistance((Vector3) terrain.getPosition(), focalPoint) < ShadowBox.SHADOW_DISTANCE + ShadowBox.OFFSET) 
-					processTerrain(terrain);
-			}
-			shadowRenderer.render(this.entities, this.terrains, sun);
-			this.entities.clear();
-			this.terrains.clear();
+		} finally {
+			Profiler.end();
 		}
 	}
 
@@ -436,5 +524,12 @@ public class SceneRenderer {
 		projectionMatrix.m33 = 0;
 		return projectionMatrix;
 	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private static boolean castsShadow(GameObject entity, Vector3 focalPoint) {
+		return entity.isRenderable() && 
+				MathUtils.getDistance(entity.getPosition(), focalPoint) < Math.min(entity.getRenderDistance(), ShadowBox.SHADOW_DISTANCE);
+	}
 
 }
@@ -3,10 +3,10 @@ package tk.luminos.graphics.render;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDrawElements;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glDrawElements;
 
 import java.util.List;
 import java.util.Map;
@@ -32,6 +32,8 @@ import tk.luminos.maths.Vector3;
 public class ShadowMapEntityRenderer {
 
 	private Matrix4 projectionViewMatrix;
+	private final Matrix4 mvpMatrix = new Matrix4();
+	private final Matrix4 modelMatrix = new Matrix4();
 	protected ShadowShader shader;
 
 	/**
@@ -80,14 +82,13 @@ public class ShadowMapEntityRenderer {
 	 * @param entity		Entity to be prepared
 	 */
 	private void prepareInstance(GameObject entity) {
-		Matrix4 mvpMatrix = Matrix4.mul(projectionViewMatrix, entity.getTransformation().getComponent(), null);
+		Matrix4.mul(projectionViewMatrix, entity.getWorldMatrix(), mvpMatrix);
 		shader.setUniform("mvpMatrix", mvpMatrix);
 	}
 	
 	private void prepareInstance(Terrain terrain) {
-		Matrix4 modelMatrix = MathUtils.createTransformationMatrix((Vector3) terrain.getPosition(), new Vector3(0, 0, 0),
-				1);
-		Matrix4 mvpMatrix = Matrix4.mul(projectionViewMatrix, modelMatrix, null);
+		MathUtils.createTransformationMatrix((Vector3) terrain.getPosition(), 0, 0, 0, 1, modelMatrix);
+		Matrix4.mul(projectionViewMatrix, modelMatrix, mvpMatrix);
 		shader.setUniform("mvpMatrix", mvpMatrix);
 	}
 
@@ -2,8 +2,8 @@ package tk.luminos.graphics.render;
 
 import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
 import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
-import static org.lwjgl.opengl.GL11.glClear;
-import static org.lwjgl.opengl.GL11.glEnable;
+import static tk.luminos.graphics.backend.Graphics.glClear;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
 
 import java.util.List;
 import java.util.Map;
@@ -16,7 +16,6 @@ import tk.luminos.graphics.ShadowBox;
 import tk.luminos.graphics.ShadowFrameBuffer;
 import tk.luminos.graphics.models.TexturedModel;
 import tk.luminos.maths.Matrix4;
-import tk.luminos.maths.Vector2;
 import tk.luminos.maths.Vector3;
 
 /**
@@ -31,11 +30,15 @@ import tk.luminos.maths.Vector3;
 public class ShadowMapMasterRenderer {
 	
 	public static int SHADOW_MAP_SIZE = 8192;
+	
+	private static final Vector3 X_AXIS = new Vector3(1, 0, 0);
+	private static final Vector3 Y_AXIS = new Vector3(0, 1, 0);
 	 
     private ShadowFrameBuffer shadowFbo;
     private ShadowBox shadowBox;
     private Matrix4 projectionMatrix = new Matrix4();
     private Matrix4 lightViewMatrix = new Matrix4();
+    private Matrix4 inverseLightViewMatrix = new Matrix4();
     private Matrix4 projectionViewMatrix = new Matrix4();
     private Matrix4 offset = createOffset();
  
@@ -48,7 +51,7 @@ public class ShadowMapMasterRenderer {
      * @throws Exception	Thrown if shader cannot be loaded
      */
     public ShadowMapMasterRenderer(Camera camera) throws Exception {
-        shadowBox = new ShadowBox(lightViewMatrix, camera);
+        shadowBox = new ShadowBox(lightViewMatrix, inverseLightViewMatrix, camera);
         shadowFbo = new ShadowFrameBuffer(SHADOW_MAP_SIZE, SHADOW_MAP_SIZE);
         entityRenderer = new ShadowMapEntityRenderer(projectionViewMatrix);
     }
@@ -103,6 +106,16 @@ public class ShadowMapMasterRenderer {
         return lightViewMatrix;
     }
 
+    /**
+     * Returns the inverse of the light view matrix.  It is updated along
+     * with the light view matrix and must not be modified.
+     * 
+     * @return Inverse PointLight Space Transformation Matrix
+     */
+    public Matrix4 getInversePointLightSpaceTransform() {
+        return inverseLightViewMatrix;
+    }
+
 //***************************Private Methods****************************//
     
     /**
@@ -139,13 +152,14 @@ public class ShadowMapMasterRenderer {
         direction.normalize();
         center.negate();
         lightViewMatrix.setIdentity();
-        float pitch = (float) Math.acos(new Vector2(direction.x, direction.z).magnitude());
-        Matrix4.rotate(pitch, new Vector3(1, 0, 0), lightViewMatrix, lightViewMatrix);
+        float pitch = (float) Math.acos(Math.sqrt(direction.x * direction.x + direction.z * direction.z));
+        Matrix4.rotate(pitch, X_AXIS, lightViewMatrix, lightViewMatrix);
         float yaw = (float) Math.toDegrees(((float) Math.atan(direction.x / direction.z)));
         yaw = direction.z > 0 ? yaw - 180 : yaw;
-        Matrix4.rotate((float) -Math.toRadians(yaw), new Vector3(0, 1, 0), lightViewMatrix,
+        Matrix4.rotate((float) -Math.toRadians(yaw), Y_AXIS, lightViewMatrix,
                 lightViewMatrix);
         Matrix4.translate(center, lightViewMatrix, lightViewMatrix);
+        Matrix4.invertRigid(lightViewMatrix, inverseLightViewMatrix);
     }
 
     /**
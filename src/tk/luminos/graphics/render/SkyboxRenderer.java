@@ -1,18 +1,18 @@
 package tk.luminos.graphics.render;
 
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glDrawArrays;
-import static org.lwjgl.opengl.GL11.glEnable;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
 import static org.lwjgl.opengl.GL32.GL_TEXTURE_CUBE_MAP_SEAMLESS;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glDisable;
+import static tk.luminos.graphics.backend.Graphics.glDisableVertexAttribArray;
+import static tk.luminos.graphics.backend.Graphics.glDrawArrays;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
+import static tk.luminos.graphics.backend.Graphics.glEnableVertexAttribArray;
 
 import tk.luminos.graphics.models.RawModel;
 import tk.luminos.graphics.shaders.SkyboxShader;
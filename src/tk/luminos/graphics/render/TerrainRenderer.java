@@ -3,15 +3,15 @@ package tk.luminos.graphics.render;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_INT;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDrawElements;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE2;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE3;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE4;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE5;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glDrawElements;
 
 import java.util.List;
 
@@ -21,7 +21,6 @@ import tk.luminos.graphics.VertexArray;
 import tk.luminos.graphics.shaders.TerrainShader;
 import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Matrix4;
-import tk.luminos.maths.Vector3;
 
 /**
  * 
@@ -37,6 +36,7 @@ public class TerrainRenderer {
 	private float density = 0.001f;
 	private float gradient = 5.0f;
 	private int tileFactor = 60;
+	private final Matrix4 transformationMatrix = new Matrix4();
 
 	/**
 	 * Constructor
@@ -172,8 +172,7 @@ public class TerrainRenderer {
 	 * @param terrain	Terrain to calculate Model Matrix of
 	 */
 	private void loadModelMatrix(Terrain terrain) {
-		Matrix4 transformationMatrix = MathUtils.createTransformationMatrix(
-				new Vector3(terrain.getX(), 0, terrain.getZ()), 0, 0, 0, 1);
+		MathUtils.createTransformationMatrix(terrain.getX(), 0, terrain.getZ(), 0, 0, 0, 1, 1, 1, transformationMatrix);
 		shader.setUniform("transformationMatrix", transformationMatrix);
 	}
 
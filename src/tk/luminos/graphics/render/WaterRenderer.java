@@ -5,20 +5,20 @@ import static org.lwjgl.opengl.GL11.GL_ONE_MINUS_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLES;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glBlendFunc;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glDrawArrays;
-import static org.lwjgl.opengl.GL11.glEnable;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE2;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE3;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE4;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glBlendFunc;
+import static tk.luminos.graphics.backend.Graphics.glDisable;
+import static tk.luminos.graphics.backend.Graphics.glDisableVertexAttribArray;
+import static tk.luminos.graphics.backend.Graphics.glDrawArrays;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
+import static tk.luminos.graphics.backend.Graphics.glEnableVertexAttribArray;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,6 +32,7 @@ import tk.luminos.graphics.water.WaterTile;
 import tk.luminos.loaders.Loader;
 import tk.luminos.maths.MathUtils;
 import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Vector2;
 import tk.luminos.maths.Vector3;
 
 /**
@@ -51,6 +52,8 @@ public class WaterRenderer {
 	private WaterFrameBuffers fbos;
 	
 	private float moveFactor = 0;
+	private final Matrix4 modelMatrix = new Matrix4();
+	private final Vector3 tilePosition = new Vector3();
 	private int dudvTexture, normalTexture;
 	
 	private int   tiling = 5;
@@ -100,8 +103,9 @@ public class WaterRenderer {
 		for (PointLight light : lights) {
 			prepareRender(camera, light); 
 			for (WaterTile tile : water) {
-				if (MathUtils.getDistance(new Vector3(tile.getX(), 0, tile.getZ()), camera.getPosition()) > 800) continue;
-				Matrix4 modelMatrix = MathUtils.createTransformationMatrix(new Vector3(tile.getX(), tile.getHeight(), tile.getZ()), new Vector3(), tile.getScale());
+				if (MathUtils.getDistance(tilePosition.set(tile.getX(), 0, tile.getZ()), camera.getPosition()) > 800) continue;
+				Vector2 scale = tile.getScale();
+				MathUtils.createTransformationMatrix(tile.getX(), tile.getHeight(), tile.getZ(), 0, 0, 0, scale.x, 1, scale.y, modelMatrix);
 				shader.setUniform("modelMatrix", modelMatrix);
 				glDrawArrays(GL_TRIANGLES, 0, quad.getVertexCount());
 			}
@@ -119,8 +123,9 @@ public class WaterRenderer {
 	public void renderTile(List<WaterTile> water, Camera camera, PointLight sun) {
 		prepareRender(camera, sun);
 		for (WaterTile tile : water) {
-			if (MathUtils.getDistance(new Vector3(tile.getX(), 0, tile.getZ()), camera.getPosition()) > 500) continue;
-			Matrix4 modelMatrix = MathUtils.createTransformationMatrix(new Vector3(tile.getX(), tile.getHeight(), tile.getZ()), 0, 0, 0, tile.getFloatScale());
+			if (MathUtils.getDistance(tilePosition.set(tile.getX(), 0, tile.getZ()), camera.getPosition()) > 500) continue;
+			float scale = tile.getFloatScale();
+			MathUtils.createTransformationMatrix(tile.getX(), tile.getHeight(), tile.getZ(), 0, 0, 0, scale, scale, scale, modelMatrix);
 			shader.setUniform("modelMatrix", modelMatrix);
 			glDrawArrays(GL_TRIANGLES, 0, quad.getVertexCount());
 		}
@@ -215,7 +220,7 @@ public class WaterRenderer {
 	 */
 	private void prepareRender(Camera camera, PointLight sun){
 		shader.start();
-		shader.setUniform("viewMatrix", MathUtils.createViewMatrix(camera));
+		shader.setUniform("viewMatrix", camera.getViewMatrix());
 		shader.setUniform("cameraPosition", camera.getPosition());
 		moveFactor += WAVE_SPEED * 0.001;
 		moveFactor %= 1;
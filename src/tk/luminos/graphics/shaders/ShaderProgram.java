@@ -6,29 +6,29 @@ import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
 import static org.lwjgl.opengl.GL20.GL_LINK_STATUS;
 import static org.lwjgl.opengl.GL20.GL_VALIDATE_STATUS;
 import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
-import static org.lwjgl.opengl.GL20.glAttachShader;
-import static org.lwjgl.opengl.GL20.glBindAttribLocation;
-import static org.lwjgl.opengl.GL20.glCompileShader;
-import static org.lwjgl.opengl.GL20.glCreateProgram;
-import static org.lwjgl.opengl.GL20.glCreateShader;
-import static org.lwjgl.opengl.GL20.glDeleteProgram;
-import static org.lwjgl.opengl.GL20.glDeleteShader;
-import static org.lwjgl.opengl.GL20.glDetachShader;
-import static org.lwjgl.opengl.GL20.glGetProgramInfoLog;
-import static org.lwjgl.opengl.GL20.glGetProgrami;
-import static org.lwjgl.opengl.GL20.glGetShaderInfoLog;
-import static org.lwjgl.opengl.GL20.glGetShaderi;
-import static org.lwjgl.opengl.GL20.glGetUniformLocation;
-import static org.lwjgl.opengl.GL20.glLinkProgram;
-import static org.lwjgl.opengl.GL20.glShaderSource;
-import static org.lwjgl.opengl.GL20.glUniform1f;
-import static org.lwjgl.opengl.GL20.glUniform1i;
-import static org.lwjgl.opengl.GL20.glUniform2f;
-import static org.lwjgl.opengl.GL20.glUniform3f;
-import static org.lwjgl.opengl.GL20.glUniform4f;
-import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
-import static org.lwjgl.opengl.GL20.glUseProgram;
-import static org.lwjgl.opengl.GL20.glValidateProgram;
+import static tk.luminos.graphics.backend.Graphics.glAttachShader;
+import static tk.luminos.graphics.backend.Graphics.glBindAttribLocation;
+import static tk.luminos.graphics.backend.Graphics.glCompileShader;
+import static tk.luminos.graphics.backend.Graphics.glCreateProgram;
+import static tk.luminos.graphics.backend.Graphics.glCreateShader;
+import static tk.luminos.graphics.backend.Graphics.glDeleteProgram;
+import static tk.luminos.graphics.backend.Graphics.glDeleteShader;
+import static tk.luminos.graphics.backend.Graphics.glDetachShader;
+import static tk.luminos.graphics.backend.Graphics.glGetProgramInfoLog;
+import static tk.luminos.graphics.backend.Graphics.glGetProgrami;
+import static tk.luminos.graphics.backend.Graphics.glGetShaderInfoLog;
+import static tk.luminos.graphics.backend.Graphics.glGetShaderi;
+import static tk.luminos.graphics.backend.Graphics.glGetUniformLocation;
+import static tk.luminos.graphics.backend.Graphics.glLinkProgram;
+import static tk.luminos.graphics.backend.Graphics.glShaderSource;
+import static tk.luminos.graphics.backend.Graphics.glUniform1f;
+import static tk.luminos.graphics.backend.Graphics.glUniform1i;
+import static tk.luminos.graphics.backend.Graphics.glUniform2f;
+import static tk.luminos.graphics.backend.Graphics.glUniform3f;
+import static tk.luminos.graphics.backend.Graphics.glUniform4f;
+import static tk.luminos.graphics.backend.Graphics.glUniformMatrix4fv;
+import static tk.luminos.graphics.backend.Graphics.glUseProgram;
+import static tk.luminos.graphics.backend.Graphics.glValidateProgram;
 
 import java.nio.FloatBuffer;
 import java.util.HashMap;
@@ -43,6 +43,7 @@ import tk.luminos.graphics.DirectionalLight;
 import tk.luminos.graphics.PointLight;
 import tk.luminos.graphics.SpotLight;
 import tk.luminos.maths.Matrix4;
+import tk.luminos.maths.Matrix4Array;
 import tk.luminos.maths.Vector2;
 import tk.luminos.maths.Vector3;
 import tk.luminos.maths.Vector4;
@@ -62,7 +63,8 @@ public abstract class ShaderProgram {
 	public static final Integer SCENE_POINT_LIGHTS = 4;
 	public static final Integer SCENE_SPOT_LIGHTS = 4;
 
-	private static FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+	private final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+	private FloatBuffer matrixArrayBuffer;
 	
 	protected final Map<String, Integer> UNIFORMS = new HashMap<String, Integer>();
 	protected static final Map<String, String> DEFINES = new HashMap<String, String>();
@@ -454,6 +456,34 @@ public abstract class ShaderProgram {
 		matrixBuffer.flip();
 		glUniformMatrix4fv(location, false, matrixBuffer);
 	}
+	
+	/**
+	 * Loads an array of matrices, such as a bone palette, to shader with a
+	 * single copy
+	 * 
+	 * @param name			Name of variable to be bound
+	 * @param matrices		Value of variable to be bound
+	 */
+	public final void setUniform(String name, Matrix4Array matrices) {
+		setUniform(getLocation(name), matrices);
+	}
+	
+	/**
+	 * Loads an array of matrices, such as a bone palette, to shader with a
+	 * single copy
+	 * 
+	 * @param location		Location of variable to be bound
+	 * @param matrices		Value of variable to be bound
+	 */
+	public final void setUniform(int location, Matrix4Array matrices) {
+		int floats = matrices.size() * 16;
+		if (matrixArrayBuffer == null || matrixArrayBuffer.capacity() < floats)
+			matrixArrayBuffer = BufferUtils.createFloatBuffer(floats);
+		matrixArrayBuffer.clear();
+		matrices.store(matrixArrayBuffer);
+		matrixArrayBuffer.flip();
+		glUniformMatrix4fv(location, false, matrixArrayBuffer);
+	}
 
 	/**
 	 * Gets the location of a cached uniform
@@ -15,6 +15,8 @@ import tk.luminos.maths.Vector3;
 
 public class SkyboxShader extends ShaderProgram {
     
+    private static final Vector3 Y_AXIS = new Vector3(0, 1, 0);
+    
     private float rotation = 0.05f;
 	
 	public static String VERT = "skybox.vert";
@@ -40,7 +42,7 @@ public class SkyboxShader extends ShaderProgram {
         matrix.m31 = 0;
         matrix.m32 = 0;
         rotation += 1f / Application.getValue("FPS") * 0.001f;
-        Matrix4.rotate((float) Math.toRadians(rotation), new Vector3(0,1,0), matrix, matrix);
+        Matrix4.rotate((float) Math.toRadians(rotation), Y_AXIS, matrix, matrix);
         return matrix;
     }
      
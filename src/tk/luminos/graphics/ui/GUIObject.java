@@ -5,13 +5,13 @@ import static org.lwjgl.opengl.GL11.GL_ONE_MINUS_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TRIANGLE_STRIP;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glBlendFunc;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glDrawArrays;
-import static org.lwjgl.opengl.GL11.glEnable;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glBlendFunc;
+import static tk.luminos.graphics.backend.Graphics.glDisable;
+import static tk.luminos.graphics.backend.Graphics.glDrawArrays;
+import static tk.luminos.graphics.backend.Graphics.glEnable;
 
 import tk.luminos.graphics.VertexArray;
 import tk.luminos.graphics.shaders.ShaderProgram;
@@ -27,6 +27,7 @@ public class GUIObject {
 	private Vector2 position;
 	private int zindex;
 	private Vector3 color;
+	private final Matrix4 model = new Matrix4();
 	
 	public GUIObject(int texture, Vector3 color, int zindex, Vector2 scale, Vector2 position) {
 		this.texture = texture;
@@ -72,8 +73,7 @@ public class GUIObject {
 		glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
 		glActiveTexture(GL_TEXTURE0);
 		glBindTexture(GL_TEXTURE_2D, this.getTexture());
-		Matrix4 model = MathUtils.createTransformationMatrix(this.getPosition(), this.getScale());
-		shader.setUniform("transformationMatrix", model);
+		shader.setUniform("transformationMatrix", MathUtils.createTransformationMatrix(this.getPosition(), this.getScale(), model));
 		shader.setUniform("color", color);
 		glDrawArrays(GL_TRIANGLE_STRIP, 0, quad.getIndexCount());
 		
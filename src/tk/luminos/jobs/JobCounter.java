@@ -0,0 +1,91 @@
+package tk.luminos.jobs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the number of outstanding jobs in a group.  Jobs may be made
+ * dependent on a counter, in which case they are only scheduled once every
+ * job tracked by the counter has finished.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class JobCounter {
+	
+	private final AtomicInteger count = new AtomicInteger();
+	private List<Runnable> continuations;
+	private volatile Throwable failure;
+	
+	/**
+	 * Checks if all jobs tracked by the counter have finished
+	 * 
+	 * @return		If all jobs have finished
+	 */
+	public boolean isDone() {
+		return count.get() == 0;
+	}
+	
+	/**
+	 * Gets the number of jobs that have not yet finished
+	 * 
+	 * @return		Number of outstanding jobs
+	 */
+	public int getCount() {
+		return count.get();
+	}
+	
+	/**
+	 * Gets the first failure raised by a job tracked by the counter
+	 * 
+	 * @return		First failure, or null if no job failed
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+	
+//***********************************Package Methods*******************************************//
+	
+	void increment() {
+		count.incrementAndGet();
+	}
+	
+	void fail(Throwable t) {
+		if (failure == null)
+			failure = t;
+	}
+	
+	void decrement() {
+		if (count.decrementAndGet() != 0)
+			return;
+		List<Runnable> ready;
+		synchronized (this) {
+			ready = continuations;
+			continuations = null;
+		}
+		if (ready != null) {
+			for (Runnable job : ready)
+				job.run();
+		}
+	}
+	
+	/**
+	 * Runs the given continuation once the counter reaches zero, or
+	 * immediately if it already has
+	 * 
+	 * @param continuation		Continuation to run
+	 */
+	void then(Runnable continuation) {
+		synchronized (this) {
+			if (count.get() != 0) {
+				if (continuations == null)
+					continuations = new ArrayList<Runnable>();
+				continuations.add(continuation);
+				return;
+			}
+		}
+		continuation.run();
+	}
+
+}
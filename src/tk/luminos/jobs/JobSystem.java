@@ -0,0 +1,316 @@
+package tk.luminos.jobs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed pool of worker threads that execute engine jobs.  Each worker owns a
+ * deque of jobs; a worker pops its own jobs from the back and, when it runs
+ * dry, steals from the front of the other workers' deques.  Jobs submitted
+ * from threads outside of the pool are placed on a shared queue.  Threads
+ * waiting on a {@link JobCounter} run pending jobs until the counter reaches
+ * zero instead of blocking.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class JobSystem {
+	
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	
+	private final Worker[] workers;
+	private final ConcurrentLinkedQueue<Task> injection = new ConcurrentLinkedQueue<Task>();
+	private volatile boolean running = true;
+	
+	private static JobSystem instance;
+	
+	/**
+	 * Creates the global job system with one worker per available processor,
+	 * leaving a processor free for the calling thread
+	 * 
+	 * @return		Global job system
+	 */
+	public static JobSystem create() {
+		return create(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+	}
+	
+	/**
+	 * Creates the global job system
+	 * 
+	 * @param workerCount		Number of worker threads
+	 * @return					Global job system
+	 */
+	public static JobSystem create(int workerCount) {
+		if (instance != null) {
+			System.err.println("ERROR: MINOR - JobSystem already created.");
+			return instance;
+		}
+		return (instance = new JobSystem(workerCount));
+	}
+	
+	/**
+	 * Checks if the global job system has been created
+	 * 
+	 * @return		If {@link #getInstance()} will return a job system
+	 */
+	public static boolean isCreated() {
+		return instance != null;
+	}
+	
+	/**
+	 * Gets the global job system
+	 * 
+	 * @return		Global job system
+	 */
+	public static JobSystem getInstance() {
+		if (instance == null)
+			throw new NullPointerException("JobSystem is not initialized!");
+		return instance;
+	}
+	
+	private JobSystem(int workerCount) {
+		if (workerCount < 1)
+			throw new IllegalArgumentException("Job system requires at least one worker");
+		workers = new Worker[workerCount];
+		for (int i = 0; i < workerCount; i++) {
+			workers[i] = new Worker(i);
+		}
+		for (Worker worker : workers) {
+			worker.start();
+		}
+	}
+	
+	/**
+	 * Gets the number of worker threads
+	 * 
+	 * @return		Number of workers
+	 */
+	public int getWorkerCount() {
+		return workers.length;
+	}
+	
+	/**
+	 * Gets the worker threads
+	 * 
+	 * @return		Worker threads
+	 */
+	public List<Thread> getWorkerThreads() {
+		return Collections.unmodifiableList(Arrays.<Thread>asList(workers));
+	}
+	
+	/**
+	 * Submits a job
+	 * 
+	 * @param job		Job to run
+	 * @return			Counter tracking the job
+	 */
+	public JobCounter submit(Runnable job) {
+		JobCounter counter = new JobCounter();
+		submit(job, counter, null);
+		return counter;
+	}
+	
+	/**
+	 * Submits a job that runs once all jobs tracked by a dependency have finished
+	 * 
+	 * @param job			Job to run
+	 * @param counter		Counter to track the job with
+	 * @param dependency	Counter that must reach zero before the job runs, or null
+	 */
+	public void submit(Runnable job, JobCounter counter, JobCounter dependency) {
+		Task task = new Task(job, counter);
+		counter.increment();
+		if (dependency == null)
+			push(task);
+		else
+			dependency.then(() -> push(task));
+	}
+	
+	/**
+	 * Splits a range of indices into batches and submits a job per batch
+	 * 
+	 * @param count			Number of indices
+	 * @param batchSize		Maximum number of indices per job
+	 * @param job			Job to run over each batch
+	 * @return				Counter tracking every batch
+	 */
+	public JobCounter parallelFor(int count, int batchSize, RangeJob job) {
+		JobCounter counter = new JobCounter();
+		parallelFor(count, batchSize, job, counter, null);
+		return counter;
+	}
+	
+	/**
+	 * Splits a range of indices into batches and submits a job per batch
+	 * 
+	 * @param count			Number of indices
+	 * @param batchSize		Maximum number of indices per job
+	 * @param job			Job to run over each batch
+	 * @param counter		Counter to track the batches with
+	 * @param dependency	Counter that must reach zero before the batches run, or null
+	 */
+	public void parallelFor(int count, int batchSize, RangeJob job, JobCounter counter, JobCounter dependency) {
+		int size = Math.max(1, batchSize);
+		for (int start = 0; start < count; start += size) {
+			final int first = start;
+			final int last = Math.min(count, start + size);
+			submit(() -> job.execute(first, last), counter, dependency);
+		}
+	}
+	
+	/**
+	 * Waits for every job tracked by the counter to finish.  The calling
+	 * thread runs pending jobs while it waits.
+	 * 
+	 * @param counter		Counter to wait on
+	 * @throws RuntimeException		Thrown if any tracked job failed
+	 */
+	public void waitFor(JobCounter counter) {
+		Worker self = currentWorker();
+		while (!counter.isDone()) {
+			Task task = findTask(self);
+			if (task != null)
+				task.run();
+			else
+				Thread.yield();
+		}
+		if (counter.getFailure() != null)
+			throw new RuntimeException("Job failed", counter.getFailure());
+	}
+	
+	/**
+	 * Stops all worker threads.  Jobs still pending are discarded.
+	 * 
+	 * @throws InterruptedException		Thrown if interrupted while joining workers
+	 */
+	public void dispose() throws InterruptedException {
+		running = false;
+		for (Worker worker : workers) {
+			LockSupport.unpark(worker);
+		}
+		for (Worker worker : workers) {
+			worker.join();
+		}
+		if (instance == this)
+			instance = null;
+	}
+	
+//***********************************Private Methods*******************************************//
+	
+	/**
+	 * Places a task on the deque of the current worker, or the shared queue
+	 * if called from outside the pool, and wakes an idle worker
+	 * 
+	 * @param task		Task to schedule
+	 */
+	private void push(Task task) {
+		Worker self = currentWorker();
+		if (self != null)
+			self.deque.addLast(task);
+		else
+			injection.offer(task);
+		for (Worker worker : workers) {
+			if (worker.idle) {
+				LockSupport.unpark(worker);
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Finds the next task to run, preferring the worker's own deque, then the
+	 * shared queue, then stealing from another worker
+	 * 
+	 * @param self		Worker to search for, or null if not a worker
+	 * @return			Task to run, or null if none are pending
+	 */
+	private Task findTask(Worker self) {
+		Task task;
+		if (self != null && (task = self.deque.pollLast()) != null)
+			return task;
+		if ((task = injection.poll()) != null)
+			return task;
+		int offset = ThreadLocalRandom.current().nextInt(workers.length);
+		for (int i = 0; i < workers.length; i++) {
+			Worker victim = workers[(i + offset) % workers.length];
+			if (victim != self && (task = victim.deque.pollFirst()) != null)
+				return task;
+		}
+		return null;
+	}
+	
+	private Worker currentWorker() {
+		Thread thread = Thread.currentThread();
+		if (thread instanceof Worker && ((Worker) thread).system() == this)
+			return (Worker) thread;
+		return null;
+	}
+	
+	/**
+	 * Job paired with the counter tracking it
+	 */
+	private static class Task {
+		
+		private final Runnable job;
+		private final JobCounter counter;
+		
+		Task(Runnable job, JobCounter counter) {
+			this.job = job;
+			this.counter = counter;
+		}
+		
+		void run() {
+			try {
+				job.run();
+			} catch (Throwable t) {
+				counter.fail(t);
+			} finally {
+				counter.decrement();
+			}
+		}
+		
+	}
+	
+	/**
+	 * Worker thread owning a deque of tasks
+	 */
+	private class Worker extends Thread {
+		
+		private final ConcurrentLinkedDeque<Task> deque = new ConcurrentLinkedDeque<Task>();
+		private volatile boolean idle = false;
+		
+		Worker(int index) {
+			setName("LUMINOS_ENGINE:_WORKER_" + index);
+			setDaemon(true);
+		}
+		
+		JobSystem system() {
+			return JobSystem.this;
+		}
+		
+		@Override
+		public void run() {
+			while (running) {
+				Task task = findTask(this);
+				if (task != null) {
+					task.run();
+					continue;
+				}
+				idle = true;
+				if ((task = findTask(this)) == null)
+					LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+				idle = false;
+				if (task != null)
+					task.run();
+			}
+		}
+		
+	}
+
+}
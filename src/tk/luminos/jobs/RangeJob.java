@@ -0,0 +1,19 @@
+package tk.luminos.jobs;
+
+/**
+ * Job executed over a contiguous range of indices
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public interface RangeJob {
+	
+	/**
+	 * Executes the job over a range of indices
+	 * 
+	 * @param start		First index of the range, inclusive
+	 * @param end		Last index of the range, exclusive
+	 */
+	public void execute(int start, int end);
+
+}
@@ -1,12 +1,14 @@
 package tk.luminos.loaders;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import tk.luminos.graphics.Material;
 import tk.luminos.graphics.Texture;
+import tk.luminos.graphics.TextureData;
 import tk.luminos.graphics.models.TexturedModel;
+import tk.luminos.profiler.Profiler;
 import tk.luminos.serialization.DBObject;
 import tk.luminos.serialization.DBObjectType;
 import tk.luminos.serialization.Database;
@@ -24,28 +26,22 @@ public class AssetCache {
 	
 	protected static Map<String, TexturedModel> models;
 	
+	private static final int PROFILE_LOAD = Profiler.register("AssetCache.load");
+	private static final int PROFILE_LOAD_MODEL = Profiler.register("AssetCache.loadModel");
+	
 	static {
-		models = new HashMap<String, TexturedModel>();
+		models = new ConcurrentHashMap<String, TexturedModel>();
 	}
 	
 	public static void load() {
-		db.objects.stream().filter(obj -> obj.objectType == DBObjectType.MODEL).forEach(obj -> {
-			
-			float[] verts = obj.findArray("vertices").floatData;
-			float[] texts = obj.findArray("textureCoords").floatData;
-			float[] norms = obj.findArray("normals").floatData;
-			int[] indices = obj.findArray("indices").intData;
-			String texture = obj.findString("texture").getString();
-			Material mat = new Material();
-			try {
-				mat.attachTexture(new Texture("res/textures/" + texture, 1, 1));
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-			TexturedModel m = new TexturedModel(Loader.getInstance().load(verts, texts, norms, indices), mat);
-			models.put(obj.getName(), m);
-		
-		});
+		Profiler.begin(PROFILE_LOAD);
+		try {
+			db.objects.stream().filter(obj -> obj.objectType == DBObjectType.MODEL).forEach(obj -> {
+				models.put(obj.getName(), create(obj, decodeTexture(obj)));
+			});
+		} finally {
+			Profiler.end();
+		}
 	}
 	
 	public static TexturedModel getModel(String model) {
@@ -53,26 +49,72 @@ public class AssetCache {
 			System.out.println("Cache Hit");
 			return models.get(model);
 		}
-		else {
-			System.out.println("Cache Miss");
-			DBObject obj = db.findObject(model);
-			if (obj == null)
-				throw new RuntimeException("Model: " + model + " not found in files");
-			float[] verts = obj.findArray("vertices").floatData;
-			float[] texts = obj.findArray("textureCoords").floatData;
-			float[] norms = obj.findArray("normals").floatData;
-			int[] indices = obj.findArray("indices").intData;
-			String texture = obj.findString("texture").getString();
-			Material mat = new Material();
-			try {
-				mat.attachTexture(new Texture("res/textures/" + texture, 1, 1));
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-			TexturedModel m = new TexturedModel(Loader.getInstance().load(verts, texts, norms, indices), mat);
+		return getModel(model, prepareModel(model));
+	}
+	
+	/**
+	 * Reads and decodes the texture of a model that is not cached yet, without
+	 * touching the GPU.  May be called from any thread; the result is passed
+	 * to {@link #getModel(String, TextureData)} on the GL thread.
+	 * 
+	 * @param model		Name of the model
+	 * @return			Decoded texture, or null if the model is cached or has no readable texture
+	 */
+	public static TextureData prepareModel(String model) {
+		if (models.containsKey(model))
+			return null;
+		DBObject obj = db.findObject(model);
+		if (obj == null)
+			throw new RuntimeException("Model: " + model + " not found in files");
+		return decodeTexture(obj);
+	}
+	
+	/**
+	 * Gets a model, uploading it with a texture decoded by {@link #prepareModel(String)}
+	 * if it is not cached.  Must be called on the GL thread.
+	 * 
+	 * @param model		Name of the model
+	 * @param texture	Decoded texture of the model, or null for no texture
+	 * @return			Cached model
+	 */
+	public static TexturedModel getModel(String model, TextureData texture) {
+		TexturedModel cached = models.get(model);
+		if (cached != null)
+			return cached;
+		System.out.println("Cache Miss");
+		DBObject obj = db.findObject(model);
+		if (obj == null)
+			throw new RuntimeException("Model: " + model + " not found in files");
+		Profiler.begin(PROFILE_LOAD_MODEL);
+		try {
+			TexturedModel m = create(obj, texture);
 			models.put(model, m);
 			return m;
+		} finally {
+			Profiler.end();
 		}
 	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private static TextureData decodeTexture(DBObject obj) {
+		try {
+			return Texture.decode("res/textures/" + obj.findString("texture").getString());
+		} catch (Exception e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	private static TexturedModel create(DBObject obj, TextureData texture) {
+		float[] verts = obj.findArray("vertices").floatData;
+		float[] texts = obj.findArray("textureCoords").floatData;
+		float[] norms = obj.findArray("normals").floatData;
+		int[] indices = obj.findArray("indices").intData;
+		Material mat = new Material();
+		if (texture != null)
+			mat.attachTexture(new Texture(texture));
+		return new TexturedModel(Loader.getInstance().load(verts, texts, norms, indices), mat);
+	}
 
 }
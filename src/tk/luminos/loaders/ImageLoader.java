@@ -1,6 +1,5 @@
 package tk.luminos.loaders;
 
-import static org.lwjgl.opengl.GL.getCapabilities;
 import static org.lwjgl.opengl.GL11.GL_LINEAR;
 import static org.lwjgl.opengl.GL11.GL_LINEAR_MIPMAP_LINEAR;
 import static org.lwjgl.opengl.GL11.GL_NEAREST;
@@ -13,20 +12,21 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_S;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_WRAP_T;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glGenTextures;
-import static org.lwjgl.opengl.GL11.glGetFloat;
-import static org.lwjgl.opengl.GL11.glTexImage2D;
-import static org.lwjgl.opengl.GL11.glTexParameterf;
-import static org.lwjgl.opengl.GL11.glTexParameteri;
 import static org.lwjgl.opengl.GL12.GL_TEXTURE_MAX_LOD;
 import static org.lwjgl.opengl.GL12.GL_TEXTURE_MIN_LOD;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP;
 import static org.lwjgl.opengl.GL13.GL_TEXTURE_CUBE_MAP_POSITIVE_X;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
 import static org.lwjgl.opengl.GL14.GL_TEXTURE_LOD_BIAS;
-import static org.lwjgl.opengl.GL30.glGenerateMipmap;
+import static tk.luminos.graphics.backend.Graphics.glActiveTexture;
+import static tk.luminos.graphics.backend.Graphics.glBindTexture;
+import static tk.luminos.graphics.backend.Graphics.glGenTextures;
+import static tk.luminos.graphics.backend.Graphics.glGenerateMipmap;
+import static tk.luminos.graphics.backend.Graphics.glGetFloat;
+import static tk.luminos.graphics.backend.Graphics.glTexImage2D;
+import static tk.luminos.graphics.backend.Graphics.glTexParameterf;
+import static tk.luminos.graphics.backend.Graphics.glTexParameteri;
+import static tk.luminos.graphics.backend.Graphics.isAnisotropicFilteringSupported;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -58,15 +58,23 @@ public class ImageLoader {
 	 * @return 				Integer describing the image's location on the GPU
 	 */	
 	protected int loadTexture(BufferedImage bImage) {
-		LuminosImage image = LuminosImage.loadImage(bImage, Format.RGBA);
+		return loadTexture(LuminosImage.loadImage(bImage, Format.RGBA));
+	}
 
+	/**
+	 * Loads decoded image to graphics card
+	 * 
+	 * @param image 		Decoded RGBA image
+	 * @return 				Integer describing the image's location on the GPU
+	 */	
+	protected int loadTexture(LuminosImage image) {
 		int textureID = glGenTextures();
 
 		glGenerateMipmap(GL_TEXTURE_2D);
 		glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
 		glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_LOD_BIAS, -0.6f);
 
-		if(getCapabilities().GL_EXT_texture_filter_anisotropic) {
+		if(isAnisotropicFilteringSupported()) {
 			float amount = Math.min(4f, glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
 			glTexParameterf(GL_TEXTURE_2D, EXTTextureFilterAnisotropic.GL_TEXTURE_MAX_ANISOTROPY_EXT, amount);
 		}
@@ -104,7 +112,7 @@ public class ImageLoader {
 		glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_MAX_LOD, 5.0f);
 		glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_LOD_BIAS, -.6f);
 
-		if(getCapabilities().GL_EXT_texture_filter_anisotropic) {
+		if(isAnisotropicFilteringSupported()) {
 			float amount = Math.min(4f, glGetFloat(EXTTextureFilterAnisotropic.GL_MAX_TEXTURE_MAX_ANISOTROPY_EXT));
 			glTexParameterf(GL_TEXTURE_2D, EXTTextureFilterAnisotropic.GL_TEXTURE_MAX_ANISOTROPY_EXT, amount);
 		}
@@ -1,16 +1,17 @@
 package tk.luminos.loaders;
 
+import static tk.luminos.graphics.backend.Graphics.glDeleteBuffers;
+import static tk.luminos.graphics.backend.Graphics.glDeleteTextures;
+import static tk.luminos.graphics.backend.Graphics.glDeleteVertexArrays;
+
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL15;
-import org.lwjgl.opengl.GL30;
-
 import tk.luminos.graphics.VertexArray;
 import tk.luminos.graphics.models.ModelData;
 import tk.luminos.graphics.models.RawModel;
+import tk.luminos.profiler.Profiler;
 
 /**
  * 
@@ -32,6 +33,9 @@ public class Loader {
 	
 	private static Loader instance;
 	
+	private static final int PROFILE_LOAD_TEXTURE = Profiler.register("Loader.loadTexture");
+	private static final int PROFILE_LOAD_CUBE_MAP = Profiler.register("Loader.loadCubeMap");
+	
 	public static Loader create() {
 		if (instance != null) {
 			System.err.println("ERROR: MINOR - Loader already created.");
@@ -266,7 +270,12 @@ public class Loader {
 	 * @throws Exception	Exception for if file isn't found or cannot be handled
 	 */
 	public int loadCubeMap(String[] textureFiles) throws Exception {
-		return imageLoader.loadCubeMap(textureFiles);
+		Profiler.begin(PROFILE_LOAD_CUBE_MAP);
+		try {
+			return imageLoader.loadCubeMap(textureFiles);
+		} finally {
+			Profiler.end();
+		}
 	}
 	
 	/**
@@ -277,7 +286,12 @@ public class Loader {
 	 * @throws Exception	Exception for if file isn't found or cannot be handled
 	 */
 	public int loadTexture(String fileName) throws Exception {
-		return imageLoader.loadTexture(fileName);
+		Profiler.begin(PROFILE_LOAD_TEXTURE);
+		try {
+			return imageLoader.loadTexture(fileName);
+		} finally {
+			Profiler.end();
+		}
 	}
 	
 	/**
@@ -290,13 +304,33 @@ public class Loader {
 		return imageLoader.loadTexture(bImage);
 	}
 	
+	/**
+	 * Loads decoded image to the graphics card
+	 * 
+	 * @param image		RGBA image, such as one from {@link LuminosImage#loadImage(BufferedImage, LuminosImage.Format)}
+	 * @return			Integer describing the texture's index on the GPU
+	 */
+	public int loadTexture(LuminosImage image) {
+		return imageLoader.loadTexture(image);
+	}
+	
+	/**
+	 * Removes a texture from the VRAM
+	 * 
+	 * @param texture	Integer describing the texture's index on the GPU
+	 */
+	public void deleteTexture(int texture) {
+		if (textures.remove(Integer.valueOf(texture)))
+			glDeleteTextures(texture);
+	}
+	
 	/**
 	 * Removes all VAOs, VBOs, and Textures from the VRAM
 	 */
 	public void dispose() {
-		for (Integer vao : vaos) GL30.glDeleteVertexArrays(vao);
-		for (Integer vbo : vbos) GL15.glDeleteBuffers(vbo);
-		for (Integer texture : textures) GL11.glDeleteTextures(texture);
+		for (Integer vao : vaos) glDeleteVertexArrays(vao);
+		for (Integer vbo : vbos) glDeleteBuffers(vbo);
+		for (Integer texture : textures) glDeleteTextures(texture);
 		instance = null;
 	}
 
@@ -4,12 +4,12 @@ import static org.lwjgl.opengl.GL11.GL_FLOAT;
 import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
 import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
 import static org.lwjgl.opengl.GL15.GL_STATIC_DRAW;
-import static org.lwjgl.opengl.GL15.glBindBuffer;
-import static org.lwjgl.opengl.GL15.glBufferData;
-import static org.lwjgl.opengl.GL15.glGenBuffers;
-import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
-import static org.lwjgl.opengl.GL30.glBindVertexArray;
-import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+import static tk.luminos.graphics.backend.Graphics.glBindBuffer;
+import static tk.luminos.graphics.backend.Graphics.glBindVertexArray;
+import static tk.luminos.graphics.backend.Graphics.glBufferData;
+import static tk.luminos.graphics.backend.Graphics.glGenBuffers;
+import static tk.luminos.graphics.backend.Graphics.glGenVertexArrays;
+import static tk.luminos.graphics.backend.Graphics.glVertexAttribPointer;
 
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
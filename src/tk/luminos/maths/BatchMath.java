@@ -0,0 +1,338 @@
+package tk.luminos.maths;
+
+/**
+ * Bulk math kernels over flat float arrays.  Points, normals and directions
+ * are stored as packed x, y, z triples; matrices are stored as 16 floats in
+ * column major order, the same layout used by {@link Matrix4#store} and the
+ * transform store.  Each kernel is a single counted loop over primitive
+ * arrays with no object access, which is the form HotSpot's loop optimizer
+ * unrolls and compiles to packed SSE/AVX instructions.
+ * <p>
+ * Every kernel evaluates each element with the same expression, in the same
+ * order, as the corresponding per object operation in {@link Matrix4},
+ * {@link Vector3} or {@link MathUtils}, so a batch and a loop over objects
+ * produce bit for bit identical results.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class BatchMath {
+
+	/**
+	 * Number of floats per point
+	 */
+	public static final int VECTOR_STRIDE = 3;
+
+	/**
+	 * Number of floats per matrix
+	 */
+	public static final int MATRIX_STRIDE = 16;
+
+	/**
+	 * Transforms packed points by a matrix, treating each point as having
+	 * a w of one.  The source and destination may be the same array.
+	 *
+	 * @param m				Transformation matrix
+	 * @param src			Source points
+	 * @param srcOffset		Index of the first float of the first source point
+	 * @param dest			Destination points
+	 * @param destOffset	Index of the first float of the first destination point
+	 * @param count			Number of points
+	 */
+	public static void transformPoints(Matrix4 m, float[] src, int srcOffset, float[] dest, int destOffset, int count) {
+		float m00 = m.m00, m01 = m.m01, m02 = m.m02;
+		float m10 = m.m10, m11 = m.m11, m12 = m.m12;
+		float m20 = m.m20, m21 = m.m21, m22 = m.m22;
+		float m30 = m.m30, m31 = m.m31, m32 = m.m32;
+		for (int i = 0; i < count; i++) {
+			int s = srcOffset + i * VECTOR_STRIDE;
+			int d = destOffset + i * VECTOR_STRIDE;
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			dest[d] = m00 * x + m10 * y + m20 * z + m30;
+			dest[d + 1] = m01 * x + m11 * y + m21 * z + m31;
+			dest[d + 2] = m02 * x + m12 * y + m22 * z + m32;
+		}
+	}
+
+	/**
+	 * Transforms points held in separate coordinate arrays by a matrix,
+	 * treating each point as having a w of one.  This layout keeps every
+	 * lane of the loop independent and is the fastest form to transform.
+	 * The source and destination arrays may be the same.
+	 *
+	 * @param m			Transformation matrix
+	 * @param xs		Source x coordinates
+	 * @param ys		Source y coordinates
+	 * @param zs		Source z coordinates
+	 * @param destX		Destination x coordinates
+	 * @param destY		Destination y coordinates
+	 * @param destZ		Destination z coordinates
+	 * @param offset	Index of the first point
+	 * @param count		Number of points
+	 */
+	public static void transformPoints(Matrix4 m, float[] xs, float[] ys, float[] zs,
+			float[] destX, float[] destY, float[] destZ, int offset, int count) {
+		float m00 = m.m00, m01 = m.m01, m02 = m.m02;
+		float m10 = m.m10, m11 = m.m11, m12 = m.m12;
+		float m20 = m.m20, m21 = m.m21, m22 = m.m22;
+		float m30 = m.m30, m31 = m.m31, m32 = m.m32;
+		int end = offset + count;
+		for (int i = offset; i < end; i++) {
+			float x = xs[i], y = ys[i], z = zs[i];
+			destX[i] = m00 * x + m10 * y + m20 * z + m30;
+			destY[i] = m01 * x + m11 * y + m21 * z + m31;
+			destZ[i] = m02 * x + m12 * y + m22 * z + m32;
+		}
+	}
+
+	/**
+	 * Transforms packed directions by the upper 3x3 of a matrix, ignoring
+	 * translation.  The source and destination may be the same array.
+	 *
+	 * @param m				Transformation matrix
+	 * @param src			Source directions
+	 * @param srcOffset		Index of the first float of the first source direction
+	 * @param dest			Destination directions
+	 * @param destOffset	Index of the first float of the first destination direction
+	 * @param count			Number of directions
+	 */
+	public static void transformDirections(Matrix4 m, float[] src, int srcOffset, float[] dest, int destOffset, int count) {
+		float m00 = m.m00, m01 = m.m01, m02 = m.m02;
+		float m10 = m.m10, m11 = m.m11, m12 = m.m12;
+		float m20 = m.m20, m21 = m.m21, m22 = m.m22;
+		for (int i = 0; i < count; i++) {
+			int s = srcOffset + i * VECTOR_STRIDE;
+			int d = destOffset + i * VECTOR_STRIDE;
+			float x = src[s], y = src[s + 1], z = src[s + 2];
+			dest[d] = m00 * x + m10 * y + m20 * z;
+			dest[d + 1] = m01 * x + m11 * y + m21 * z;
+			dest[d + 2] = m02 * x + m12 * y + m22 * z;
+		}
+	}
+
+	/**
+	 * Transforms packed normals by the upper 3x3 of a matrix and normalizes
+	 * them.  For matrices with non uniform scale, pass the inverse transpose
+	 * of the model matrix.  The source and destination may be the same array.
+	 *
+	 * @param m				Normal matrix
+	 * @param src			Source normals
+	 * @param srcOffset		Index of the first float of the first source normal
+	 * @param dest			Destination normals
+	 * @param destOffset	Index of the first float of the first destination normal
+	 * @param count			Number of normals
+	 */
+	public static void transformNormals(Matrix4 m, float[] src, int srcOffset, float[] dest, int destOffset, int count) {
+		transformDirections(m, src, srcOffset, dest, destOffset, count);
+		normalize(dest, destOffset, count);
+	}
+
+	/**
+	 * Normalizes packed vectors in place
+	 *
+	 * @param vectors		Vectors to normalize
+	 * @param offset		Index of the first float of the first vector
+	 * @param count			Number of vectors
+	 */
+	public static void normalize(float[] vectors, int offset, int count) {
+		for (int i = 0; i < count; i++) {
+			int v = offset + i * VECTOR_STRIDE;
+			float x = vectors[v], y = vectors[v + 1], z = vectors[v + 2];
+			float l = (float) Math.sqrt(x * x + y * y + z * z);
+			vectors[v] = x / l;
+			vectors[v + 1] = y / l;
+			vectors[v + 2] = z / l;
+		}
+	}
+
+	/**
+	 * Multiplies a matrix by each matrix of an array, writing
+	 * <code>left * right[i]</code> into the destination array.  Used to
+	 * combine a projection view matrix with many model matrices.  The right
+	 * and destination arrays may be the same.
+	 *
+	 * @param left			Left matrix
+	 * @param right			Right matrices
+	 * @param rightOffset	Index of the first float of the first right matrix
+	 * @param dest			Destination matrices
+	 * @param destOffset	Index of the first float of the first destination matrix
+	 * @param count			Number of matrices
+	 */
+	public static void mul(Matrix4 left, float[] right, int rightOffset, float[] dest, int destOffset, int count) {
+		float l00 = left.m00, l01 = left.m01, l02 = left.m02, l03 = left.m03;
+		float l10 = left.m10, l11 = left.m11, l12 = left.m12, l13 = left.m13;
+		float l20 = left.m20, l21 = left.m21, l22 = left.m22, l23 = left.m23;
+		float l30 = left.m30, l31 = left.m31, l32 = left.m32, l33 = left.m33;
+		for (int i = 0; i < count; i++) {
+			int r = rightOffset + i * MATRIX_STRIDE;
+			int d = destOffset + i * MATRIX_STRIDE;
+			for (int c = 0; c < MATRIX_STRIDE; c += 4) {
+				float x = right[r + c], y = right[r + c + 1], z = right[r + c + 2], w = right[r + c + 3];
+				dest[d + c] = l00 * x + l10 * y + l20 * z + l30 * w;
+				dest[d + c + 1] = l01 * x + l11 * y + l21 * z + l31 * w;
+				dest[d + c + 2] = l02 * x + l12 * y + l22 * z + l32 * w;
+				dest[d + c + 3] = l03 * x + l13 * y + l23 * z + l33 * w;
+			}
+		}
+	}
+
+	/**
+	 * Multiplies two arrays of matrices pairwise, writing
+	 * <code>left[i] * right[i]</code> into the destination array.  The
+	 * destination must not overlap the left array.
+	 *
+	 * @param left			Left matrices
+	 * @param leftOffset	Index of the first float of the first left matrix
+	 * @param right			Right matrices
+	 * @param rightOffset	Index of the first float of the first right matrix
+	 * @param dest			Destination matrices
+	 * @param destOffset	Index of the first float of the first destination matrix
+	 * @param count			Number of matrices
+	 */
+	public static void mul(float[] left, int leftOffset, float[] right, int rightOffset, float[] dest, int destOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			int l = leftOffset + i * MATRIX_STRIDE;
+			int r = rightOffset + i * MATRIX_STRIDE;
+			int d = destOffset + i * MATRIX_STRIDE;
+			for (int c = 0; c < MATRIX_STRIDE; c += 4) {
+				float x = right[r + c], y = right[r + c + 1], z = right[r + c + 2], w = right[r + c + 3];
+				dest[d + c] = left[l] * x + left[l + 4] * y + left[l + 8] * z + left[l + 12] * w;
+				dest[d + c + 1] = left[l + 1] * x + left[l + 5] * y + left[l + 9] * z + left[l + 13] * w;
+				dest[d + c + 2] = left[l + 2] * x + left[l + 6] * y + left[l + 10] * z + left[l + 14] * w;
+				dest[d + c + 3] = left[l + 3] * x + left[l + 7] * y + left[l + 11] * z + left[l + 15] * w;
+			}
+		}
+	}
+
+	/**
+	 * Computes the axis aligned bounding box of packed points
+	 *
+	 * @param points		Points to bound
+	 * @param offset		Index of the first float of the first point
+	 * @param count			Number of points
+	 * @param dest			Array receiving min x, y, z then max x, y, z
+	 * @return				Destination array
+	 */
+	public static float[] computeAabb(float[] points, int offset, int count, float[] dest) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			int v = offset + i * VECTOR_STRIDE;
+			float x = points[v], y = points[v + 1], z = points[v + 2];
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			minZ = Math.min(minZ, z);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+			maxZ = Math.max(maxZ, z);
+		}
+		dest[0] = minX;
+		dest[1] = minY;
+		dest[2] = minZ;
+		dest[3] = maxX;
+		dest[4] = maxY;
+		dest[5] = maxZ;
+		return dest;
+	}
+
+	/**
+	 * Computes a bounding sphere of packed points.  The sphere is centered
+	 * on the center of the points' bounding box, with the radius reaching
+	 * the furthest point.
+	 *
+	 * @param points		Points to bound
+	 * @param offset		Index of the first float of the first point
+	 * @param count			Number of points
+	 * @param dest			Array receiving the center x, y, z then the radius
+	 * @return				Destination array
+	 */
+	public static float[] computeBoundingSphere(float[] points, int offset, int count, float[] dest) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			int v = offset + i * VECTOR_STRIDE;
+			float x = points[v], y = points[v + 1], z = points[v + 2];
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			minZ = Math.min(minZ, z);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+			maxZ = Math.max(maxZ, z);
+		}
+		float cx = (minX + maxX) * 0.5f;
+		float cy = (minY + maxY) * 0.5f;
+		float cz = (minZ + maxZ) * 0.5f;
+		float radiusSquared = 0;
+		for (int i = 0; i < count; i++) {
+			int v = offset + i * VECTOR_STRIDE;
+			float dx = points[v] - cx, dy = points[v + 1] - cy, dz = points[v + 2] - cz;
+			radiusSquared = Math.max(radiusSquared, dx * dx + dy * dy + dz * dz);
+		}
+		dest[0] = cx;
+		dest[1] = cy;
+		dest[2] = cz;
+		dest[3] = (float) Math.sqrt(radiusSquared);
+		return dest;
+	}
+
+	/**
+	 * Computes the dot products of pairs of packed vectors
+	 *
+	 * @param left			Left vectors
+	 * @param leftOffset	Index of the first float of the first left vector
+	 * @param right			Right vectors
+	 * @param rightOffset	Index of the first float of the first right vector
+	 * @param dest			Destination of the dot products
+	 * @param destOffset	Index of the first dot product
+	 * @param count			Number of pairs
+	 */
+	public static void dot(float[] left, int leftOffset, float[] right, int rightOffset, float[] dest, int destOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			int l = leftOffset + i * VECTOR_STRIDE;
+			int r = rightOffset + i * VECTOR_STRIDE;
+			dest[destOffset + i] = left[l] * right[r] + left[l + 1] * right[r + 1] + left[l + 2] * right[r + 2];
+		}
+	}
+
+	/**
+	 * Computes the dot product of packed vectors with one vector.  Used to
+	 * evaluate a plane against many points.
+	 *
+	 * @param vectors		Packed vectors
+	 * @param offset		Index of the first float of the first vector
+	 * @param x				X component of the constant vector
+	 * @param y				Y component of the constant vector
+	 * @param z				Z component of the constant vector
+	 * @param dest			Destination of the dot products
+	 * @param destOffset	Index of the first dot product
+	 * @param count			Number of vectors
+	 */
+	public static void dot(float[] vectors, int offset, float x, float y, float z, float[] dest, int destOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			int v = offset + i * VECTOR_STRIDE;
+			dest[destOffset + i] = vectors[v] * x + vectors[v + 1] * y + vectors[v + 2] * z;
+		}
+	}
+
+	/**
+	 * Computes the dot products of pairs of vectors held in separate
+	 * component arrays
+	 *
+	 * @param ax		Left x components
+	 * @param ay		Left y components
+	 * @param az		Left z components
+	 * @param bx		Right x components
+	 * @param by		Right y components
+	 * @param bz		Right z components
+	 * @param dest		Destination of the dot products
+	 * @param offset	Index of the first pair and dot product
+	 * @param count		Number of pairs
+	 */
+	public static void dot(float[] ax, float[] ay, float[] az, float[] bx, float[] by, float[] bz,
+			float[] dest, int offset, int count) {
+		int end = offset + count;
+		for (int i = offset; i < end; i++)
+			dest[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i];
+	}
+
+}
@@ -13,23 +13,62 @@ public class Frustum {
 	
 	public final static int SIZE = 24;
 	
-	static final int PLANE_NX = 0x0;
-	static final int PLANE_PX = 0x1;
-	static final int PLANE_NY = 0x2;
-	static final int PLANE_PY = 0x3;
-	static final int PLANE_NZ = 0x4;
-	static final int PLANE_PZ = 0x5;
-	
-	static final int INTERSECT = -0x1;
-	static final int INSIDE    = -0x2;
-	static final int OUTSIDE   = -0x3;
-	
-	static final int PLANE_MASK_NX = 1 << PLANE_NX;
-	static final int PLANE_MASK_PX = 1 << PLANE_PX;
-	static final int PLANE_MASK_NY = 1 << PLANE_NY;
-	static final int PLANE_MASK_PY = 1 << PLANE_PY;
-	static final int PLANE_MASK_NZ = 1 << PLANE_NZ;
-	static final int PLANE_MASK_PZ = 1 << PLANE_PZ;
+	/**
+	 * Index of the plane bounding x = -w
+	 */
+	public static final int PLANE_NX = 0x0;
+	
+	/**
+	 * Index of the plane bounding x = w
+	 */
+	public static final int PLANE_PX = 0x1;
+	
+	/**
+	 * Index of the plane bounding y = -w
+	 */
+	public static final int PLANE_NY = 0x2;
+	
+	/**
+	 * Index of the plane bounding y = w
+	 */
+	public static final int PLANE_PY = 0x3;
+	
+	/**
+	 * Index of the plane bounding z = -w
+	 */
+	public static final int PLANE_NZ = 0x4;
+	
+	/**
+	 * Index of the plane bounding z = w
+	 */
+	public static final int PLANE_PZ = 0x5;
+	
+	/**
+	 * Result of a test against a volume crossing the frustum
+	 */
+	public static final int INTERSECT = -0x1;
+	
+	/**
+	 * Result of a test against a volume entirely inside the frustum
+	 */
+	public static final int INSIDE    = -0x2;
+	
+	/**
+	 * Result of a test against a volume entirely outside the frustum
+	 */
+	public static final int OUTSIDE   = -0x3;
+	
+	public static final int PLANE_MASK_NX = 1 << PLANE_NX;
+	public static final int PLANE_MASK_PX = 1 << PLANE_PX;
+	public static final int PLANE_MASK_NY = 1 << PLANE_NY;
+	public static final int PLANE_MASK_PY = 1 << PLANE_PY;
+	public static final int PLANE_MASK_NZ = 1 << PLANE_NZ;
+	public static final int PLANE_MASK_PZ = 1 << PLANE_PZ;
+	
+	/**
+	 * Mask selecting every plane
+	 */
+	public static final int PLANE_MASK_ALL = 0x3F;
 	
 	private float 	nxX, nxY, nxZ, nxW,
 					pxX, pxY, pxZ, pxW,
@@ -38,12 +77,7 @@ public class Frustum {
 					nzX, nzY, nzZ, nzW,
 					pzX, pzY, pzZ, pzW;
 	
-	private final Vector4[] planes = new Vector4[6];
-	{
-		for (int i = 0; i < 6; i++) {
-			planes[i] = new Vector4();
-		}
-	}
+	private final float[] planes = new float[SIZE];
 	
 	/**
 	 * Creates default frustum intersection object
@@ -78,7 +112,7 @@ public class Frustum {
 		nxY *= invl;
 		nxZ *= invl;
 		nxW *= invl;
-		planes[0] = new Vector4(nxX, nxY, nxZ, nxW);
+		setPlane(0, nxX, nxY, nxZ, nxW);
 		
 		pxX = m.m03 - m.m00;
 		pxY = m.m13 - m.m10;
@@ -89,51 +123,51 @@ public class Frustum {
 		pxY *= invl;
 		pxZ *= invl;
 		pxW *= invl;
-		planes[1] = new Vector4(pxX, pxY, pxZ, pxW);
+		setPlane(1, pxX, pxY, pxZ, pxW);
 		
-		nyX = m.m03 + m.m00;
-		nyY = m.m13 + m.m10;
-		nyZ = m.m23 + m.m20;
-		nyW = m.m33 + m.m30;
+		nyX = m.m03 + m.m01;
+		nyY = m.m13 + m.m11;
+		nyZ = m.m23 + m.m21;
+		nyW = m.m33 + m.m31;
 		invl = (float) (1.0 / Math.sqrt(nyX * nyX + nyY * nyY + nyZ * nyZ));
 		nyX *= invl;
 		nyY *= invl;
 		nyZ *= invl;
 		nyW *= invl;
-		planes[2] = new Vector4(nyX, nyY, nyZ, nyW);
+		setPlane(2, nyX, nyY, nyZ, nyW);
 		
-		pyX = m.m03 - m.m00;
-		pyY = m.m13 - m.m10;
-		pyZ = m.m23 - m.m20;
-		pyW = m.m33 - m.m30;
+		pyX = m.m03 - m.m01;
+		pyY = m.m13 - m.m11;
+		pyZ = m.m23 - m.m21;
+		pyW = m.m33 - m.m31;
 		invl = (float) (1.0 / Math.sqrt(pyX * pyX + pyY * pyY + pyZ * pyZ));
 		pyX *= invl;
 		pyY *= invl;
 		pyZ *= invl;
 		pyW *= invl;
-		planes[3] = new Vector4(pyX, pyY, pyZ, pyW);
+		setPlane(3, pyX, pyY, pyZ, pyW);
 		
-		nzX = m.m03 + m.m00;
-		nzY = m.m13 + m.m10;
-		nzZ = m.m23 + m.m20;
-		nzW = m.m33 + m.m30;
+		nzX = m.m03 + m.m02;
+		nzY = m.m13 + m.m12;
+		nzZ = m.m23 + m.m22;
+		nzW = m.m33 + m.m32;
 		invl = (float) (1.0 / Math.sqrt(nzX * nzX + nzY * nzY + nzZ * nzZ));
 		nzX *= invl;
 		nzY *= invl;
 		nzZ *= invl;
 		nzW *= invl;
-		planes[4] = new Vector4(nzX, nzY, nzZ, nzW);
+		setPlane(4, nzX, nzY, nzZ, nzW);
 		
-		pzX = m.m03 - m.m00;
-		pzY = m.m13 - m.m10;
-		pzZ = m.m23 - m.m20;
-		pzW = m.m33 - m.m30;
+		pzX = m.m03 - m.m02;
+		pzY = m.m13 - m.m12;
+		pzZ = m.m23 - m.m22;
+		pzW = m.m33 - m.m32;
 		invl = (float) (1.0 / Math.sqrt(pzX * pzX + pzY * pzY + pzZ * pzZ));
 		pzX *= invl;
 		pzY *= invl;
 		pzZ *= invl;
 		pzW *= invl;
-		planes[5] = new Vector4(pzX, pzY, pzZ, pzW);
+		setPlane(5, pzX, pzY, pzZ, pzW);
 		
 		return this;
 	}
@@ -161,12 +195,191 @@ public class Frustum {
 	 */
 	public boolean boundingSphere(BoundingSphere bs) {
 		Vector3 vec = bs.getLocation();
-		return  nxX * vec.x + nxY * vec.y + nxZ * vec.z + nxW >= -bs.getRadius() &&
-				pxX * vec.x + pxY * vec.y + pxZ * vec.z + pxW >= -bs.getRadius() &&
-				nyX * vec.x + nyY * vec.y + nyZ * vec.z + nyW >= -bs.getRadius() &&
-				pyX * vec.x + pyY * vec.y + pyZ * vec.z + pyW >= -bs.getRadius() &&
-				nzX * vec.x + nzY * vec.y + nzZ * vec.z + nzW >= -bs.getRadius() &&
-				pzX * vec.x + pzY * vec.y + pzZ * vec.z + pzW >= -bs.getRadius();
+		return sphere(vec.x, vec.y, vec.z, bs.getRadius());
+	}
+	
+	/**
+	 * Checks if a sphere is at least partly inside the frustum
+	 * 
+	 * @param x		x of the sphere's center
+	 * @param y		y of the sphere's center
+	 * @param z		z of the sphere's center
+	 * @param r		radius of the sphere
+	 * @return		is inside
+	 */
+	public boolean sphere(float x, float y, float z, float r) {
+		return  nxX * x + nxY * y + nxZ * z + nxW >= -r &&
+				pxX * x + pxY * y + pxZ * z + pxW >= -r &&
+				nyX * x + nyY * y + nyZ * z + nyW >= -r &&
+				pyX * x + pyY * y + pyZ * z + pyW >= -r &&
+				nzX * x + nzY * y + nzZ * z + nzW >= -r &&
+				pzX * x + pzY * y + pzZ * z + pzW >= -r;
+	}
+	
+	/**
+	 * Classifies a sphere against the frustum
+	 * 
+	 * @param x		x of the sphere's center
+	 * @param y		y of the sphere's center
+	 * @param z		z of the sphere's center
+	 * @param r		radius of the sphere
+	 * @return		{@link #INSIDE}, {@link #INTERSECT} or {@link #OUTSIDE}
+	 */
+	public int intersectSphere(float x, float y, float z, float r) {
+		boolean inside = true;
+		float dist = nxX * x + nxY * y + nxZ * z + nxW;
+		if (dist < -r)
+			return OUTSIDE;
+		inside &= dist >= r;
+		dist = pxX * x + pxY * y + pxZ * z + pxW;
+		if (dist < -r)
+			return OUTSIDE;
+		inside &= dist >= r;
+		dist = nyX * x + nyY * y + nyZ * z + nyW;
+		if (dist < -r)
+			return OUTSIDE;
+		inside &= dist >= r;
+		dist = pyX * x + pyY * y + pyZ * z + pyW;
+		if (dist < -r)
+			return OUTSIDE;
+		inside &= dist >= r;
+		dist = nzX * x + nzY * y + nzZ * z + nzW;
+		if (dist < -r)
+			return OUTSIDE;
+		inside &= dist >= r;
+		dist = pzX * x + pzY * y + pzZ * z + pzW;
+		if (dist < -r)
+			return OUTSIDE;
+		inside &= dist >= r;
+		return inside ? INSIDE : INTERSECT;
+	}
+	
+	/**
+	 * Classifies a sphere against the planes of the frustum selected by a
+	 * mask, testing the start plane first.  Passing the plane that culled the
+	 * sphere last frame as the start plane usually rejects it with one test.
+	 * 
+	 * @param x				x of the sphere's center
+	 * @param y				y of the sphere's center
+	 * @param z				z of the sphere's center
+	 * @param r				radius of the sphere
+	 * @param mask			planes to test, a combination of the PLANE_MASK constants
+	 * @param startPlane	index of the plane to test first
+	 * @return				index of the plane that culled the sphere, or
+	 * 						{@link #INSIDE} or {@link #INTERSECT}
+	 */
+	public int intersectSphere(float x, float y, float z, float r, int mask, int startPlane) {
+		boolean inside = true;
+		int plane = startPlane < 0 || startPlane > PLANE_PZ ? 0 : startPlane;
+		for (int i = 0; i < 6; i++) {
+			if ((mask & (1 << plane)) != 0) {
+				int p = plane * 4;
+				float dist = planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3];
+				if (dist < -r)
+					return plane;
+				inside &= dist >= r;
+			}
+			if (++plane == 6)
+				plane = 0;
+		}
+		return inside ? INSIDE : INTERSECT;
+	}
+	
+	/**
+	 * Classifies an axis aligned box against the frustum
+	 * 
+	 * @param minX		minimum x of the box
+	 * @param minY		minimum y of the box
+	 * @param minZ		minimum z of the box
+	 * @param maxX		maximum x of the box
+	 * @param maxY		maximum y of the box
+	 * @param maxZ		maximum z of the box
+	 * @return			{@link #INSIDE}, {@link #INTERSECT} or {@link #OUTSIDE}
+	 */
+	public int intersectAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		boolean inside = true;
+		if (nxX * (nxX < 0 ? minX : maxX) + nxY * (nxY < 0 ? minY : maxY) + nxZ * (nxZ < 0 ? minZ : maxZ) < -nxW)
+			return OUTSIDE;
+		inside &= nxX * (nxX < 0 ? maxX : minX) + nxY * (nxY < 0 ? maxY : minY) + nxZ * (nxZ < 0 ? maxZ : minZ) >= -nxW;
+		if (pxX * (pxX < 0 ? minX : maxX) + pxY * (pxY < 0 ? minY : maxY) + pxZ * (pxZ < 0 ? minZ : maxZ) < -pxW)
+			return OUTSIDE;
+		inside &= pxX * (pxX < 0 ? maxX : minX) + pxY * (pxY < 0 ? maxY : minY) + pxZ * (pxZ < 0 ? maxZ : minZ) >= -pxW;
+		if (nyX * (nyX < 0 ? minX : maxX) + nyY * (nyY < 0 ? minY : maxY) + nyZ * (nyZ < 0 ? minZ : maxZ) < -nyW)
+			return OUTSIDE;
+		inside &= nyX * (nyX < 0 ? maxX : minX) + nyY * (nyY < 0 ? maxY : minY) + nyZ * (nyZ < 0 ? maxZ : minZ) >= -nyW;
+		if (pyX * (pyX < 0 ? minX : maxX) + pyY * (pyY < 0 ? minY : maxY) + pyZ * (pyZ < 0 ? minZ : maxZ) < -pyW)
+			return OUTSIDE;
+		inside &= pyX * (pyX < 0 ? maxX : minX) + pyY * (pyY < 0 ? maxY : minY) + pyZ * (pyZ < 0 ? maxZ : minZ) >= -pyW;
+		if (nzX * (nzX < 0 ? minX : maxX) + nzY * (nzY < 0 ? minY : maxY) + nzZ * (nzZ < 0 ? minZ : maxZ) < -nzW)
+			return OUTSIDE;
+		inside &= nzX * (nzX < 0 ? maxX : minX) + nzY * (nzY < 0 ? maxY : minY) + nzZ * (nzZ < 0 ? maxZ : minZ) >= -nzW;
+		if (pzX * (pzX < 0 ? minX : maxX) + pzY * (pzY < 0 ? minY : maxY) + pzZ * (pzZ < 0 ? minZ : maxZ) < -pzW)
+			return OUTSIDE;
+		inside &= pzX * (pzX < 0 ? maxX : minX) + pzY * (pzY < 0 ? maxY : minY) + pzZ * (pzZ < 0 ? maxZ : minZ) >= -pzW;
+		return inside ? INSIDE : INTERSECT;
+	}
+	
+	/**
+	 * Classifies an axis aligned box against the planes of the frustum
+	 * selected by a mask, testing the start plane first
+	 * 
+	 * @param minX			minimum x of the box
+	 * @param minY			minimum y of the box
+	 * @param minZ			minimum z of the box
+	 * @param maxX			maximum x of the box
+	 * @param maxY			maximum y of the box
+	 * @param maxZ			maximum z of the box
+	 * @param mask			planes to test, a combination of the PLANE_MASK constants
+	 * @param startPlane	index of the plane to test first
+	 * @return				index of the plane that culled the box, or
+	 * 						{@link #INSIDE} or {@link #INTERSECT}
+	 */
+	public int intersectAab(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int mask, int startPlane) {
+		boolean inside = true;
+		int plane = startPlane < 0 || startPlane > PLANE_PZ ? 0 : startPlane;
+		for (int i = 0; i < 6; i++) {
+			if ((mask & (1 << plane)) != 0) {
+				int p = plane * 4;
+				float a = planes[p], b = planes[p + 1], c = planes[p + 2], d = -planes[p + 3];
+				if (a * (a < 0 ? minX : maxX) + b * (b < 0 ? minY : maxY) + c * (c < 0 ? minZ : maxZ) < d)
+					return plane;
+				inside &= a * (a < 0 ? maxX : minX) + b * (b < 0 ? maxY : minY) + c * (c < 0 ? maxZ : minZ) >= d;
+			}
+			if (++plane == 6)
+				plane = 0;
+		}
+		return inside ? INSIDE : INTERSECT;
+	}
+	
+	/**
+	 * Finds which planes of a mask an axis aligned box crosses.  A box
+	 * entirely inside a plane is inside it for everything the box bounds, so
+	 * the returned mask can be passed down when testing the children of a
+	 * hierarchy and a result of 0 means the whole subtree is visible.
+	 * 
+	 * @param minX		minimum x of the box
+	 * @param minY		minimum y of the box
+	 * @param minZ		minimum z of the box
+	 * @param maxX		maximum x of the box
+	 * @param maxY		maximum y of the box
+	 * @param maxZ		maximum z of the box
+	 * @param mask		planes to test, a combination of the PLANE_MASK constants
+	 * @return			{@link #OUTSIDE}, or the planes of the mask the box crosses
+	 */
+	public int intersectAabMask(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int mask) {
+		int crossed = 0;
+		for (int plane = 0; plane < 6; plane++) {
+			int bit = 1 << plane;
+			if ((mask & bit) == 0)
+				continue;
+			int p = plane * 4;
+			float a = planes[p], b = planes[p + 1], c = planes[p + 2], d = -planes[p + 3];
+			if (a * (a < 0 ? minX : maxX) + b * (b < 0 ? minY : maxY) + c * (c < 0 ? minZ : maxZ) < d)
+				return OUTSIDE;
+			if (a * (a < 0 ? maxX : minX) + b * (b < 0 ? maxY : minY) + c * (c < 0 ? maxZ : minZ) < d)
+				crossed |= bit;
+		}
+		return crossed;
 	}
 	
 	/**
@@ -176,19 +389,64 @@ public class Frustum {
 	 * @return			inside frustum
 	 */
 	public boolean aabb(AABB aabb) {
-		float minX = aabb.getMinExtents().x;
-		float minY = aabb.getMinExtents().y;
-		float minZ = aabb.getMinExtents().z;
-		float maxX = aabb.getMaxExtents().x;
-		float maxY = aabb.getMaxExtents().y;
-		float maxZ = aabb.getMaxExtents().z;
-		
-		return	nxX *(nxX < 0 ? minX : maxX) + nxY * (nxY < 0 ? minY : maxY) + (nxZ < 0 ? minZ : maxZ) >= -nxW &&
-				pxX *(pxX < 0 ? minX : maxX) + pxY * (pxY < 0 ? minY : maxY) + (pxZ < 0 ? minZ : maxZ) >= -nxW &&
-				nxX *(nyX < 0 ? minX : maxX) + nxY * (nyY < 0 ? minY : maxY) + (nyZ < 0 ? minZ : maxZ) >= -nxW &&
-				pxX *(pyX < 0 ? minX : maxX) + pxY * (pyY < 0 ? minY : maxY) + (pyZ < 0 ? minZ : maxZ) >= -nxW &&
-				nxX *(nzX < 0 ? minX : maxX) + nxY * (nzY < 0 ? minY : maxY) + (nzZ < 0 ? minZ : maxZ) >= -nxW &&
-				pxX *(pzX < 0 ? minX : maxX) + pxY * (pzY < 0 ? minY : maxY) + (pzZ < 0 ? minZ : maxZ) >= -nxW;
+		Vector3 min = aabb.getMinExtents();
+		Vector3 max = aabb.getMaxExtents();
+		return intersectAab(min.x, min.y, min.z, max.x, max.y, max.z) != OUTSIDE;
+	}
+	
+	/**
+	 * Culls spheres held in separate coordinate arrays.  The indices of the
+	 * spheres at least partly inside the frustum are written to the visible
+	 * array in ascending order.
+	 * <p>
+	 * When a plane cache is given, the plane that culled each sphere is
+	 * stored in it and tested first on the next call, so objects that stay
+	 * outside are usually rejected with a single plane test.  Entries must
+	 * start out as -1 or a valid plane index.
+	 * 
+	 * @param xs			x of each sphere's center
+	 * @param ys			y of each sphere's center
+	 * @param zs			z of each sphere's center
+	 * @param radii			radius of each sphere
+	 * @param offset		index of the first sphere
+	 * @param count			number of spheres
+	 * @param planeCache	plane that last culled each sphere, or null
+	 * @param visible		receives the indices of the visible spheres
+	 * @return				number of visible spheres
+	 */
+	public int cullSpheres(float[] xs, float[] ys, float[] zs, float[] radii, int offset, int count, int[] planeCache, int[] visible) {
+		float[] planes = this.planes;
+		int visibleCount = 0;
+		int end = offset + count;
+		for (int i = offset; i < end; i++) {
+			float x = xs[i], y = ys[i], z = zs[i], r = -radii[i];
+			int plane = planeCache == null || planeCache[i] < 0 ? 0 : planeCache[i];
+			int culled = -1;
+			for (int j = 0; j < 6; j++) {
+				int p = plane * 4;
+				if (planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] < r) {
+					culled = plane;
+					break;
+				}
+				if (++plane == 6)
+					plane = 0;
+			}
+			if (culled < 0)
+				visible[visibleCount++] = i;
+			else if (planeCache != null)
+				planeCache[i] = culled;
+		}
+		return visibleCount;
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private void setPlane(int plane, float x, float y, float z, float w) {
+		int p = plane * 4;
+		planes[p] = x;
+		planes[p + 1] = y;
+		planes[p + 2] = z;
+		planes[p + 3] = w;
 	}
 	
 }
@@ -0,0 +1,173 @@
+package tk.luminos.maths;
+
+/**
+ * Per thread pool of temporary vectors and matrices.  Code needing scratch
+ * values pushes a frame, takes as many temporaries as it needs and pops the
+ * frame when done, which hands every temporary taken since the push back to
+ * the pool.  Temporaries are reused across frames, so they must not be kept
+ * after the pop.
+ *
+ * <pre>
+ * MathStack stack = MathStack.get();
+ * stack.push();
+ * try {
+ *     Matrix4 view = MathUtils.createViewMatrix(camera, stack.matrix4());
+ *     ...
+ * } finally {
+ *     stack.pop();
+ * }
+ * </pre>
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class MathStack {
+
+	private static final int DEFAULT_SIZE = 16;
+	private static final int MAX_DEPTH = 64;
+
+	private static final ThreadLocal<MathStack> STACKS = ThreadLocal.withInitial(MathStack::new);
+
+	private Vector2[] vector2s = new Vector2[DEFAULT_SIZE];
+	private Vector3[] vector3s = new Vector3[DEFAULT_SIZE];
+	private Vector4[] vector4s = new Vector4[DEFAULT_SIZE];
+	private Matrix4[] matrix4s = new Matrix4[DEFAULT_SIZE];
+	private int vector2Top, vector3Top, vector4Top, matrix4Top;
+
+	private final int[] frames = new int[MAX_DEPTH * 4];
+	private int depth = 0;
+
+	/**
+	 * Gets the stack of the calling thread
+	 *
+	 * @return		Stack of the calling thread
+	 */
+	public static MathStack get() {
+		return STACKS.get();
+	}
+
+	/**
+	 * Opens a frame.  Every temporary taken after this call is released by
+	 * the matching {@link #pop()}.
+	 *
+	 * @throws IllegalStateException		Thrown if frames are nested too deeply
+	 */
+	public void push() {
+		if (depth == MAX_DEPTH)
+			throw new IllegalStateException("Math stack overflow");
+		int frame = depth++ * 4;
+		frames[frame] = vector2Top;
+		frames[frame + 1] = vector3Top;
+		frames[frame + 2] = vector4Top;
+		frames[frame + 3] = matrix4Top;
+	}
+
+	/**
+	 * Closes the current frame, releasing the temporaries taken since the
+	 * matching {@link #push()}
+	 *
+	 * @throws IllegalStateException		Thrown if no frame is open
+	 */
+	public void pop() {
+		if (depth == 0)
+			throw new IllegalStateException("Math stack underflow");
+		int frame = --depth * 4;
+		vector2Top = frames[frame];
+		vector3Top = frames[frame + 1];
+		vector4Top = frames[frame + 2];
+		matrix4Top = frames[frame + 3];
+	}
+
+	/**
+	 * Takes a temporary two dimensional vector.  Its contents are undefined.
+	 *
+	 * @return		Temporary vector
+	 */
+	public Vector2 vector2() {
+		if (vector2Top == vector2s.length)
+			vector2s = grow(vector2s, new Vector2[vector2s.length * 2]);
+		Vector2 vec = vector2s[vector2Top];
+		if (vec == null)
+			vec = vector2s[vector2Top] = new Vector2();
+		vector2Top++;
+		return vec;
+	}
+
+	/**
+	 * Takes a temporary three dimensional vector.  Its contents are undefined.
+	 *
+	 * @return		Temporary vector
+	 */
+	public Vector3 vector3() {
+		if (vector3Top == vector3s.length)
+			vector3s = grow(vector3s, new Vector3[vector3s.length * 2]);
+		Vector3 vec = vector3s[vector3Top];
+		if (vec == null)
+			vec = vector3s[vector3Top] = new Vector3();
+		vector3Top++;
+		return vec;
+	}
+
+	/**
+	 * Takes a temporary three dimensional vector set to the given components
+	 *
+	 * @param x		X component
+	 * @param y		Y component
+	 * @param z		Z component
+	 * @return		Temporary vector
+	 */
+	public Vector3 vector3(float x, float y, float z) {
+		Vector3 vec = vector3();
+		vec.x = x;
+		vec.y = y;
+		vec.z = z;
+		return vec;
+	}
+
+	/**
+	 * Takes a temporary four dimensional vector.  Its contents are undefined.
+	 *
+	 * @return		Temporary vector
+	 */
+	public Vector4 vector4() {
+		if (vector4Top == vector4s.length)
+			vector4s = grow(vector4s, new Vector4[vector4s.length * 2]);
+		Vector4 vec = vector4s[vector4Top];
+		if (vec == null)
+			vec = vector4s[vector4Top] = new Vector4();
+		vector4Top++;
+		return vec;
+	}
+
+	/**
+	 * Takes a temporary matrix.  Its contents are undefined.
+	 *
+	 * @return		Temporary matrix
+	 */
+	public Matrix4 matrix4() {
+		if (matrix4Top == matrix4s.length)
+			matrix4s = grow(matrix4s, new Matrix4[matrix4s.length * 2]);
+		Matrix4 mat = matrix4s[matrix4Top];
+		if (mat == null)
+			mat = matrix4s[matrix4Top] = new Matrix4();
+		matrix4Top++;
+		return mat;
+	}
+
+	/**
+	 * Gets the number of open frames
+	 *
+	 * @return		Number of open frames
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+//**************************************Private Methods*******************************************//
+
+	private static <T> T[] grow(T[] src, T[] dest) {
+		System.arraycopy(src, 0, dest, 0, src.length);
+		return dest;
+	}
+
+}
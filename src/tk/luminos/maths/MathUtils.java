@@ -23,11 +23,19 @@ public class MathUtils {
 	 * @return 				Transformation Matrix
 	 */
 	public static Matrix4 createTransformationMatrix(Vector2 translation, Vector2 scale) {
-		Matrix4 matrix = new Matrix4();
-		matrix.setIdentity();
-		Matrix4.translate(translation, matrix, matrix);
-		Matrix4.scale(new Vector3(scale.x, scale.y, 1f), matrix, matrix);
-		return matrix;
+		return createTransformationMatrix(translation, scale, new Matrix4());
+	}
+	
+	/**
+	 * Creates transformation matrix
+	 * 
+	 * @param translation	2D Translation
+	 * @param scale			2D Scale
+	 * @param dest			Destination matrix
+	 * @return 				Destination matrix
+	 */
+	public static Matrix4 createTransformationMatrix(Vector2 translation, Vector2 scale, Matrix4 dest) {
+		return createTransformationMatrix(translation.x, translation.y, 0, 0, 0, 0, scale.x, scale.y, 1, dest);
 	}
 
 	/**
@@ -42,14 +50,23 @@ public class MathUtils {
 	 */
 	public static Matrix4 createTransformationMatrix(Vector3 translation, float rx, float ry,
 			float rz, float scale) {
-		Matrix4 matrix = new Matrix4();
-		matrix.setIdentity();
-		Matrix4.translate(translation, matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rx), new Vector3(1,0,0), matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(ry), new Vector3(0,1,0), matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rz), new Vector3(0,0,1), matrix, matrix);
-		Matrix4.scale(new Vector3(scale,scale,scale), matrix, matrix);
-		return matrix;
+		return createTransformationMatrix(translation, rx, ry, rz, scale, new Matrix4());
+	}
+	
+	/**
+	 * Creates transformation matrix
+	 * 
+	 * @param translation	3D Translation
+	 * @param rx			Rotation around X
+	 * @param ry			Rotation around Y
+	 * @param rz			Rotation around Z
+	 * @param scale			Uniform scale
+	 * @param dest			Destination matrix
+	 * @return 				Destination matrix
+	 */
+	public static Matrix4 createTransformationMatrix(Vector3 translation, float rx, float ry,
+			float rz, float scale, Matrix4 dest) {
+		return createTransformationMatrix(translation.x, translation.y, translation.z, rx, ry, rz, scale, scale, scale, dest);
 	}
 		
 	/**
@@ -73,14 +90,21 @@ public class MathUtils {
 	 * @return				Transformation Matrix
 	 */
 	public static Matrix4 createTransformationMatrix(Vector3 translation, Vector3 rotation, Vector3 scale) {
-		Matrix4 matrix = new Matrix4();
-		matrix.setIdentity();
-		Matrix4.translate(translation, matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rotation.x), new Vector3(1,0,0), matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rotation.y), new Vector3(0,1,0), matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rotation.z), new Vector3(0,0,1), matrix, matrix);
-		Matrix4.scale(scale, matrix, matrix);
-		return matrix;
+		return createTransformationMatrix(translation, rotation, scale, new Matrix4());
+	}
+	
+	/**
+	 * Creates transformation matrix
+	 * 
+	 * @param translation	3D Translation
+	 * @param rotation		3D Rotation
+	 * @param scale			3D Scale
+	 * @param dest			Destination matrix
+	 * @return				Destination matrix
+	 */
+	public static Matrix4 createTransformationMatrix(Vector3 translation, Vector3 rotation, Vector3 scale, Matrix4 dest) {
+		return createTransformationMatrix(translation.x, translation.y, translation.z, rotation.x, rotation.y, rotation.z,
+				scale.x, scale.y, scale.z, dest);
 	}
 	
 	/**
@@ -92,7 +116,81 @@ public class MathUtils {
 	 * @return 				Transformation Matrix
 	 */
 	public static Matrix4 createTransformationMatrix(Vector3 translation, Vector3 rotation, Vector2 scale) {
-		return createTransformationMatrix(translation, rotation, new Vector3(scale.x, 1, scale.y));
+		return createTransformationMatrix(translation.x, translation.y, translation.z, rotation.x, rotation.y, rotation.z,
+				scale.x, 1, scale.y, new Matrix4());
+	}
+	
+	/**
+	 * Writes a translation, rotation and scale matrix into the destination.
+	 * The rotation is applied about X, then Y, then Z, and the matrix is
+	 * written out directly from the sines and cosines of the three angles
+	 * rather than built from a chain of axis rotations.
+	 * 
+	 * @param tx			Translation along X
+	 * @param ty			Translation along Y
+	 * @param tz			Translation along Z
+	 * @param rx			Rotation around X in degrees
+	 * @param ry			Rotation around Y in degrees
+	 * @param rz			Rotation around Z in degrees
+	 * @param sx			Scale along X
+	 * @param sy			Scale along Y
+	 * @param sz			Scale along Z
+	 * @param dest			Destination matrix
+	 * @return				Destination matrix
+	 */
+	public static Matrix4 createTransformationMatrix(float tx, float ty, float tz, float rx, float ry, float rz,
+			float sx, float sy, float sz, Matrix4 dest) {
+		double ax = Math.toRadians(rx);
+		double ay = Math.toRadians(ry);
+		double az = Math.toRadians(rz);
+		float cx = (float) Math.cos(ax), snx = (float) Math.sin(ax);
+		float cy = (float) Math.cos(ay), sny = (float) Math.sin(ay);
+		float cz = (float) Math.cos(az), snz = (float) Math.sin(az);
+		
+		dest.m00 = cy * cz * sx;
+		dest.m01 = (cx * snz + snx * sny * cz) * sx;
+		dest.m02 = (snx * snz - cx * sny * cz) * sx;
+		dest.m03 = 0;
+		dest.m10 = -cy * snz * sy;
+		dest.m11 = (cx * cz - snx * sny * snz) * sy;
+		dest.m12 = (snx * cz + cx * sny * snz) * sy;
+		dest.m13 = 0;
+		dest.m20 = sny * sz;
+		dest.m21 = -snx * cy * sz;
+		dest.m22 = cx * cy * sz;
+		dest.m23 = 0;
+		dest.m30 = tx;
+		dest.m31 = ty;
+		dest.m32 = tz;
+		dest.m33 = 1;
+		return dest;
+	}
+
+	/**
+	 * Writes a translation, rotation and scale matrix with the rotation
+	 * given as a unit quaternion into the destination
+	 * 
+	 * @param translation	3D Translation
+	 * @param orientation	Rotation
+	 * @param scale			3D Scale
+	 * @param dest			Destination matrix
+	 * @return				Destination matrix
+	 */
+	public static Matrix4 createTransformationMatrix(Vector3 translation, Quaternion orientation, Vector3 scale, Matrix4 dest) {
+		orientation.toRotationMatrix(dest);
+		dest.m00 *= scale.x;
+		dest.m01 *= scale.x;
+		dest.m02 *= scale.x;
+		dest.m10 *= scale.y;
+		dest.m11 *= scale.y;
+		dest.m12 *= scale.y;
+		dest.m20 *= scale.z;
+		dest.m21 *= scale.z;
+		dest.m22 *= scale.z;
+		dest.m30 = translation.x;
+		dest.m31 = translation.y;
+		dest.m32 = translation.z;
+		return dest;
 	}
 
 	/**
@@ -103,15 +201,31 @@ public class MathUtils {
 	 * @return				Location vector of rotated point vector
 	 */
 	public static Vector3 rotate(Vector3 point, Vector3 rotation) {
-		Matrix4 matrix = new Matrix4();
-		matrix.setIdentity();
-		matrix.m00 = point.x;
-		matrix.m11 = point.y;
-		matrix.m22 = point.z;
-		Matrix4.rotate((float) Math.toRadians(rotation.x), new Vector3(1, 0, 0), matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rotation.y), new Vector3(0, 1, 0), matrix, matrix);
-		Matrix4.rotate((float) Math.toRadians(rotation.z), new Vector3(0, 0, 1), matrix, matrix);
-		return new Vector3(matrix.m00, matrix.m11, matrix.m22);
+		return rotate(point, rotation, new Vector3());
+	}
+	
+	/**
+	 * Rotates a point around the origin
+	 * 
+	 * @param point			Location vector to rotate
+	 * @param rotation		Rotation vector
+	 * @param dest			Destination vector
+	 * @return				Destination vector
+	 */
+	public static Vector3 rotate(Vector3 point, Vector3 rotation, Vector3 dest) {
+		double ax = Math.toRadians(rotation.x);
+		double ay = Math.toRadians(rotation.y);
+		double az = Math.toRadians(rotation.z);
+		float cx = (float) Math.cos(ax), snx = (float) Math.sin(ax);
+		float cy = (float) Math.cos(ay), sny = (float) Math.sin(ay);
+		float cz = (float) Math.cos(az), snz = (float) Math.sin(az);
+		float x = point.x * cy * cz;
+		float y = point.y * (cx * cz - snx * sny * snz);
+		float z = point.z * cx * cy;
+		dest.x = x;
+		dest.y = y;
+		dest.z = z;
+		return dest;
 	}
 	
 	/**
@@ -151,15 +265,58 @@ public class MathUtils {
 	 * @return 			View Matrix
 	 */
 	public static Matrix4 createViewMatrix(Camera camera) {
-		Matrix4 viewMatrix = new Matrix4();
-		viewMatrix.setIdentity();
-		Matrix4.rotate((float) Math.toRadians(camera.getPitch()), new Vector3(1, 0, 0), viewMatrix,
-				viewMatrix);
-		Matrix4.rotate((float) Math.toRadians(camera.getYaw()), new Vector3(0, 1, 0), viewMatrix, viewMatrix);
-		Vector3 cameraPos = camera.getPosition();
-		Vector3 negativeCameraPos = new Vector3(-cameraPos.x,-cameraPos.y,-cameraPos.z);
-		Matrix4.translate(negativeCameraPos, viewMatrix, viewMatrix);
-		return viewMatrix;
+		return createViewMatrix(camera, new Matrix4());
+	}
+	
+	/**
+	 * Writes the view matrix of a {@link Camera} into the destination.  The
+	 * pitch and yaw rotations and the camera translation are combined in
+	 * closed form.
+	 * 
+	 * @param camera	Camera for view matrix
+	 * @param dest		Destination matrix
+	 * @return 			Destination matrix
+	 */
+	public static Matrix4 createViewMatrix(Camera camera, Matrix4 dest) {
+		Vector3 position = camera.getPosition();
+		return createViewMatrix(position.x, position.y, position.z, camera.getPitch(), camera.getYaw(), dest);
+	}
+	
+	/**
+	 * Writes a view matrix looking from a position with the given pitch and
+	 * yaw into the destination
+	 * 
+	 * @param x			X position of the eye
+	 * @param y			Y position of the eye
+	 * @param z			Z position of the eye
+	 * @param pitch		Pitch in degrees
+	 * @param yaw		Yaw in degrees
+	 * @param dest		Destination matrix
+	 * @return			Destination matrix
+	 */
+	public static Matrix4 createViewMatrix(float x, float y, float z, float pitch, float yaw, Matrix4 dest) {
+		double pitchRadians = Math.toRadians(pitch);
+		double yawRadians = Math.toRadians(yaw);
+		float cp = (float) Math.cos(pitchRadians), sp = (float) Math.sin(pitchRadians);
+		float cy = (float) Math.cos(yawRadians), sy = (float) Math.sin(yawRadians);
+		
+		dest.m00 = cy;
+		dest.m01 = sp * sy;
+		dest.m02 = -cp * sy;
+		dest.m03 = 0;
+		dest.m10 = 0;
+		dest.m11 = cp;
+		dest.m12 = sp;
+		dest.m13 = 0;
+		dest.m20 = sy;
+		dest.m21 = -sp * cy;
+		dest.m22 = cp * cy;
+		dest.m23 = 0;
+		dest.m30 = -(dest.m00 * x + dest.m20 * z);
+		dest.m31 = -(dest.m01 * x + dest.m11 * y + dest.m21 * z);
+		dest.m32 = -(dest.m02 * x + dest.m12 * y + dest.m22 * z);
+		dest.m33 = 1;
+		return dest;
 	}
 
 	/**
@@ -200,7 +357,10 @@ public class MathUtils {
 	}
 	
 	/**
-	 * Determines closest point to origin
+	 * Determines closest point to origin by checking every point.  To find
+	 * the game objects closest to a point use
+	 * {@link tk.luminos.Scene#nearest(Vector3, int, List)}, which searches
+	 * the scene's spatial index.
 	 * 
 	 * @param origin	Point of origin
 	 * @param points	Points to be checked	
@@ -378,6 +378,37 @@ public class Matrix4 {
 		return dest;
 	}
 
+	/**
+	 * Copies a matrix
+	 * 
+	 * @param src		Matrix to copy
+	 * @param dest		Destination matrix
+	 * @return			If destination matrix is null
+	 * 						create new matrix
+	 * 						Then return the copy
+	 */
+	public static Matrix4 load(Matrix4 src, Matrix4 dest) {
+		if (dest == null)
+			dest = new Matrix4();
+		dest.m00 = src.m00;
+		dest.m01 = src.m01;
+		dest.m02 = src.m02;
+		dest.m03 = src.m03;
+		dest.m10 = src.m10;
+		dest.m11 = src.m11;
+		dest.m12 = src.m12;
+		dest.m13 = src.m13;
+		dest.m20 = src.m20;
+		dest.m21 = src.m21;
+		dest.m22 = src.m22;
+		dest.m23 = src.m23;
+		dest.m30 = src.m30;
+		dest.m31 = src.m31;
+		dest.m32 = src.m32;
+		dest.m33 = src.m33;
+		return dest;
+	}
+
 	/**
 	 * Transposes this matrix
 	 * 
@@ -555,6 +586,128 @@ public class Matrix4 {
 			return null;
 	}
 	
+	/**
+	 * Inverts a rigid transformation, a rotation followed by a translation
+	 * with no scale, such as a view matrix.  The rotation is inverted by
+	 * transposing it.
+	 * 
+	 * @param src		Source matrix
+	 * @param dest		Destination matrix
+	 * @return			If destination matrix is null
+	 * 						create new matrix
+	 * 						Then return the inverse
+	 */
+	public static Matrix4 invertRigid(Matrix4 src, Matrix4 dest) {
+		if (dest == null)
+			dest = new Matrix4();
+		float m01 = src.m01, m02 = src.m02, m12 = src.m12;
+		float m10 = src.m10, m20 = src.m20, m21 = src.m21;
+		float tx = src.m30, ty = src.m31, tz = src.m32;
+		dest.m00 = src.m00;
+		dest.m11 = src.m11;
+		dest.m22 = src.m22;
+		dest.m01 = m10;
+		dest.m02 = m20;
+		dest.m10 = m01;
+		dest.m12 = m21;
+		dest.m20 = m02;
+		dest.m21 = m12;
+		dest.m03 = 0;
+		dest.m13 = 0;
+		dest.m23 = 0;
+		dest.m30 = -(src.m00 * tx + m01 * ty + m02 * tz);
+		dest.m31 = -(m10 * tx + src.m11 * ty + m12 * tz);
+		dest.m32 = -(m20 * tx + m21 * ty + src.m22 * tz);
+		dest.m33 = 1;
+		return dest;
+	}
+	
+	/**
+	 * Inverts an affine transformation, one whose bottom row is
+	 * (0, 0, 0, 1), such as a model matrix built from a translation,
+	 * rotation and scale or an orthographic projection.
+	 * 
+	 * @param src		Source matrix
+	 * @param dest		Destination matrix
+	 * @return			If destination matrix is null
+	 * 						create new matrix
+	 * 						Then return the inverse.  Returns
+	 * 						null if the matrix is singular
+	 */
+	public static Matrix4 invertAffine(Matrix4 src, Matrix4 dest) {
+		float c00 = src.m11 * src.m22 - src.m21 * src.m12;
+		float c01 = src.m21 * src.m02 - src.m01 * src.m22;
+		float c02 = src.m01 * src.m12 - src.m11 * src.m02;
+		float determinant = src.m00 * c00 + src.m10 * c01 + src.m20 * c02;
+		if (determinant == 0)
+			return null;
+		if (dest == null)
+			dest = new Matrix4();
+		float inv = 1f / determinant;
+		float c10 = src.m20 * src.m12 - src.m10 * src.m22;
+		float c11 = src.m00 * src.m22 - src.m20 * src.m02;
+		float c12 = src.m10 * src.m02 - src.m00 * src.m12;
+		float c20 = src.m10 * src.m21 - src.m20 * src.m11;
+		float c21 = src.m20 * src.m01 - src.m00 * src.m21;
+		float c22 = src.m00 * src.m11 - src.m10 * src.m01;
+		float tx = src.m30, ty = src.m31, tz = src.m32;
+		float m00 = c00 * inv, m01 = c01 * inv, m02 = c02 * inv;
+		float m10 = c10 * inv, m11 = c11 * inv, m12 = c12 * inv;
+		float m20 = c20 * inv, m21 = c21 * inv, m22 = c22 * inv;
+		dest.m00 = m00;
+		dest.m01 = m01;
+		dest.m02 = m02;
+		dest.m03 = 0;
+		dest.m10 = m10;
+		dest.m11 = m11;
+		dest.m12 = m12;
+		dest.m13 = 0;
+		dest.m20 = m20;
+		dest.m21 = m21;
+		dest.m22 = m22;
+		dest.m23 = 0;
+		dest.m30 = -(m00 * tx + m10 * ty + m20 * tz);
+		dest.m31 = -(m01 * tx + m11 * ty + m21 * tz);
+		dest.m32 = -(m02 * tx + m12 * ty + m22 * tz);
+		dest.m33 = 1;
+		return dest;
+	}
+	
+	/**
+	 * Inverts a perspective projection matrix, including off-center
+	 * projections.  Only the x and y scale, the x and y offset, the depth
+	 * terms and the perspective divide term may be non-zero.
+	 * 
+	 * @param src		Source matrix
+	 * @param dest		Destination matrix
+	 * @return			If destination matrix is null
+	 * 						create new matrix
+	 * 						Then return the inverse
+	 */
+	public static Matrix4 invertPerspective(Matrix4 src, Matrix4 dest) {
+		if (dest == null)
+			dest = new Matrix4();
+		float a = src.m00, b = src.m11, c = src.m20, d = src.m21;
+		float e = src.m22, f = src.m32, g = src.m23;
+		dest.m00 = 1f / a;
+		dest.m01 = 0;
+		dest.m02 = 0;
+		dest.m03 = 0;
+		dest.m10 = 0;
+		dest.m11 = 1f / b;
+		dest.m12 = 0;
+		dest.m13 = 0;
+		dest.m20 = 0;
+		dest.m21 = 0;
+		dest.m22 = 0;
+		dest.m23 = 1f / f;
+		dest.m30 = -c / (a * g);
+		dest.m31 = -d / (b * g);
+		dest.m32 = 1f / g;
+		dest.m33 = -e / (f * g);
+		return dest;
+	}
+	
 	/**
 	 * Creates a matrix which negates this matrix
 	 * 
@@ -627,25 +780,34 @@ public class Matrix4 {
 	 * @return			Matrix corresponding to the data parameter
 	 */
 	public static Matrix4 storeFloatsInMatrix4f(float[] data) {
-		Matrix4 mat = new Matrix4();
-		mat.setZero();
-		mat.m00 = data[0];
-		mat.m01 = data[1];
-		mat.m02 = data[2];
-		mat.m03 = data[3];
-		mat.m10 = data[4];
-		mat.m11 = data[5];
-		mat.m12 = data[6];
-		mat.m13 = data[7];
-		mat.m20 = data[8];
-		mat.m21 = data[9];
-		mat.m22 = data[10];
-		mat.m23 = data[11];
-		mat.m30 = data[12];
-		mat.m31 = data[13];
-		mat.m32 = data[14];
-		mat.m33 = data[15];
-		return mat;
+		return storeFloatsInMatrix4f(data, new Matrix4());
+	}
+	
+	/**
+	 * Stores an array of floats to a matrix.
+	 * 
+	 * @param data		Data to put in matrix
+	 * @param dest		Destination matrix
+	 * @return			Destination matrix
+	 */
+	public static Matrix4 storeFloatsInMatrix4f(float[] data, Matrix4 dest) {
+		dest.m00 = data[0];
+		dest.m01 = data[1];
+		dest.m02 = data[2];
+		dest.m03 = data[3];
+		dest.m10 = data[4];
+		dest.m11 = data[5];
+		dest.m12 = data[6];
+		dest.m13 = data[7];
+		dest.m20 = data[8];
+		dest.m21 = data[9];
+		dest.m22 = data[10];
+		dest.m23 = data[11];
+		dest.m30 = data[12];
+		dest.m31 = data[13];
+		dest.m32 = data[14];
+		dest.m33 = data[15];
+		return dest;
 	}
 	
 	public boolean equals(Object obj) {
@@ -0,0 +1,258 @@
+package tk.luminos.maths;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Array of matrices stored contiguously in one float array, 16 floats per
+ * matrix in column major order.  This is the layout OpenGL expects for
+ * matrix uniforms and instance attributes, so the whole array reaches a
+ * buffer with a single bulk copy instead of sixteen puts per matrix, and
+ * it is the layout {@link BatchMath} operates on.
+ * <p>
+ * Matrices with different indices may be written from different threads at
+ * the same time, for instance by jobs each filling a range of instances.
+ * Growing the array or changing its size must not overlap with any other
+ * access.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class Matrix4Array {
+
+	private static final int STRIDE = BatchMath.MATRIX_STRIDE;
+
+	private float[] data;
+	private int size;
+
+	/**
+	 * Creates an empty array
+	 *
+	 * @param capacity		Number of matrices to reserve space for
+	 */
+	public Matrix4Array(int capacity) {
+		this.data = new float[capacity * STRIDE];
+		this.size = 0;
+	}
+
+	/**
+	 * Gets the number of matrices in the array
+	 *
+	 * @return		Number of matrices
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of matrices the array can hold without growing
+	 *
+	 * @return		Capacity in matrices
+	 */
+	public int capacity() {
+		return data.length / STRIDE;
+	}
+
+	/**
+	 * Sets the number of matrices in the array, growing it if needed.  The
+	 * contents of matrices added this way are undefined.
+	 *
+	 * @param size		Number of matrices
+	 */
+	public void setSize(int size) {
+		ensureCapacity(size);
+		this.size = size;
+	}
+
+	/**
+	 * Removes every matrix from the array, keeping its storage
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Grows the array so that it holds at least the given number of matrices
+	 *
+	 * @param capacity		Number of matrices
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity * STRIDE <= data.length)
+			return;
+		float[] grown = new float[Math.max(capacity, capacity() * 2) * STRIDE];
+		System.arraycopy(data, 0, grown, 0, size * STRIDE);
+		data = grown;
+	}
+
+	/**
+	 * Appends a matrix to the array
+	 *
+	 * @param matrix		Matrix to append
+	 * @return				Index of the matrix
+	 */
+	public int add(Matrix4 matrix) {
+		ensureCapacity(size + 1);
+		set(size, matrix);
+		return size++;
+	}
+
+	/**
+	 * Sets a matrix of the array
+	 *
+	 * @param index			Index of the matrix
+	 * @param matrix		New value
+	 */
+	public void set(int index, Matrix4 matrix) {
+		float[] data = this.data;
+		int d = index * STRIDE;
+		data[d] = matrix.m00;
+		data[d + 1] = matrix.m01;
+		data[d + 2] = matrix.m02;
+		data[d + 3] = matrix.m03;
+		data[d + 4] = matrix.m10;
+		data[d + 5] = matrix.m11;
+		data[d + 6] = matrix.m12;
+		data[d + 7] = matrix.m13;
+		data[d + 8] = matrix.m20;
+		data[d + 9] = matrix.m21;
+		data[d + 10] = matrix.m22;
+		data[d + 11] = matrix.m23;
+		data[d + 12] = matrix.m30;
+		data[d + 13] = matrix.m31;
+		data[d + 14] = matrix.m32;
+		data[d + 15] = matrix.m33;
+	}
+
+	/**
+	 * Sets a matrix of the array to the identity
+	 *
+	 * @param index			Index of the matrix
+	 */
+	public void setIdentity(int index) {
+		int d = index * STRIDE;
+		for (int i = 0; i < STRIDE; i++)
+			data[d + i] = 0;
+		data[d] = 1;
+		data[d + 5] = 1;
+		data[d + 10] = 1;
+		data[d + 15] = 1;
+	}
+
+	/**
+	 * Copies a range of packed matrices into the array
+	 *
+	 * @param index			Index of the first matrix to set
+	 * @param src			Packed source matrices
+	 * @param srcOffset		Index of the first float of the first source matrix
+	 * @param count			Number of matrices
+	 */
+	public void set(int index, float[] src, int srcOffset, int count) {
+		System.arraycopy(src, srcOffset, data, index * STRIDE, count * STRIDE);
+	}
+
+	/**
+	 * Gets a matrix of the array
+	 *
+	 * @param index			Index of the matrix
+	 * @param dest			Destination matrix
+	 * @return				If destination matrix is null
+	 * 							create new matrix
+	 * 							Then return the matrix
+	 */
+	public Matrix4 get(int index, Matrix4 dest) {
+		if (dest == null)
+			dest = new Matrix4();
+		float[] data = this.data;
+		int s = index * STRIDE;
+		dest.m00 = data[s];
+		dest.m01 = data[s + 1];
+		dest.m02 = data[s + 2];
+		dest.m03 = data[s + 3];
+		dest.m10 = data[s + 4];
+		dest.m11 = data[s + 5];
+		dest.m12 = data[s + 6];
+		dest.m13 = data[s + 7];
+		dest.m20 = data[s + 8];
+		dest.m21 = data[s + 9];
+		dest.m22 = data[s + 10];
+		dest.m23 = data[s + 11];
+		dest.m30 = data[s + 12];
+		dest.m31 = data[s + 13];
+		dest.m32 = data[s + 14];
+		dest.m33 = data[s + 15];
+		return dest;
+	}
+
+	/**
+	 * Gets the backing array.  Matrix i starts at index i * 16.  The array
+	 * is replaced when the matrix array grows.
+	 *
+	 * @return		Backing array
+	 */
+	public float[] getData() {
+		return data;
+	}
+
+	/**
+	 * Multiplies every matrix of the array by a matrix on the left
+	 *
+	 * @param left		Left side matrix
+	 */
+	public void mul(Matrix4 left) {
+		BatchMath.mul(left, data, 0, data, 0, size);
+	}
+
+	/**
+	 * Stores every matrix of the array in a float buffer with one bulk copy,
+	 * advancing its position
+	 *
+	 * @param buf		Buffer
+	 * @return			This array
+	 */
+	public Matrix4Array store(FloatBuffer buf) {
+		return store(0, size, buf);
+	}
+
+	/**
+	 * Stores a range of matrices in a float buffer with one bulk copy,
+	 * advancing its position
+	 *
+	 * @param index		Index of the first matrix to store
+	 * @param count		Number of matrices
+	 * @param buf		Buffer
+	 * @return			This array
+	 */
+	public Matrix4Array store(int index, int count, FloatBuffer buf) {
+		buf.put(data, index * STRIDE, count * STRIDE);
+		return this;
+	}
+
+	/**
+	 * Stores every matrix of the array in a byte buffer with one bulk copy,
+	 * advancing its position.  The floats are written in the buffer's byte
+	 * order, so direct buffers meant for OpenGL must use the native order.
+	 *
+	 * @param buf		Buffer
+	 * @return			This array
+	 */
+	public Matrix4Array store(ByteBuffer buf) {
+		return store(0, size, buf);
+	}
+
+	/**
+	 * Stores a range of matrices in a byte buffer with one bulk copy,
+	 * advancing its position
+	 *
+	 * @param index		Index of the first matrix to store
+	 * @param count		Number of matrices
+	 * @param buf		Buffer
+	 * @return			This array
+	 */
+	public Matrix4Array store(int index, int count, ByteBuffer buf) {
+		buf.asFloatBuffer().put(data, index * STRIDE, count * STRIDE);
+		((Buffer) buf).position(buf.position() + count * STRIDE * 4);
+		return this;
+	}
+
+}
@@ -1,20 +1,37 @@
 package tk.luminos.maths;
 
 /**
- * Represenation of local transformations
- * 
+ * Represenation of local transformations.  Rotation quaternions follow the
+ * same convention as {@link Matrix4#rotate}: a quaternion built from an axis
+ * and angle converts to the same matrix that rotating the identity about the
+ * axis by the angle produces.  Products compose right to left, so
+ * <code>a * b</code> rotates by <code>b</code> and then by <code>a</code>.
+ * <p>
+ * Operations taking a destination write into it and return it, allocating a
+ * new quaternion only when the destination is null.
+ *
  * @author Nick Clark
  * @version 1.0
  */
 public class Quaternion {
 
-	private float x, y, z, w;
-	
+	public float x, y, z, w;
+
 	public final static int SIZE = 4;
 
+	private static final float SLERP_THRESHOLD = 0.9995f;
+	private static final float SINGULARITY = 0.99999f;
+
+	/**
+	 * Creates an identity quaternion
+	 */
+	public Quaternion() {
+		this.w = 1;
+	}
+
 	/**
 	 * Creates a quaternion and normalizes it.
-	 * 
+	 *
 	 * @param x			x component of quaternion
 	 * @param y			y component of quaternion
 	 * @param z			z component of quaternion
@@ -28,6 +45,51 @@ public class Quaternion {
 		normalize();
 	}
 
+	/**
+	 * Creates a copy of a quaternion
+	 *
+	 * @param src		Quaternion to copy
+	 */
+	public Quaternion(Quaternion src) {
+		set(src);
+	}
+
+	/**
+	 * Sets the components of this quaternion without normalizing
+	 *
+	 * @param x			x component of quaternion
+	 * @param y			y component of quaternion
+	 * @param z			z component of quaternion
+	 * @param w			w component of quaternion
+	 * @return			This quaternion
+	 */
+	public Quaternion set(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+		return this;
+	}
+
+	/**
+	 * Copies a quaternion into this quaternion
+	 *
+	 * @param src		Quaternion to copy
+	 * @return			This quaternion
+	 */
+	public Quaternion set(Quaternion src) {
+		return set(src.x, src.y, src.z, src.w);
+	}
+
+	/**
+	 * Sets this quaternion to the identity rotation
+	 *
+	 * @return			This quaternion
+	 */
+	public Quaternion setIdentity() {
+		return set(0, 0, 0, 1);
+	}
+
 	/**
 	 * Normalizes the quaternion.
 	 */
@@ -39,17 +101,234 @@ public class Quaternion {
 		z /= mag;
 	}
 
+	/**
+	 * Gets the length of the quaternion
+	 *
+	 * @return		Length
+	 */
+	public float magnitude() {
+		return (float) Math.sqrt(w * w + x * x + y * y + z * z);
+	}
+
+	/**
+	 * Gets the dot product of two quaternions
+	 *
+	 * @param left		Left quaternion
+	 * @param right		Right quaternion
+	 * @return			Dot product
+	 */
+	public static float dot(Quaternion left, Quaternion right) {
+		return left.x * right.x + left.y * right.y + left.z * right.z + left.w * right.w;
+	}
+
+	/**
+	 * Multiplies two quaternions.  The product rotates by the right
+	 * quaternion and then by the left.
+	 *
+	 * @param left		Left quaternion
+	 * @param right		Right quaternion
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the product
+	 */
+	public static Quaternion mul(Quaternion left, Quaternion right, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
+		float x = left.w * right.x + left.x * right.w + left.y * right.z - left.z * right.y;
+		float y = left.w * right.y - left.x * right.z + left.y * right.w + left.z * right.x;
+		float z = left.w * right.z + left.x * right.y - left.y * right.x + left.z * right.w;
+		float w = left.w * right.w - left.x * right.x - left.y * right.y - left.z * right.z;
+		return dest.set(x, y, z, w);
+	}
+
+	/**
+	 * Conjugates a quaternion.  For unit quaternions this is the inverse
+	 * rotation.
+	 *
+	 * @param src		Source quaternion
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the conjugate
+	 */
+	public static Quaternion conjugate(Quaternion src, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
+		return dest.set(-src.x, -src.y, -src.z, src.w);
+	}
+
+	/**
+	 * Inverts a quaternion of any length
+	 *
+	 * @param src		Source quaternion
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the inverse
+	 */
+	public static Quaternion invert(Quaternion src, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
+		float inv = 1f / (src.x * src.x + src.y * src.y + src.z * src.z + src.w * src.w);
+		return dest.set(-src.x * inv, -src.y * inv, -src.z * inv, src.w * inv);
+	}
+
+	/**
+	 * Rotates a vector by a unit quaternion
+	 *
+	 * @param q			Rotation
+	 * @param vec		Vector to rotate
+	 * @param dest		Destination vector
+	 * @return			If destination is null
+	 * 						create new vector
+	 * 						Then return the rotated vector
+	 */
+	public static Vector3 rotate(Quaternion q, Vector3 vec, Vector3 dest) {
+		if (dest == null)
+			dest = new Vector3();
+		float tx = 2 * (q.y * vec.z - q.z * vec.y);
+		float ty = 2 * (q.z * vec.x - q.x * vec.z);
+		float tz = 2 * (q.x * vec.y - q.y * vec.x);
+		float x = vec.x + q.w * tx + q.y * tz - q.z * ty;
+		float y = vec.y + q.w * ty + q.z * tx - q.x * tz;
+		float z = vec.z + q.w * tz + q.x * ty - q.y * tx;
+		return dest.set(x, y, z);
+	}
+
+	/**
+	 * Creates a rotation about an axis
+	 *
+	 * @param angle		Angle in radians
+	 * @param axis		Normalized axis
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the rotation
+	 */
+	public static Quaternion fromAxisAngle(float angle, Vector3 axis, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
+		float half = angle * 0.5f;
+		float s = (float) Math.sin(half);
+		return dest.set(axis.x * s, axis.y * s, axis.z * s, (float) Math.cos(half));
+	}
+
+	/**
+	 * Gets the angle of rotation of a unit quaternion
+	 *
+	 * @return		Angle in radians, between 0 and 2 pi
+	 */
+	public float getAngle() {
+		return 2f * (float) Math.acos(Math.max(-1f, Math.min(1f, w)));
+	}
+
+	/**
+	 * Gets the axis of rotation of a unit quaternion.  The identity rotation
+	 * has no axis; the X axis is returned for it.
+	 *
+	 * @param dest		Destination vector
+	 * @return			If destination is null
+	 * 						create new vector
+	 * 						Then return the axis
+	 */
+	public Vector3 getAxis(Vector3 dest) {
+		if (dest == null)
+			dest = new Vector3();
+		float s = (float) Math.sqrt(Math.max(0f, 1f - w * w));
+		if (s < 1e-6f)
+			return dest.set(1, 0, 0);
+		return dest.set(x / s, y / s, z / s);
+	}
+
+	/**
+	 * Creates the rotation described by Euler angles, applied in the same
+	 * order as {@link MathUtils#createTransformationMatrix}: the result
+	 * equals a rotation about X, then Y, then Z of the model matrix.
+	 *
+	 * @param rx		Rotation around X in degrees
+	 * @param ry		Rotation around Y in degrees
+	 * @param rz		Rotation around Z in degrees
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the rotation
+	 */
+	public static Quaternion fromEuler(float rx, float ry, float rz, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
+		double hx = Math.toRadians(rx) * 0.5;
+		double hy = Math.toRadians(ry) * 0.5;
+		double hz = Math.toRadians(rz) * 0.5;
+		float cx = (float) Math.cos(hx), sx = (float) Math.sin(hx);
+		float cy = (float) Math.cos(hy), sy = (float) Math.sin(hy);
+		float cz = (float) Math.cos(hz), sz = (float) Math.sin(hz);
+		return dest.set(
+				sx * cy * cz + cx * sy * sz,
+				cx * sy * cz - sx * cy * sz,
+				cx * cy * sz + sx * sy * cz,
+				cx * cy * cz - sx * sy * sz);
+	}
+
+	/**
+	 * Creates the rotation described by Euler angles
+	 *
+	 * @param rotation	Rotation around X, Y and Z in degrees
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the rotation
+	 * @see #fromEuler(float, float, float, Quaternion)
+	 */
+	public static Quaternion fromEuler(Vector3 rotation, Quaternion dest) {
+		return fromEuler(rotation.x, rotation.y, rotation.z, dest);
+	}
+
+	/**
+	 * Converts a unit quaternion to Euler angles in the order used by
+	 * {@link #fromEuler(float, float, float, Quaternion)}.  At a Y rotation
+	 * of plus or minus 90 degrees the Z rotation is folded into X.
+	 *
+	 * @param dest		Destination vector
+	 * @return			If destination is null
+	 * 						create new vector
+	 * 						Then return the rotation in degrees
+	 */
+	public Vector3 toEuler(Vector3 dest) {
+		if (dest == null)
+			dest = new Vector3();
+		float sinY = 2 * (x * z + y * w);
+		if (Math.abs(sinY) >= SINGULARITY) {
+			float ex = (float) Math.atan2(2 * (y * z + x * w), 1 - 2 * (x * x + z * z));
+			float ey = sinY > 0 ? (float) (Math.PI * 0.5) : (float) (-Math.PI * 0.5);
+			return dest.set((float) Math.toDegrees(ex), (float) Math.toDegrees(ey), 0);
+		}
+		float ex = (float) Math.atan2(-2 * (y * z - x * w), 1 - 2 * (x * x + y * y));
+		float ey = (float) Math.asin(sinY);
+		float ez = (float) Math.atan2(-2 * (x * y - z * w), 1 - 2 * (y * y + z * z));
+		return dest.set((float) Math.toDegrees(ex), (float) Math.toDegrees(ey), (float) Math.toDegrees(ez));
+	}
+
 	/**
 	 * Converts the quaternion to a 4x4 matrix representing the exact same
 	 * rotation as this quaternion. (The rotation is only contained in the
 	 * top-left 3x3 part, but a 4x4 matrix is returned here for convenience
 	 * seeing as it will be multiplied with other 4x4 matrices).
-	 * 
+	 *
 	 * @return The rotation matrix which represents the exact same rotation as
 	 *         this quaternion.
 	 */
 	public Matrix4 toRotationMatrix() {
-		Matrix4 matrix = new Matrix4();
+		return toRotationMatrix(new Matrix4());
+	}
+
+	/**
+	 * Writes the rotation matrix of this quaternion into a matrix
+	 *
+	 * @param dest		Destination matrix
+	 * @return			Destination matrix
+	 */
+	public Matrix4 toRotationMatrix(Matrix4 dest) {
 		final float xy = x * y;
 		final float xz = x * z;
 		final float xw = x * w;
@@ -59,91 +338,155 @@ public class Quaternion {
 		final float xSquared = x * x;
 		final float ySquared = y * y;
 		final float zSquared = z * z;
-		matrix.m00 = 1 - 2 * (ySquared + zSquared);
-		matrix.m01 = 2 * (xy - zw);
-		matrix.m02 = 2 * (xz + yw);
-		matrix.m03 = 0;
-		matrix.m10 = 2 * (xy + zw);
-		matrix.m11 = 1 - 2 * (xSquared + zSquared);
-		matrix.m12 = 2 * (yz - xw);
-		matrix.m13 = 0;
-		matrix.m20 = 2 * (xz - yw);
-		matrix.m21 = 2 * (yz + xw);
-		matrix.m22 = 1 - 2 * (xSquared + ySquared);
-		matrix.m23 = 0;
-		matrix.m30 = 0;
-		matrix.m31 = 0;
-		matrix.m32 = 0;
-		matrix.m33 = 1;
-		return matrix;
+		dest.m00 = 1 - 2 * (ySquared + zSquared);
+		dest.m01 = 2 * (xy + zw);
+		dest.m02 = 2 * (xz - yw);
+		dest.m03 = 0;
+		dest.m10 = 2 * (xy - zw);
+		dest.m11 = 1 - 2 * (xSquared + zSquared);
+		dest.m12 = 2 * (yz + xw);
+		dest.m13 = 0;
+		dest.m20 = 2 * (xz + yw);
+		dest.m21 = 2 * (yz - xw);
+		dest.m22 = 1 - 2 * (xSquared + ySquared);
+		dest.m23 = 0;
+		dest.m30 = 0;
+		dest.m31 = 0;
+		dest.m32 = 0;
+		dest.m33 = 1;
+		return dest;
 	}
 
 	/**
 	 * Creates quaternion from a transformation matrix
-	 * 
+	 *
 	 * @param matrix	Matrix to retreive rotation from
 	 * @return 			Quaternion representation of matrix
 	 */
 	public static Quaternion fromMatrix(Matrix4 matrix) {
+		Quaternion result = fromMatrix(matrix, new Quaternion());
+		result.normalize();
+		return result;
+	}
+
+	/**
+	 * Extracts the rotation of a matrix without scale
+	 *
+	 * @param matrix	Matrix to retreive rotation from
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the rotation
+	 */
+	public static Quaternion fromMatrix(Matrix4 matrix, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
 		float w, x, y, z;
 		float diagonal = matrix.m00 + matrix.m11 + matrix.m22;
 		if (diagonal > 0) {
 			float w4 = (float) (Math.sqrt(diagonal + 1f) * 2f);
 			w = w4 / 4f;
-			x = (matrix.m21 - matrix.m12) / w4;
-			y = (matrix.m02 - matrix.m20) / w4;
-			z = (matrix.m10 - matrix.m01) / w4;
+			x = (matrix.m12 - matrix.m21) / w4;
+			y = (matrix.m20 - matrix.m02) / w4;
+			z = (matrix.m01 - matrix.m10) / w4;
 		} else if ((matrix.m00 > matrix.m11) && (matrix.m00 > matrix.m22)) {
 			float x4 = (float) (Math.sqrt(1f + matrix.m00 - matrix.m11 - matrix.m22) * 2f);
-			w = (matrix.m21 - matrix.m12) / x4;
+			w = (matrix.m12 - matrix.m21) / x4;
 			x = x4 / 4f;
 			y = (matrix.m01 + matrix.m10) / x4;
 			z = (matrix.m02 + matrix.m20) / x4;
 		} else if (matrix.m11 > matrix.m22) {
 			float y4 = (float) (Math.sqrt(1f + matrix.m11 - matrix.m00 - matrix.m22) * 2f);
-			w = (matrix.m02 - matrix.m20) / y4;
+			w = (matrix.m20 - matrix.m02) / y4;
 			x = (matrix.m01 + matrix.m10) / y4;
 			y = y4 / 4f;
 			z = (matrix.m12 + matrix.m21) / y4;
 		} else {
 			float z4 = (float) (Math.sqrt(1f + matrix.m22 - matrix.m00 - matrix.m11) * 2f);
-			w = (matrix.m10 - matrix.m01) / z4;
+			w = (matrix.m01 - matrix.m10) / z4;
 			x = (matrix.m02 + matrix.m20) / z4;
 			y = (matrix.m12 + matrix.m21) / z4;
 			z = z4 / 4f;
 		}
-		return new Quaternion(x, y, z, w);
+		return dest.set(x, y, z, w);
 	}
 
 	/**
-	 * Uses slerp to interpolate between two quaternions
-	 * 
+	 * Interpolates between two quaternions along the shorter arc
+	 *
 	 * @param a			left side quaternion
 	 * @param b			right side quaternion
-	 * @param blend 	Determines the weight of each quaternion.  The blend gives the left quaternion's
-	 * 					weight.  One minus the blend gives the right side quaternion's weight.  The blend
-	 * 					factor needs to be between 0 and 1.
+	 * @param blend 	Weight of the right quaternion, between 0 and 1.  One minus the blend
+	 * 					gives the left quaternion's weight.
 	 * @return			Interpolated quaternion value
+	 * @see #nlerp(Quaternion, Quaternion, float, Quaternion)
 	 */
 	public static Quaternion interpolate(Quaternion a, Quaternion b, float blend) {
 		if (Math.abs(blend) > 1)
 			throw new IllegalArgumentException("Blend factor needs to be between 0 and 1.");
-		Quaternion result = new Quaternion(0, 0, 0, 1);
-		float dot = a.w * b.w + a.x * b.x + a.y * b.y + a.z * b.z;
+		return nlerp(a, b, blend, new Quaternion());
+	}
+
+	/**
+	 * Normalized linear interpolation along the shorter arc.  Cheaper than
+	 * {@link #slerp} and close to it for small angles, but does not move at
+	 * a constant angular speed.
+	 *
+	 * @param a			Start rotation
+	 * @param b			End rotation
+	 * @param blend		Weight of the end rotation, between 0 and 1
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the interpolated rotation
+	 */
+	public static Quaternion nlerp(Quaternion a, Quaternion b, float blend, Quaternion dest) {
+		if (dest == null)
+			dest = new Quaternion();
 		float blendI = 1f - blend;
-		if (dot < 0) {
-			result.w = blendI * a.w + blend * -b.w;
-			result.x = blendI * a.x + blend * -b.x;
-			result.y = blendI * a.y + blend * -b.y;
-			result.z = blendI * a.z + blend * -b.z;
-		} else {
-			result.w = blendI * a.w + blend * b.w;
-			result.x = blendI * a.x + blend * b.x;
-			result.y = blendI * a.y + blend * b.y;
-			result.z = blendI * a.z + blend * b.z;
+		float sign = dot(a, b) < 0 ? -blend : blend;
+		dest.set(blendI * a.x + sign * b.x, blendI * a.y + sign * b.y, blendI * a.z + sign * b.z, blendI * a.w + sign * b.w);
+		dest.normalize();
+		return dest;
+	}
+
+	/**
+	 * Spherical linear interpolation along the shorter arc, moving at a
+	 * constant angular speed.  Falls back to {@link #nlerp} when the
+	 * rotations are nearly equal.
+	 *
+	 * @param a			Start rotation
+	 * @param b			End rotation
+	 * @param blend		Weight of the end rotation, between 0 and 1
+	 * @param dest		Destination quaternion
+	 * @return			If destination is null
+	 * 						create new quaternion
+	 * 						Then return the interpolated rotation
+	 */
+	public static Quaternion slerp(Quaternion a, Quaternion b, float blend, Quaternion dest) {
+		float cos = dot(a, b);
+		float sign = 1;
+		if (cos < 0) {
+			cos = -cos;
+			sign = -1;
 		}
-		result.normalize();
-		return result;
+		if (cos > SLERP_THRESHOLD)
+			return nlerp(a, b, blend, dest);
+		if (dest == null)
+			dest = new Quaternion();
+		double theta = Math.acos(cos);
+		double sin = Math.sin(theta);
+		float wa = (float) (Math.sin((1 - blend) * theta) / sin);
+		float wb = (float) (Math.sin(blend * theta) / sin) * sign;
+		return dest.set(wa * a.x + wb * b.x, wa * a.y + wb * b.y, wa * a.z + wb * b.z, wa * a.w + wb * b.w);
+	}
+
+	/**
+	 * Converts quaternion to string
+	 */
+	@Override
+	public String toString() {
+		return "Quaternion [" + x + "," + y + "," + z + "," + w + "]";
 	}
 
-}
\ No newline at end of file
+}
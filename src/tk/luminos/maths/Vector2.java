@@ -75,7 +75,7 @@ public class Vector2 implements Serializable<DBArray>, Vector {
 		} else {
 			dest.x = left.x + right.x;
 			dest.y = left.y + right.y;
-			return null;
+			return dest;
 		}
 	}
 	
@@ -105,7 +105,7 @@ public class Vector2 implements Serializable<DBArray>, Vector {
 		} else {
 			dest.x = left.x - right.x;
 			dest.y = left.y - right.y;
-			return null;
+			return dest;
 		}
 	}
 	
@@ -135,7 +135,7 @@ public class Vector2 implements Serializable<DBArray>, Vector {
 		} else {
 			dest.x = src.x * scale;
 			dest.y = src.y * scale;
-			return null;
+			return dest;
 		}
 	}
 	
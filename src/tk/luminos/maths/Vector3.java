@@ -52,6 +52,34 @@ public class Vector3 implements Serializable<DBArray>, Vector {
 		this.z = vec.z;
 	}
 	
+	/**
+	 * Sets the components of this vector
+	 * 
+	 * @param vec		Vector to copy
+	 * @return			This vector
+	 */
+	public Vector3 set(Vector3 vec) {
+		this.x = vec.x;
+		this.y = vec.y;
+		this.z = vec.z;
+		return this;
+	}
+	
+	/**
+	 * Sets the components of this vector
+	 * 
+	 * @param x			X component
+	 * @param y			Y component
+	 * @param z			Z component
+	 * @return			This vector
+	 */
+	public Vector3 set(float x, float y, float z) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+	
 	/**
 	 * Add vector to this vector
 	 * 
@@ -80,7 +108,7 @@ public class Vector3 implements Serializable<DBArray>, Vector {
 			dest.x = left.x + right.x;
 			dest.y = left.y + right.y;
 			dest.z = left.z + right.z;
-			return null;
+			return dest;
 		}
 	}
 	
@@ -112,7 +140,7 @@ public class Vector3 implements Serializable<DBArray>, Vector {
 			dest.x = left.x - right.x;
 			dest.y = left.y - right.y;
 			dest.z = left.z - right.z;
-			return null;
+			return dest;
 		}
 	}
 	
@@ -144,7 +172,7 @@ public class Vector3 implements Serializable<DBArray>, Vector {
 			dest.x = src.x * scale;
 			dest.y = src.y * scale;
 			dest.z = src.z * scale;
-			return null;
+			return dest;
 		}
 	}
 	
@@ -213,24 +241,26 @@ public class Vector3 implements Serializable<DBArray>, Vector {
 	}
 	
 	public static Vector3 max(Vector3 one, Vector3 two) {
-		float x, y, z;
-		if (one.x > two.x)
-			x = one.x;
-		else
-			x = two.x;
-		if (one.y > two.y)
-			y = one.y;
-		else
-			y = two.y;
-		if (one.z > two.z)
-			z = one.z;
-		else 
-			z = two.z;
-		return new Vector3(x, y, z);
+		return max(one, two, new Vector3());
+	}
+	
+	/**
+	 * Takes the component wise maximum of two vectors
+	 * 
+	 * @param one		First vector
+	 * @param two		Second vector
+	 * @param dest		Destination vector
+	 * @return			Destination vector
+	 */
+	public static Vector3 max(Vector3 one, Vector3 two, Vector3 dest) {
+		dest.x = Math.max(one.x, two.x);
+		dest.y = Math.max(one.y, two.y);
+		dest.z = Math.max(one.z, two.z);
+		return dest;
 	}
 	
 	public float maxComponent() {
-		return MathUtils.getMaximum(new float[] {x, y, z});
+		return Math.max(x, Math.max(y, z));
 	}
 	
 	/**
@@ -95,7 +95,7 @@ public class Vector4 implements Serializable<DBArray>, Vector {
 			dest.x = left.x + right.x;
 			dest.y = left.y + right.y;
 			dest.z = left.z + right.z;
-			return null;
+			return dest;
 		}
 	}
 
@@ -129,7 +129,7 @@ public class Vector4 implements Serializable<DBArray>, Vector {
 			dest.y = left.y - right.y;
 			dest.z = left.z - right.z;
 			dest.w = left.w - right.w;
-			return null;
+			return dest;
 		}
 	}
 
@@ -163,7 +163,7 @@ public class Vector4 implements Serializable<DBArray>, Vector {
 			dest.y = src.y * scale;
 			dest.z = src.z * scale;
 			dest.w = src.w * scale;
-			return null;
+			return dest;
 		}
 	}
 
@@ -0,0 +1,114 @@
+package tk.luminos.metrics;
+
+import java.util.Map;
+
+import tk.luminos.graphics.backend.RecordingBackend.Counter;
+import tk.luminos.util.PerformanceMonitor;
+
+/**
+ * JMX view of {@link Metrics}
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+class EngineMetrics implements EngineMetricsMXBean {
+	
+	private final PerformanceMonitor monitor = new PerformanceMonitor();
+
+	@Override
+	public long getFrames() {
+		return Metrics.getFrames();
+	}
+
+	@Override
+	public double getLastFrameTimeMillis() {
+		return Metrics.getLastFrameTime() * 1000.0;
+	}
+
+	@Override
+	public double getFrameTimeP50Millis() {
+		return Metrics.getFrameTimes().getPercentile(50);
+	}
+
+	@Override
+	public double getFrameTimeP99Millis() {
+		return Metrics.getFrameTimes().getPercentile(99);
+	}
+
+	@Override
+	public double getFrameTimeMaxMillis() {
+		return Metrics.getFrameTimes().getMax();
+	}
+
+	@Override
+	public Map<String, Long> getFrameTimeHistogram() {
+		return Metrics.getFrameTimes().getBuckets();
+	}
+
+	@Override
+	public long getDrawCalls() {
+		return Metrics.getGraphics(Counter.DRAW_CALLS);
+	}
+
+	@Override
+	public long getVerticesSubmitted() {
+		return Metrics.getGraphics(Counter.VERTICES);
+	}
+
+	@Override
+	public long getUniformUploads() {
+		return Metrics.getGraphics(Counter.UNIFORM_UPLOADS);
+	}
+
+	@Override
+	public long getStateChanges() {
+		return Metrics.getGraphics(Counter.STATE_CHANGES);
+	}
+
+	@Override
+	public long getTextureBytesResident() {
+		return Metrics.getResidentTextureBytes();
+	}
+
+	@Override
+	public long getBufferBytesResident() {
+		return Metrics.getResidentBufferBytes();
+	}
+
+	@Override
+	public Map<String, Long> getCounters() {
+		return Metrics.getCounters();
+	}
+
+	@Override
+	public Map<String, Long> getAllocatedBytesPerFrame() {
+		return Metrics.getAllocatedBytes();
+	}
+
+	@Override
+	public long getGcCount() {
+		return Metrics.getGcPauses().getCount();
+	}
+
+	@Override
+	public double getGcPauseMaxMillis() {
+		return Metrics.getGcPauses().getMax();
+	}
+
+	@Override
+	public Map<String, Long> getGcPauseHistogram() {
+		return Metrics.getGcPauses().getBuckets();
+	}
+
+	@Override
+	public double getProcessorUsage() {
+		return monitor.getProcessorUsage();
+	}
+
+	@Override
+	public void resetHistograms() {
+		Metrics.getFrameTimes().reset();
+		Metrics.getGcPauses().reset();
+	}
+
+}
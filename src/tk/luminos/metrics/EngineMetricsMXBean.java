@@ -0,0 +1,110 @@
+package tk.luminos.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the engine metrics.  Frame counts describe the
+ * last completed frame.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public interface EngineMetricsMXBean {
+	
+	/**
+	 * @return		Number of completed frames
+	 */
+	public long getFrames();
+	
+	/**
+	 * @return		Duration of the last frame, in milliseconds
+	 */
+	public double getLastFrameTimeMillis();
+	
+	/**
+	 * @return		Median frame time, in milliseconds
+	 */
+	public double getFrameTimeP50Millis();
+	
+	/**
+	 * @return		99th percentile frame time, in milliseconds
+	 */
+	public double getFrameTimeP99Millis();
+	
+	/**
+	 * @return		Longest frame time, in milliseconds
+	 */
+	public double getFrameTimeMaxMillis();
+	
+	/**
+	 * @return		Number of frames in each frame time bucket
+	 */
+	public Map<String, Long> getFrameTimeHistogram();
+	
+	/**
+	 * @return		Draw calls in the last frame
+	 */
+	public long getDrawCalls();
+	
+	/**
+	 * @return		Vertices submitted in the last frame
+	 */
+	public long getVerticesSubmitted();
+	
+	/**
+	 * @return		Uniform uploads in the last frame
+	 */
+	public long getUniformUploads();
+	
+	/**
+	 * @return		Binds and state changes in the last frame
+	 */
+	public long getStateChanges();
+	
+	/**
+	 * @return		Bytes held by textures
+	 */
+	public long getTextureBytesResident();
+	
+	/**
+	 * @return		Bytes held by buffer objects
+	 */
+	public long getBufferBytesResident();
+	
+	/**
+	 * @return		Last frame value of every registered counter
+	 */
+	public Map<String, Long> getCounters();
+	
+	/**
+	 * @return		Bytes allocated by each engine thread in the last frame
+	 */
+	public Map<String, Long> getAllocatedBytesPerFrame();
+	
+	/**
+	 * @return		Number of garbage collections recorded
+	 */
+	public long getGcCount();
+	
+	/**
+	 * @return		Longest garbage collection pause, in milliseconds
+	 */
+	public double getGcPauseMaxMillis();
+	
+	/**
+	 * @return		Number of garbage collection pauses in each bucket
+	 */
+	public Map<String, Long> getGcPauseHistogram();
+	
+	/**
+	 * @return		Fraction of the available processors used by the process
+	 * 				since the last read, or -1 on the first read
+	 */
+	public double getProcessorUsage();
+	
+	/**
+	 * Clears the frame time and garbage collection histograms
+	 */
+	public void resetHistograms();
+
+}
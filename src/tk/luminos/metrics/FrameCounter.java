@@ -0,0 +1,72 @@
+package tk.luminos.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count of events in a frame.  May be added to from any thread; the count is
+ * rolled over to the last frame value by {@link Metrics#endFrame(float)}.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class FrameCounter {
+	
+	private final String name;
+	private final LongAdder current = new LongAdder();
+	private volatile long lastFrame;
+	private volatile long total;
+	
+	FrameCounter(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * Gets the name of the counter
+	 * 
+	 * @return		Name of the counter
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Adds one to the count of the current frame
+	 */
+	public void increment() {
+		current.increment();
+	}
+	
+	/**
+	 * Adds to the count of the current frame
+	 * 
+	 * @param amount		Amount to add
+	 */
+	public void add(long amount) {
+		current.add(amount);
+	}
+	
+	/**
+	 * Gets the count of the last completed frame
+	 * 
+	 * @return		Count in the last frame
+	 */
+	public long getLastFrame() {
+		return lastFrame;
+	}
+	
+	/**
+	 * Gets the count accumulated over every completed frame
+	 * 
+	 * @return		Total count
+	 */
+	public long getTotal() {
+		return total;
+	}
+	
+	void endFrame() {
+		long count = current.sumThenReset();
+		lastFrame = count;
+		total += count;
+	}
+
+}
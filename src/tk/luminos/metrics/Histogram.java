@@ -0,0 +1,116 @@
+package tk.luminos.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed bucket histogram of durations in milliseconds.  Values may be
+ * recorded and read from any thread.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class Histogram {
+	
+	/**
+	 * Default bucket bounds, in milliseconds, chosen around common frame
+	 * budgets
+	 */
+	public static final double[] FRAME_BOUNDS = {1, 2, 4, 8, 12, 16.7, 20, 25, 33.3, 50, 66.7, 100, 250, 1000};
+	
+	private final double[] bounds;
+	private final AtomicLongArray counts;
+	private volatile double max;
+	
+	/**
+	 * Creates a histogram
+	 * 
+	 * @param bounds		Inclusive upper bounds of each bucket, in ascending
+	 * 						order.  Values above the last bound are counted in
+	 * 						an overflow bucket.
+	 */
+	public Histogram(double[] bounds) {
+		this.bounds = bounds.clone();
+		this.counts = new AtomicLongArray(bounds.length + 1);
+	}
+	
+	/**
+	 * Records a value
+	 * 
+	 * @param millis		Value, in milliseconds
+	 */
+	public void record(double millis) {
+		int bucket = 0;
+		while (bucket < bounds.length && millis > bounds[bucket])
+			bucket++;
+		counts.incrementAndGet(bucket);
+		if (millis > max)
+			max = millis;
+	}
+	
+	/**
+	 * Gets the number of values recorded
+	 * 
+	 * @return		Number of values
+	 */
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < counts.length(); i++)
+			count += counts.get(i);
+		return count;
+	}
+	
+	/**
+	 * Gets the largest value recorded
+	 * 
+	 * @return		Largest value, in milliseconds
+	 */
+	public double getMax() {
+		return max;
+	}
+	
+	/**
+	 * Estimates a percentile as the upper bound of the bucket it falls in
+	 * 
+	 * @param percentile	Percentile in the range (0, 100]
+	 * @return				Upper bound of the bucket, or the largest value
+	 * 						recorded if it falls in the overflow bucket
+	 */
+	public double getPercentile(double percentile) {
+		long count = getCount();
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(percentile / 100 * count);
+		long seen = 0;
+		for (int i = 0; i < bounds.length; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return Math.min(bounds[i], max);
+		}
+		return max;
+	}
+	
+	/**
+	 * Gets the count of each bucket, keyed by a label of its range
+	 * 
+	 * @return		Bucket counts in ascending order
+	 */
+	public Map<String, Long> getBuckets() {
+		Map<String, Long> buckets = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < bounds.length; i++)
+			buckets.put("<=" + bounds[i] + "ms", counts.get(i));
+		buckets.put(">" + bounds[bounds.length - 1] + "ms", counts.get(bounds.length));
+		return buckets;
+	}
+	
+	/**
+	 * Clears every bucket
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++)
+			counts.set(i, 0);
+		max = 0;
+	}
+
+}
@@ -0,0 +1,288 @@
+package tk.luminos.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import tk.luminos.graphics.backend.Graphics;
+import tk.luminos.graphics.backend.RecordingBackend;
+
+/**
+ * Registry of per-frame engine metrics.  Counters are registered once by
+ * name and added to while a frame is processed:
+ * 
+ * <pre>
+ * private static final FrameCounter VISIBLE = Metrics.counter("SceneRenderer.visible");
+ * 
+ * VISIBLE.add(count);
+ * </pre>
+ * 
+ * The engine closes each frame with {@link #endFrame(float)}.  Once
+ * {@link #install()} has been called, the registry is also published as the
+ * {@link EngineMetricsMXBean} at {@value #OBJECT_NAME}, and allocations of
+ * tracked threads and garbage collection pauses are sampled.  Graphics calls
+ * are only counted if the caller has made a {@link RecordingBackend} the
+ * current backend; installing the metrics never changes the backend.
+ * <p>
+ * Closing a frame allocates nothing: the samples of every frame are written
+ * over those of the frame before.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class Metrics {
+	
+	/**
+	 * Object name the engine metrics are registered under
+	 */
+	public static final String OBJECT_NAME = "tk.luminos:type=EngineMetrics";
+	
+	private static volatile boolean installed = false;
+	
+	private static final Map<String, FrameCounter> counters = new ConcurrentHashMap<String, FrameCounter>();
+	private static final List<FrameCounter> counterList = new CopyOnWriteArrayList<FrameCounter>();
+	private static final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+	private static final Histogram frameTimes = new Histogram(Histogram.FRAME_BOUNDS);
+	private static final Histogram gcPauses = new Histogram(Histogram.FRAME_BOUNDS);
+	private static final FrameCounter gcCount = counter("gc.count");
+	private static final FrameCounter gcTime = counter("gc.timeMillis");
+	private static final RecordingBackend.Counter[] graphicsCounters = RecordingBackend.Counter.values();
+	private static final long[] graphics = new long[graphicsCounters.length];
+	
+	private static volatile long frames = 0;
+	private static volatile float lastFrameTime = 0;
+	private static volatile long residentBufferBytes = 0;
+	private static volatile long residentTextureBytes = 0;
+	private static com.sun.management.ThreadMXBean threadBean;
+	private static volatile Thread[] sampledThreads = new Thread[0];
+	private static volatile long[] allocated = new long[0];
+	private static long[] lastAllocated = new long[0];
+	
+	/**
+	 * Registers a counter, or gets the counter already registered by that name
+	 * 
+	 * @param name		Name of the counter
+	 * @return			Counter
+	 */
+	public static FrameCounter counter(String name) {
+		return counters.computeIfAbsent(name, key -> {
+			FrameCounter counter = new FrameCounter(key);
+			counterList.add(counter);
+			return counter;
+		});
+	}
+	
+	/**
+	 * Samples the memory allocated by a thread each frame once metrics are
+	 * installed
+	 * 
+	 * @param thread		Thread to track
+	 */
+	public static void trackThread(Thread thread) {
+		if (!threads.contains(thread))
+			threads.add(thread);
+	}
+	
+	/**
+	 * Publishes the metrics over JMX and starts sampling thread allocations
+	 * and garbage collection pauses.  Graphics calls are counted if the
+	 * current backend is a {@link RecordingBackend}, which is left to the
+	 * caller to set.  Does nothing if already installed.
+	 * 
+	 * @throws RuntimeException		Thrown if the MBean cannot be registered
+	 */
+	public static synchronized void install() {
+		if (installed)
+			return;
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			threadBean = (com.sun.management.ThreadMXBean) bean;
+			if (threadBean.isThreadAllocatedMemorySupported())
+				threadBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (gc instanceof NotificationEmitter)
+				((NotificationEmitter) gc).addNotificationListener(Metrics::handleGarbageCollection, null, null);
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(new EngineMetrics(), new ObjectName(OBJECT_NAME));
+		} catch (Exception e) {
+			throw new RuntimeException("Could not register engine metrics", e);
+		}
+		installed = true;
+	}
+	
+	/**
+	 * Checks if the metrics have been installed
+	 * 
+	 * @return		If the metrics are published
+	 */
+	public static boolean isInstalled() {
+		return installed;
+	}
+	
+	/**
+	 * Closes the current frame, rolling every counter over to its last frame
+	 * value.  Must be called once per frame from the game thread.
+	 * 
+	 * @param frameTime		Duration of the frame, in seconds
+	 */
+	public static void endFrame(float frameTime) {
+		for (int i = 0; i < counterList.size(); i++)
+			counterList.get(i).endFrame();
+		frameTimes.record(frameTime * 1000.0);
+		lastFrameTime = frameTime;
+		frames++;
+		if (!installed)
+			return;
+		if (Graphics.getBackend() instanceof RecordingBackend) {
+			RecordingBackend backend = (RecordingBackend) Graphics.getBackend();
+			for (RecordingBackend.Counter counter : graphicsCounters)
+				graphics[counter.ordinal()] = backend.getLastFrame(counter);
+			residentBufferBytes = backend.getResidentBufferBytes();
+			residentTextureBytes = backend.getResidentTextureBytes();
+		}
+		sampleAllocations();
+	}
+	
+	/**
+	 * Gets the number of completed frames
+	 * 
+	 * @return		Number of frames
+	 */
+	public static long getFrames() {
+		return frames;
+	}
+	
+	/**
+	 * Gets the duration of the last completed frame
+	 * 
+	 * @return		Frame time, in seconds
+	 */
+	public static float getLastFrameTime() {
+		return lastFrameTime;
+	}
+	
+	/**
+	 * Gets the histogram of frame times
+	 * 
+	 * @return		Frame time histogram
+	 */
+	public static Histogram getFrameTimes() {
+		return frameTimes;
+	}
+	
+	/**
+	 * Gets the histogram of garbage collection pauses
+	 * 
+	 * @return		Garbage collection pause histogram
+	 */
+	public static Histogram getGcPauses() {
+		return gcPauses;
+	}
+	
+	/**
+	 * Gets the last frame value of every counter
+	 * 
+	 * @return		Counter values keyed and sorted by name
+	 */
+	public static Map<String, Long> getCounters() {
+		Map<String, Long> values = new TreeMap<String, Long>();
+		for (FrameCounter counter : counterList)
+			values.put(counter.getName(), counter.getLastFrame());
+		return values;
+	}
+	
+	/**
+	 * Gets a graphics count of the last completed frame
+	 * 
+	 * @param counter		Counter to get
+	 * @return				Count in the last frame, or 0 if not installed
+	 */
+	public static long getGraphics(RecordingBackend.Counter counter) {
+		return graphics[counter.ordinal()];
+	}
+	
+	/**
+	 * Gets the bytes held by buffer objects
+	 * 
+	 * @return		Resident buffer bytes, or 0 if not installed
+	 */
+	public static long getResidentBufferBytes() {
+		return residentBufferBytes;
+	}
+	
+	/**
+	 * Gets the bytes held by textures
+	 * 
+	 * @return		Resident texture bytes, or 0 if not installed
+	 */
+	public static long getResidentTextureBytes() {
+		return residentTextureBytes;
+	}
+	
+	/**
+	 * Gets the bytes allocated by each tracked thread in the last completed
+	 * frame.  The map is built on each call.
+	 * 
+	 * @return		Allocated bytes keyed by thread name
+	 */
+	public static Map<String, Long> getAllocatedBytes() {
+		Thread[] threads = sampledThreads;
+		long[] bytes = allocated;
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < threads.length && i < bytes.length; i++) {
+			if (bytes[i] >= 0)
+				values.put(threads[i].getName(), bytes[i]);
+		}
+		return values;
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private static void sampleAllocations() {
+		com.sun.management.ThreadMXBean bean = threadBean;
+		if (bean == null)
+			return;
+		Thread[] sampled = sampledThreads;
+		if (sampled.length != threads.size()) {
+			sampled = threads.toArray(new Thread[0]);
+			lastAllocated = new long[sampled.length];
+			for (int i = 0; i < sampled.length; i++)
+				lastAllocated[i] = bean.getThreadAllocatedBytes(sampled[i].getId());
+			allocated = new long[sampled.length];
+			sampledThreads = sampled;
+			return;
+		}
+		long[] perFrame = allocated;
+		for (int i = 0; i < sampled.length; i++) {
+			long bytes = bean.getThreadAllocatedBytes(sampled[i].getId());
+			perFrame[i] = bytes >= 0 && lastAllocated[i] >= 0 ? bytes - lastAllocated[i] : -1;
+			lastAllocated[i] = bytes;
+		}
+	}
+	
+	private static void handleGarbageCollection(Notification notification, Object handback) {
+		if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+			return;
+		GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+		long duration = info.getGcInfo().getDuration();
+		gcPauses.record(duration);
+		gcCount.increment();
+		gcTime.add(duration);
+	}
+
+}
@@ -49,11 +49,23 @@ public class AABB {
 	 * @return			Intersection data
 	 */
 	public IntersectData intersect(AABB box) {
-		Vector3 distances1 = Vector3.sub(box.minExtents, this.maxExtents, null);
-		Vector3 distances2 = Vector3.sub(this.minExtents, box.maxExtents, null);
-		Vector3 distance = Vector3.max(distances1, distances2);
-		float maxDistance = distance.maxComponent();
+		float maxDistance = Math.max(
+				Math.max(Math.max(box.minExtents.x - maxExtents.x, minExtents.x - box.maxExtents.x),
+						Math.max(box.minExtents.y - maxExtents.y, minExtents.y - box.maxExtents.y)),
+				Math.max(box.minExtents.z - maxExtents.z, minExtents.z - box.maxExtents.z));
 		return new IntersectData(maxDistance < 0, maxDistance);
 	}
+	
+	/**
+	 * Checks if AABB overlaps another without allocating
+	 * 
+	 * @param box		AABB to check for overlap with
+	 * @return			If the boxes overlap
+	 */
+	public boolean overlaps(AABB box) {
+		return minExtents.x <= box.maxExtents.x && box.minExtents.x <= maxExtents.x &&
+				minExtents.y <= box.maxExtents.y && box.minExtents.y <= maxExtents.y &&
+				minExtents.z <= box.maxExtents.z && box.minExtents.z <= maxExtents.z;
+	}
 
 }
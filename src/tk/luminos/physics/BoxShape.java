@@ -0,0 +1,43 @@
+package tk.luminos.physics;
+
+import tk.luminos.maths.Vector3;
+
+/**
+ * Box centered on the origin of its local space
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class BoxShape implements ConvexShape {
+
+	private final Vector3 halfExtents;
+
+	/**
+	 * Creates a box
+	 *
+	 * @param halfExtents		Half of the size of the box along each axis
+	 */
+	public BoxShape(Vector3 halfExtents) {
+		this.halfExtents = new Vector3(halfExtents);
+	}
+
+	/**
+	 * Gets half of the size of the box along each axis
+	 *
+	 * @return		Half extents of the box
+	 */
+	public Vector3 getHalfExtents() {
+		return halfExtents;
+	}
+
+	@Override
+	public void support(float dx, float dy, float dz, Vector3 dest) {
+		dest.set(dx < 0 ? -halfExtents.x : halfExtents.x, dy < 0 ? -halfExtents.y : halfExtents.y, dz < 0 ? -halfExtents.z : halfExtents.z);
+	}
+
+	@Override
+	public float getMargin() {
+		return 0;
+	}
+
+}
@@ -0,0 +1,55 @@
+package tk.luminos.physics;
+
+import tk.luminos.maths.Vector3;
+
+/**
+ * Capsule along the y axis of its local space, centered on the origin
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class CapsuleShape implements ConvexShape {
+
+	private float radius;
+	private float halfHeight;
+
+	/**
+	 * Creates a capsule
+	 *
+	 * @param radius			Radius of the capsule
+	 * @param halfHeight		Half of the distance between the centers of its caps
+	 */
+	public CapsuleShape(float radius, float halfHeight) {
+		this.radius = radius;
+		this.halfHeight = halfHeight;
+	}
+
+	/**
+	 * Gets the radius of the capsule
+	 *
+	 * @return		Radius of the capsule
+	 */
+	public float getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Gets half of the distance between the centers of the caps
+	 *
+	 * @return		Half height of the capsule's segment
+	 */
+	public float getHalfHeight() {
+		return halfHeight;
+	}
+
+	@Override
+	public void support(float dx, float dy, float dz, Vector3 dest) {
+		dest.set(0, dy < 0 ? -halfHeight : halfHeight, 0);
+	}
+
+	@Override
+	public float getMargin() {
+		return radius;
+	}
+
+}
@@ -8,6 +8,9 @@ package tk.luminos.physics;
  */
 public abstract class Collider {
 	
+	int proxy = -1;
+	long seen;
+	
 	/**
 	 * Checks for intersection
 	 * 
@@ -21,5 +24,29 @@ public abstract class Collider {
 	 * @param delta		Factor of response
 	 */
 	public abstract void response(float delta);
+	
+	/**
+	 * Gets the world space bounds of the collider for the broadphase.
+	 * Colliders that return false are not paired by the broadphase and
+	 * only take part through {@link #isColliding()}.
+	 * 
+	 * @param dest		Array receiving min x, y, z then max x, y, z
+	 * @return			If the collider has bounds
+	 */
+	public boolean getBounds(float[] dest) {
+		return false;
+	}
+	
+	/**
+	 * Narrowphase test and response for a collider whose bounds overlap
+	 * this collider's bounds.  Each overlapping pair is reported once per
+	 * step, to one of its two colliders.
+	 * 
+	 * @param other		Collider with overlapping bounds
+	 * @param delta		Factor of response
+	 */
+	public void collide(Collider other, float delta) {
+		
+	}
 
 }
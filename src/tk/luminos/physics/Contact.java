@@ -0,0 +1,55 @@
+package tk.luminos.physics;
+
+import tk.luminos.maths.Vector3;
+
+/**
+ *
+ * Point of contact between two rigid bodies, or between a rigid body and a
+ * static plane, along with the state the contact solver keeps for it.
+ * Contacts are pooled by the {@link RigidBodySystem} and reused every step.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+class Contact {
+
+	RigidBody a;
+	RigidBody b;
+
+	/**
+	 * Identifies the pair of bodies, or the body and plane, across steps so
+	 * the solver can start from the impulses of the previous step
+	 */
+	long key;
+
+	/**
+	 * Batch of the contact in the solver, or the number of colors if the
+	 * contact is solved serially after every batch
+	 */
+	int color;
+
+	/**
+	 * Unit normal pointing from the first body towards the second
+	 */
+	final Vector3 normal = new Vector3();
+	final Vector3 point = new Vector3();
+	float penetration;
+
+	float rax, ray, raz;
+	float rbx, rby, rbz;
+	float t1x, t1y, t1z;
+	float t2x, t2y, t2z;
+	float normalMass;
+	float tangentMass1;
+	float tangentMass2;
+	float bias;
+	float friction;
+	float rollingMass;
+	float rollingFriction;
+	float normalImpulse;
+	float tangentImpulse1;
+	float tangentImpulse2;
+	float rollingImpulseX, rollingImpulseY, rollingImpulseZ;
+
+}
@@ -0,0 +1,118 @@
+package tk.luminos.physics;
+
+import tk.luminos.graphics.models.ModelData;
+import tk.luminos.maths.Vector3;
+
+/**
+ * Convex polyhedron given by its vertices and triangles, usually built from
+ * the vertices of a model by {@link QuickHull}.  Hulls built from models
+ * are limited to {@link #DEFAULT_MAX_VERTICES} vertices by default, which
+ * keeps the support function, a scan over every vertex, cheap while still
+ * fitting the model far tighter than a sphere.  A {@link RigidBody} made
+ * from a hull is rotation locked, so the hull gives it a tighter shape to
+ * collide and rest with, not the tumbling of a real object.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class ConvexHull implements ConvexShape {
+
+	/**
+	 * Default maximum number of vertices of hulls built from models
+	 */
+	public static final int DEFAULT_MAX_VERTICES = 32;
+
+	private final float[] vertices;
+	private final int[] indices;
+
+	/**
+	 * Creates a hull
+	 *
+	 * @param vertices		Vertices of the hull, three floats each
+	 * @param indices		Counterclockwise triangles of the hull, three indices each
+	 */
+	public ConvexHull(float[] vertices, int[] indices) {
+		this.vertices = vertices;
+		this.indices = indices;
+	}
+
+	/**
+	 * Builds the hull of a model's vertices with at most
+	 * {@link #DEFAULT_MAX_VERTICES} vertices
+	 *
+	 * @param data		Model data
+	 * @return			Hull of the model
+	 */
+	public static ConvexHull fromModel(ModelData data) {
+		return fromModel(data, null, DEFAULT_MAX_VERTICES);
+	}
+
+	/**
+	 * Builds the hull of a model's scaled vertices
+	 *
+	 * @param data				Model data
+	 * @param scale				Scale applied to the vertices, or null
+	 * @param maxVertices		Maximum number of vertices of the hull
+	 * @return					Hull of the model
+	 */
+	public static ConvexHull fromModel(ModelData data, Vector3 scale, int maxVertices) {
+		float[] points = data.getVertices();
+		if (scale != null) {
+			points = points.clone();
+			for (int i = 0; i < points.length; i += 3) {
+				points[i] *= scale.x;
+				points[i + 1] *= scale.y;
+				points[i + 2] *= scale.z;
+			}
+		}
+		return new QuickHull().build(points, points.length / 3, maxVertices);
+	}
+
+	/**
+	 * Gets the number of vertices of the hull
+	 *
+	 * @return		Number of vertices
+	 */
+	public int getVertexCount() {
+		return vertices.length / 3;
+	}
+
+	/**
+	 * Gets the vertices of the hull
+	 *
+	 * @return		Vertices, three floats each
+	 */
+	public float[] getVertices() {
+		return vertices;
+	}
+
+	/**
+	 * Gets the triangles of the hull
+	 *
+	 * @return		Counterclockwise triangles, three indices each
+	 */
+	public int[] getIndices() {
+		return indices;
+	}
+
+	@Override
+	public void support(float dx, float dy, float dz, Vector3 dest) {
+		float[] vertices = this.vertices;
+		int best = 0;
+		float bestDot = -Float.MAX_VALUE;
+		for (int i = 0; i < vertices.length; i += 3) {
+			float dot = vertices[i] * dx + vertices[i + 1] * dy + vertices[i + 2] * dz;
+			if (dot > bestDot) {
+				bestDot = dot;
+				best = i;
+			}
+		}
+		dest.set(vertices[best], vertices[best + 1], vertices[best + 2]);
+	}
+
+	@Override
+	public float getMargin() {
+		return 0;
+	}
+
+}
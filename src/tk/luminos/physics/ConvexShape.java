@@ -0,0 +1,35 @@
+package tk.luminos.physics;
+
+import tk.luminos.maths.Vector3;
+
+/**
+ * Convex shape that can be tested against other convex shapes by
+ * {@link GJK}.  A shape is described by a core, a point, segment or convex
+ * polyhedron given by its support function, swept by a sphere the radius
+ * of its margin.  Spheres and capsules keep their round part in the margin,
+ * which lets GJK treat them exactly and quickly.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public interface ConvexShape {
+
+	/**
+	 * Finds the point of the core furthest along a direction, in the local
+	 * space of the shape.  Must not allocate.
+	 *
+	 * @param dx		X component of the direction, which need not be normalized
+	 * @param dy		Y component of the direction
+	 * @param dz		Z component of the direction
+	 * @param dest		Destination of the supporting point
+	 */
+	public void support(float dx, float dy, float dz, Vector3 dest);
+
+	/**
+	 * Gets the radius of the sphere swept over the core
+	 *
+	 * @return		Margin of the shape
+	 */
+	public float getMargin();
+
+}
@@ -0,0 +1,730 @@
+package tk.luminos.physics;
+
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+
+/**
+ * Narrowphase for pairs of {@link ConvexShape convex shapes} placed in the
+ * world by a position and an orientation.  The Gilbert-Johnson-Keerthi
+ * algorithm finds the distance and closest points between the cores of the
+ * shapes, and the margins are subtracted from it afterwards.  When the
+ * cores themselves overlap, the expanding polytope algorithm finds the
+ * depth and direction of the penetration of the full shapes.
+ * <p>
+ * Queries do not allocate.  Their results are kept by the object until the
+ * next query, so one object must not be shared between threads.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class GJK {
+
+	/**
+	 * Maximum number of iterations of either algorithm
+	 */
+	public static final int MAX_ITERATIONS = 64;
+
+	private static final int MAX_VERTICES = MAX_ITERATIONS + 4;
+	private static final int MAX_FACES = 2 * MAX_VERTICES;
+	private static final float RELATIVE_TOLERANCE = 1e-6f;
+	private static final float EPA_TOLERANCE = 1e-4f;
+	private static final int[] TETRAHEDRON_FACES = { 0, 1, 2, 0, 2, 3, 0, 3, 1, 1, 3, 2 };
+
+	private ConvexShape shapeA;
+	private ConvexShape shapeB;
+	private final float[] rotationA = new float[9];
+	private final float[] rotationB = new float[9];
+	private float ax, ay, az;
+	private float bx, by, bz;
+	private boolean margins;
+	private final Vector3 local = new Vector3();
+
+	private final float[] simplexW = new float[12];
+	private final float[] simplexA = new float[12];
+	private final float[] simplexB = new float[12];
+	private final float[] lambdas = new float[4];
+	private int simplexSize;
+	private float vx, vy, vz;
+
+	private final int[] feature = new int[4];
+	private final float[] featureLambdas = new float[4];
+	private int featureSize;
+	private final int[] best = new int[4];
+	private final float[] bestLambdas = new float[4];
+	private int bestSize;
+	private final float[] temp = new float[36];
+
+	private final float[] polytopeW = new float[3 * MAX_VERTICES];
+	private final float[] polytopeA = new float[3 * MAX_VERTICES];
+	private final float[] polytopeB = new float[3 * MAX_VERTICES];
+	private int polytopeSize;
+	private final int[] faceVertices = new int[3 * MAX_FACES];
+	private final float[] faceNormals = new float[3 * MAX_FACES];
+	private final float[] faceDistances = new float[MAX_FACES];
+	private int faceCount;
+	private final int[] horizon = new int[6 * MAX_FACES];
+	private int horizonCount;
+
+	private final Vector3 normal = new Vector3();
+	private final Vector3 pointA = new Vector3();
+	private final Vector3 pointB = new Vector3();
+	private float distance;
+
+	/**
+	 * Checks if two shapes overlap
+	 *
+	 * @param a				First shape
+	 * @param positionA		Position of the first shape
+	 * @param rotationA		Orientation of the first shape, or null
+	 * @param b				Second shape
+	 * @param positionB		Position of the second shape
+	 * @param rotationB		Orientation of the second shape, or null
+	 * @return				If the shapes overlap
+	 */
+	public boolean intersect(ConvexShape a, Vector3 positionA, Quaternion rotationA, ConvexShape b, Vector3 positionB, Quaternion rotationB) {
+		setShapes(a, positionA, rotationA, b, positionB, rotationB);
+		if (!separateCores())
+			return true;
+		return Math.sqrt(vx * vx + vy * vy + vz * vz) <= a.getMargin() + b.getMargin();
+	}
+
+	/**
+	 * Finds the distance between two shapes and their closest points,
+	 * available from {@link #getPointA()}, {@link #getPointB()} and
+	 * {@link #getNormal()}
+	 *
+	 * @param a				First shape
+	 * @param positionA		Position of the first shape
+	 * @param rotationA		Orientation of the first shape, or null
+	 * @param b				Second shape
+	 * @param positionB		Position of the second shape
+	 * @param rotationB		Orientation of the second shape, or null
+	 * @return				Distance between the shapes, or zero if they overlap
+	 */
+	public float distance(ConvexShape a, Vector3 positionA, Quaternion rotationA, ConvexShape b, Vector3 positionB, Quaternion rotationB) {
+		setShapes(a, positionA, rotationA, b, positionB, rotationB);
+		if (!separateCores()) {
+			distance = 0;
+			return 0;
+		}
+		setCoreResult(a.getMargin(), b.getMargin());
+		return Math.max(0, distance);
+	}
+
+	/**
+	 * Finds how deep two shapes penetrate each other.  When they do, the
+	 * depth is available from {@link #getDepth()}, the direction the second
+	 * shape must move to separate them from {@link #getNormal()} and the
+	 * deepest points of each shape inside the other from
+	 * {@link #getPointA()} and {@link #getPointB()}.
+	 *
+	 * @param a				First shape
+	 * @param positionA		Position of the first shape
+	 * @param rotationA		Orientation of the first shape, or null
+	 * @param b				Second shape
+	 * @param positionB		Position of the second shape
+	 * @param rotationB		Orientation of the second shape, or null
+	 * @return				If the shapes penetrate each other
+	 */
+	public boolean penetration(ConvexShape a, Vector3 positionA, Quaternion rotationA, ConvexShape b, Vector3 positionB, Quaternion rotationB) {
+		setShapes(a, positionA, rotationA, b, positionB, rotationB);
+		if (separateCores()) {
+			setCoreResult(a.getMargin(), b.getMargin());
+			return distance < 0;
+		}
+		margins = true;
+		if (separateCores()) {
+			setCoreResult(0, 0);
+			return distance < 0;
+		}
+		if (!expandSimplex() || !expandPolytope()) {
+			normal.set(bx - ax, by - ay, bz - az);
+			float length = normal.magnitude();
+			if (length > 0)
+				normal.set(normal.x / length, normal.y / length, normal.z / length);
+			else
+				normal.set(0, 1, 0);
+			pointA.set(ax, ay, az);
+			pointB.set(ax, ay, az);
+			distance = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the unit normal pointing from the first shape towards the second
+	 * found by the most recent query
+	 *
+	 * @return		Normal of the most recent query
+	 */
+	public Vector3 getNormal() {
+		return normal;
+	}
+
+	/**
+	 * Gets the point of the first shape found by the most recent query
+	 *
+	 * @return		Closest or deepest point of the first shape
+	 */
+	public Vector3 getPointA() {
+		return pointA;
+	}
+
+	/**
+	 * Gets the point of the second shape found by the most recent query
+	 *
+	 * @return		Closest or deepest point of the second shape
+	 */
+	public Vector3 getPointB() {
+		return pointB;
+	}
+
+	/**
+	 * Gets the penetration depth found by the most recent query
+	 *
+	 * @return		Penetration depth, or zero if the shapes were apart
+	 */
+	public float getDepth() {
+		return Math.max(0, -distance);
+	}
+
+	//****************************************Private Methods****************************************//
+
+	private void setShapes(ConvexShape a, Vector3 positionA, Quaternion rotationA, ConvexShape b, Vector3 positionB, Quaternion rotationB) {
+		shapeA = a;
+		shapeB = b;
+		ax = positionA.x;
+		ay = positionA.y;
+		az = positionA.z;
+		bx = positionB.x;
+		by = positionB.y;
+		bz = positionB.z;
+		setRotation(rotationA, this.rotationA);
+		setRotation(rotationB, this.rotationB);
+		margins = false;
+	}
+
+	private static void setRotation(Quaternion q, float[] r) {
+		if (q == null) {
+			r[0] = 1; r[1] = 0; r[2] = 0;
+			r[3] = 0; r[4] = 1; r[5] = 0;
+			r[6] = 0; r[7] = 0; r[8] = 1;
+			return;
+		}
+		float x = q.x, y = q.y, z = q.z, w = q.w;
+		r[0] = 1 - 2 * (y * y + z * z);
+		r[1] = 2 * (x * y - z * w);
+		r[2] = 2 * (x * z + y * w);
+		r[3] = 2 * (x * y + z * w);
+		r[4] = 1 - 2 * (x * x + z * z);
+		r[5] = 2 * (y * z - x * w);
+		r[6] = 2 * (x * z - y * w);
+		r[7] = 2 * (y * z + x * w);
+		r[8] = 1 - 2 * (x * x + y * y);
+	}
+
+	/**
+	 * Writes the world space support point of a placed shape in a direction
+	 */
+	private void support(ConvexShape shape, float[] r, float px, float py, float pz, float dx, float dy, float dz, float[] dest, int offset) {
+		float lx = r[0] * dx + r[3] * dy + r[6] * dz;
+		float ly = r[1] * dx + r[4] * dy + r[7] * dz;
+		float lz = r[2] * dx + r[5] * dy + r[8] * dz;
+		Vector3 s = local;
+		shape.support(lx, ly, lz, s);
+		if (margins) {
+			float length = (float) Math.sqrt(lx * lx + ly * ly + lz * lz);
+			if (length > 0) {
+				float scale = shape.getMargin() / length;
+				s.x += lx * scale;
+				s.y += ly * scale;
+				s.z += lz * scale;
+			}
+		}
+		dest[offset] = r[0] * s.x + r[1] * s.y + r[2] * s.z + px;
+		dest[offset + 1] = r[3] * s.x + r[4] * s.y + r[5] * s.z + py;
+		dest[offset + 2] = r[6] * s.x + r[7] * s.y + r[8] * s.z + pz;
+	}
+
+	/**
+	 * Writes the support point of the Minkowski difference of the shapes in
+	 * a direction, along with the points of each shape it came from
+	 */
+	private void support(float dx, float dy, float dz, float[] w, float[] a, float[] b, int offset) {
+		support(shapeA, rotationA, ax, ay, az, dx, dy, dz, a, offset);
+		support(shapeB, rotationB, bx, by, bz, -dx, -dy, -dz, b, offset);
+		w[offset] = a[offset] - b[offset];
+		w[offset + 1] = a[offset + 1] - b[offset + 1];
+		w[offset + 2] = a[offset + 2] - b[offset + 2];
+	}
+
+	/**
+	 * Runs GJK on the cores of the shapes, or on the full shapes once
+	 * margins are enabled.  Leaves the closest point of the Minkowski
+	 * difference to the origin in v.
+	 *
+	 * @return		If the shapes are apart
+	 */
+	private boolean separateCores() {
+		float dx = ax - bx;
+		float dy = ay - by;
+		float dz = az - bz;
+		if (dx * dx + dy * dy + dz * dz < 1e-12f)
+			dx = 1;
+		support(-dx, -dy, -dz, simplexW, simplexA, simplexB, 0);
+		simplexSize = 1;
+		lambdas[0] = 1;
+		vx = simplexW[0];
+		vy = simplexW[1];
+		vz = simplexW[2];
+		for (int i = 0; i < MAX_ITERATIONS; i++) {
+			float vv = vx * vx + vy * vy + vz * vz;
+			if (vv < 1e-12f)
+				return false;
+			int o = simplexSize * 3;
+			support(-vx, -vy, -vz, simplexW, simplexA, simplexB, o);
+			float vw = vx * simplexW[o] + vy * simplexW[o + 1] + vz * simplexW[o + 2];
+			if (vv - vw <= RELATIVE_TOLERANCE * vv || isDuplicate(o))
+				return true;
+			simplexSize++;
+			closestPoint();
+			if (simplexSize == 4)
+				return false;
+			if (vx * vx + vy * vy + vz * vz >= vv)
+				return true;
+		}
+		return true;
+	}
+
+	private boolean isDuplicate(int o) {
+		for (int i = 0; i < simplexSize * 3; i += 3) {
+			if (simplexW[i] == simplexW[o] && simplexW[i + 1] == simplexW[o + 1] && simplexW[i + 2] == simplexW[o + 2])
+				return true;
+		}
+		return false;
+	}
+
+	private void setCoreResult(float marginA, float marginB) {
+		float px = 0, py = 0, pz = 0, qx = 0, qy = 0, qz = 0;
+		for (int i = 0; i < simplexSize; i++) {
+			float l = lambdas[i];
+			px += simplexA[i * 3] * l;
+			py += simplexA[i * 3 + 1] * l;
+			pz += simplexA[i * 3 + 2] * l;
+			qx += simplexB[i * 3] * l;
+			qy += simplexB[i * 3 + 1] * l;
+			qz += simplexB[i * 3 + 2] * l;
+		}
+		float length = (float) Math.sqrt(vx * vx + vy * vy + vz * vz);
+		float nx = -vx / length;
+		float ny = -vy / length;
+		float nz = -vz / length;
+		normal.set(nx, ny, nz);
+		pointA.set(px + nx * marginA, py + ny * marginA, pz + nz * marginA);
+		pointB.set(qx - nx * marginB, qy - ny * marginB, qz - nz * marginB);
+		distance = length - marginA - marginB;
+	}
+
+	/**
+	 * Reduces the simplex to the smallest feature holding its closest point
+	 * to the origin and moves v to that point
+	 */
+	private void closestPoint() {
+		switch (simplexSize) {
+			case 2:
+				closestOnSegment(0, 1);
+				break;
+			case 3:
+				closestOnTriangle(0, 1, 2);
+				break;
+			default:
+				if (!closestOnTetrahedron())
+					return;
+				break;
+		}
+		reduce(feature, featureLambdas, featureSize);
+	}
+
+	private float closestOnSegment(int i, int j) {
+		float[] w = simplexW;
+		float abx = w[j * 3] - w[i * 3];
+		float aby = w[j * 3 + 1] - w[i * 3 + 1];
+		float abz = w[j * 3 + 2] - w[i * 3 + 2];
+		float t = -(w[i * 3] * abx + w[i * 3 + 1] * aby + w[i * 3 + 2] * abz);
+		float length = abx * abx + aby * aby + abz * abz;
+		if (t <= 0)
+			return setFeature(i, 1);
+		if (t >= length)
+			return setFeature(j, 1);
+		t /= length;
+		return setFeature(i, 1 - t, j, t);
+	}
+
+	private float closestOnTriangle(int i, int j, int k) {
+		float[] w = simplexW;
+		float ax = w[i * 3], ay = w[i * 3 + 1], az = w[i * 3 + 2];
+		float bx = w[j * 3], by = w[j * 3 + 1], bz = w[j * 3 + 2];
+		float cx = w[k * 3], cy = w[k * 3 + 1], cz = w[k * 3 + 2];
+		float abx = bx - ax, aby = by - ay, abz = bz - az;
+		float acx = cx - ax, acy = cy - ay, acz = cz - az;
+		float d1 = -(abx * ax + aby * ay + abz * az);
+		float d2 = -(acx * ax + acy * ay + acz * az);
+		if (d1 <= 0 && d2 <= 0)
+			return setFeature(i, 1);
+		float d3 = -(abx * bx + aby * by + abz * bz);
+		float d4 = -(acx * bx + acy * by + acz * bz);
+		if (d3 >= 0 && d4 <= d3)
+			return setFeature(j, 1);
+		float vc = d1 * d4 - d3 * d2;
+		if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+			float t = d1 / (d1 - d3);
+			return setFeature(i, 1 - t, j, t);
+		}
+		float d5 = -(abx * cx + aby * cy + abz * cz);
+		float d6 = -(acx * cx + acy * cy + acz * cz);
+		if (d6 >= 0 && d5 <= d6)
+			return setFeature(k, 1);
+		float vb = d5 * d2 - d1 * d6;
+		if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+			float t = d2 / (d2 - d6);
+			return setFeature(i, 1 - t, k, t);
+		}
+		float va = d3 * d6 - d5 * d4;
+		if (va <= 0 && d4 - d3 >= 0 && d5 - d6 >= 0) {
+			float t = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+			return setFeature(j, 1 - t, k, t);
+		}
+		float denominator = 1 / (va + vb + vc);
+		float v = vb * denominator;
+		float u = vc * denominator;
+		featureSize = 3;
+		feature[0] = i;
+		feature[1] = j;
+		feature[2] = k;
+		featureLambdas[0] = 1 - v - u;
+		featureLambdas[1] = v;
+		featureLambdas[2] = u;
+		return featureDistance();
+	}
+
+	/**
+	 * Finds the closest point of the tetrahedron over the faces the origin
+	 * lies outside of
+	 *
+	 * @return		If the origin is outside the tetrahedron
+	 */
+	private boolean closestOnTetrahedron() {
+		float bestDistance = Float.MAX_VALUE;
+		bestSize = 0;
+		boolean flat = isFlat();
+		for (int face = 0; face < 4; face++) {
+			int i = TETRAHEDRON_FACES[face * 3];
+			int j = TETRAHEDRON_FACES[face * 3 + 1];
+			int k = TETRAHEDRON_FACES[face * 3 + 2];
+			int opposite = 6 - i - j - k;
+			if (!flat && !originOutside(i, j, k, opposite))
+				continue;
+			float distance = closestOnTriangle(i, j, k);
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				bestSize = featureSize;
+				System.arraycopy(feature, 0, best, 0, featureSize);
+				System.arraycopy(featureLambdas, 0, bestLambdas, 0, featureSize);
+			}
+		}
+		if (bestSize == 0)
+			return false;
+		featureSize = bestSize;
+		System.arraycopy(best, 0, feature, 0, bestSize);
+		System.arraycopy(bestLambdas, 0, featureLambdas, 0, bestSize);
+		return true;
+	}
+
+	/**
+	 * Checks if the tetrahedron has next to no volume, which happens when
+	 * the shapes have flat faces.  The origin cannot be inside such a
+	 * tetrahedron, so every face is searched for the closest point.
+	 */
+	private boolean isFlat() {
+		float[] w = simplexW;
+		float abx = w[3] - w[0], aby = w[4] - w[1], abz = w[5] - w[2];
+		float acx = w[6] - w[0], acy = w[7] - w[1], acz = w[8] - w[2];
+		float adx = w[9] - w[0], ady = w[10] - w[1], adz = w[11] - w[2];
+		float volume = adx * (aby * acz - abz * acy) + ady * (abz * acx - abx * acz) + adz * (abx * acy - aby * acx);
+		float scale = (float) Math.sqrt((abx * abx + aby * aby + abz * abz) * (acx * acx + acy * acy + acz * acz) * (adx * adx + ady * ady + adz * adz));
+		return Math.abs(volume) <= 1e-5f * scale;
+	}
+
+	private boolean originOutside(int i, int j, int k, int opposite) {
+		float[] w = simplexW;
+		float abx = w[j * 3] - w[i * 3], aby = w[j * 3 + 1] - w[i * 3 + 1], abz = w[j * 3 + 2] - w[i * 3 + 2];
+		float acx = w[k * 3] - w[i * 3], acy = w[k * 3 + 1] - w[i * 3 + 1], acz = w[k * 3 + 2] - w[i * 3 + 2];
+		float nx = aby * acz - abz * acy;
+		float ny = abz * acx - abx * acz;
+		float nz = abx * acy - aby * acx;
+		float origin = -(nx * w[i * 3] + ny * w[i * 3 + 1] + nz * w[i * 3 + 2]);
+		float other = nx * (w[opposite * 3] - w[i * 3]) + ny * (w[opposite * 3 + 1] - w[i * 3 + 1]) + nz * (w[opposite * 3 + 2] - w[i * 3 + 2]);
+		return origin * other < 0;
+	}
+
+	private float setFeature(int i, float li) {
+		featureSize = 1;
+		feature[0] = i;
+		featureLambdas[0] = li;
+		return featureDistance();
+	}
+
+	private float setFeature(int i, float li, int j, float lj) {
+		featureSize = 2;
+		feature[0] = i;
+		feature[1] = j;
+		featureLambdas[0] = li;
+		featureLambdas[1] = lj;
+		return featureDistance();
+	}
+
+	private float featureDistance() {
+		float x = 0, y = 0, z = 0;
+		for (int n = 0; n < featureSize; n++) {
+			int i = feature[n] * 3;
+			float l = featureLambdas[n];
+			x += simplexW[i] * l;
+			y += simplexW[i + 1] * l;
+			z += simplexW[i + 2] * l;
+		}
+		return x * x + y * y + z * z;
+	}
+
+	private void reduce(int[] indices, float[] weights, int size) {
+		float[] t = temp;
+		for (int n = 0; n < size; n++) {
+			int i = indices[n] * 3;
+			System.arraycopy(simplexW, i, t, n * 3, 3);
+			System.arraycopy(simplexA, i, t, 12 + n * 3, 3);
+			System.arraycopy(simplexB, i, t, 24 + n * 3, 3);
+		}
+		System.arraycopy(t, 0, simplexW, 0, size * 3);
+		System.arraycopy(t, 12, simplexA, 0, size * 3);
+		System.arraycopy(t, 24, simplexB, 0, size * 3);
+		simplexSize = size;
+		vx = 0;
+		vy = 0;
+		vz = 0;
+		for (int n = 0; n < size; n++) {
+			lambdas[n] = weights[n];
+			vx += simplexW[n * 3] * weights[n];
+			vy += simplexW[n * 3 + 1] * weights[n];
+			vz += simplexW[n * 3 + 2] * weights[n];
+		}
+	}
+
+	/**
+	 * Grows the simplex GJK ended with into a tetrahedron for EPA when the
+	 * origin lies on its boundary
+	 *
+	 * @return		If a tetrahedron with volume could be built
+	 */
+	private boolean expandSimplex() {
+		float[] w = simplexW;
+		if (simplexSize == 1) {
+			for (int axis = 0; axis < 6 && simplexSize == 1; axis++) {
+				float sign = axis < 3 ? 1 : -1;
+				support(axis % 3 == 0 ? sign : 0, axis % 3 == 1 ? sign : 0, axis % 3 == 2 ? sign : 0, w, simplexA, simplexB, 3);
+				float dx = w[3] - w[0], dy = w[4] - w[1], dz = w[5] - w[2];
+				if (dx * dx + dy * dy + dz * dz > 1e-10f)
+					simplexSize = 2;
+			}
+		}
+		if (simplexSize == 2) {
+			float dx = w[3] - w[0], dy = w[4] - w[1], dz = w[5] - w[2];
+			float ex, ey, ez;
+			if (Math.abs(dx) <= Math.abs(dy) && Math.abs(dx) <= Math.abs(dz)) {
+				ex = 0; ey = dz; ez = -dy;
+			}
+			else if (Math.abs(dy) <= Math.abs(dz)) {
+				ex = -dz; ey = 0; ez = dx;
+			}
+			else {
+				ex = dy; ey = -dx; ez = 0;
+			}
+			float fx = dy * ez - dz * ey, fy = dz * ex - dx * ez, fz = dx * ey - dy * ex;
+			for (int n = 0; n < 4 && simplexSize == 2; n++) {
+				float sign = n < 2 ? 1 : -1;
+				float sx = (n % 2 == 0 ? ex : fx) * sign;
+				float sy = (n % 2 == 0 ? ey : fy) * sign;
+				float sz = (n % 2 == 0 ? ez : fz) * sign;
+				support(sx, sy, sz, w, simplexA, simplexB, 6);
+				float px = w[6] - w[0], py = w[7] - w[1], pz = w[8] - w[2];
+				float cx = py * dz - pz * dy, cy = pz * dx - px * dz, cz = px * dy - py * dx;
+				if (cx * cx + cy * cy + cz * cz > 1e-10f)
+					simplexSize = 3;
+			}
+		}
+		if (simplexSize == 3) {
+			float abx = w[3] - w[0], aby = w[4] - w[1], abz = w[5] - w[2];
+			float acx = w[6] - w[0], acy = w[7] - w[1], acz = w[8] - w[2];
+			float nx = aby * acz - abz * acy;
+			float ny = abz * acx - abx * acz;
+			float nz = abx * acy - aby * acx;
+			for (int n = 0; n < 2 && simplexSize == 3; n++) {
+				float sign = n == 0 ? 1 : -1;
+				support(nx * sign, ny * sign, nz * sign, w, simplexA, simplexB, 9);
+				float height = nx * (w[9] - w[0]) + ny * (w[10] - w[1]) + nz * (w[11] - w[2]);
+				if (Math.abs(height) > 1e-10f)
+					simplexSize = 4;
+			}
+		}
+		return simplexSize == 4;
+	}
+
+	/**
+	 * Runs EPA from the tetrahedron left in the simplex
+	 *
+	 * @return		If the polytope converged to a face
+	 */
+	private boolean expandPolytope() {
+		System.arraycopy(simplexW, 0, polytopeW, 0, 12);
+		System.arraycopy(simplexA, 0, polytopeA, 0, 12);
+		System.arraycopy(simplexB, 0, polytopeB, 0, 12);
+		polytopeSize = 4;
+		faceCount = 0;
+		float[] w = polytopeW;
+		boolean flip = (w[9] - w[0]) * ((w[4] - w[1]) * (w[8] - w[2]) - (w[5] - w[2]) * (w[7] - w[1]))
+				+ (w[10] - w[1]) * ((w[5] - w[2]) * (w[6] - w[0]) - (w[3] - w[0]) * (w[8] - w[2]))
+				+ (w[11] - w[2]) * ((w[3] - w[0]) * (w[7] - w[1]) - (w[4] - w[1]) * (w[6] - w[0])) > 0;
+		if (flip) {
+			addFace(0, 2, 1);
+			addFace(0, 1, 3);
+			addFace(1, 2, 3);
+			addFace(2, 0, 3);
+		}
+		else {
+			addFace(0, 1, 2);
+			addFace(0, 3, 1);
+			addFace(1, 3, 2);
+			addFace(2, 3, 0);
+		}
+		int closest = 0;
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			closest = 0;
+			for (int f = 1; f < faceCount; f++) {
+				if (faceDistances[f] < faceDistances[closest])
+					closest = f;
+			}
+			float nx = faceNormals[closest * 3];
+			float ny = faceNormals[closest * 3 + 1];
+			float nz = faceNormals[closest * 3 + 2];
+			if (polytopeSize == MAX_VERTICES)
+				break;
+			int o = polytopeSize * 3;
+			support(nx, ny, nz, polytopeW, polytopeA, polytopeB, o);
+			float reach = nx * w[o] + ny * w[o + 1] + nz * w[o + 2];
+			if (reach - faceDistances[closest] <= EPA_TOLERANCE * Math.max(1, Math.abs(reach)))
+				break;
+			int vertex = polytopeSize++;
+			horizonCount = 0;
+			for (int f = faceCount - 1; f >= 0; f--) {
+				int v0 = faceVertices[f * 3] * 3;
+				float facing = faceNormals[f * 3] * (w[o] - w[v0]) + faceNormals[f * 3 + 1] * (w[o + 1] - w[v0 + 1])
+						+ faceNormals[f * 3 + 2] * (w[o + 2] - w[v0 + 2]);
+				if (facing <= 0)
+					continue;
+				for (int e = 0; e < 3; e++)
+					addHorizonEdge(faceVertices[f * 3 + e], faceVertices[f * 3 + (e + 1) % 3]);
+				removeFace(f);
+			}
+			if (faceCount + horizonCount > MAX_FACES)
+				return false;
+			for (int e = 0; e < horizonCount; e++)
+				addFace(horizon[e * 2], horizon[e * 2 + 1], vertex);
+			if (faceCount == 0)
+				return false;
+		}
+		setPolytopeResult(closest);
+		return true;
+	}
+
+	private void addFace(int i, int j, int k) {
+		float[] w = polytopeW;
+		int f = faceCount++;
+		faceVertices[f * 3] = i;
+		faceVertices[f * 3 + 1] = j;
+		faceVertices[f * 3 + 2] = k;
+		float abx = w[j * 3] - w[i * 3], aby = w[j * 3 + 1] - w[i * 3 + 1], abz = w[j * 3 + 2] - w[i * 3 + 2];
+		float acx = w[k * 3] - w[i * 3], acy = w[k * 3 + 1] - w[i * 3 + 1], acz = w[k * 3 + 2] - w[i * 3 + 2];
+		float nx = aby * acz - abz * acy;
+		float ny = abz * acx - abx * acz;
+		float nz = abx * acy - aby * acx;
+		float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+		if (length < 1e-12f) {
+			faceNormals[f * 3] = 0;
+			faceNormals[f * 3 + 1] = 0;
+			faceNormals[f * 3 + 2] = 0;
+			faceDistances[f] = Float.MAX_VALUE;
+			return;
+		}
+		nx /= length;
+		ny /= length;
+		nz /= length;
+		faceNormals[f * 3] = nx;
+		faceNormals[f * 3 + 1] = ny;
+		faceNormals[f * 3 + 2] = nz;
+		faceDistances[f] = nx * w[i * 3] + ny * w[i * 3 + 1] + nz * w[i * 3 + 2];
+	}
+
+	private void removeFace(int f) {
+		int last = --faceCount;
+		System.arraycopy(faceVertices, last * 3, faceVertices, f * 3, 3);
+		System.arraycopy(faceNormals, last * 3, faceNormals, f * 3, 3);
+		faceDistances[f] = faceDistances[last];
+	}
+
+	private void addHorizonEdge(int from, int to) {
+		for (int e = 0; e < horizonCount; e++) {
+			if (horizon[e * 2] == to && horizon[e * 2 + 1] == from) {
+				horizonCount--;
+				horizon[e * 2] = horizon[horizonCount * 2];
+				horizon[e * 2 + 1] = horizon[horizonCount * 2 + 1];
+				return;
+			}
+		}
+		horizon[horizonCount * 2] = from;
+		horizon[horizonCount * 2 + 1] = to;
+		horizonCount++;
+	}
+
+	private void setPolytopeResult(int f) {
+		float nx = faceNormals[f * 3];
+		float ny = faceNormals[f * 3 + 1];
+		float nz = faceNormals[f * 3 + 2];
+		float depth = Math.max(0, faceDistances[f]);
+		int i = faceVertices[f * 3] * 3;
+		int j = faceVertices[f * 3 + 1] * 3;
+		int k = faceVertices[f * 3 + 2] * 3;
+		float[] w = polytopeW;
+		float e0x = w[j] - w[i], e0y = w[j + 1] - w[i + 1], e0z = w[j + 2] - w[i + 2];
+		float e1x = w[k] - w[i], e1y = w[k + 1] - w[i + 1], e1z = w[k + 2] - w[i + 2];
+		float px = nx * depth - w[i], py = ny * depth - w[i + 1], pz = nz * depth - w[i + 2];
+		float d00 = e0x * e0x + e0y * e0y + e0z * e0z;
+		float d01 = e0x * e1x + e0y * e1y + e0z * e1z;
+		float d11 = e1x * e1x + e1y * e1y + e1z * e1z;
+		float d20 = px * e0x + py * e0y + pz * e0z;
+		float d21 = px * e1x + py * e1y + pz * e1z;
+		float denominator = d00 * d11 - d01 * d01;
+		float v = 0, u = 0;
+		if (denominator != 0) {
+			v = (d11 * d20 - d01 * d21) / denominator;
+			u = (d00 * d21 - d01 * d20) / denominator;
+		}
+		float l = 1 - v - u;
+		pointA.set(polytopeA[i] * l + polytopeA[j] * v + polytopeA[k] * u,
+				polytopeA[i + 1] * l + polytopeA[j + 1] * v + polytopeA[k + 1] * u,
+				polytopeA[i + 2] * l + polytopeA[j + 2] * v + polytopeA[k + 2] * u);
+		pointB.set(polytopeB[i] * l + polytopeB[j] * v + polytopeB[k] * u,
+				polytopeB[i + 1] * l + polytopeB[j + 1] * v + polytopeB[k + 1] * u,
+				polytopeB[i + 2] * l + polytopeB[j + 2] * v + polytopeB[k + 2] * u);
+		normal.set(nx, ny, nz);
+		distance = -depth;
+	}
+
+}
@@ -0,0 +1,95 @@
+package tk.luminos.physics;
+
+import tk.luminos.gameobjects.GameObject;
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+
+/**
+ * 
+ * Transform of a {@link GameObject} owned by the physics engine.  The
+ * position, orientation and scale of a simulated body, such as a
+ * {@link RigidBody}, are only modified by the physics engine, which hands
+ * them to the game thread through snapshots rather than writing to the game
+ * object directly.  Bodies move their object in its local space, so they
+ * are best attached to objects without a parent.
+ * <p>
+ * A plain body is not simulated: the engine never writes its transform or
+ * moves its object, which keeps whatever transform the game gives it.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class PhysicsBody {
+	
+	private GameObject object;
+	private Vector3 position;
+	private Quaternion orientation;
+	private Vector3 scale;
+	
+	/**
+	 * Transform at the end of the previous step, kept by the physics thread
+	 */
+	final Vector3 previousPosition;
+	final Quaternion previousOrientation;
+	final Vector3 previousScale;
+	
+	/**
+	 * Transform last written to the game object, kept by the game thread
+	 */
+	Vector3 renderPosition = new Vector3();
+	Quaternion renderOrientation = new Quaternion();
+	Vector3 renderScale = new Vector3();
+	
+	/**
+	 * Creates a body starting at the current transform of a game object
+	 * 
+	 * @param object		Object moved by the body
+	 */
+	public PhysicsBody(GameObject object) {
+		this.object = object;
+		this.position = new Vector3(object.getPosition());
+		this.orientation = object.getOrientation(new Quaternion());
+		this.scale = new Vector3(object.getScale());
+		this.previousPosition = new Vector3(position);
+		this.previousOrientation = new Quaternion(orientation);
+		this.previousScale = new Vector3(scale);
+	}
+	
+	/**
+	 * Gets the object moved by the body
+	 * 
+	 * @return		Game object of the body
+	 */
+	public GameObject getObject() {
+		return object;
+	}
+	
+	/**
+	 * Gets the simulated position.  Only to be used by the physics engine.
+	 * 
+	 * @return		Position of the body
+	 */
+	public Vector3 getPosition() {
+		return position;
+	}
+	
+	/**
+	 * Gets the simulated orientation.  Only to be used by the physics engine.
+	 * 
+	 * @return		Orientation of the body
+	 */
+	public Quaternion getOrientation() {
+		return orientation;
+	}
+	
+	/**
+	 * Gets the simulated scale.  Only to be used by the physics engine.
+	 * 
+	 * @return		Scale of the body
+	 */
+	public Vector3 getScale() {
+		return scale;
+	}
+
+}
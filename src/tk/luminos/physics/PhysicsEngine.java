@@ -2,46 +2,440 @@ package tk.luminos.physics;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
 
 import tk.luminos.EngineComponent;
 import tk.luminos.Scene;
+import tk.luminos.events.MPSCQueue;
+import tk.luminos.jobs.JobSystem;
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+import tk.luminos.profiler.Profiler;
+import tk.luminos.spatial.SpatialHashGrid;
+import tk.luminos.spatial.SweepAndPrune;
 
 /**
- * Necessary functionality for physics engines 
+ * Necessary functionality for physics engines.  Once started, the engine
+ * simulates its {@link RigidBody rigid bodies} on its own thread at a fixed
+ * time step and hands their transforms to the game thread through a
+ * {@link TripleBuffer}, so neither thread waits on the other.  If the
+ * engine is not started, it is stepped on the game thread by the
+ * {@link tk.luminos.Engine}.
+ * <p>
+ * {@link Collider Colliders} read and respond with game state, so they are
+ * always updated on the game thread by {@link #updateColliders(Scene, float)},
+ * whether or not the physics thread is running.  Colliders that report
+ * bounds are paired by a sweep and prune broadphase each step, and only the
+ * overlapping pairs reach {@link Collider#collide(Collider, float)}.  Scenes
+ * made of many small bodies of similar size may switch to a uniform hash
+ * grid with {@link #useHashGrid(float)}.
+ * <p>
+ * {@link RigidBody Rigid bodies} are simulated by a {@link RigidBodySystem}
+ * stepped at the start of every update.  They may be attached, removed,
+ * pushed and woken from any thread; the changes are queued and take effect
+ * at the start of the next step.
  * 
  * @author Nick Clark
  * @version 1.0
  */
 public class PhysicsEngine extends EngineComponent {
 	
-	private List<Collider> colliders;	
+	/**
+	 * Maximum amount of time, in seconds, the physics thread will simulate
+	 * to catch up after a stall
+	 */
+	public static final float MAX_CATCH_UP = 0.25f;
+	
+	private List<Collider> colliders;
+	private List<PhysicsBody> bodies;
+	private volatile float timeStep = 1f / 30f;
+	private volatile boolean running = false;
+	private long steps = 0;
+	private long colliderSteps = 0;
+	
+	private TripleBuffer<PhysicsSnapshot> snapshots = new TripleBuffer<PhysicsSnapshot>(PhysicsSnapshot::new);
+	private final Quaternion blendFrom = new Quaternion();
+	private final Quaternion blendTo = new Quaternion();
+	
+	private SweepAndPrune<Collider> broadphase = new SweepAndPrune<Collider>(256);
+	private List<Collider> tracked = new ArrayList<Collider>();
+	private SpatialHashGrid<Collider> hashGrid;
+	private final float[] colliderBounds = new float[6];
+	
+	private RigidBodySystem rigidBodies = new RigidBodySystem();
+	private MPSCQueue<RigidBody> attachedRigidBodies = new MPSCQueue<RigidBody>();
+	private MPSCQueue<RigidBody> removedRigidBodies = new MPSCQueue<RigidBody>();
+	private MPSCQueue<Runnable> commands = new MPSCQueue<Runnable>();
+	
+	private static final int PROFILE_UPDATE = Profiler.register("PhysicsEngine.update");
+	private static final int PROFILE_APPLY = Profiler.register("PhysicsEngine.apply");
+	private static final int PROFILE_COLLIDERS = Profiler.register("PhysicsEngine.colliders");
+	private static final int PROFILE_BROADPHASE = Profiler.register("PhysicsEngine.broadphase");
 	
 	/**
 	 * Creates physics engine
 	 */
 	public PhysicsEngine() {
-		colliders = new ArrayList<Collider>();
+		colliders = new CopyOnWriteArrayList<Collider>();
+		bodies = new CopyOnWriteArrayList<PhysicsBody>();
+		setDaemon(true);
 	}
 	
 	/**
-	 * Runs physics engine
+	 * Starts the physics thread.  From this point the engine must not be
+	 * stepped from any other thread.
+	 */
+	@Override
+	public synchronized void start() {
+		running = true;
+		super.start();
+	}
+	
+	/**
+	 * Runs physics engine at a fixed time step until disposed
 	 */
 	@Override
 	public void run() {
 		Thread.currentThread().setName("LUMINOS_ENGINE:_PHYSICS");
+		long previousTime = System.nanoTime();
+		long accumulator = 0;
+		while (running) {
+			long stepNanos = (long) (timeStep * 1_000_000_000L);
+			long now = System.nanoTime();
+			accumulator += Math.min(now - previousTime, (long) (MAX_CATCH_UP * 1_000_000_000L));
+			previousTime = now;
+			while (accumulator >= stepNanos) {
+				step(timeStep);
+				accumulator -= stepNanos;
+			}
+			LockSupport.parkNanos(stepNanos - accumulator);
+		}
+	}
+	
+	/**
+	 * Stops the physics thread after its current step
+	 */
+	public void dispose() {
+		running = false;
+		LockSupport.unpark(this);
+	}
+	
+	/**
+	 * Checks if the engine is simulating on its own thread
+	 * 
+	 * @return		If the physics thread is running
+	 */
+	public boolean isRunning() {
+		return running;
 	}
 	
 	/**
-	 * Updates engine
+	 * Updates engine using the engine's default time step
 	 */
 	@Override
 	public void update(Scene scene) {
-		for (Collider collider : colliders) {
-			if (collider.isColliding())
-				collider.response(1f / 30f);
+		update(scene, timeStep);
+	}
+	
+	/**
+	 * Advances the simulation by a single step on the game thread, publishes
+	 * the resulting transforms and updates the colliders.  Must not be
+	 * called once the physics thread has been started.
+	 * 
+	 * @param scene		Scene to simulate
+	 * @param delta		Length of the step, in seconds
+	 * @throws IllegalStateException		Thrown if the physics thread is running
+	 */
+	public void update(Scene scene, float delta) {
+		if (running)
+			throw new IllegalStateException("Physics engine is stepped by its own thread");
+		step(delta);
+		updateColliders(scene, delta);
+	}
+	
+	/**
+	 * Tests the colliders against each other and lets those that collide
+	 * respond.  Colliders always run on the game thread: called by
+	 * {@link #update(Scene, float)} when the engine is stepped inline, and
+	 * once per fixed step by the {@link tk.luminos.Engine} while the physics
+	 * thread is running.
+	 * 
+	 * @param scene		Scene to simulate
+	 * @param delta		Length of the step, in seconds
+	 * @throws IllegalStateException		Thrown if called from the physics thread
+	 */
+	public void updateColliders(Scene scene, float delta) {
+		if (Thread.currentThread() == this)
+			throw new IllegalStateException("Colliders must be updated on the game thread");
+		Profiler.begin(PROFILE_COLLIDERS);
+		try {
+			colliderSteps++;
+			if (hashGrid != null) {
+				updateHashGrid();
+				for (int i = 0; i < hashGrid.getPairCount(); i++) {
+					Collider first = hashGrid.get(hashGrid.getPairFirst(i));
+					first.collide(hashGrid.get(hashGrid.getPairSecond(i)), delta);
+				}
+			}
+			else {
+				updateBroadphase();
+				for (int i = 0; i < broadphase.getPairCount(); i++) {
+					Collider first = broadphase.get(broadphase.getPairFirst(i));
+					first.collide(broadphase.get(broadphase.getPairSecond(i)), delta);
+				}
+			}
+			for (Collider collider : colliders) {
+				if (collider.isColliding())
+					collider.response(delta);
+			}
+		} finally {
+			Profiler.end();
 		}
 	}
 	
+	/**
+	 * Takes the most recent step published by the simulation, which
+	 * {@link #getInterpolationAlpha()} and {@link #apply(float)} then refer
+	 * to.  Must only be called from the game thread.
+	 * 
+	 * @return		If a new step was taken
+	 */
+	public boolean acquire() {
+		return snapshots.acquire();
+	}
+	
+	/**
+	 * Moves each body's game object to its simulated transform, blended
+	 * between the step taken by the last call to {@link #acquire()} and the
+	 * step before it.  Orientations are blended along the shorter arc, so
+	 * spinning bodies never turn back when crossing half a revolution.
+	 * Bodies that did not move during the step, such as sleeping bodies,
+	 * are only written if the game object does not already hold their
+	 * transform, which also catches movement in steps the game thread never
+	 * acquired.  Must only be called from the game thread.
+	 * 
+	 * @param alpha		Fraction of a step past the most recent step
+	 */
+	public void apply(float alpha) {
+		Profiler.begin(PROFILE_APPLY);
+		try {
+			PhysicsSnapshot current = snapshots.getFront();
+			for (int i = 0; i < current.count; i++) {
+				PhysicsBody body = current.bodies[i];
+				int offset = i * PhysicsSnapshot.STRIDE;
+				if (current.moved[i]) {
+					blend(body.renderPosition, current.data, offset, alpha);
+					blend(body.renderOrientation, current.data, offset + 3, alpha);
+					blend(body.renderScale, current.data, offset + 7, alpha);
+				}
+				else {
+					int to = offset + PhysicsSnapshot.CURRENT;
+					if (isApplied(body, current.data, to))
+						continue;
+					body.renderPosition.set(current.data[to], current.data[to + 1], current.data[to + 2]);
+					body.renderOrientation.set(current.data[to + 3], current.data[to + 4], current.data[to + 5], current.data[to + 6]);
+					body.renderScale.set(current.data[to + 7], current.data[to + 8], current.data[to + 9]);
+				}
+				body.getObject().setTransformation(body.renderPosition, body.renderOrientation, body.renderScale);
+			}
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	/**
+	 * Gets the fraction of a step that has passed since the physics thread
+	 * published the step taken by the last call to {@link #acquire()}, for
+	 * use with {@link #apply(float)}
+	 * 
+	 * @return		Interpolation factor in the range [0, 1]
+	 */
+	public float getInterpolationAlpha() {
+		long elapsed = System.nanoTime() - snapshots.getFront().time;
+		return Math.max(0, Math.min(1, elapsed / (timeStep * 1_000_000_000f)));
+	}
+	
+	/**
+	 * Gets the default time step of the engine
+	 * 
+	 * @return		Default time step, in seconds
+	 */
+	public float getTimeStep() {
+		return timeStep;
+	}
+	
+	/**
+	 * Sets the default time step of the engine
+	 * 
+	 * @param timeStep		Default time step, in seconds
+	 */
+	public void setTimeStep(float timeStep) {
+		this.timeStep = timeStep;
+	}
+	
+	/**
+	 * Attaches body.  Plain bodies are not simulated and never move their
+	 * object; attach {@link RigidBody rigid bodies} with
+	 * {@link #attachRigidBody(RigidBody)}.
+	 * 
+	 * @param body		Body to attach
+	 */
+	public void attachBody(PhysicsBody body) {
+		this.bodies.add(body);
+	}
+	
+	/**
+	 * Removes body from engine
+	 * 
+	 * @param body		Body to remove
+	 * @return			If body was removed
+	 */
+	public boolean removeBody(PhysicsBody body) {
+		return this.bodies.remove(body);
+	}
+	
+	/**
+	 * Attaches a rigid body, which is simulated from the next step on
+	 * 
+	 * @param body		Rigid body to attach
+	 */
+	public void attachRigidBody(RigidBody body) {
+		attachedRigidBodies.offer(body);
+	}
+	
+	/**
+	 * Removes a rigid body from the engine at the start of the next step
+	 * 
+	 * @param body		Rigid body to remove
+	 */
+	public void removeRigidBody(RigidBody body) {
+		removedRigidBodies.offer(body);
+	}
+	
+	/**
+	 * Sets the linear velocity of a rigid body and wakes it at the start of
+	 * the next step
+	 * 
+	 * @param body			Body to change
+	 * @param velocity		Velocity, in units per second
+	 */
+	public void setVelocity(RigidBody body, Vector3 velocity) {
+		Vector3 copy = new Vector3(velocity);
+		commands.offer(() -> body.setVelocity(copy));
+	}
+	
+	/**
+	 * Sets the angular velocity of a rigid body and wakes it at the start of
+	 * the next step.  Only spheres rotate.
+	 * 
+	 * @param body				Body to change
+	 * @param angularVelocity	Angular velocity, in radians per second
+	 */
+	public void setAngularVelocity(RigidBody body, Vector3 angularVelocity) {
+		Vector3 copy = new Vector3(angularVelocity);
+		commands.offer(() -> body.setAngularVelocity(copy));
+	}
+	
+	/**
+	 * Applies a force at the center of a rigid body during the next step and
+	 * wakes it
+	 * 
+	 * @param body		Body to push
+	 * @param force		Force to apply
+	 */
+	public void applyForce(RigidBody body, Vector3 force) {
+		Vector3 copy = new Vector3(force);
+		commands.offer(() -> body.applyForce(copy));
+	}
+	
+	/**
+	 * Applies an impulse at a point of a rigid body at the start of the next
+	 * step and wakes it
+	 * 
+	 * @param body			Body to push
+	 * @param impulse		Impulse to apply
+	 * @param point			World space point the impulse is applied at
+	 */
+	public void applyImpulse(RigidBody body, Vector3 impulse, Vector3 point) {
+		Vector3 impulseCopy = new Vector3(impulse);
+		Vector3 pointCopy = new Vector3(point);
+		commands.offer(() -> body.applyImpulse(impulseCopy, pointCopy));
+	}
+	
+	/**
+	 * Wakes a rigid body at the start of the next step
+	 * 
+	 * @param body		Body to wake
+	 */
+	public void wake(RigidBody body) {
+		commands.offer(body::wake);
+	}
+	
+	/**
+	 * Gets the system simulating the rigid bodies, to set its gravity, add
+	 * static planes and read its statistics.  Must not be modified while
+	 * the engine is stepping.
+	 * 
+	 * @return		Rigid body system
+	 */
+	public RigidBodySystem getRigidBodySystem() {
+		return rigidBodies;
+	}
+	
+	/**
+	 * Simulates rigid bodies on the workers of the engine's job system, if
+	 * one has been created.  The simulation gives the same results as on a
+	 * single thread, whatever the number of workers.
+	 */
+	public void useParallelSolver() {
+		rigidBodies.setJobSystem(findJobSystem());
+	}
+	
+	/**
+	 * Gets the bodies attached to the engine
+	 * 
+	 * @return		Attached bodies
+	 */
+	public List<PhysicsBody> getBodies() {
+		return bodies;
+	}
+	
+	/**
+	 * Gets the broadphase pairing the colliders that report bounds.  Its
+	 * pairs are those found by the most recent step.
+	 * 
+	 * @return		Collider broadphase
+	 */
+	public SweepAndPrune<Collider> getBroadphase() {
+		return broadphase;
+	}
+	
+	/**
+	 * Pairs colliders with a uniform hash grid rebuilt every step instead
+	 * of the sweep and prune broadphase.  The grid is rebuilt on the job
+	 * system when one has been created.  Must only be called from the game
+	 * thread.
+	 * 
+	 * @param cellSize		Width of a grid cell, about the size of the largest collider
+	 */
+	public void useHashGrid(float cellSize) {
+		hashGrid = new SpatialHashGrid<Collider>(cellSize, findJobSystem());
+		for (Collider collider : tracked)
+			collider.proxy = -1;
+		tracked.clear();
+		broadphase.clear();
+	}
+	
+	/**
+	 * Gets the hash grid pairing colliders, if one is in use
+	 * 
+	 * @return		Collider hash grid, or null
+	 */
+	public SpatialHashGrid<Collider> getHashGrid() {
+		return hashGrid;
+	}
+	
 	/**
 	 * Attaches collider
 	 * 
@@ -110,5 +504,100 @@ public class PhysicsEngine extends EngineComponent {
 		Collider collider = this.colliders.remove(location);
 		return colliders.contains(collider);
 	}
+	
+	private void step(float delta) {
+		Profiler.begin(PROFILE_UPDATE);
+		try {
+			attachedRigidBodies.drain(body -> {
+				rigidBodies.addBody(body);
+				bodies.add(body);
+			});
+			removedRigidBodies.drain(body -> {
+				if (rigidBodies.removeBody(body))
+					bodies.remove(body);
+			});
+			commands.drain(Runnable::run);
+			rigidBodies.step(delta);
+			snapshots.getBack().write(rigidBodies.getBodies(), ++steps, System.nanoTime());
+			snapshots.publish();
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	private void updateBroadphase() {
+		Profiler.begin(PROFILE_BROADPHASE);
+		try {
+			long stamp = colliderSteps;
+			float[] b = colliderBounds;
+			for (Collider collider : colliders) {
+				if (!collider.getBounds(b))
+					continue;
+				if (collider.proxy == -1) {
+					collider.proxy = broadphase.insert(collider, b[0], b[1], b[2], b[3], b[4], b[5]);
+					tracked.add(collider);
+				}
+				else
+					broadphase.move(collider.proxy, b[0], b[1], b[2], b[3], b[4], b[5]);
+				collider.seen = stamp;
+			}
+			for (int i = tracked.size() - 1; i >= 0; i--) {
+				Collider collider = tracked.get(i);
+				if (collider.seen == stamp)
+					continue;
+				broadphase.remove(collider.proxy);
+				collider.proxy = -1;
+				int last = tracked.size() - 1;
+				tracked.set(i, tracked.get(last));
+				tracked.remove(last);
+			}
+			broadphase.update();
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	private void updateHashGrid() {
+		Profiler.begin(PROFILE_BROADPHASE);
+		try {
+			float[] b = colliderBounds;
+			hashGrid.clear();
+			for (Collider collider : colliders) {
+				if (collider.getBounds(b))
+					hashGrid.add(collider, b[0], b[1], b[2], b[3], b[4], b[5]);
+			}
+			hashGrid.update();
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	private static JobSystem findJobSystem() {
+		return JobSystem.isCreated() ? JobSystem.getInstance() : null;
+	}
+	
+	private static boolean isApplied(PhysicsBody body, float[] data, int offset) {
+		Vector3 position = body.renderPosition;
+		Quaternion orientation = body.renderOrientation;
+		Vector3 scale = body.renderScale;
+		return position.x == data[offset] && position.y == data[offset + 1] && position.z == data[offset + 2] &&
+				orientation.x == data[offset + 3] && orientation.y == data[offset + 4] && 
+				orientation.z == data[offset + 5] && orientation.w == data[offset + 6] &&
+				scale.x == data[offset + 7] && scale.y == data[offset + 8] && scale.z == data[offset + 9];
+	}
+	
+	private static void blend(Vector3 dest, float[] data, int offset, float alpha) {
+		int to = offset + PhysicsSnapshot.CURRENT;
+		dest.x = data[offset] + (data[to] - data[offset]) * alpha;
+		dest.y = data[offset + 1] + (data[to + 1] - data[offset + 1]) * alpha;
+		dest.z = data[offset + 2] + (data[to + 2] - data[offset + 2]) * alpha;
+	}
+	
+	private void blend(Quaternion dest, float[] data, int offset, float alpha) {
+		int to = offset + PhysicsSnapshot.CURRENT;
+		blendFrom.set(data[offset], data[offset + 1], data[offset + 2], data[offset + 3]);
+		blendTo.set(data[to], data[to + 1], data[to + 2], data[to + 3]);
+		Quaternion.slerp(blendFrom, blendTo, alpha, dest);
+	}
 
 }
@@ -0,0 +1,87 @@
+package tk.luminos.physics;
+
+import java.util.List;
+
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+
+/**
+ * 
+ * Copy of the transforms of every simulated body at the end of a
+ * simulation step and at the end of the step before it.  Both are written
+ * by the physics thread, so the two transforms the game thread blends
+ * between always belong to consecutive steps, however many steps were
+ * published between two frames.  Bodies whose transform did not change
+ * during the step, such as sleeping bodies, are flagged.  The flag only
+ * covers the last step, so the game thread still checks such bodies
+ * against the transform it last applied before skipping them.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+class PhysicsSnapshot {
+	
+	/**
+	 * Offset of the current transform of a body from the start of its data
+	 */
+	static final int CURRENT = 10;
+	static final int STRIDE = 20;
+	
+	PhysicsBody[] bodies = new PhysicsBody[0];
+	boolean[] moved = new boolean[0];
+	float[] data = new float[0];
+	int count;
+	long step;
+	long time;
+	
+	void write(List<? extends PhysicsBody> source, long step, long time) {
+		count = source.size();
+		if (bodies.length < count) {
+			bodies = new PhysicsBody[count + (count >> 1)];
+			moved = new boolean[bodies.length];
+			data = new float[bodies.length * STRIDE];
+		}
+		for (int i = 0; i < count; i++) {
+			PhysicsBody body = source.get(i);
+			bodies[i] = body;
+			int offset = i * STRIDE;
+			put(body.previousPosition, offset);
+			put(body.previousOrientation, offset + 3);
+			put(body.previousScale, offset + 7);
+			put(body.getPosition(), offset + CURRENT);
+			put(body.getOrientation(), offset + CURRENT + 3);
+			put(body.getScale(), offset + CURRENT + 7);
+			moved[i] = !equal(offset, offset + CURRENT, CURRENT);
+			body.previousPosition.set(body.getPosition());
+			body.previousOrientation.set(body.getOrientation());
+			body.previousScale.set(body.getScale());
+		}
+		for (int i = count; i < bodies.length && bodies[i] != null; i++)
+			bodies[i] = null;
+		this.step = step;
+		this.time = time;
+	}
+	
+	private boolean equal(int first, int second, int length) {
+		for (int i = 0; i < length; i++) {
+			if (data[first + i] != data[second + i])
+				return false;
+		}
+		return true;
+	}
+	
+	private void put(Vector3 vector, int offset) {
+		data[offset] = vector.x;
+		data[offset + 1] = vector.y;
+		data[offset + 2] = vector.z;
+	}
+	
+	private void put(Quaternion quaternion, int offset) {
+		data[offset] = quaternion.x;
+		data[offset + 1] = quaternion.y;
+		data[offset + 2] = quaternion.z;
+		data[offset + 3] = quaternion.w;
+	}
+
+}
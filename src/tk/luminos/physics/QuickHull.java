@@ -0,0 +1,352 @@
+package tk.luminos.physics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the convex hull of a point cloud with the quickhull algorithm.
+ * Each round the point furthest outside the current hull is added, so
+ * stopping after a given number of vertices simplifies the hull while
+ * keeping the points that matter most to its shape.  Points closer to the
+ * hull than a tolerance scaled to the size of the cloud are dropped, which
+ * also welds duplicated model vertices.
+ * <p>
+ * A builder may be reused but must not be shared between threads.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class QuickHull {
+
+	private static final double RELATIVE_TOLERANCE = 1e-5;
+
+	private float[] points;
+	private int pointCount;
+	private double tolerance;
+
+	private int faceCount;
+	private int[] faceVertices = new int[3 * 64];
+	private double[] faceNormals = new double[3 * 64];
+	private double[] faceOffsets = new double[64];
+	private boolean[] faceAlive = new boolean[64];
+	private int[] faceOutside = new int[64];
+	private int[] faceVisited = new int[64];
+	private int visitStamp;
+
+	private int[] nextOutside;
+	private final Map<Long, Integer> edges = new HashMap<Long, Integer>();
+
+	private int[] stack = new int[64];
+	private int[] horizon = new int[2 * 64];
+	private int horizonCount;
+	private int[] orphans = new int[64];
+	private int orphanCount;
+
+	/**
+	 * Builds the convex hull of a set of points
+	 *
+	 * @param points			Points, three floats each
+	 * @param count				Number of points
+	 * @param maxVertices		Maximum number of vertices of the hull, at least 4
+	 * @return					Hull of the points
+	 * @throws IllegalArgumentException		Thrown if the points all lie on one plane
+	 */
+	public ConvexHull build(float[] points, int count, int maxVertices) {
+		this.points = points;
+		this.pointCount = count;
+		this.faceCount = 0;
+		this.edges.clear();
+		this.nextOutside = new int[count];
+		createSimplex();
+		int vertices = 4;
+		while (vertices < maxVertices) {
+			int face = furthestFace();
+			if (face == -1)
+				break;
+			addPoint(face);
+			vertices++;
+		}
+		return createHull();
+	}
+
+	//****************************************Private Methods****************************************//
+
+	private void createSimplex() {
+		float[] p = points;
+		int[] min = new int[3];
+		int[] max = new int[3];
+		double extent = 0;
+		for (int i = 0; i < pointCount; i++) {
+			for (int axis = 0; axis < 3; axis++) {
+				if (p[i * 3 + axis] < p[min[axis] * 3 + axis])
+					min[axis] = i;
+				if (p[i * 3 + axis] > p[max[axis] * 3 + axis])
+					max[axis] = i;
+			}
+		}
+		int axis = 0;
+		double widest = -1;
+		for (int a = 0; a < 3; a++) {
+			double width = p[max[a] * 3 + a] - p[min[a] * 3 + a];
+			extent += Math.max(Math.abs(p[max[a] * 3 + a]), Math.abs(p[min[a] * 3 + a]));
+			if (width > widest) {
+				widest = width;
+				axis = a;
+			}
+		}
+		tolerance = RELATIVE_TOLERANCE * extent;
+		int v0 = min[axis];
+		int v1 = max[axis];
+		if (widest <= tolerance)
+			throw new IllegalArgumentException("Hull points must not all lie on one plane");
+
+		double ux = p[v1 * 3] - p[v0 * 3];
+		double uy = p[v1 * 3 + 1] - p[v0 * 3 + 1];
+		double uz = p[v1 * 3 + 2] - p[v0 * 3 + 2];
+		int v2 = -1;
+		double best = tolerance * tolerance * (ux * ux + uy * uy + uz * uz);
+		for (int i = 0; i < pointCount; i++) {
+			double dx = p[i * 3] - p[v0 * 3];
+			double dy = p[i * 3 + 1] - p[v0 * 3 + 1];
+			double dz = p[i * 3 + 2] - p[v0 * 3 + 2];
+			double cx = uy * dz - uz * dy;
+			double cy = uz * dx - ux * dz;
+			double cz = ux * dy - uy * dx;
+			double distance = cx * cx + cy * cy + cz * cz;
+			if (distance > best) {
+				best = distance;
+				v2 = i;
+			}
+		}
+		if (v2 == -1)
+			throw new IllegalArgumentException("Hull points must not all lie on one plane");
+
+		int base = addFace(v0, v1, v2);
+		int v3 = -1;
+		best = tolerance;
+		for (int i = 0; i < pointCount; i++) {
+			double distance = Math.abs(distance(base, i));
+			if (distance > best) {
+				best = distance;
+				v3 = i;
+			}
+		}
+		if (v3 == -1)
+			throw new IllegalArgumentException("Hull points must not all lie on one plane");
+		faceCount = 0;
+		edges.clear();
+		if (distanceToPlane(v0, v1, v2, v3) > 0) {
+			int swap = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+		addFace(v0, v1, v2);
+		addFace(v0, v3, v1);
+		addFace(v1, v3, v2);
+		addFace(v2, v3, v0);
+
+		for (int i = 0; i < pointCount; i++) {
+			if (i != v0 && i != v1 && i != v2 && i != v3)
+				assign(i, 0, faceCount);
+		}
+	}
+
+	private double distanceToPlane(int a, int b, int c, int point) {
+		float[] p = points;
+		double abx = p[b * 3] - p[a * 3];
+		double aby = p[b * 3 + 1] - p[a * 3 + 1];
+		double abz = p[b * 3 + 2] - p[a * 3 + 2];
+		double acx = p[c * 3] - p[a * 3];
+		double acy = p[c * 3 + 1] - p[a * 3 + 1];
+		double acz = p[c * 3 + 2] - p[a * 3 + 2];
+		double nx = aby * acz - abz * acy;
+		double ny = abz * acx - abx * acz;
+		double nz = abx * acy - aby * acx;
+		return nx * (p[point * 3] - p[a * 3]) + ny * (p[point * 3 + 1] - p[a * 3 + 1]) + nz * (p[point * 3 + 2] - p[a * 3 + 2]);
+	}
+
+	private int addFace(int a, int b, int c) {
+		int face = faceCount++;
+		if (face == faceAlive.length) {
+			int capacity = face * 2;
+			faceVertices = Arrays.copyOf(faceVertices, capacity * 3);
+			faceNormals = Arrays.copyOf(faceNormals, capacity * 3);
+			faceOffsets = Arrays.copyOf(faceOffsets, capacity);
+			faceAlive = Arrays.copyOf(faceAlive, capacity);
+			faceOutside = Arrays.copyOf(faceOutside, capacity);
+			faceVisited = Arrays.copyOf(faceVisited, capacity);
+		}
+		float[] p = points;
+		faceVertices[face * 3] = a;
+		faceVertices[face * 3 + 1] = b;
+		faceVertices[face * 3 + 2] = c;
+		double abx = p[b * 3] - p[a * 3];
+		double aby = p[b * 3 + 1] - p[a * 3 + 1];
+		double abz = p[b * 3 + 2] - p[a * 3 + 2];
+		double acx = p[c * 3] - p[a * 3];
+		double acy = p[c * 3 + 1] - p[a * 3 + 1];
+		double acz = p[c * 3 + 2] - p[a * 3 + 2];
+		double nx = aby * acz - abz * acy;
+		double ny = abz * acx - abx * acz;
+		double nz = abx * acy - aby * acx;
+		double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+		if (length > 0) {
+			nx /= length;
+			ny /= length;
+			nz /= length;
+		}
+		faceNormals[face * 3] = nx;
+		faceNormals[face * 3 + 1] = ny;
+		faceNormals[face * 3 + 2] = nz;
+		faceOffsets[face] = nx * p[a * 3] + ny * p[a * 3 + 1] + nz * p[a * 3 + 2];
+		faceAlive[face] = true;
+		faceOutside[face] = -1;
+		faceVisited[face] = 0;
+		edges.put(edge(a, b), face);
+		edges.put(edge(b, c), face);
+		edges.put(edge(c, a), face);
+		return face;
+	}
+
+	private static long edge(int from, int to) {
+		return (long) from << 32 | to;
+	}
+
+	private double distance(int face, int point) {
+		float[] p = points;
+		return faceNormals[face * 3] * p[point * 3] + faceNormals[face * 3 + 1] * p[point * 3 + 1]
+				+ faceNormals[face * 3 + 2] * p[point * 3 + 2] - faceOffsets[face];
+	}
+
+	private void assign(int point, int firstFace, int endFace) {
+		int bestFace = -1;
+		double best = tolerance;
+		for (int face = firstFace; face < endFace; face++) {
+			if (!faceAlive[face])
+				continue;
+			double distance = distance(face, point);
+			if (distance > best) {
+				best = distance;
+				bestFace = face;
+			}
+		}
+		if (bestFace == -1)
+			return;
+		int head = faceOutside[bestFace];
+		if (head != -1 && distance(bestFace, head) >= best) {
+			nextOutside[point] = nextOutside[head];
+			nextOutside[head] = point;
+		}
+		else {
+			nextOutside[point] = head;
+			faceOutside[bestFace] = point;
+		}
+	}
+
+	private int furthestFace() {
+		int bestFace = -1;
+		double best = tolerance;
+		for (int face = 0; face < faceCount; face++) {
+			if (!faceAlive[face] || faceOutside[face] == -1)
+				continue;
+			double distance = distance(face, faceOutside[face]);
+			if (distance > best) {
+				best = distance;
+				bestFace = face;
+			}
+		}
+		return bestFace;
+	}
+
+	private void addPoint(int startFace) {
+		int eye = faceOutside[startFace];
+		faceOutside[startFace] = nextOutside[eye];
+		visitStamp++;
+		horizonCount = 0;
+		orphanCount = 0;
+		int top = 0;
+		stack[top++] = startFace;
+		faceVisited[startFace] = visitStamp;
+		while (top > 0) {
+			int face = stack[--top];
+			for (int i = 0; i < 3; i++) {
+				int a = faceVertices[face * 3 + i];
+				int b = faceVertices[face * 3 + (i + 1) % 3];
+				int neighbour = edges.get(edge(b, a));
+				if (faceVisited[neighbour] == visitStamp)
+					continue;
+				if (distance(neighbour, eye) > 0) {
+					faceVisited[neighbour] = visitStamp;
+					if (top == stack.length)
+						stack = Arrays.copyOf(stack, top * 2);
+					stack[top++] = neighbour;
+				}
+				else {
+					if (horizonCount * 2 == horizon.length)
+						horizon = Arrays.copyOf(horizon, horizon.length * 2);
+					horizon[horizonCount * 2] = a;
+					horizon[horizonCount * 2 + 1] = b;
+					horizonCount++;
+				}
+			}
+		}
+		for (int face = 0; face < faceCount; face++) {
+			if (faceVisited[face] != visitStamp || !faceAlive[face])
+				continue;
+			faceAlive[face] = false;
+			for (int point = faceOutside[face]; point != -1; point = nextOutside[point]) {
+				if (orphanCount == orphans.length)
+					orphans = Arrays.copyOf(orphans, orphanCount * 2);
+				orphans[orphanCount++] = point;
+			}
+			for (int i = 0; i < 3; i++) {
+				long key = edge(faceVertices[face * 3 + i], faceVertices[face * 3 + (i + 1) % 3]);
+				if (edges.get(key) == face)
+					edges.remove(key);
+			}
+		}
+		int firstNew = faceCount;
+		for (int i = 0; i < horizonCount; i++)
+			addFace(horizon[i * 2], horizon[i * 2 + 1], eye);
+		for (int i = 0; i < orphanCount; i++)
+			assign(orphans[i], firstNew, faceCount);
+	}
+
+	private ConvexHull createHull() {
+		int[] remap = new int[pointCount];
+		Arrays.fill(remap, -1);
+		int vertexCount = 0;
+		int triangles = 0;
+		for (int face = 0; face < faceCount; face++) {
+			if (!faceAlive[face])
+				continue;
+			triangles++;
+			for (int i = 0; i < 3; i++) {
+				int v = faceVertices[face * 3 + i];
+				if (remap[v] == -1)
+					remap[v] = vertexCount++;
+			}
+		}
+		float[] vertices = new float[vertexCount * 3];
+		int[] indices = new int[triangles * 3];
+		int t = 0;
+		for (int face = 0; face < faceCount; face++) {
+			if (!faceAlive[face])
+				continue;
+			for (int i = 0; i < 3; i++) {
+				int v = faceVertices[face * 3 + i];
+				int index = remap[v];
+				vertices[index * 3] = points[v * 3];
+				vertices[index * 3 + 1] = points[v * 3 + 1];
+				vertices[index * 3 + 2] = points[v * 3 + 2];
+				indices[t++] = index;
+			}
+		}
+		points = null;
+		nextOutside = null;
+		edges.clear();
+		return new ConvexHull(vertices, indices);
+	}
+
+}
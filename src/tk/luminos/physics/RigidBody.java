@@ -0,0 +1,386 @@
+package tk.luminos.physics;
+
+import tk.luminos.gameobjects.GameObject;
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+
+/**
+ *
+ * Body moved by forces, gravity and contacts in a {@link RigidBodySystem}.
+ * A rigid body is either a sphere, an axis aligned box, or any other
+ * {@link ConvexShape} such as a hull built from a model.  The shape is
+ * placed at the position of the body.  A body with a mass of zero is
+ * static and never moves.
+ * <p>
+ * Only spheres have an inertia tensor, so only spheres spin and roll.
+ * Boxes and convex bodies are rotation locked: they keep the orientation
+ * they were created with whatever hits them, slide rather than tip over,
+ * and rest on a single contact point.  They suit props, crates and
+ * characters that must stay upright, not tumbling debris.
+ * <p>
+ * Bodies at rest fall asleep together with everything they touch and are
+ * skipped by the simulation until something wakes them.  Bodies are pushed
+ * and woken through their {@link PhysicsEngine}, which queues the change
+ * for the thread stepping the simulation.  The remaining settings must be
+ * made before the body is attached.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ */
+public class RigidBody extends PhysicsBody {
+
+	/**
+	 * Shape of a spherical body
+	 */
+	public static final int SPHERE = 0;
+
+	/**
+	 * Shape of a box shaped body
+	 */
+	public static final int BOX = 1;
+
+	/**
+	 * Shape of a body made of any convex shape
+	 */
+	public static final int CONVEX = 2;
+
+	final int shape;
+	final float radius;
+	final Vector3 halfExtents = new Vector3();
+	final ConvexShape convex;
+
+	float inverseMass;
+	float inverseInertia;
+	final Vector3 velocity = new Vector3();
+	final Vector3 angularVelocity = new Vector3();
+	final Vector3 force = new Vector3();
+	final Quaternion orientation;
+
+	float restitution = 0.2f;
+	float friction = 0.5f;
+	float rollingFriction = 0.01f;
+	float linearDamping = 0.01f;
+	float angularDamping = 0.05f;
+
+	boolean sleeping;
+	float sleepTime;
+	int proxy = -1;
+	int index = -1;
+
+	/**
+	 * Creates a spherical body starting at the current transform of a game
+	 * object
+	 *
+	 * @param object		Object moved by the body
+	 * @param sphere		Sphere giving the radius of the body
+	 * @param mass			Mass of the body, or zero for a static body
+	 */
+	public RigidBody(GameObject object, BoundingSphere sphere, float mass) {
+		super(object);
+		this.shape = SPHERE;
+		this.radius = sphere.getRadius();
+		this.halfExtents.set(radius, radius, radius);
+		this.convex = new SphereShape(radius);
+		this.orientation = getOrientation();
+		setMass(mass);
+	}
+
+	/**
+	 * Creates a box shaped body starting at the current transform of a game
+	 * object.  The box stays axis aligned and never tips over.
+	 *
+	 * @param object		Object moved by the body
+	 * @param box			Box giving the size of the body
+	 * @param mass			Mass of the body, or zero for a static body
+	 */
+	public RigidBody(GameObject object, AABB box, float mass) {
+		super(object);
+		this.shape = BOX;
+		Vector3 min = box.getMinExtents();
+		Vector3 max = box.getMaxExtents();
+		this.halfExtents.set((max.x - min.x) * 0.5f, (max.y - min.y) * 0.5f, (max.z - min.z) * 0.5f);
+		this.radius = halfExtents.magnitude();
+		this.convex = new BoxShape(halfExtents);
+		this.orientation = getOrientation();
+		setMass(mass);
+	}
+
+	/**
+	 * Creates a body of any convex shape starting at the current transform
+	 * of a game object.  The body is rotation locked: the shape keeps the
+	 * orientation of the object and never tips over.
+	 *
+	 * @param object		Object moved by the body
+	 * @param convex		Shape of the body, in the local space of the object
+	 * @param mass			Mass of the body, or zero for a static body
+	 */
+	public RigidBody(GameObject object, ConvexShape convex, float mass) {
+		super(object);
+		this.shape = CONVEX;
+		this.convex = convex;
+		this.orientation = getOrientation();
+		Quaternion inverse = Quaternion.conjugate(orientation, null);
+		Vector3 axis = new Vector3();
+		Vector3 point = new Vector3();
+		float[] extents = new float[3];
+		for (int i = 0; i < 6; i++) {
+			float sign = i < 3 ? 1 : -1;
+			axis.set(i % 3 == 0 ? sign : 0, i % 3 == 1 ? sign : 0, i % 3 == 2 ? sign : 0);
+			Quaternion.rotate(inverse, axis, axis);
+			convex.support(axis.x, axis.y, axis.z, point);
+			Quaternion.rotate(orientation, point, point);
+			float reach = i % 3 == 0 ? point.x : i % 3 == 1 ? point.y : point.z;
+			extents[i % 3] = Math.max(extents[i % 3], Math.abs(reach) + convex.getMargin());
+		}
+		this.halfExtents.set(extents[0], extents[1], extents[2]);
+		this.radius = halfExtents.magnitude();
+		setMass(mass);
+	}
+
+	/**
+	 * Gets the shape of the body
+	 *
+	 * @return		{@link #SPHERE}, {@link #BOX} or {@link #CONVEX}
+	 */
+	public int getShape() {
+		return shape;
+	}
+
+	/**
+	 * Gets the convex shape of the body, which for spheres and boxes is
+	 * created from their size
+	 *
+	 * @return		Convex shape of the body
+	 */
+	public ConvexShape getConvexShape() {
+		return convex;
+	}
+
+	/**
+	 * Gets the mass of the body
+	 *
+	 * @return		Mass, or zero for a static body
+	 */
+	public float getMass() {
+		return inverseMass == 0 ? 0 : 1 / inverseMass;
+	}
+
+	/**
+	 * Sets the mass of the body.  Spheres also get the inertia of a solid
+	 * ball of that mass; other shapes stay rotation locked.
+	 *
+	 * @param mass		Mass, or zero for a static body
+	 */
+	public void setMass(float mass) {
+		inverseMass = mass > 0 ? 1 / mass : 0;
+		inverseInertia = mass > 0 && shape == SPHERE ? 1 / (0.4f * mass * radius * radius) : 0;
+		if (mass <= 0) {
+			velocity.set(0, 0, 0);
+			angularVelocity.set(0, 0, 0);
+		}
+	}
+
+	/**
+	 * Checks if the body is static
+	 *
+	 * @return		If the body never moves
+	 */
+	public boolean isStatic() {
+		return inverseMass == 0;
+	}
+
+	/**
+	 * Checks if the body is asleep
+	 *
+	 * @return		If the body is skipped by the simulation
+	 */
+	public boolean isSleeping() {
+		return sleeping;
+	}
+
+	/**
+	 * Wakes the body so it is simulated again
+	 * 
+	 * @see PhysicsEngine#wake(RigidBody)
+	 */
+	void wake() {
+		sleeping = false;
+		sleepTime = 0;
+	}
+
+	/**
+	 * Gets the linear velocity of the body
+	 *
+	 * @return		Velocity, in units per second
+	 */
+	public Vector3 getVelocity() {
+		return velocity;
+	}
+
+	/**
+	 * Sets the linear velocity of the body and wakes it
+	 *
+	 * @param velocity		Velocity, in units per second
+	 * @see PhysicsEngine#setVelocity(RigidBody, Vector3)
+	 */
+	void setVelocity(Vector3 velocity) {
+		if (isStatic())
+			return;
+		this.velocity.set(velocity);
+		wake();
+	}
+
+	/**
+	 * Gets the angular velocity of the body
+	 *
+	 * @return		Angular velocity, in radians per second
+	 */
+	public Vector3 getAngularVelocity() {
+		return angularVelocity;
+	}
+
+	/**
+	 * Sets the angular velocity of the body and wakes it.  Only spheres
+	 * rotate; the call is ignored for rotation locked boxes and convex
+	 * bodies.
+	 *
+	 * @param angularVelocity		Angular velocity, in radians per second
+	 * @see PhysicsEngine#setAngularVelocity(RigidBody, Vector3)
+	 */
+	void setAngularVelocity(Vector3 angularVelocity) {
+		if (inverseInertia == 0)
+			return;
+		this.angularVelocity.set(angularVelocity);
+		wake();
+	}
+
+	/**
+	 * Applies a force at the center of the body until the end of the next
+	 * step and wakes it
+	 *
+	 * @param force		Force to apply
+	 * @see PhysicsEngine#applyForce(RigidBody, Vector3)
+	 */
+	void applyForce(Vector3 force) {
+		if (isStatic())
+			return;
+		this.force.x += force.x;
+		this.force.y += force.y;
+		this.force.z += force.z;
+		wake();
+	}
+
+	/**
+	 * Applies an impulse at a point and wakes the body
+	 *
+	 * @param impulse		Impulse to apply
+	 * @param point			World space point the impulse is applied at
+	 * @see PhysicsEngine#applyImpulse(RigidBody, Vector3, Vector3)
+	 */
+	void applyImpulse(Vector3 impulse, Vector3 point) {
+		if (isStatic())
+			return;
+		Vector3 position = getPosition();
+		applyImpulse(impulse.x, impulse.y, impulse.z, point.x - position.x, point.y - position.y, point.z - position.z);
+		wake();
+	}
+
+	/**
+	 * Gets the restitution of the body
+	 *
+	 * @return		Restitution, from 0 for no bounce to 1 for a perfect bounce
+	 */
+	public float getRestitution() {
+		return restitution;
+	}
+
+	/**
+	 * Sets the restitution of the body
+	 *
+	 * @param restitution		Restitution, from 0 for no bounce to 1 for a perfect bounce
+	 */
+	public void setRestitution(float restitution) {
+		this.restitution = restitution;
+	}
+
+	/**
+	 * Gets the friction coefficient of the body
+	 *
+	 * @return		Friction coefficient
+	 */
+	public float getFriction() {
+		return friction;
+	}
+
+	/**
+	 * Sets the friction coefficient of the body
+	 *
+	 * @param friction		Friction coefficient
+	 */
+	public void setFriction(float friction) {
+		this.friction = friction;
+	}
+
+	/**
+	 * Gets the rolling friction of the body
+	 *
+	 * @return		Rolling friction, as a lever arm in units
+	 */
+	public float getRollingFriction() {
+		return rollingFriction;
+	}
+
+	/**
+	 * Sets the rolling friction of the body.  Without it spheres would roll
+	 * across flat ground forever and never fall asleep.
+	 *
+	 * @param rollingFriction		Rolling friction, as a lever arm in units
+	 */
+	public void setRollingFriction(float rollingFriction) {
+		this.rollingFriction = rollingFriction;
+	}
+
+	/**
+	 * Sets how quickly the body loses velocity on its own
+	 *
+	 * @param linear		Linear damping, per second
+	 * @param angular		Angular damping, per second
+	 */
+	public void setDamping(float linear, float angular) {
+		this.linearDamping = linear;
+		this.angularDamping = angular;
+	}
+
+	/**
+	 * Writes the world space bounds of the body as minimum x, y and z
+	 * followed by maximum x, y and z
+	 *
+	 * @param dest		Array of at least six floats
+	 */
+	public void getBounds(float[] dest) {
+		Vector3 position = getPosition();
+		dest[0] = position.x - halfExtents.x;
+		dest[1] = position.y - halfExtents.y;
+		dest[2] = position.z - halfExtents.z;
+		dest[3] = position.x + halfExtents.x;
+		dest[4] = position.y + halfExtents.y;
+		dest[5] = position.z + halfExtents.z;
+	}
+
+	/**
+	 * Applies an impulse at an offset from the center without waking the
+	 * body.  Used by the contact solver.
+	 */
+	void applyImpulse(float px, float py, float pz, float rx, float ry, float rz) {
+		velocity.x += px * inverseMass;
+		velocity.y += py * inverseMass;
+		velocity.z += pz * inverseMass;
+		if (inverseInertia != 0) {
+			angularVelocity.x += (ry * pz - rz * py) * inverseInertia;
+			angularVelocity.y += (rz * px - rx * pz) * inverseInertia;
+			angularVelocity.z += (rx * py - ry * px) * inverseInertia;
+		}
+	}
+
+}
@@ -0,0 +1,945 @@
+package tk.luminos.physics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
+import tk.luminos.jobs.RangeJob;
+import tk.luminos.maths.Quaternion;
+import tk.luminos.maths.Vector3;
+import tk.luminos.profiler.Profiler;
+import tk.luminos.spatial.SweepAndPrune;
+
+/**
+ * Simulates {@link RigidBody rigid bodies} against each other and against
+ * static planes.  Each step integrates velocities with semi-implicit Euler,
+ * finds contacts between the pairs reported by a sweep and prune
+ * broadphase, using {@link GJK} for pairs that involve convex bodies, resolves them with a sequential impulse solver and finally
+ * integrates positions from the solved velocities.  Contacts that persist
+ * from one step to the next start from the impulses they ended the previous
+ * step with, which keeps stacks and piles steady enough to fall asleep.
+ * <p>
+ * Bodies touching each other form islands, found every step by union-find
+ * over the contacts.  Once every body of an island has been nearly still
+ * for {@link #TIME_TO_SLEEP} seconds the whole island falls asleep.
+ * Sleeping bodies are neither integrated, moved in the broadphase nor
+ * solved, so resting piles cost almost nothing.  A moving body touching a
+ * sleeping one wakes it, and the wake spreads through the island one
+ * contact per step.
+ * <p>
+ * Given a {@link JobSystem}, the system integrates bodies and solves
+ * contacts on its workers.  Contacts are split by greedy graph coloring
+ * into batches in which no two contacts share a moving body, so the
+ * contacts of a batch can be solved in any order, on any number of
+ * threads, with the same result.  Batches are solved one after another,
+ * and contacts left over once every color is taken are solved serially
+ * at the end.  The simulation is therefore deterministic whatever the
+ * number of workers.
+ * <p>
+ * The system is not thread safe and must only be used from the thread
+ * stepping it.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class RigidBodySystem {
+
+	/**
+	 * Default number of solver iterations per step
+	 */
+	public static final int DEFAULT_ITERATIONS = 10;
+
+	/**
+	 * Time, in seconds, an island must be still before it falls asleep
+	 */
+	public static final float TIME_TO_SLEEP = 0.5f;
+
+	/**
+	 * Speed, in units per second, under which a body counts as still
+	 */
+	public static final float SLEEP_LINEAR_VELOCITY = 0.05f;
+
+	/**
+	 * Angular speed, in radians per second, under which a body counts as still
+	 */
+	public static final float SLEEP_ANGULAR_VELOCITY = 0.05f;
+
+	private static final float BAUMGARTE = 0.2f;
+	private static final float PENETRATION_SLOP = 0.01f;
+	private static final float RESTITUTION_THRESHOLD = 1f;
+	private static final float EPSILON = 1e-6f;
+	private static final int COLORS = 64;
+	private static final int BODY_BATCH_SIZE = 256;
+	private static final int CONTACT_BATCH_SIZE = 128;
+
+	private static final int PROFILE_STEP = Profiler.register("RigidBodySystem.step");
+	private static final int PROFILE_SOLVE = Profiler.register("RigidBodySystem.solve");
+
+	private final List<RigidBody> bodies = new ArrayList<RigidBody>();
+	private final List<Plane> planes = new ArrayList<Plane>();
+	private final SweepAndPrune<RigidBody> broadphase = new SweepAndPrune<RigidBody>(256);
+	private final Vector3 gravity = new Vector3(0, -9.81f, 0);
+	private final float[] bounds = new float[6];
+	private final GJK gjk = new GJK();
+	private final Vector3 support = new Vector3();
+	private final Quaternion inverse = new Quaternion();
+	private int iterations = DEFAULT_ITERATIONS;
+
+	private List<Contact> contacts = new ArrayList<Contact>();
+	private int contactCount;
+	private List<Contact> previousContacts = new ArrayList<Contact>();
+	private long[] previousKeys = new long[128];
+	private int[] previousSlots = new int[128];
+	private int[] parents = new int[64];
+	private float[] islandSleepTime = new float[64];
+	private int awakeCount;
+
+	private JobSystem jobs;
+	private float stepDelta;
+	private Contact[] ordered = new Contact[64];
+	private long[] colorMasks = new long[64];
+	private final int[] colorOffsets = new int[COLORS + 2];
+	private final int[] colorCursors = new int[COLORS + 1];
+	private int colorStart;
+	private final RangeJob integrateVelocitiesJob = this::integrateVelocities;
+	private final RangeJob integratePositionsJob = this::integratePositions;
+	private final RangeJob prepareJob = this::prepareContacts;
+	private final RangeJob warmStartJob = (start, end) -> warmStart(colorStart + start, colorStart + end);
+	private final RangeJob solveJob = (start, end) -> solveContacts(colorStart + start, colorStart + end);
+
+	/**
+	 * Creates an empty simulation with the earth's gravity
+	 */
+	public RigidBodySystem() {
+		Arrays.fill(previousKeys, -1);
+	}
+
+	/**
+	 * Adds a body to the simulation
+	 *
+	 * @param body		Body to add
+	 */
+	public void addBody(RigidBody body) {
+		if (body.index != -1)
+			return;
+		body.index = bodies.size();
+		bodies.add(body);
+	}
+
+	/**
+	 * Removes a body from the simulation, waking the bodies it was touching
+	 *
+	 * @param body		Body to remove
+	 * @return			If the body was removed
+	 */
+	public boolean removeBody(RigidBody body) {
+		if (body.index == -1 || body.index >= bodies.size() || bodies.get(body.index) != body)
+			return false;
+		if (body.proxy != -1) {
+			for (int i = 0; i < broadphase.getPairCount(); i++) {
+				int first = broadphase.getPairFirst(i);
+				int second = broadphase.getPairSecond(i);
+				if (first == body.proxy)
+					broadphase.get(second).wake();
+				else if (second == body.proxy)
+					broadphase.get(first).wake();
+			}
+			broadphase.remove(body.proxy);
+			body.proxy = -1;
+		}
+		int last = bodies.size() - 1;
+		RigidBody moved = bodies.get(last);
+		bodies.set(body.index, moved);
+		moved.index = body.index;
+		bodies.remove(last);
+		body.index = -1;
+		return true;
+	}
+
+	/**
+	 * Gets the bodies of the simulation
+	 *
+	 * @return		Simulated bodies
+	 */
+	public List<RigidBody> getBodies() {
+		return bodies;
+	}
+
+	/**
+	 * Adds a static plane bodies collide with.  Bodies are pushed to the
+	 * side of the plane its normal points to, and the normal must be of
+	 * unit length.
+	 *
+	 * @param plane		Plane to add
+	 */
+	public void addPlane(Plane plane) {
+		planes.add(plane);
+	}
+
+	/**
+	 * Removes a static plane
+	 *
+	 * @param plane		Plane to remove
+	 * @return			If the plane was removed
+	 */
+	public boolean removePlane(Plane plane) {
+		return planes.remove(plane);
+	}
+
+	/**
+	 * Gets the gravity applied to every dynamic body
+	 *
+	 * @return		Gravity, in units per second squared
+	 */
+	public Vector3 getGravity() {
+		return gravity;
+	}
+
+	/**
+	 * Sets the gravity applied to every dynamic body
+	 *
+	 * @param gravity		Gravity, in units per second squared
+	 */
+	public void setGravity(Vector3 gravity) {
+		this.gravity.set(gravity);
+	}
+
+	/**
+	 * Gets the number of solver iterations per step
+	 *
+	 * @return		Number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Sets the number of solver iterations per step.  More iterations make
+	 * stacks stiffer at a higher cost.
+	 *
+	 * @param iterations		Number of iterations
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Sets the job system bodies are integrated and contacts solved on
+	 *
+	 * @param jobs		Job system, or null to simulate on the calling thread only
+	 */
+	public void setJobSystem(JobSystem jobs) {
+		this.jobs = jobs;
+	}
+
+	/**
+	 * Gets the job system the simulation runs on
+	 *
+	 * @return		Job system, or null
+	 */
+	public JobSystem getJobSystem() {
+		return jobs;
+	}
+
+	/**
+	 * Gets the number of contacts solved by the most recent step
+	 *
+	 * @return		Number of contacts
+	 */
+	public int getContactCount() {
+		return contactCount;
+	}
+
+	/**
+	 * Gets the number of dynamic bodies left awake by the most recent step
+	 *
+	 * @return		Number of awake bodies
+	 */
+	public int getAwakeCount() {
+		return awakeCount;
+	}
+
+	/**
+	 * Advances the simulation by a single step
+	 *
+	 * @param delta		Length of the step, in seconds
+	 */
+	public void step(float delta) {
+		Profiler.begin(PROFILE_STEP);
+		try {
+			stepDelta = delta;
+			run(bodies.size(), BODY_BATCH_SIZE, integrateVelocitiesJob);
+			updateBroadphase();
+			findContacts();
+			solve();
+			run(bodies.size(), BODY_BATCH_SIZE, integratePositionsJob);
+			updateIslands(delta);
+			storeContacts();
+		} finally {
+			Profiler.end();
+		}
+	}
+
+	//****************************************Private Methods****************************************//
+
+	private static boolean isMoving(RigidBody body) {
+		return body != null && !body.sleeping && body.inverseMass != 0;
+	}
+
+	private void solve() {
+		Profiler.begin(PROFILE_SOLVE);
+		try {
+			colorContacts();
+			run(contactCount, CONTACT_BATCH_SIZE, prepareJob);
+			runColors(warmStartJob);
+			for (int i = 0; i < iterations; i++)
+				runColors(solveJob);
+		} finally {
+			Profiler.end();
+		}
+	}
+
+	private void run(int count, int batchSize, RangeJob job) {
+		if (jobs == null || count <= batchSize) {
+			job.execute(0, count);
+			return;
+		}
+		JobCounter counter = jobs.parallelFor(count, batchSize, job);
+		jobs.waitFor(counter);
+	}
+
+	/**
+	 * Runs a job over the contacts of each color in turn, then over the
+	 * contacts that did not fit in any color on the calling thread
+	 */
+	private void runColors(RangeJob job) {
+		for (int color = 0; color < COLORS; color++) {
+			colorStart = colorOffsets[color];
+			run(colorOffsets[color + 1] - colorStart, CONTACT_BATCH_SIZE, job);
+		}
+		colorStart = colorOffsets[COLORS];
+		job.execute(0, colorOffsets[COLORS + 1] - colorStart);
+	}
+
+	/**
+	 * Gives each contact the lowest color not yet used by a contact of
+	 * either of its moving bodies and orders the contacts by color
+	 */
+	private void colorContacts() {
+		int count = bodies.size();
+		if (colorMasks.length < count)
+			colorMasks = new long[Math.max(count, colorMasks.length * 2)];
+		else
+			Arrays.fill(colorMasks, 0, count, 0);
+		if (ordered.length < contactCount)
+			ordered = new Contact[Math.max(contactCount, ordered.length * 2)];
+		long[] masks = colorMasks;
+		int[] offsets = colorOffsets;
+		Arrays.fill(offsets, 0);
+		for (int i = 0; i < contactCount; i++) {
+			Contact c = contacts.get(i);
+			boolean movesA = isMoving(c.a);
+			boolean movesB = isMoving(c.b);
+			long used = (movesA ? masks[c.a.index] : 0) | (movesB ? masks[c.b.index] : 0);
+			int color = Long.numberOfTrailingZeros(~used);
+			if (color < COLORS) {
+				long bit = 1L << color;
+				if (movesA)
+					masks[c.a.index] |= bit;
+				if (movesB)
+					masks[c.b.index] |= bit;
+			}
+			c.color = color;
+			offsets[color + 1]++;
+		}
+		for (int color = 0; color <= COLORS; color++) {
+			offsets[color + 1] += offsets[color];
+			colorCursors[color] = offsets[color];
+		}
+		for (int i = 0; i < contactCount; i++) {
+			Contact c = contacts.get(i);
+			ordered[colorCursors[c.color]++] = c;
+		}
+	}
+
+	private void integrateVelocities(int start, int end) {
+		float delta = stepDelta;
+		for (int i = start; i < end; i++) {
+			RigidBody body = bodies.get(i);
+			if (!isMoving(body))
+				continue;
+			Vector3 v = body.velocity;
+			Vector3 f = body.force;
+			float im = body.inverseMass;
+			v.x += (gravity.x + f.x * im) * delta;
+			v.y += (gravity.y + f.y * im) * delta;
+			v.z += (gravity.z + f.z * im) * delta;
+			float linear = 1 / (1 + delta * body.linearDamping);
+			v.x *= linear;
+			v.y *= linear;
+			v.z *= linear;
+			float angular = 1 / (1 + delta * body.angularDamping);
+			body.angularVelocity.x *= angular;
+			body.angularVelocity.y *= angular;
+			body.angularVelocity.z *= angular;
+			f.set(0, 0, 0);
+		}
+	}
+
+	private void updateBroadphase() {
+		float[] b = bounds;
+		for (int i = 0; i < bodies.size(); i++) {
+			RigidBody body = bodies.get(i);
+			if (body.proxy == -1) {
+				body.getBounds(b);
+				body.proxy = broadphase.insert(body, b[0], b[1], b[2], b[3], b[4], b[5]);
+			}
+			else if (isMoving(body)) {
+				body.getBounds(b);
+				broadphase.move(body.proxy, b[0], b[1], b[2], b[3], b[4], b[5]);
+			}
+		}
+		broadphase.update();
+	}
+
+	private void findContacts() {
+		contactCount = 0;
+		for (int i = 0; i < broadphase.getPairCount(); i++) {
+			RigidBody a = broadphase.get(broadphase.getPairFirst(i));
+			RigidBody b = broadphase.get(broadphase.getPairSecond(i));
+			if (!isMoving(a) && !isMoving(b))
+				continue;
+			collide(a, b);
+		}
+		for (int i = 0; i < contactCount; i++) {
+			Contact c = contacts.get(i);
+			if (c.a.sleeping && isMoving(c.b) && c.b.sleepTime == 0)
+				c.a.wake();
+			else if (c.b.sleeping && isMoving(c.a) && c.a.sleepTime == 0)
+				c.b.wake();
+		}
+		for (int p = 0; p < planes.size(); p++) {
+			Plane plane = planes.get(p);
+			for (int i = 0; i < bodies.size(); i++) {
+				RigidBody body = bodies.get(i);
+				if (isMoving(body))
+					collide(body, plane, p);
+			}
+		}
+	}
+
+	private Contact nextContact(RigidBody a, RigidBody b) {
+		if (contactCount == contacts.size())
+			contacts.add(new Contact());
+		Contact c = contacts.get(contactCount++);
+		c.a = a;
+		c.b = b;
+		if (b != null)
+			c.key = a.proxy < b.proxy ? (long) a.proxy << 32 | b.proxy : (long) b.proxy << 32 | a.proxy;
+		return c;
+	}
+
+	private void collide(RigidBody a, RigidBody b) {
+		if (a.shape == RigidBody.CONVEX || b.shape == RigidBody.CONVEX)
+			collideConvex(a, b);
+		else if (a.shape == RigidBody.SPHERE) {
+			if (b.shape == RigidBody.SPHERE)
+				collideSpheres(a, b);
+			else
+				collideSphereBox(a, b);
+		}
+		else {
+			if (b.shape == RigidBody.SPHERE)
+				collideSphereBox(b, a);
+			else
+				collideBoxes(a, b);
+		}
+	}
+
+	private void collideSpheres(RigidBody a, RigidBody b) {
+		Vector3 pa = a.getPosition();
+		Vector3 pb = b.getPosition();
+		float dx = pb.x - pa.x;
+		float dy = pb.y - pa.y;
+		float dz = pb.z - pa.z;
+		float radii = a.radius + b.radius;
+		float distanceSquared = dx * dx + dy * dy + dz * dz;
+		if (distanceSquared >= radii * radii)
+			return;
+		float distance = (float) Math.sqrt(distanceSquared);
+		Contact c = nextContact(a, b);
+		if (distance > EPSILON)
+			c.normal.set(dx / distance, dy / distance, dz / distance);
+		else
+			c.normal.set(0, 1, 0);
+		c.penetration = radii - distance;
+		float offset = a.radius - c.penetration * 0.5f;
+		c.point.set(pa.x + c.normal.x * offset, pa.y + c.normal.y * offset, pa.z + c.normal.z * offset);
+	}
+
+	private void collideSphereBox(RigidBody sphere, RigidBody box) {
+		Vector3 ps = sphere.getPosition();
+		Vector3 pb = box.getPosition();
+		Vector3 h = box.halfExtents;
+		float lx = ps.x - pb.x;
+		float ly = ps.y - pb.y;
+		float lz = ps.z - pb.z;
+		float cx = Math.max(-h.x, Math.min(h.x, lx));
+		float cy = Math.max(-h.y, Math.min(h.y, ly));
+		float cz = Math.max(-h.z, Math.min(h.z, lz));
+		float dx = lx - cx;
+		float dy = ly - cy;
+		float dz = lz - cz;
+		float distanceSquared = dx * dx + dy * dy + dz * dz;
+		float r = sphere.radius;
+		if (distanceSquared >= r * r)
+			return;
+		Contact c = nextContact(sphere, box);
+		if (distanceSquared > EPSILON * EPSILON) {
+			float distance = (float) Math.sqrt(distanceSquared);
+			c.normal.set(-dx / distance, -dy / distance, -dz / distance);
+			c.penetration = r - distance;
+			c.point.set(pb.x + cx, pb.y + cy, pb.z + cz);
+			return;
+		}
+		float ox = h.x - Math.abs(lx);
+		float oy = h.y - Math.abs(ly);
+		float oz = h.z - Math.abs(lz);
+		if (ox <= oy && ox <= oz) {
+			c.normal.set(lx < 0 ? 1 : -1, 0, 0);
+			c.penetration = r + ox;
+		}
+		else if (oy <= oz) {
+			c.normal.set(0, ly < 0 ? 1 : -1, 0);
+			c.penetration = r + oy;
+		}
+		else {
+			c.normal.set(0, 0, lz < 0 ? 1 : -1);
+			c.penetration = r + oz;
+		}
+		c.point.set(ps);
+	}
+
+	private void collideBoxes(RigidBody a, RigidBody b) {
+		Vector3 pa = a.getPosition();
+		Vector3 pb = b.getPosition();
+		Vector3 ha = a.halfExtents;
+		Vector3 hb = b.halfExtents;
+		float dx = pb.x - pa.x;
+		float dy = pb.y - pa.y;
+		float dz = pb.z - pa.z;
+		float ox = ha.x + hb.x - Math.abs(dx);
+		float oy = ha.y + hb.y - Math.abs(dy);
+		float oz = ha.z + hb.z - Math.abs(dz);
+		if (ox <= 0 || oy <= 0 || oz <= 0)
+			return;
+		Contact c = nextContact(a, b);
+		if (ox <= oy && ox <= oz) {
+			c.normal.set(dx < 0 ? -1 : 1, 0, 0);
+			c.penetration = ox;
+		}
+		else if (oy <= oz) {
+			c.normal.set(0, dy < 0 ? -1 : 1, 0);
+			c.penetration = oy;
+		}
+		else {
+			c.normal.set(0, 0, dz < 0 ? -1 : 1);
+			c.penetration = oz;
+		}
+		c.point.set(
+				(Math.max(pa.x - ha.x, pb.x - hb.x) + Math.min(pa.x + ha.x, pb.x + hb.x)) * 0.5f,
+				(Math.max(pa.y - ha.y, pb.y - hb.y) + Math.min(pa.y + ha.y, pb.y + hb.y)) * 0.5f,
+				(Math.max(pa.z - ha.z, pb.z - hb.z) + Math.min(pa.z + ha.z, pb.z + hb.z)) * 0.5f);
+	}
+
+	private void collideConvex(RigidBody a, RigidBody b) {
+		Quaternion rotationA = a.shape == RigidBody.CONVEX ? a.orientation : null;
+		Quaternion rotationB = b.shape == RigidBody.CONVEX ? b.orientation : null;
+		if (!gjk.penetration(a.convex, a.getPosition(), rotationA, b.convex, b.getPosition(), rotationB))
+			return;
+		Contact c = nextContact(a, b);
+		c.normal.set(gjk.getNormal());
+		c.penetration = gjk.getDepth();
+		Vector3 pointA = gjk.getPointA();
+		Vector3 pointB = gjk.getPointB();
+		c.point.set((pointA.x + pointB.x) * 0.5f, (pointA.y + pointB.y) * 0.5f, (pointA.z + pointB.z) * 0.5f);
+	}
+
+	private void collide(RigidBody body, Plane plane, int planeIndex) {
+		Vector3 p = body.getPosition();
+		Vector3 n = plane.getNormal();
+		if (body.shape == RigidBody.CONVEX) {
+			collideConvex(body, plane, planeIndex);
+			return;
+		}
+		float distance = Vector3.dot(n, p) + plane.getDistance();
+		float reach;
+		if (body.shape == RigidBody.SPHERE)
+			reach = body.radius;
+		else {
+			Vector3 h = body.halfExtents;
+			reach = Math.abs(n.x) * h.x + Math.abs(n.y) * h.y + Math.abs(n.z) * h.z;
+		}
+		if (distance >= reach)
+			return;
+		Contact c = nextContact(body, null);
+		c.key = (long) body.proxy << 32 | (0xFFFFFFFFL - planeIndex);
+		c.normal.set(-n.x, -n.y, -n.z);
+		c.penetration = reach - distance;
+		c.point.set(p.x - n.x * reach, p.y - n.y * reach, p.z - n.z * reach);
+	}
+
+	private void collideConvex(RigidBody body, Plane plane, int planeIndex) {
+		Vector3 p = body.getPosition();
+		Vector3 n = plane.getNormal();
+		Vector3 s = support;
+		s.set(-n.x, -n.y, -n.z);
+		Quaternion.rotate(Quaternion.conjugate(body.orientation, inverse), s, s);
+		body.convex.support(s.x, s.y, s.z, s);
+		Quaternion.rotate(body.orientation, s, s);
+		float margin = body.convex.getMargin();
+		s.set(p.x + s.x - n.x * margin, p.y + s.y - n.y * margin, p.z + s.z - n.z * margin);
+		float distance = Vector3.dot(n, s) + plane.getDistance();
+		if (distance >= 0)
+			return;
+		Contact c = nextContact(body, null);
+		c.key = (long) body.proxy << 32 | (0xFFFFFFFFL - planeIndex);
+		c.normal.set(-n.x, -n.y, -n.z);
+		c.penetration = -distance;
+		c.point.set(s);
+	}
+
+	private void prepareContacts(int start, int end) {
+		float delta = stepDelta;
+		for (int i = start; i < end; i++) {
+			Contact c = ordered[i];
+			RigidBody a = c.a;
+			RigidBody b = c.b;
+			boolean movesA = isMoving(a);
+			boolean movesB = isMoving(b);
+			float ima = movesA ? a.inverseMass : 0;
+			float iia = movesA ? a.inverseInertia : 0;
+			float imb = movesB ? b.inverseMass : 0;
+			float iib = movesB ? b.inverseInertia : 0;
+			Vector3 pa = a.getPosition();
+			c.rax = c.point.x - pa.x;
+			c.ray = c.point.y - pa.y;
+			c.raz = c.point.z - pa.z;
+			if (b != null) {
+				Vector3 pb = b.getPosition();
+				c.rbx = c.point.x - pb.x;
+				c.rby = c.point.y - pb.y;
+				c.rbz = c.point.z - pb.z;
+			}
+			else {
+				c.rbx = 0;
+				c.rby = 0;
+				c.rbz = 0;
+			}
+			Vector3 n = c.normal;
+			if (Math.abs(n.x) >= 0.57735f) {
+				float length = (float) Math.sqrt(n.x * n.x + n.y * n.y);
+				c.t1x = n.y / length;
+				c.t1y = -n.x / length;
+				c.t1z = 0;
+			}
+			else {
+				float length = (float) Math.sqrt(n.y * n.y + n.z * n.z);
+				c.t1x = 0;
+				c.t1y = n.z / length;
+				c.t1z = -n.y / length;
+			}
+			c.t2x = n.y * c.t1z - n.z * c.t1y;
+			c.t2y = n.z * c.t1x - n.x * c.t1z;
+			c.t2z = n.x * c.t1y - n.y * c.t1x;
+			c.normalMass = effectiveMass(c, n.x, n.y, n.z, ima, iia, imb, iib);
+			c.tangentMass1 = effectiveMass(c, c.t1x, c.t1y, c.t1z, ima, iia, imb, iib);
+			c.tangentMass2 = effectiveMass(c, c.t2x, c.t2y, c.t2z, ima, iia, imb, iib);
+			c.friction = b != null ? (float) Math.sqrt(a.friction * b.friction) : a.friction;
+			c.rollingMass = iia + iib > 0 ? 1 / (iia + iib) : 0;
+			c.rollingFriction = b != null ? (float) Math.sqrt(a.rollingFriction * b.rollingFriction) : a.rollingFriction;
+			c.bias = BAUMGARTE / delta * Math.max(0, c.penetration - PENETRATION_SLOP);
+			float vn = relativeVelocity(c, n.x, n.y, n.z);
+			if (vn < -RESTITUTION_THRESHOLD) {
+				float restitution = b != null ? Math.max(a.restitution, b.restitution) : a.restitution;
+				c.bias = Math.max(c.bias, -restitution * vn);
+			}
+			Contact previous = findPrevious(c.key);
+			if (previous != null) {
+				c.normalImpulse = previous.normalImpulse;
+				c.tangentImpulse1 = previous.tangentImpulse1;
+				c.tangentImpulse2 = previous.tangentImpulse2;
+				c.rollingImpulseX = previous.rollingImpulseX;
+				c.rollingImpulseY = previous.rollingImpulseY;
+				c.rollingImpulseZ = previous.rollingImpulseZ;
+			}
+			else {
+				c.normalImpulse = 0;
+				c.tangentImpulse1 = 0;
+				c.tangentImpulse2 = 0;
+				c.rollingImpulseX = 0;
+				c.rollingImpulseY = 0;
+				c.rollingImpulseZ = 0;
+			}
+		}
+	}
+
+	private void warmStart(int start, int end) {
+		for (int i = start; i < end; i++) {
+			Contact c = ordered[i];
+			if (c.normalImpulse == 0)
+				continue;
+			Vector3 n = c.normal;
+			float px = n.x * c.normalImpulse + c.t1x * c.tangentImpulse1 + c.t2x * c.tangentImpulse2;
+			float py = n.y * c.normalImpulse + c.t1y * c.tangentImpulse1 + c.t2y * c.tangentImpulse2;
+			float pz = n.z * c.normalImpulse + c.t1z * c.tangentImpulse1 + c.t2z * c.tangentImpulse2;
+			applyImpulse(c, px, py, pz, 1);
+			if (c.rollingMass != 0)
+				applyRollingImpulse(c, c.rollingImpulseX, c.rollingImpulseY, c.rollingImpulseZ);
+		}
+	}
+
+	private Contact findPrevious(long key) {
+		long[] keys = previousKeys;
+		int mask = keys.length - 1;
+		for (int slot = hash(key) & mask; keys[slot] != -1; slot = (slot + 1) & mask) {
+			if (keys[slot] == key)
+				return previousContacts.get(previousSlots[slot]);
+		}
+		return null;
+	}
+
+	private void storeContacts() {
+		List<Contact> swap = previousContacts;
+		previousContacts = contacts;
+		contacts = swap;
+		int capacity = previousKeys.length;
+		while (capacity < contactCount * 2)
+			capacity <<= 1;
+		if (capacity != previousKeys.length) {
+			previousKeys = new long[capacity];
+			previousSlots = new int[capacity];
+		}
+		long[] keys = previousKeys;
+		Arrays.fill(keys, -1);
+		int mask = capacity - 1;
+		for (int i = 0; i < contactCount; i++) {
+			long key = previousContacts.get(i).key;
+			int slot = hash(key) & mask;
+			while (keys[slot] != -1)
+				slot = (slot + 1) & mask;
+			keys[slot] = key;
+			previousSlots[slot] = i;
+		}
+	}
+
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+
+	private static float effectiveMass(Contact c, float nx, float ny, float nz, float ima, float iia, float imb, float iib) {
+		float k = ima + imb;
+		if (iia != 0) {
+			float x = c.ray * nz - c.raz * ny;
+			float y = c.raz * nx - c.rax * nz;
+			float z = c.rax * ny - c.ray * nx;
+			k += iia * (x * x + y * y + z * z);
+		}
+		if (iib != 0) {
+			float x = c.rby * nz - c.rbz * ny;
+			float y = c.rbz * nx - c.rbx * nz;
+			float z = c.rbx * ny - c.rby * nx;
+			k += iib * (x * x + y * y + z * z);
+		}
+		return k > 0 ? 1 / k : 0;
+	}
+
+	private static float relativeVelocity(Contact c, float nx, float ny, float nz) {
+		RigidBody a = c.a;
+		RigidBody b = c.b;
+		Vector3 va = a.velocity;
+		Vector3 wa = a.angularVelocity;
+		float dx = -(va.x + wa.y * c.raz - wa.z * c.ray);
+		float dy = -(va.y + wa.z * c.rax - wa.x * c.raz);
+		float dz = -(va.z + wa.x * c.ray - wa.y * c.rax);
+		if (b != null) {
+			Vector3 vb = b.velocity;
+			Vector3 wb = b.angularVelocity;
+			dx += vb.x + wb.y * c.rbz - wb.z * c.rby;
+			dy += vb.y + wb.z * c.rbx - wb.x * c.rbz;
+			dz += vb.z + wb.x * c.rby - wb.y * c.rbx;
+		}
+		return dx * nx + dy * ny + dz * nz;
+	}
+
+	private void solveContacts(int start, int end) {
+		for (int i = start; i < end; i++) {
+			Contact c = ordered[i];
+			Vector3 n = c.normal;
+
+			float limit = c.friction * c.normalImpulse;
+			float lambda = -c.tangentMass1 * relativeVelocity(c, c.t1x, c.t1y, c.t1z);
+			float total = Math.max(-limit, Math.min(limit, c.tangentImpulse1 + lambda));
+			applyImpulse(c, c.t1x, c.t1y, c.t1z, total - c.tangentImpulse1);
+			c.tangentImpulse1 = total;
+
+			lambda = -c.tangentMass2 * relativeVelocity(c, c.t2x, c.t2y, c.t2z);
+			total = Math.max(-limit, Math.min(limit, c.tangentImpulse2 + lambda));
+			applyImpulse(c, c.t2x, c.t2y, c.t2z, total - c.tangentImpulse2);
+			c.tangentImpulse2 = total;
+
+			lambda = c.normalMass * (c.bias - relativeVelocity(c, n.x, n.y, n.z));
+			total = Math.max(0, c.normalImpulse + lambda);
+			applyImpulse(c, n.x, n.y, n.z, total - c.normalImpulse);
+			c.normalImpulse = total;
+
+			if (c.rollingMass != 0)
+				solveRolling(c);
+		}
+	}
+
+	private static void solveRolling(Contact c) {
+		RigidBody a = c.a;
+		RigidBody b = c.b;
+		float wx = -a.angularVelocity.x;
+		float wy = -a.angularVelocity.y;
+		float wz = -a.angularVelocity.z;
+		if (b != null) {
+			wx += b.angularVelocity.x;
+			wy += b.angularVelocity.y;
+			wz += b.angularVelocity.z;
+		}
+		float x = c.rollingImpulseX - wx * c.rollingMass;
+		float y = c.rollingImpulseY - wy * c.rollingMass;
+		float z = c.rollingImpulseZ - wz * c.rollingMass;
+		float limit = c.rollingFriction * c.normalImpulse;
+		float lengthSquared = x * x + y * y + z * z;
+		if (lengthSquared > limit * limit) {
+			float scale = limit / (float) Math.sqrt(lengthSquared);
+			x *= scale;
+			y *= scale;
+			z *= scale;
+		}
+		float dx = x - c.rollingImpulseX;
+		float dy = y - c.rollingImpulseY;
+		float dz = z - c.rollingImpulseZ;
+		c.rollingImpulseX = x;
+		c.rollingImpulseY = y;
+		c.rollingImpulseZ = z;
+		applyRollingImpulse(c, dx, dy, dz);
+	}
+
+	private static void applyRollingImpulse(Contact c, float dx, float dy, float dz) {
+		RigidBody a = c.a;
+		RigidBody b = c.b;
+		if (isMoving(a)) {
+			a.angularVelocity.x -= dx * a.inverseInertia;
+			a.angularVelocity.y -= dy * a.inverseInertia;
+			a.angularVelocity.z -= dz * a.inverseInertia;
+		}
+		if (isMoving(b)) {
+			b.angularVelocity.x += dx * b.inverseInertia;
+			b.angularVelocity.y += dy * b.inverseInertia;
+			b.angularVelocity.z += dz * b.inverseInertia;
+		}
+	}
+
+	private static void applyImpulse(Contact c, float dx, float dy, float dz, float magnitude) {
+		float px = dx * magnitude;
+		float py = dy * magnitude;
+		float pz = dz * magnitude;
+		if (isMoving(c.a))
+			c.a.applyImpulse(-px, -py, -pz, c.rax, c.ray, c.raz);
+		if (isMoving(c.b))
+			c.b.applyImpulse(px, py, pz, c.rbx, c.rby, c.rbz);
+	}
+
+	private void integratePositions(int start, int end) {
+		float delta = stepDelta;
+		for (int i = start; i < end; i++) {
+			RigidBody body = bodies.get(i);
+			if (!isMoving(body))
+				continue;
+			Vector3 p = body.getPosition();
+			Vector3 v = body.velocity;
+			p.x += v.x * delta;
+			p.y += v.y * delta;
+			p.z += v.z * delta;
+			if (body.inverseInertia == 0)
+				continue;
+			Vector3 w = body.angularVelocity;
+			Quaternion q = body.orientation;
+			float h = 0.5f * delta;
+			float x = w.x * q.w + w.y * q.z - w.z * q.y;
+			float y = -w.x * q.z + w.y * q.w + w.z * q.x;
+			float z = w.x * q.y - w.y * q.x + w.z * q.w;
+			float s = -w.x * q.x - w.y * q.y - w.z * q.z;
+			q.set(q.x + x * h, q.y + y * h, q.z + z * h, q.w + s * h);
+			q.normalize();
+		}
+	}
+
+	private void updateIslands(float delta) {
+		int count = bodies.size();
+		if (parents.length < count) {
+			parents = new int[Math.max(count, parents.length * 2)];
+			islandSleepTime = new float[parents.length];
+		}
+		for (int i = 0; i < count; i++) {
+			RigidBody body = bodies.get(i);
+			parents[i] = i;
+			islandSleepTime[i] = Float.MAX_VALUE;
+			if (!isMoving(body))
+				continue;
+			Vector3 v = body.velocity;
+			Vector3 w = body.angularVelocity;
+			if (v.x * v.x + v.y * v.y + v.z * v.z < SLEEP_LINEAR_VELOCITY * SLEEP_LINEAR_VELOCITY
+					&& w.x * w.x + w.y * w.y + w.z * w.z < SLEEP_ANGULAR_VELOCITY * SLEEP_ANGULAR_VELOCITY)
+				body.sleepTime += delta;
+			else
+				body.sleepTime = 0;
+		}
+		for (int i = 0; i < contactCount; i++) {
+			Contact c = contacts.get(i);
+			if (!isMoving(c.a) || !isMoving(c.b))
+				continue;
+			int rootA = find(c.a.index);
+			int rootB = find(c.b.index);
+			if (rootA != rootB)
+				parents[rootA] = rootB;
+		}
+		for (int i = 0; i < count; i++) {
+			RigidBody body = bodies.get(i);
+			if (!isMoving(body))
+				continue;
+			int root = find(i);
+			islandSleepTime[root] = Math.min(islandSleepTime[root], body.sleepTime);
+		}
+		awakeCount = 0;
+		for (int i = 0; i < count; i++) {
+			RigidBody body = bodies.get(i);
+			if (!isMoving(body))
+				continue;
+			if (islandSleepTime[find(i)] >= TIME_TO_SLEEP) {
+				body.sleeping = true;
+				body.velocity.set(0, 0, 0);
+				body.angularVelocity.set(0, 0, 0);
+			}
+			else
+				awakeCount++;
+		}
+	}
+
+	private int find(int i) {
+		int[] parents = this.parents;
+		while (parents[i] != i) {
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+		return i;
+	}
+
+}
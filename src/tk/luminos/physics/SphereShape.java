@@ -0,0 +1,43 @@
+package tk.luminos.physics;
+
+import tk.luminos.maths.Vector3;
+
+/**
+ * Sphere centered on the origin of its local space
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class SphereShape implements ConvexShape {
+
+	private float radius;
+
+	/**
+	 * Creates a sphere
+	 *
+	 * @param radius		Radius of the sphere
+	 */
+	public SphereShape(float radius) {
+		this.radius = radius;
+	}
+
+	/**
+	 * Gets the radius of the sphere
+	 *
+	 * @return		Radius of the sphere
+	 */
+	public float getRadius() {
+		return radius;
+	}
+
+	@Override
+	public void support(float dx, float dy, float dz, Vector3 dest) {
+		dest.set(0, 0, 0);
+	}
+
+	@Override
+	public float getMargin() {
+		return radius;
+	}
+
+}
@@ -0,0 +1,94 @@
+package tk.luminos.physics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 
+ * Lock-free triple buffer for handing state from one producing thread to one
+ * consuming thread.  The producer always has a buffer to write into and the
+ * consumer always has a complete buffer to read from, so neither side waits
+ * on the other and the consumer never sees a partially written buffer.
+ * Buffers that are published faster than they are consumed are dropped in
+ * favor of the newest.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of buffered state
+ */
+public class TripleBuffer<T> {
+	
+	private static final int INDEX_MASK = 0x3;
+	private static final int FRESH = 0x4;
+	
+	private final Object[] buffers = new Object[3];
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back = 0;
+	private int front = 2;
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param factory		Creates each of the three buffers
+	 */
+	public TripleBuffer(Supplier<T> factory) {
+		for (int i = 0; i < buffers.length; i++)
+			buffers[i] = factory.get();
+	}
+	
+	/**
+	 * Gets the buffer owned by the producer.  Must only be called from the
+	 * producing thread.
+	 * 
+	 * @return		Buffer to write the next state into
+	 */
+	@SuppressWarnings("unchecked")
+	public T getBack() {
+		return (T) buffers[back];
+	}
+	
+	/**
+	 * Publishes the back buffer to the consumer and takes ownership of a
+	 * new back buffer.  Must only be called from the producing thread.
+	 */
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+	
+	/**
+	 * Checks if a buffer has been published since the last call to
+	 * {@link #acquire()}
+	 * 
+	 * @return		If a new buffer is available
+	 */
+	public boolean isFresh() {
+		return (middle.get() & FRESH) != 0;
+	}
+	
+	/**
+	 * Takes ownership of the most recently published buffer if one has been
+	 * published since the last call.  Must only be called from the consuming
+	 * thread.
+	 * 
+	 * @return		If a new front buffer was acquired
+	 */
+	public boolean acquire() {
+		if (!isFresh())
+			return false;
+		front = middle.getAndSet(front) & INDEX_MASK;
+		return true;
+	}
+	
+	/**
+	 * Gets the buffer owned by the consumer.  Must only be called from the
+	 * consuming thread.
+	 * 
+	 * @return		Most recently acquired buffer
+	 */
+	@SuppressWarnings("unchecked")
+	public T getFront() {
+		return (T) buffers[front];
+	}
+
+}
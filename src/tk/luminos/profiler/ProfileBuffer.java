@@ -0,0 +1,117 @@
+package tk.luminos.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer of completed profiling samples recorded by a single thread.
+ * Only the owning thread writes to the buffer; other threads may take
+ * snapshots of it at any time without blocking the writer.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+class ProfileBuffer {
+	
+	private static final int MAX_DEPTH = 64;
+	
+	final String threadName;
+	final long threadID;
+	
+	private final int mask;
+	private final int[] scopes;
+	private final long[] starts;
+	private final long[] durations;
+	private final int[] depths;
+	private final AtomicLong head = new AtomicLong();
+	
+	private final int[] stackScopes = new int[MAX_DEPTH];
+	private final long[] stackStarts = new long[MAX_DEPTH];
+	private int depth = 0;
+	
+	/**
+	 * Creates a new buffer for the calling thread
+	 * 
+	 * @param capacity		Number of samples retained, rounded up to a power of two
+	 */
+	ProfileBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		mask = size - 1;
+		scopes = new int[size];
+		starts = new long[size];
+		durations = new long[size];
+		depths = new int[size];
+		threadName = Thread.currentThread().getName();
+		threadID = Thread.currentThread().getId();
+	}
+	
+	/**
+	 * Opens a scope
+	 * 
+	 * @param scope		Scope identifier
+	 * @param time		Start time in nanoseconds
+	 */
+	void begin(int scope, long time) {
+		if (depth < MAX_DEPTH) {
+			stackScopes[depth] = scope;
+			stackStarts[depth] = time;
+		}
+		depth++;
+	}
+	
+	/**
+	 * Closes the innermost open scope and records it
+	 * 
+	 * @param time		End time in nanoseconds
+	 */
+	void end(long time) {
+		if (depth == 0)
+			return;
+		depth--;
+		if (depth >= MAX_DEPTH)
+			return;
+		long index = head.get();
+		int slot = (int) (index & mask);
+		scopes[slot] = stackScopes[depth];
+		starts[slot] = stackStarts[depth];
+		durations[slot] = time - stackStarts[depth];
+		depths[slot] = depth;
+		head.lazySet(index + 1);
+	}
+	
+	/**
+	 * Copies the samples currently held by the buffer
+	 * 
+	 * @param visitor		Receives each sample that was not overwritten while copying
+	 */
+	void snapshot(SampleVisitor visitor) {
+		long end = head.get();
+		long begin = Math.max(0, end - scopes.length);
+		int count = (int) (end - begin);
+		int[] s = new int[count];
+		long[] t = new long[count];
+		long[] d = new long[count];
+		int[] l = new int[count];
+		for (int i = 0; i < count; i++) {
+			int slot = (int) ((begin + i) & mask);
+			s[i] = scopes[slot];
+			t[i] = starts[slot];
+			d[i] = durations[slot];
+			l[i] = depths[slot];
+		}
+		long oldestValid = head.get() - scopes.length + 1;
+		for (int i = 0; i < count; i++) {
+			if (begin + i >= oldestValid)
+				visitor.visit(s[i], t[i], d[i], l[i]);
+		}
+	}
+	
+	/**
+	 * Receives samples from a buffer snapshot
+	 */
+	interface SampleVisitor {
+		
+		void visit(int scope, long start, long duration, int depth);
+		
+	}
+
+}
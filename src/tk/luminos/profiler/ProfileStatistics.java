@@ -0,0 +1,105 @@
+package tk.luminos.profiler;
+
+/**
+ * Timing statistics of a single profiling scope, in milliseconds
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class ProfileStatistics {
+	
+	private final String name;
+	private final int count;
+	private final double min;
+	private final double average;
+	private final double max;
+	private final double p99;
+	
+	/**
+	 * Creates statistics from a set of sample durations
+	 * 
+	 * @param name			Name of the scope
+	 * @param durations		Sorted sample durations, in nanoseconds
+	 * @param count			Number of valid durations
+	 */
+	ProfileStatistics(String name, long[] durations, int count) {
+		this.name = name;
+		this.count = count;
+		if (count == 0) {
+			min = average = max = p99 = 0;
+			return;
+		}
+		long total = 0;
+		for (int i = 0; i < count; i++)
+			total += durations[i];
+		min = durations[0] / 1e6;
+		max = durations[count - 1] / 1e6;
+		average = total / (double) count / 1e6;
+		p99 = durations[Math.min(count - 1, (int) Math.ceil(count * 0.99) - 1)] / 1e6;
+	}
+	
+	/**
+	 * Gets the name of the scope
+	 * 
+	 * @return		Scope name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the number of samples the statistics were computed from
+	 * 
+	 * @return		Sample count
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * Gets the shortest sample
+	 * 
+	 * @return		Minimum duration in milliseconds
+	 */
+	public double getMin() {
+		return min;
+	}
+	
+	/**
+	 * Gets the mean of all samples
+	 * 
+	 * @return		Average duration in milliseconds
+	 */
+	public double getAverage() {
+		return average;
+	}
+	
+	/**
+	 * Gets the longest sample
+	 * 
+	 * @return		Maximum duration in milliseconds
+	 */
+	public double getMax() {
+		return max;
+	}
+	
+	/**
+	 * Gets the 99th percentile of all samples
+	 * 
+	 * @return		99th percentile duration in milliseconds
+	 */
+	public double getP99() {
+		return p99;
+	}
+	
+	/**
+	 * Converts the statistics to a string
+	 * 
+	 * @return		Readable form of the statistics
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d min=%.3fms avg=%.3fms p99=%.3fms max=%.3fms", name, count, min, average, p99, max);
+	}
+
+}
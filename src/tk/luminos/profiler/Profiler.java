@@ -0,0 +1,198 @@
+package tk.luminos.profiler;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hierarchical CPU profiler.  Scopes are registered once by name and opened
+ * and closed around the code being measured:
+ * 
+ * <pre>
+ * private static final int UPDATE = Profiler.register("Engine.update");
+ * 
+ * Profiler.begin(UPDATE);
+ * ...
+ * Profiler.end();
+ * </pre>
+ * 
+ * Completed samples are written to a ring buffer owned by the recording
+ * thread, so recording never takes a lock.  Samples may be exported in the
+ * Chrome trace event format or summarized per scope.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class Profiler {
+	
+	/**
+	 * Number of samples retained per thread
+	 */
+	public static int BUFFER_CAPACITY = 1 << 16;
+	
+	private static volatile boolean enabled = true;
+	
+	private static final long EPOCH = System.nanoTime();
+	private static final Map<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+	private static final List<String> names = new CopyOnWriteArrayList<String>();
+	private static final List<ProfileBuffer> buffers = new CopyOnWriteArrayList<ProfileBuffer>();
+	private static final ThreadLocal<ProfileBuffer> local = new ThreadLocal<ProfileBuffer>() {
+		@Override
+		protected ProfileBuffer initialValue() {
+			ProfileBuffer buffer = new ProfileBuffer(BUFFER_CAPACITY);
+			buffers.add(buffer);
+			return buffer;
+		}
+	};
+	
+	/**
+	 * Registers a scope name
+	 * 
+	 * @param name		Name of the scope
+	 * @return			Identifier used to open the scope
+	 */
+	public static int register(String name) {
+		Integer id = ids.get(name);
+		if (id != null)
+			return id;
+		synchronized (names) {
+			id = ids.get(name);
+			if (id == null) {
+				id = names.size();
+				names.add(name);
+				ids.put(name, id);
+			}
+			return id;
+		}
+	}
+	
+	/**
+	 * Opens a scope on the calling thread
+	 * 
+	 * @param scope		Identifier of the scope
+	 */
+	public static void begin(int scope) {
+		if (enabled)
+			local.get().begin(scope, System.nanoTime());
+	}
+	
+	/**
+	 * Closes the innermost scope opened on the calling thread
+	 */
+	public static void end() {
+		if (enabled)
+			local.get().end(System.nanoTime());
+	}
+	
+	/**
+	 * Checks if the profiler is recording
+	 * 
+	 * @return		If recording
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * Enables or disables recording.  Should be called between frames so
+	 * that no scope is left open.
+	 * 
+	 * @param enabled		If the profiler should record
+	 */
+	public static void setEnabled(boolean enabled) {
+		Profiler.enabled = enabled;
+	}
+	
+	/**
+	 * Gets statistics of a scope over all samples currently retained
+	 * 
+	 * @param name		Name of the scope
+	 * @return			Statistics of the scope, or null if the scope is not registered
+	 */
+	public static ProfileStatistics getStatistics(String name) {
+		Integer id = ids.get(name);
+		if (id == null)
+			return null;
+		final int scope = id;
+		final long[][] durations = { new long[256] };
+		final int[] count = { 0 };
+		for (ProfileBuffer buffer : buffers) {
+			buffer.snapshot((s, start, duration, depth) -> {
+				if (s != scope)
+					return;
+				if (count[0] == durations[0].length)
+					durations[0] = Arrays.copyOf(durations[0], count[0] * 2);
+				durations[0][count[0]++] = duration;
+			});
+		}
+		Arrays.sort(durations[0], 0, count[0]);
+		return new ProfileStatistics(name, durations[0], count[0]);
+	}
+	
+	/**
+	 * Gets statistics of every registered scope
+	 * 
+	 * @return		Statistics of each scope
+	 */
+	public static List<ProfileStatistics> getStatistics() {
+		List<ProfileStatistics> stats = new ArrayList<ProfileStatistics>();
+		for (String name : names)
+			stats.add(getStatistics(name));
+		return stats;
+	}
+	
+	/**
+	 * Writes all retained samples as Chrome trace event JSON, viewable in
+	 * chrome://tracing
+	 * 
+	 * @param out				Writer to write to
+	 * @throws IOException		Thrown if the writer fails
+	 */
+	public static void exportChromeTrace(Writer out) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"traceEvents\":[");
+		boolean first = true;
+		for (ProfileBuffer buffer : buffers) {
+			if (!first)
+				sb.append(',');
+			first = false;
+			sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(buffer.threadID)
+			  .append(",\"args\":{\"name\":\"").append(escape(buffer.threadName)).append("\"}}");
+			buffer.snapshot((scope, start, duration, depth) -> {
+				sb.append(",{\"name\":\"").append(escape(names.get(scope)))
+				  .append("\",\"ph\":\"X\",\"pid\":1,\"tid\":").append(buffer.threadID)
+				  .append(",\"ts\":").append((start - EPOCH) / 1000.0)
+				  .append(",\"dur\":").append(duration / 1000.0).append('}');
+			});
+			out.write(sb.toString());
+			sb.setLength(0);
+		}
+		out.write("],\"displayTimeUnit\":\"ms\"}");
+		out.flush();
+	}
+	
+	/**
+	 * Writes all retained samples as Chrome trace event JSON to a file
+	 * 
+	 * @param file				Path of the file to write
+	 * @throws IOException		Thrown if the file cannot be written
+	 */
+	public static void exportChromeTrace(String file) throws IOException {
+		try (Writer writer = new FileWriter(file)) {
+			exportChromeTrace(writer);
+		}
+	}
+	
+//***********************************Private Methods*******************************************//
+	
+	private static String escape(String str) {
+		return str.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+}
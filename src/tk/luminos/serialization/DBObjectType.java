@@ -7,5 +7,6 @@ public final class DBObjectType {
 	public final static byte MATERIAL = 2;
 	public final static byte GAMEOBJECT = 3;
 	public final static byte TERRAIN = 4;
+	public final static byte WATER_TILE = 5;
 
 }
@@ -0,0 +1,744 @@
+package tk.luminos.spatial;
+
+import java.util.List;
+
+import tk.luminos.maths.Frustum;
+
+/**
+ * Bounding volume hierarchy over axis aligned boxes that is updated
+ * incrementally.  Every leaf stores a box enlarged by a margin so that small
+ * movements do not change the tree; leaves are only reinserted once an
+ * object leaves its enlarged box.  Insertion picks the sibling that adds the
+ * least surface area and the tree is kept balanced with rotations.
+ * <p>
+ * Nodes are held in parallel arrays indexed by node id.  The tree must only
+ * be modified from one thread at a time, but queries may run concurrently
+ * while it is not being modified.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of object stored in the tree
+ */
+public class DynamicAABBTree<T> {
+
+	private static final int NULL = -1;
+	private static final int STRIDE = 6;
+	private static final ThreadLocal<int[]> stacks = ThreadLocal.withInitial(() -> new int[64]);
+	private static final ThreadLocal<long[]> heaps = ThreadLocal.withInitial(() -> new long[64]);
+
+	private final float margin;
+
+	private float[] bounds;
+	private int[] parent;
+	private int[] child1;
+	private int[] child2;
+	private int[] height;
+	private Object[] objects;
+
+	private int root = NULL;
+	private int freeList = NULL;
+	private int nodeCount = 0;
+	private int leafCount = 0;
+
+	/**
+	 * Creates an empty tree
+	 *
+	 * @param margin		Distance each leaf box is enlarged by on every side
+	 */
+	public DynamicAABBTree(float margin) {
+		this.margin = margin;
+		grow(16);
+	}
+
+	/**
+	 * Inserts an object into the tree
+	 *
+	 * @param object		Object to insert
+	 * @param minX			Minimum x of the object's bounds
+	 * @param minY			Minimum y of the object's bounds
+	 * @param minZ			Minimum z of the object's bounds
+	 * @param maxX			Maximum x of the object's bounds
+	 * @param maxY			Maximum y of the object's bounds
+	 * @param maxZ			Maximum z of the object's bounds
+	 * @return				Proxy identifying the object in the tree
+	 */
+	public int insert(T object, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int leaf = allocateNode();
+		setFatBounds(leaf, minX, minY, minZ, maxX, maxY, maxZ);
+		objects[leaf] = object;
+		height[leaf] = 0;
+		insertLeaf(leaf);
+		leafCount++;
+		return leaf;
+	}
+
+	/**
+	 * Removes an object from the tree
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 */
+	public void remove(int proxy) {
+		removeLeaf(proxy);
+		freeNode(proxy);
+		leafCount--;
+	}
+
+	/**
+	 * Updates the bounds of an object.  The tree is only changed if the new
+	 * bounds leave the enlarged box of the leaf.
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 * @param minX			Minimum x of the object's bounds
+	 * @param minY			Minimum y of the object's bounds
+	 * @param minZ			Minimum z of the object's bounds
+	 * @param maxX			Maximum x of the object's bounds
+	 * @param maxY			Maximum y of the object's bounds
+	 * @param maxZ			Maximum z of the object's bounds
+	 * @return				If the leaf was reinserted
+	 */
+	public boolean move(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = proxy * STRIDE;
+		if (bounds[b] <= minX && bounds[b + 1] <= minY && bounds[b + 2] <= minZ &&
+				bounds[b + 3] >= maxX && bounds[b + 4] >= maxY && bounds[b + 5] >= maxZ)
+			return false;
+		removeLeaf(proxy);
+		setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		insertLeaf(proxy);
+		return true;
+	}
+
+	/**
+	 * Gets the object stored in a leaf
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 * @return				Object
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int proxy) {
+		return (T) objects[proxy];
+	}
+
+	/**
+	 * Copies the enlarged bounds of a leaf
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 * @param dest			Array receiving min x, y, z then max x, y, z
+	 * @return				Destination array
+	 */
+	public float[] getFatBounds(int proxy, float[] dest) {
+		System.arraycopy(bounds, proxy * STRIDE, dest, 0, STRIDE);
+		return dest;
+	}
+
+	/**
+	 * Gets the number of objects in the tree
+	 *
+	 * @return		Number of leaves
+	 */
+	public int size() {
+		return leafCount;
+	}
+
+	/**
+	 * Gets the height of the tree
+	 *
+	 * @return		Height of the root, or zero if the tree is empty
+	 */
+	public int getHeight() {
+		return root == NULL ? 0 : height[root];
+	}
+
+	/**
+	 * Visits every object whose enlarged box overlaps a box
+	 *
+	 * @param minX			Minimum x of the box
+	 * @param minY			Minimum y of the box
+	 * @param minZ			Minimum z of the box
+	 * @param maxX			Maximum x of the box
+	 * @param maxY			Maximum y of the box
+	 * @param maxZ			Maximum z of the box
+	 * @param visitor		Visitor receiving the objects
+	 */
+	public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, SpatialVisitor<? super T> visitor) {
+		if (root == NULL)
+			return;
+		int[] stack = stack();
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			int b = node * STRIDE;
+			if (bounds[b] > maxX || bounds[b + 1] > maxY || bounds[b + 2] > maxZ ||
+					bounds[b + 3] < minX || bounds[b + 4] < minY || bounds[b + 5] < minZ)
+				continue;
+			if (child1[node] == NULL) {
+				if (!visit(node, visitor))
+					return;
+			}
+			else {
+				stack[top++] = child1[node];
+				stack[top++] = child2[node];
+			}
+		}
+	}
+
+	/**
+	 * Visits every object whose enlarged box overlaps a sphere
+	 *
+	 * @param x				X of the sphere's center
+	 * @param y				Y of the sphere's center
+	 * @param z				Z of the sphere's center
+	 * @param radius		Radius of the sphere
+	 * @param visitor		Visitor receiving the objects
+	 */
+	public void querySphere(float x, float y, float z, float radius, SpatialVisitor<? super T> visitor) {
+		if (root == NULL)
+			return;
+		float radiusSquared = radius * radius;
+		int[] stack = stack();
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			if (distanceSquared(node, x, y, z) > radiusSquared)
+				continue;
+			if (child1[node] == NULL) {
+				if (!visit(node, visitor))
+					return;
+			}
+			else {
+				stack[top++] = child1[node];
+				stack[top++] = child2[node];
+			}
+		}
+	}
+
+	/**
+	 * Visits every object whose enlarged box intersects a frustum.  Subtrees
+	 * entirely inside the frustum are visited without further tests, and
+	 * children are only tested against the planes their parent crosses.
+	 *
+	 * @param frustum		Frustum to test against
+	 * @param visitor		Visitor receiving the objects
+	 */
+	public void queryFrustum(Frustum frustum, SpatialVisitor<? super T> visitor) {
+		if (root == NULL)
+			return;
+		int[] stack = stack(2);
+		int top = 0;
+		stack[top++] = root;
+		stack[top++] = Frustum.PLANE_MASK_ALL;
+		while (top > 0) {
+			int mask = stack[--top];
+			int node = stack[--top];
+			int b = node * STRIDE;
+			int crossed = frustum.intersectAabMask(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5], mask);
+			if (crossed == Frustum.OUTSIDE)
+				continue;
+			if (crossed == 0) {
+				if (!visitAll(node, visitor))
+					return;
+			}
+			else if (child1[node] == NULL) {
+				if (!visit(node, visitor))
+					return;
+			}
+			else {
+				stack[top++] = child1[node];
+				stack[top++] = crossed;
+				stack[top++] = child2[node];
+				stack[top++] = crossed;
+			}
+		}
+	}
+
+	/**
+	 * Visits every object whose enlarged box is hit by a ray
+	 *
+	 * @param ox			X of the ray's origin
+	 * @param oy			Y of the ray's origin
+	 * @param oz			Z of the ray's origin
+	 * @param dx			X of the ray's direction
+	 * @param dy			Y of the ray's direction
+	 * @param dz			Z of the ray's direction
+	 * @param maxDistance	Length of the ray, in multiples of the direction
+	 * @param visitor		Visitor receiving the objects
+	 */
+	public void raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance, SpatialVisitor<? super T> visitor) {
+		if (root == NULL)
+			return;
+		float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+		int[] stack = stack();
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			if (rayDistance(node, ox, oy, oz, ix, iy, iz, maxDistance) < 0)
+				continue;
+			if (child1[node] == NULL) {
+				if (!visit(node, visitor))
+					return;
+			}
+			else {
+				stack[top++] = child1[node];
+				stack[top++] = child2[node];
+			}
+		}
+	}
+
+	/**
+	 * Finds the object whose enlarged box is hit first by a ray
+	 *
+	 * @param ox			X of the ray's origin
+	 * @param oy			Y of the ray's origin
+	 * @param oz			Z of the ray's origin
+	 * @param dx			X of the ray's direction
+	 * @param dy			Y of the ray's direction
+	 * @param dz			Z of the ray's direction
+	 * @param maxDistance	Length of the ray, in multiples of the direction
+	 * @return				Closest object hit, or null
+	 */
+	@SuppressWarnings("unchecked")
+	public T raycast(float ox, float oy, float oz, float dx, float dy, float dz, float maxDistance) {
+		if (root == NULL)
+			return null;
+		float ix = 1 / dx, iy = 1 / dy, iz = 1 / dz;
+		float best = maxDistance;
+		int hit = NULL;
+		int[] stack = stack();
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int node = stack[--top];
+			float distance = rayDistance(node, ox, oy, oz, ix, iy, iz, best);
+			if (distance < 0)
+				continue;
+			if (child1[node] == NULL) {
+				best = distance;
+				hit = node;
+			}
+			else {
+				float d1 = rayDistance(child1[node], ox, oy, oz, ix, iy, iz, best);
+				float d2 = rayDistance(child2[node], ox, oy, oz, ix, iy, iz, best);
+				if (d1 < 0 && d2 < 0)
+					continue;
+				if (d1 < 0 || (d2 >= 0 && d2 < d1)) {
+					stack[top++] = child1[node];
+					stack[top++] = child2[node];
+				}
+				else {
+					stack[top++] = child2[node];
+					stack[top++] = child1[node];
+				}
+			}
+		}
+		return hit == NULL ? null : (T) objects[hit];
+	}
+
+	/**
+	 * Finds the objects whose enlarged boxes are closest to a point, in
+	 * order of increasing distance
+	 *
+	 * @param x				X of the point
+	 * @param y				Y of the point
+	 * @param z				Z of the point
+	 * @param k				Maximum number of objects to find
+	 * @param dest			List receiving the objects
+	 * @return				Number of objects found
+	 */
+	@SuppressWarnings("unchecked")
+	public int nearest(float x, float y, float z, int k, List<? super T> dest) {
+		if (root == NULL || k <= 0)
+			return 0;
+		long[] heap = heap(2 * getHeight() + 2 * k);
+		int size = 0;
+		int found = 0;
+		heap[size++] = key(distanceSquared(root, x, y, z), root);
+		while (size > 0 && found < k) {
+			int node = (int) heap[0];
+			heap[0] = heap[--size];
+			siftDown(heap, size);
+			if (child1[node] == NULL) {
+				dest.add((T) objects[node]);
+				found++;
+				continue;
+			}
+			if (size + 2 > heap.length) {
+				long[] larger = new long[heap.length * 2];
+				System.arraycopy(heap, 0, larger, 0, size);
+				heap = larger;
+				heaps.set(heap);
+			}
+			heap[size] = key(distanceSquared(child1[node], x, y, z), child1[node]);
+			siftUp(heap, size++);
+			heap[size] = key(distanceSquared(child2[node], x, y, z), child2[node]);
+			siftUp(heap, size++);
+		}
+		return found;
+	}
+
+	/**
+	 * Removes every object from the tree
+	 */
+	public void clear() {
+		for (int i = 0; i < objects.length; i++)
+			objects[i] = null;
+		root = NULL;
+		nodeCount = 0;
+		leafCount = 0;
+		freeList = NULL;
+		grow(parent.length);
+	}
+
+//***********************************Private Methods*******************************************//
+
+	private int allocateNode() {
+		if (freeList == NULL) {
+			if (nodeCount == parent.length)
+				grow(parent.length * 2);
+			return nodeCount++;
+		}
+		int node = freeList;
+		freeList = parent[node];
+		parent[node] = NULL;
+		child1[node] = NULL;
+		child2[node] = NULL;
+		height[node] = 0;
+		return node;
+	}
+
+	private void freeNode(int node) {
+		objects[node] = null;
+		parent[node] = freeList;
+		height[node] = -1;
+		freeList = node;
+	}
+
+	private void grow(int capacity) {
+		int old = nodeCount;
+		bounds = copyOf(bounds, capacity * STRIDE, old * STRIDE);
+		parent = copyOf(parent, capacity, old);
+		child1 = copyOf(child1, capacity, old);
+		child2 = copyOf(child2, capacity, old);
+		height = copyOf(height, capacity, old);
+		Object[] objects = new Object[capacity];
+		if (this.objects != null)
+			System.arraycopy(this.objects, 0, objects, 0, old);
+		this.objects = objects;
+		for (int i = old; i < capacity; i++) {
+			parent[i] = NULL;
+			child1[i] = NULL;
+			child2[i] = NULL;
+		}
+	}
+
+	private void setFatBounds(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = node * STRIDE;
+		bounds[b] = minX - margin;
+		bounds[b + 1] = minY - margin;
+		bounds[b + 2] = minZ - margin;
+		bounds[b + 3] = maxX + margin;
+		bounds[b + 4] = maxY + margin;
+		bounds[b + 5] = maxZ + margin;
+	}
+
+	private void insertLeaf(int leaf) {
+		if (root == NULL) {
+			root = leaf;
+			parent[leaf] = NULL;
+			return;
+		}
+
+		int index = root;
+		while (child1[index] != NULL) {
+			int c1 = child1[index];
+			int c2 = child2[index];
+			float area = area(index);
+			float combinedArea = unionArea(index, leaf);
+			float cost = 2 * combinedArea;
+			float inheritanceCost = 2 * (combinedArea - area);
+			float cost1 = unionArea(leaf, c1) + inheritanceCost;
+			if (child1[c1] != NULL)
+				cost1 -= area(c1);
+			float cost2 = unionArea(leaf, c2) + inheritanceCost;
+			if (child1[c2] != NULL)
+				cost2 -= area(c2);
+			if (cost < cost1 && cost < cost2)
+				break;
+			index = cost1 < cost2 ? c1 : c2;
+		}
+
+		int sibling = index;
+		int oldParent = parent[sibling];
+		int newParent = allocateNode();
+		parent[newParent] = oldParent;
+		objects[newParent] = null;
+		union(sibling, leaf, newParent);
+		height[newParent] = height[sibling] + 1;
+		if (oldParent != NULL) {
+			if (child1[oldParent] == sibling)
+				child1[oldParent] = newParent;
+			else
+				child2[oldParent] = newParent;
+		}
+		else
+			root = newParent;
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refit(parent[leaf]);
+	}
+
+	private void removeLeaf(int leaf) {
+		if (leaf == root) {
+			root = NULL;
+			return;
+		}
+		int p = parent[leaf];
+		int grandParent = parent[p];
+		int sibling = child1[p] == leaf ? child2[p] : child1[p];
+		if (grandParent != NULL) {
+			if (child1[grandParent] == p)
+				child1[grandParent] = sibling;
+			else
+				child2[grandParent] = sibling;
+			parent[sibling] = grandParent;
+			freeNode(p);
+			refit(grandParent);
+		}
+		else {
+			root = sibling;
+			parent[sibling] = NULL;
+			freeNode(p);
+		}
+	}
+
+	private void refit(int index) {
+		while (index != NULL) {
+			index = balance(index);
+			int c1 = child1[index];
+			int c2 = child2[index];
+			height[index] = 1 + Math.max(height[c1], height[c2]);
+			union(c1, c2, index);
+			index = parent[index];
+		}
+	}
+
+	private int balance(int a) {
+		if (child1[a] == NULL || height[a] < 2)
+			return a;
+		int b = child1[a];
+		int c = child2[a];
+		int balance = height[c] - height[b];
+
+		if (balance > 1) {
+			int f = child1[c];
+			int g = child2[c];
+			child1[c] = a;
+			parent[c] = parent[a];
+			parent[a] = c;
+			replaceChild(parent[c], a, c);
+			if (height[f] > height[g]) {
+				child2[c] = f;
+				child2[a] = g;
+				parent[g] = a;
+				union(b, g, a);
+				union(a, f, c);
+				height[a] = 1 + Math.max(height[b], height[g]);
+				height[c] = 1 + Math.max(height[a], height[f]);
+			}
+			else {
+				child2[c] = g;
+				child2[a] = f;
+				parent[f] = a;
+				union(b, f, a);
+				union(a, g, c);
+				height[a] = 1 + Math.max(height[b], height[f]);
+				height[c] = 1 + Math.max(height[a], height[g]);
+			}
+			return c;
+		}
+
+		if (balance < -1) {
+			int d = child1[b];
+			int e = child2[b];
+			child1[b] = a;
+			parent[b] = parent[a];
+			parent[a] = b;
+			replaceChild(parent[b], a, b);
+			if (height[d] > height[e]) {
+				child2[b] = d;
+				child1[a] = e;
+				parent[e] = a;
+				union(c, e, a);
+				union(a, d, b);
+				height[a] = 1 + Math.max(height[c], height[e]);
+				height[b] = 1 + Math.max(height[a], height[d]);
+			}
+			else {
+				child2[b] = e;
+				child1[a] = d;
+				parent[d] = a;
+				union(c, d, a);
+				union(a, e, b);
+				height[a] = 1 + Math.max(height[c], height[d]);
+				height[b] = 1 + Math.max(height[a], height[e]);
+			}
+			return b;
+		}
+		return a;
+	}
+
+	private void replaceChild(int node, int oldChild, int newChild) {
+		if (node == NULL)
+			root = newChild;
+		else if (child1[node] == oldChild)
+			child1[node] = newChild;
+		else
+			child2[node] = newChild;
+	}
+
+	private void union(int a, int b, int dest) {
+		int ia = a * STRIDE, ib = b * STRIDE, id = dest * STRIDE;
+		bounds[id] = Math.min(bounds[ia], bounds[ib]);
+		bounds[id + 1] = Math.min(bounds[ia + 1], bounds[ib + 1]);
+		bounds[id + 2] = Math.min(bounds[ia + 2], bounds[ib + 2]);
+		bounds[id + 3] = Math.max(bounds[ia + 3], bounds[ib + 3]);
+		bounds[id + 4] = Math.max(bounds[ia + 4], bounds[ib + 4]);
+		bounds[id + 5] = Math.max(bounds[ia + 5], bounds[ib + 5]);
+	}
+
+	private float area(int node) {
+		int b = node * STRIDE;
+		float dx = bounds[b + 3] - bounds[b];
+		float dy = bounds[b + 4] - bounds[b + 1];
+		float dz = bounds[b + 5] - bounds[b + 2];
+		return 2 * (dx * dy + dy * dz + dz * dx);
+	}
+
+	private float unionArea(int a, int b) {
+		int ia = a * STRIDE, ib = b * STRIDE;
+		float dx = Math.max(bounds[ia + 3], bounds[ib + 3]) - Math.min(bounds[ia], bounds[ib]);
+		float dy = Math.max(bounds[ia + 4], bounds[ib + 4]) - Math.min(bounds[ia + 1], bounds[ib + 1]);
+		float dz = Math.max(bounds[ia + 5], bounds[ib + 5]) - Math.min(bounds[ia + 2], bounds[ib + 2]);
+		return 2 * (dx * dy + dy * dz + dz * dx);
+	}
+
+	private float distanceSquared(int node, float x, float y, float z) {
+		int b = node * STRIDE;
+		float dx = Math.max(0, Math.max(bounds[b] - x, x - bounds[b + 3]));
+		float dy = Math.max(0, Math.max(bounds[b + 1] - y, y - bounds[b + 4]));
+		float dz = Math.max(0, Math.max(bounds[b + 2] - z, z - bounds[b + 5]));
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	/**
+	 * Slab test of a ray against the box of a node
+	 *
+	 * @return		Distance along the ray at which it enters the box, or -1 if it misses
+	 */
+	private float rayDistance(int node, float ox, float oy, float oz, float ix, float iy, float iz, float maxDistance) {
+		int b = node * STRIDE;
+		float t1 = (bounds[b] - ox) * ix, t2 = (bounds[b + 3] - ox) * ix;
+		float near = Math.min(t1, t2), far = Math.max(t1, t2);
+		t1 = (bounds[b + 1] - oy) * iy;
+		t2 = (bounds[b + 4] - oy) * iy;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+		t1 = (bounds[b + 2] - oz) * iz;
+		t2 = (bounds[b + 5] - oz) * iz;
+		near = Math.max(near, Math.min(t1, t2));
+		far = Math.min(far, Math.max(t1, t2));
+		near = Math.max(near, 0);
+		if (near > far || near > maxDistance)
+			return -1;
+		return near;
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean visit(int node, SpatialVisitor<? super T> visitor) {
+		return visitor.visit((T) objects[node]);
+	}
+
+	private boolean visitAll(int node, SpatialVisitor<? super T> visitor) {
+		if (child1[node] == NULL)
+			return visit(node, visitor);
+		return visitAll(child1[node], visitor) && visitAll(child2[node], visitor);
+	}
+
+	private int[] stack() {
+		return stack(1);
+	}
+
+	private int[] stack(int entriesPerNode) {
+		int[] stack = stacks.get();
+		int required = entriesPerNode * (2 * getHeight() + 2);
+		if (stack.length < required) {
+			stack = new int[required * 2];
+			stacks.set(stack);
+		}
+		return stack;
+	}
+
+	private static long[] heap(int required) {
+		long[] heap = heaps.get();
+		if (heap.length < required) {
+			heap = new long[required * 2];
+			heaps.set(heap);
+		}
+		return heap;
+	}
+
+	private static long key(float distanceSquared, int node) {
+		return ((long) Float.floatToIntBits(distanceSquared) << 32) | node;
+	}
+
+	private static void siftUp(long[] heap, int index) {
+		long value = heap[index];
+		while (index > 0) {
+			int p = (index - 1) >> 1;
+			if (heap[p] <= value)
+				break;
+			heap[index] = heap[p];
+			index = p;
+		}
+		heap[index] = value;
+	}
+
+	private static void siftDown(long[] heap, int size) {
+		if (size == 0)
+			return;
+		long value = heap[0];
+		int index = 0;
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= value)
+				break;
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = value;
+	}
+
+	private static float[] copyOf(float[] array, int length, int count) {
+		float[] copy = new float[length];
+		if (array != null)
+			System.arraycopy(array, 0, copy, 0, count);
+		return copy;
+	}
+
+	private static int[] copyOf(int[] array, int length, int count) {
+		int[] copy = new int[length];
+		if (array != null)
+			System.arraycopy(array, 0, copy, 0, count);
+		return copy;
+	}
+
+}
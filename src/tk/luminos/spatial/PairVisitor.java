@@ -0,0 +1,22 @@
+package tk.luminos.spatial;
+
+/**
+ * Receives the pairs of overlapping objects found by a broadphase
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of object stored in the broadphase
+ */
+public interface PairVisitor<T> {
+
+	/**
+	 * Visits a pair of overlapping objects
+	 *
+	 * @param first		First object of the pair
+	 * @param second	Second object of the pair
+	 * @return			If the query should continue
+	 */
+	public boolean visit(T first, T second);
+
+}
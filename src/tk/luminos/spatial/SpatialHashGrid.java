@@ -0,0 +1,465 @@
+package tk.luminos.spatial;
+
+import java.util.Arrays;
+
+import tk.luminos.jobs.JobCounter;
+import tk.luminos.jobs.JobSystem;
+import tk.luminos.jobs.RangeJob;
+
+/**
+ * Broadphase over a uniform grid of cubic cells, rebuilt from scratch every
+ * tick.  It suits scenes full of similarly sized small objects such as
+ * debris, projectiles and crowds, where each object touches only a few
+ * cells and there is no hierarchy worth maintaining.
+ * <p>
+ * The cell coordinates of a box are packed into a 32 bit key, wrapping
+ * every 2048 cells on x and z and 1024 cells on y.  {@link #update()}
+ * writes one (key, object) entry per cell each box touches, sorts the
+ * entries so that every cell becomes a contiguous run, and indexes the runs
+ * in an open addressing map.  Pairs are then generated per cell; a pair is
+ * only reported by the cell holding the minimum corner of the overlap of
+ * its two boxes, so each pair is reported once however many cells the two
+ * boxes share.  Boxes covering more than {@link #MAX_OBJECT_CELLS} cells
+ * are kept on a separate list instead and tested against every object, so a
+ * huge box neither floods the entries nor wraps around onto its own keys.
+ * Entry generation, sorting and pair generation are split across the job
+ * system when one is given.
+ * <p>
+ * Objects are added with {@link #add} after {@link #clear()} and are
+ * identified by the index returned when they were added.  The grid must
+ * only be modified from one thread at a time.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of object stored in the grid
+ */
+public class SpatialHashGrid<T> {
+
+	/**
+	 * Number of cells above which a box is tested against every object
+	 * rather than entered into its cells
+	 */
+	public static final int MAX_OBJECT_CELLS = 64;
+
+	private static final int STRIDE = 6;
+	private static final int EMPTY = -1;
+	private static final int OBJECT_BATCH = 512;
+	private static final int CELL_BATCH = 128;
+	private static final int WRAP_XZ = 2048;
+	private static final int WRAP_Y = 1024;
+
+	private final float cellSize;
+	private final float inverseCellSize;
+	private final JobSystem jobs;
+
+	private float[] bounds;
+	private Object[] objects;
+	private int size = 0;
+
+	private int[] entryOffsets;
+	private long[] entries = new long[0];
+	private int entryCount = 0;
+
+	private int[] oversized = new int[16];
+	private int oversizedCount = 0;
+
+	private int[] runStarts = new int[16];
+	private int[] runKeys = new int[16];
+	private int runCount = 0;
+	private int[] mapKeys = new int[32];
+	private int[] mapRuns = new int[32];
+
+	private int[][] batchPairs = new int[0][];
+	private int[] batchPairCounts = new int[0];
+	private int[] pairs = new int[0];
+	private int pairCount = 0;
+
+	/**
+	 * Creates an empty grid
+	 *
+	 * @param cellSize		Width of a cell, ideally about the size of the largest object
+	 * @param jobs			Job system to split the rebuild across, or null to rebuild on the calling thread
+	 */
+	public SpatialHashGrid(float cellSize, JobSystem jobs) {
+		this.cellSize = cellSize;
+		this.inverseCellSize = 1f / cellSize;
+		this.jobs = jobs;
+		this.bounds = new float[64 * STRIDE];
+		this.objects = new Object[64];
+		this.entryOffsets = new int[65];
+	}
+
+	/**
+	 * Adds an object to the grid.  It takes part in the next update.
+	 *
+	 * @param object		Object to add
+	 * @param minX			Minimum x of the object's bounds
+	 * @param minY			Minimum y of the object's bounds
+	 * @param minZ			Minimum z of the object's bounds
+	 * @param maxX			Maximum x of the object's bounds
+	 * @param maxY			Maximum y of the object's bounds
+	 * @param maxZ			Maximum z of the object's bounds
+	 * @return				Index identifying the object until the next clear
+	 */
+	public int add(T object, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		if (size == objects.length) {
+			bounds = Arrays.copyOf(bounds, size * 2 * STRIDE);
+			objects = Arrays.copyOf(objects, size * 2);
+			entryOffsets = new int[size * 2 + 1];
+		}
+		int b = size * STRIDE;
+		bounds[b] = minX;
+		bounds[b + 1] = minY;
+		bounds[b + 2] = minZ;
+		bounds[b + 3] = maxX;
+		bounds[b + 4] = maxY;
+		bounds[b + 5] = maxZ;
+		objects[size] = object;
+		return size++;
+	}
+
+	/**
+	 * Removes every object, cell and pair, keeping the storage for the next
+	 * tick
+	 */
+	public void clear() {
+		Arrays.fill(objects, 0, size, null);
+		size = 0;
+		entryCount = 0;
+		oversizedCount = 0;
+		runCount = 0;
+		pairCount = 0;
+	}
+
+	/**
+	 * Builds the cells and pairs of every object added since the last clear
+	 */
+	public void update() {
+		buildEntries();
+		sortEntries();
+		buildRuns();
+		buildPairs();
+	}
+
+	/**
+	 * Gets an object of the grid
+	 *
+	 * @param index		Index returned when the object was added
+	 * @return			Object
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		return (T) objects[index];
+	}
+
+	/**
+	 * Gets the number of objects in the grid
+	 *
+	 * @return		Number of objects
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of occupied cells found by the last update
+	 *
+	 * @return		Number of cells
+	 */
+	public int getCellCount() {
+		return runCount;
+	}
+
+	/**
+	 * Gets the width of a cell
+	 *
+	 * @return		Cell size
+	 */
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Gets the number of overlapping pairs found by the last update
+	 *
+	 * @return		Number of pairs
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * Gets the index of the first object of a pair
+	 *
+	 * @param pair		Index of the pair, below {@link #getPairCount()}
+	 * @return			Index of the first object
+	 */
+	public int getPairFirst(int pair) {
+		return pairs[pair * 2];
+	}
+
+	/**
+	 * Gets the index of the second object of a pair
+	 *
+	 * @param pair		Index of the pair, below {@link #getPairCount()}
+	 * @return			Index of the second object
+	 */
+	public int getPairSecond(int pair) {
+		return pairs[pair * 2 + 1];
+	}
+
+	/**
+	 * Visits every pair of overlapping objects found by the last update
+	 *
+	 * @param visitor		Visitor receiving the pairs
+	 */
+	public void queryPairs(PairVisitor<? super T> visitor) {
+		for (int i = 0; i < pairCount; i++) {
+			if (!visitor.visit(get(pairs[i * 2]), get(pairs[i * 2 + 1])))
+				return;
+		}
+	}
+
+	/**
+	 * Visits every object whose box overlaps a box, as of the last update
+	 *
+	 * @param minX			Minimum x of the box
+	 * @param minY			Minimum y of the box
+	 * @param minZ			Minimum z of the box
+	 * @param maxX			Maximum x of the box
+	 * @param maxY			Maximum y of the box
+	 * @param maxZ			Maximum z of the box
+	 * @param visitor		Visitor receiving the objects
+	 */
+	public void query(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, SpatialVisitor<? super T> visitor) {
+		int x0 = cell(minX), y0 = cell(minY), z0 = cell(minZ);
+		int x1 = cell(maxX), y1 = cell(maxY), z1 = cell(maxZ);
+		if (x1 - x0 >= WRAP_XZ || y1 - y0 >= WRAP_Y || z1 - z0 >= WRAP_XZ) {
+			for (int i = 0; i < size; i++) {
+				if (overlaps(i, minX, minY, minZ, maxX, maxY, maxZ) && !visitor.visit(get(i)))
+					return;
+			}
+			return;
+		}
+		for (int z = z0; z <= z1; z++) {
+			for (int y = y0; y <= y1; y++) {
+				for (int x = x0; x <= x1; x++) {
+					int key = key(x, y, z);
+					int run = findRun(key);
+					if (run == EMPTY)
+						continue;
+					int end = run + 1 < runCount ? runStarts[run + 1] : entryCount;
+					for (int e = runStarts[run]; e < end; e++) {
+						int object = (int) entries[e];
+						if (!overlaps(object, minX, minY, minZ, maxX, maxY, maxZ))
+							continue;
+						int b = object * STRIDE;
+						if (key(cell(Math.max(minX, bounds[b])), cell(Math.max(minY, bounds[b + 1])), cell(Math.max(minZ, bounds[b + 2]))) != key)
+							continue;
+						if (!visitor.visit(get(object)))
+							return;
+					}
+				}
+			}
+		}
+		for (int i = 0; i < oversizedCount; i++) {
+			int object = oversized[i];
+			if (overlaps(object, minX, minY, minZ, maxX, maxY, maxZ) && !visitor.visit(get(object)))
+				return;
+		}
+	}
+
+//**************************************Private Methods*******************************************//
+
+	private void buildEntries() {
+		run(size, OBJECT_BATCH, (start, end) -> {
+			for (int i = start; i < end; i++) {
+				int b = i * STRIDE;
+				long cells = ((long) cell(bounds[b + 3]) - cell(bounds[b]) + 1) *
+						((long) cell(bounds[b + 4]) - cell(bounds[b + 1]) + 1) *
+						((long) cell(bounds[b + 5]) - cell(bounds[b + 2]) + 1);
+				entryOffsets[i + 1] = cells > MAX_OBJECT_CELLS ? 0 : (int) cells;
+			}
+		});
+		entryOffsets[0] = 0;
+		oversizedCount = 0;
+		for (int i = 0; i < size; i++) {
+			if (entryOffsets[i + 1] == 0) {
+				if (oversizedCount == oversized.length)
+					oversized = Arrays.copyOf(oversized, oversizedCount * 2);
+				oversized[oversizedCount++] = i;
+			}
+			entryOffsets[i + 1] += entryOffsets[i];
+		}
+		entryCount = entryOffsets[size];
+		if (entries.length < entryCount)
+			entries = new long[Math.max(entryCount, entries.length * 2)];
+		run(size, OBJECT_BATCH, (start, end) -> {
+			for (int i = start; i < end; i++) {
+				if (isOversized(i))
+					continue;
+				int b = i * STRIDE;
+				int x0 = cell(bounds[b]), y0 = cell(bounds[b + 1]), z0 = cell(bounds[b + 2]);
+				int x1 = cell(bounds[b + 3]), y1 = cell(bounds[b + 4]), z1 = cell(bounds[b + 5]);
+				int e = entryOffsets[i];
+				for (int z = z0; z <= z1; z++) {
+					for (int y = y0; y <= y1; y++) {
+						for (int x = x0; x <= x1; x++)
+							entries[e++] = ((long) key(x, y, z) << 32) | i;
+					}
+				}
+			}
+		});
+	}
+
+	private void sortEntries() {
+		if (jobs == null)
+			Arrays.sort(entries, 0, entryCount);
+		else
+			Arrays.parallelSort(entries, 0, entryCount);
+	}
+
+	private void buildRuns() {
+		runCount = 0;
+		int tableSize = Integer.highestOneBit(Math.max(16, entryCount) * 2 - 1) << 1;
+		if (mapKeys.length < tableSize) {
+			mapKeys = new int[tableSize];
+			mapRuns = new int[tableSize];
+		}
+		Arrays.fill(mapRuns, EMPTY);
+		int mask = mapKeys.length - 1;
+		long previous = 0;
+		for (int e = 0; e < entryCount; e++) {
+			long cell = entries[e] >> 32;
+			if (e > 0 && cell == previous)
+				continue;
+			previous = cell;
+			if (runCount == runStarts.length) {
+				runStarts = Arrays.copyOf(runStarts, runCount * 2);
+				runKeys = Arrays.copyOf(runKeys, runCount * 2);
+			}
+			int key = (int) cell;
+			runStarts[runCount] = e;
+			runKeys[runCount] = key;
+			int slot = hash(key) & mask;
+			while (mapRuns[slot] != EMPTY)
+				slot = (slot + 1) & mask;
+			mapKeys[slot] = key;
+			mapRuns[slot] = runCount++;
+		}
+	}
+
+	private void buildPairs() {
+		int batches = (runCount + CELL_BATCH - 1) / CELL_BATCH;
+		if (batchPairs.length < batches) {
+			batchPairs = Arrays.copyOf(batchPairs, batches);
+			batchPairCounts = new int[batches];
+		}
+		run(runCount, CELL_BATCH, (start, end) -> {
+			int batch = start / CELL_BATCH;
+			int[] found = batchPairs[batch];
+			if (found == null)
+				found = new int[64];
+			int count = 0;
+			for (int run = start; run < end; run++) {
+				int key = runKeys[run];
+				int first = runStarts[run];
+				int last = run + 1 < runCount ? runStarts[run + 1] : entryCount;
+				for (int i = first; i < last; i++) {
+					int a = (int) entries[i];
+					int ab = a * STRIDE;
+					for (int j = i + 1; j < last; j++) {
+						int b = (int) entries[j];
+						if (b == a)
+							continue;
+						int bb = b * STRIDE;
+						if (!overlaps(a, bounds[bb], bounds[bb + 1], bounds[bb + 2], bounds[bb + 3], bounds[bb + 4], bounds[bb + 5]))
+							continue;
+						if (key(cell(Math.max(bounds[ab], bounds[bb])), cell(Math.max(bounds[ab + 1], bounds[bb + 1])), cell(Math.max(bounds[ab + 2], bounds[bb + 2]))) != key)
+							continue;
+						if (count * 2 == found.length)
+							found = Arrays.copyOf(found, found.length * 2);
+						found[count * 2] = a;
+						found[count * 2 + 1] = b;
+						count++;
+					}
+				}
+			}
+			batchPairs[batch] = found;
+			batchPairCounts[batch] = count;
+		});
+		pairCount = 0;
+		for (int batch = 0; batch < batches; batch++)
+			pairCount += batchPairCounts[batch];
+		if (pairs.length < pairCount * 2)
+			pairs = new int[pairCount * 2];
+		int offset = 0;
+		for (int batch = 0; batch < batches; batch++) {
+			int length = batchPairCounts[batch] * 2;
+			System.arraycopy(batchPairs[batch], 0, pairs, offset, length);
+			offset += length;
+		}
+		for (int k = 0; k < oversizedCount; k++) {
+			int a = oversized[k];
+			int ab = a * STRIDE;
+			for (int b = 0; b < size; b++) {
+				if (b == a || (b < a && isOversized(b)))
+					continue;
+				if (!overlaps(b, bounds[ab], bounds[ab + 1], bounds[ab + 2], bounds[ab + 3], bounds[ab + 4], bounds[ab + 5]))
+					continue;
+				if (pairs.length == pairCount * 2)
+					pairs = Arrays.copyOf(pairs, Math.max(16, pairs.length * 2));
+				pairs[pairCount * 2] = Math.min(a, b);
+				pairs[pairCount * 2 + 1] = Math.max(a, b);
+				pairCount++;
+			}
+		}
+	}
+
+	private void run(int count, int batchSize, RangeJob job) {
+		if (jobs == null || count <= batchSize) {
+			for (int start = 0; start < count; start += batchSize)
+				job.execute(start, Math.min(count, start + batchSize));
+			return;
+		}
+		JobCounter counter = jobs.parallelFor(count, batchSize, job);
+		jobs.waitFor(counter);
+	}
+
+	private boolean isOversized(int object) {
+		return entryOffsets[object + 1] == entryOffsets[object];
+	}
+
+	private int findRun(int key) {
+		int mask = mapKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (mapRuns[slot] != EMPTY) {
+			if (mapKeys[slot] == key)
+				return mapRuns[slot];
+			slot = (slot + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	private boolean overlaps(int object, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = object * STRIDE;
+		return bounds[b] <= maxX && minX <= bounds[b + 3] &&
+				bounds[b + 1] <= maxY && minY <= bounds[b + 4] &&
+				bounds[b + 2] <= maxZ && minZ <= bounds[b + 5];
+	}
+
+	private int cell(float coordinate) {
+		return (int) Math.floor(coordinate * inverseCellSize);
+	}
+
+	private static int key(int x, int y, int z) {
+		return (x & (WRAP_XZ - 1)) | ((y & (WRAP_Y - 1)) << 11) | ((z & (WRAP_XZ - 1)) << 21);
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,21 @@
+package tk.luminos.spatial;
+
+/**
+ * Receives the objects found by a spatial query
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ * 
+ * @param <T>	Type of object stored in the index
+ */
+public interface SpatialVisitor<T> {
+	
+	/**
+	 * Visits an object found by the query
+	 * 
+	 * @param object	Object found
+	 * @return			If the query should continue
+	 */
+	public boolean visit(T object);
+
+}
@@ -0,0 +1,518 @@
+package tk.luminos.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Incremental sweep and prune broadphase over axis aligned boxes.  The
+ * minimum and maximum of every box are kept in a sorted endpoint list on
+ * each of the three axes.  Each {@link #update()} refreshes the endpoint
+ * values and restores the order with an insertion sort; because objects
+ * move little between frames the lists are almost sorted and the sort runs
+ * in close to linear time.  Every swap of a minimum with a maximum is the
+ * start or end of an overlap on that axis, so the set of overlapping pairs
+ * is maintained from the swaps alone instead of being recomputed.  When
+ * many boxes are inserted at once, such as when a level loads, the lists
+ * are instead sorted from scratch and the pairs found with a single sweep.
+ * <p>
+ * Pairs are stored once each in a hash set and a packed list, so the list
+ * handed to the narrowphase is free of duplicates.  Boxes are inserted,
+ * moved and removed freely between updates; the pair list only reflects
+ * those changes after the next update.  The broadphase must only be used
+ * from one thread at a time.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of object stored in the broadphase
+ */
+public class SweepAndPrune<T> {
+
+	private static final int NULL = -1;
+	private static final int STRIDE = 6;
+
+	private static final byte FREE = 0;
+	private static final byte LIVE = 1;
+	private static final byte REMOVED = 2;
+
+	private static final int REBUILD_MIN_INSERTS = 64;
+
+	private float[] bounds;
+	private Object[] objects;
+	private byte[] state;
+	private int[] nextFree;
+	private int freeList = NULL;
+	private int proxyCount = 0;
+	private int size = 0;
+	private int removedCount = 0;
+	private int insertedCount = 0;
+
+	private final float[][] values = new float[3][];
+	private final int[][] endpoints = new int[3][];
+	private int endpointCount = 0;
+	private long[] sortKeys;
+	private int[] active;
+	private int[] activeIndex;
+
+	private long[] pairKeys;
+	private int[] pairSlots;
+	private int[] pairFirst;
+	private int[] pairSecond;
+	private int pairCount = 0;
+
+	/**
+	 * Creates an empty broadphase
+	 *
+	 * @param capacity		Number of boxes to reserve space for
+	 */
+	public SweepAndPrune(int capacity) {
+		capacity = Math.max(capacity, 16);
+		growProxies(capacity);
+		growPairs(capacity * 2);
+	}
+
+	/**
+	 * Inserts an object into the broadphase
+	 *
+	 * @param object		Object to insert
+	 * @param minX			Minimum x of the object's bounds
+	 * @param minY			Minimum y of the object's bounds
+	 * @param minZ			Minimum z of the object's bounds
+	 * @param maxX			Maximum x of the object's bounds
+	 * @param maxY			Maximum y of the object's bounds
+	 * @param maxZ			Maximum z of the object's bounds
+	 * @return				Proxy identifying the object in the broadphase
+	 */
+	public int insert(T object, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int proxy = allocateProxy();
+		objects[proxy] = object;
+		state[proxy] = LIVE;
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+		for (int axis = 0; axis < 3; axis++) {
+			endpoints[axis][endpointCount] = proxy << 1;
+			endpoints[axis][endpointCount + 1] = (proxy << 1) | 1;
+		}
+		endpointCount += 2;
+		insertedCount++;
+		size++;
+		return proxy;
+	}
+
+	/**
+	 * Removes an object from the broadphase.  Its pairs are removed by the
+	 * next update.
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 */
+	public void remove(int proxy) {
+		state[proxy] = REMOVED;
+		objects[proxy] = null;
+		removedCount++;
+		size--;
+	}
+
+	/**
+	 * Updates the bounds of an object.  Its pairs are updated by the next
+	 * update.
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 * @param minX			Minimum x of the object's bounds
+	 * @param minY			Minimum y of the object's bounds
+	 * @param minZ			Minimum z of the object's bounds
+	 * @param maxX			Maximum x of the object's bounds
+	 * @param maxY			Maximum y of the object's bounds
+	 * @param maxZ			Maximum z of the object's bounds
+	 */
+	public void move(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		setBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	/**
+	 * Brings the endpoint lists and the pair list up to date with every
+	 * insertion, move and removal since the last update
+	 */
+	public void update() {
+		if (removedCount > 0)
+			purgeRemoved();
+		if (insertedCount > REBUILD_MIN_INSERTS && insertedCount * 16 > size) {
+			rebuild();
+		}
+		else {
+			for (int axis = 0; axis < 3; axis++) {
+				gather(axis);
+				sort(axis);
+			}
+		}
+		insertedCount = 0;
+	}
+
+	/**
+	 * Gets the object of a proxy
+	 *
+	 * @param proxy			Proxy returned when the object was inserted
+	 * @return				Object
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int proxy) {
+		return (T) objects[proxy];
+	}
+
+	/**
+	 * Gets the number of objects in the broadphase
+	 *
+	 * @return		Number of objects
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of overlapping pairs found by the last update
+	 *
+	 * @return		Number of pairs
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * Gets the proxy of the first object of a pair
+	 *
+	 * @param pair		Index of the pair, below {@link #getPairCount()}
+	 * @return			Proxy of the first object
+	 */
+	public int getPairFirst(int pair) {
+		return pairFirst[pair];
+	}
+
+	/**
+	 * Gets the proxy of the second object of a pair
+	 *
+	 * @param pair		Index of the pair, below {@link #getPairCount()}
+	 * @return			Proxy of the second object
+	 */
+	public int getPairSecond(int pair) {
+		return pairSecond[pair];
+	}
+
+	/**
+	 * Checks if two objects were overlapping at the last update
+	 *
+	 * @param first			Proxy of the first object
+	 * @param second		Proxy of the second object
+	 * @return				If the objects form a pair
+	 */
+	public boolean hasPair(int first, int second) {
+		return findSlot(key(first, second)) >= 0;
+	}
+
+	/**
+	 * Visits every pair of overlapping objects found by the last update
+	 *
+	 * @param visitor		Visitor receiving the pairs
+	 */
+	public void queryPairs(PairVisitor<? super T> visitor) {
+		for (int i = 0; i < pairCount; i++) {
+			if (!visitor.visit(get(pairFirst[i]), get(pairSecond[i])))
+				return;
+		}
+	}
+
+	/**
+	 * Removes every object and pair
+	 */
+	public void clear() {
+		for (int i = 0; i < proxyCount; i++) {
+			objects[i] = null;
+			state[i] = FREE;
+		}
+		for (int i = 0; i < pairKeys.length; i++)
+			pairKeys[i] = NULL;
+		freeList = NULL;
+		proxyCount = 0;
+		size = 0;
+		removedCount = 0;
+		insertedCount = 0;
+		endpointCount = 0;
+		pairCount = 0;
+	}
+
+//**************************************Private Methods*******************************************//
+
+	private void gather(int axis) {
+		float[] values = this.values[axis];
+		int[] endpoints = this.endpoints[axis];
+		float[] bounds = this.bounds;
+		for (int i = 0; i < endpointCount; i++) {
+			int endpoint = endpoints[i];
+			values[i] = bounds[(endpoint >> 1) * STRIDE + axis + (endpoint & 1) * 3];
+		}
+	}
+
+	private void sort(int axis) {
+		float[] values = this.values[axis];
+		int[] endpoints = this.endpoints[axis];
+		for (int i = 1; i < endpointCount; i++) {
+			float value = values[i];
+			int endpoint = endpoints[i];
+			int j = i - 1;
+			while (j >= 0 && (values[j] > value || (values[j] == value && (endpoints[j] & 1) > (endpoint & 1)))) {
+				int other = endpoints[j];
+				if ((endpoint & 1) == 0 && (other & 1) == 1) {
+					if (overlaps(endpoint >> 1, other >> 1))
+						addPair(endpoint >> 1, other >> 1);
+				}
+				else if ((endpoint & 1) == 1 && (other & 1) == 0)
+					removePair(endpoint >> 1, other >> 1);
+				values[j + 1] = values[j];
+				endpoints[j + 1] = other;
+				j--;
+			}
+			values[j + 1] = value;
+			endpoints[j + 1] = endpoint;
+		}
+	}
+
+	private void rebuild() {
+		for (int i = 0; i < pairKeys.length; i++)
+			pairKeys[i] = NULL;
+		pairCount = 0;
+		if (sortKeys == null || sortKeys.length < endpointCount)
+			sortKeys = new long[endpoints[0].length];
+		for (int axis = 0; axis < 3; axis++) {
+			gather(axis);
+			sortFully(axis);
+		}
+		sweep();
+	}
+
+	private void sortFully(int axis) {
+		float[] values = this.values[axis];
+		int[] endpoints = this.endpoints[axis];
+		long[] keys = sortKeys;
+		for (int i = 0; i < endpointCount; i++) {
+			int bits = Float.floatToIntBits(values[i]);
+			bits ^= (bits >> 31) & 0x7FFFFFFF;
+			int endpoint = endpoints[i];
+			keys[i] = ((long) bits << 32) | ((endpoint & 1) << 30) | (endpoint >>> 1);
+		}
+		Arrays.sort(keys, 0, endpointCount);
+		for (int i = 0; i < endpointCount; i++) {
+			int low = (int) keys[i];
+			int proxy = low & 0x3FFFFFFF;
+			int max = low >>> 30;
+			endpoints[i] = (proxy << 1) | max;
+			values[i] = bounds[proxy * STRIDE + axis + max * 3];
+		}
+	}
+
+	private void sweep() {
+		if (active == null || active.length < state.length) {
+			active = new int[state.length];
+			activeIndex = new int[state.length];
+		}
+		int[] endpoints = this.endpoints[0];
+		int activeCount = 0;
+		for (int i = 0; i < endpointCount; i++) {
+			int endpoint = endpoints[i];
+			int proxy = endpoint >> 1;
+			if ((endpoint & 1) == 0) {
+				for (int j = 0; j < activeCount; j++) {
+					if (overlaps(proxy, active[j]))
+						addPair(proxy, active[j]);
+				}
+				activeIndex[proxy] = activeCount;
+				active[activeCount++] = proxy;
+			}
+			else {
+				int index = activeIndex[proxy];
+				int last = active[--activeCount];
+				active[index] = last;
+				activeIndex[last] = index;
+			}
+		}
+	}
+
+	private boolean overlaps(int a, int b) {
+		int i = a * STRIDE;
+		int j = b * STRIDE;
+		return bounds[i] <= bounds[j + 3] && bounds[j] <= bounds[i + 3] &&
+				bounds[i + 1] <= bounds[j + 4] && bounds[j + 1] <= bounds[i + 4] &&
+				bounds[i + 2] <= bounds[j + 5] && bounds[j + 2] <= bounds[i + 5];
+	}
+
+	private void purgeRemoved() {
+		for (int axis = 0; axis < 3; axis++) {
+			int[] endpoints = this.endpoints[axis];
+			int count = 0;
+			for (int i = 0; i < endpointCount; i++) {
+				if (state[endpoints[i] >> 1] != REMOVED)
+					endpoints[count++] = endpoints[i];
+			}
+		}
+		endpointCount -= removedCount * 2;
+		for (int i = pairCount - 1; i >= 0; i--) {
+			if (state[pairFirst[i]] == REMOVED || state[pairSecond[i]] == REMOVED)
+				removePair(pairFirst[i], pairSecond[i]);
+		}
+		for (int i = 0; i < proxyCount; i++) {
+			if (state[i] == REMOVED)
+				freeProxy(i);
+		}
+		removedCount = 0;
+	}
+
+	private void addPair(int a, int b) {
+		long key = key(a, b);
+		int mask = pairKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (pairKeys[slot] != NULL) {
+			if (pairKeys[slot] == key)
+				return;
+			slot = (slot + 1) & mask;
+		}
+		if (pairCount == pairFirst.length) {
+			growPairs(pairFirst.length * 2);
+			addPair(a, b);
+			return;
+		}
+		pairKeys[slot] = key;
+		pairSlots[slot] = pairCount;
+		pairFirst[pairCount] = Math.min(a, b);
+		pairSecond[pairCount] = Math.max(a, b);
+		pairCount++;
+	}
+
+	private void removePair(int a, int b) {
+		int slot = findSlot(key(a, b));
+		if (slot < 0)
+			return;
+		int index = pairSlots[slot];
+		deleteSlot(slot);
+		int last = --pairCount;
+		if (index != last) {
+			pairFirst[index] = pairFirst[last];
+			pairSecond[index] = pairSecond[last];
+			pairSlots[findSlot(key(pairFirst[index], pairSecond[index]))] = index;
+		}
+	}
+
+	private int findSlot(long key) {
+		int mask = pairKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (pairKeys[slot] != NULL) {
+			if (pairKeys[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return NULL;
+	}
+
+	private void deleteSlot(int slot) {
+		int mask = pairKeys.length - 1;
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (pairKeys[next] != NULL) {
+			int home = hash(pairKeys[next]) & mask;
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				pairKeys[hole] = pairKeys[next];
+				pairSlots[hole] = pairSlots[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		pairKeys[hole] = NULL;
+	}
+
+	private void growPairs(int capacity) {
+		long[] oldKeys = pairKeys;
+		int[] oldSlots = pairSlots;
+		pairFirst = copyOf(pairFirst, capacity, pairCount);
+		pairSecond = copyOf(pairSecond, capacity, pairCount);
+		int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+		pairKeys = new long[tableSize];
+		pairSlots = new int[tableSize];
+		for (int i = 0; i < tableSize; i++)
+			pairKeys[i] = NULL;
+		if (oldKeys == null)
+			return;
+		int mask = tableSize - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == NULL)
+				continue;
+			int slot = hash(oldKeys[i]) & mask;
+			while (pairKeys[slot] != NULL)
+				slot = (slot + 1) & mask;
+			pairKeys[slot] = oldKeys[i];
+			pairSlots[slot] = oldSlots[i];
+		}
+	}
+
+	private int allocateProxy() {
+		if (freeList != NULL) {
+			int proxy = freeList;
+			freeList = nextFree[proxy];
+			return proxy;
+		}
+		if (proxyCount == state.length)
+			growProxies(state.length * 2);
+		return proxyCount++;
+	}
+
+	private void freeProxy(int proxy) {
+		state[proxy] = FREE;
+		nextFree[proxy] = freeList;
+		freeList = proxy;
+	}
+
+	private void growProxies(int capacity) {
+		int old = proxyCount;
+		bounds = copyOf(bounds, capacity * STRIDE, old * STRIDE);
+		nextFree = copyOf(nextFree, capacity, old);
+		byte[] state = new byte[capacity];
+		Object[] objects = new Object[capacity];
+		if (this.state != null) {
+			System.arraycopy(this.state, 0, state, 0, old);
+			System.arraycopy(this.objects, 0, objects, 0, old);
+		}
+		this.state = state;
+		this.objects = objects;
+		for (int axis = 0; axis < 3; axis++) {
+			values[axis] = copyOf(values[axis], capacity * 2, endpointCount);
+			endpoints[axis] = copyOf(endpoints[axis], capacity * 2, endpointCount);
+		}
+	}
+
+	private void setBounds(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		int b = proxy * STRIDE;
+		bounds[b] = minX;
+		bounds[b + 1] = minY;
+		bounds[b + 2] = minZ;
+		bounds[b + 3] = maxX;
+		bounds[b + 4] = maxY;
+		bounds[b + 5] = maxZ;
+	}
+
+	private static long key(int a, int b) {
+		return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static float[] copyOf(float[] src, int capacity, int length) {
+		float[] dest = new float[capacity];
+		if (src != null)
+			System.arraycopy(src, 0, dest, 0, length);
+		return dest;
+	}
+
+	private static int[] copyOf(int[] src, int capacity, int length) {
+		int[] dest = new int[capacity];
+		if (src != null)
+			System.arraycopy(src, 0, dest, 0, length);
+		return dest;
+	}
+
+}
@@ -0,0 +1,52 @@
+package tk.luminos.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tk.luminos.gameobjects.Terrain;
+import tk.luminos.graphics.water.WaterTile;
+import tk.luminos.serialization.Database;
+
+/**
+ * Streaming state of one cell of the world grid
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+class Cell {
+	
+	static final int LOADING = 0;
+	static final int INTEGRATING = 1;
+	static final int LOADED = 2;
+	
+	final int x;
+	final int z;
+	final long key;
+	
+	int state = LOADING;
+	volatile boolean cancelled = false;
+	Database data;
+	Object[] prepared;
+	int cursor = 0;
+	
+	long[] handles = new long[16];
+	int handleCount = 0;
+	final List<Terrain> terrains = new ArrayList<Terrain>();
+	final List<WaterTile> tiles = new ArrayList<WaterTile>();
+	
+	Cell(int x, int z, long key) {
+		this.x = x;
+		this.z = z;
+		this.key = key;
+	}
+	
+	void addHandle(long handle) {
+		if (handleCount == handles.length) {
+			long[] handles = new long[this.handles.length * 2];
+			System.arraycopy(this.handles, 0, handles, 0, handleCount);
+			this.handles = handles;
+		}
+		handles[handleCount++] = handle;
+	}
+
+}
@@ -0,0 +1,56 @@
+package tk.luminos.streaming;
+
+import tk.luminos.gameobjects.GameObject;
+import tk.luminos.gameobjects.Terrain;
+import tk.luminos.graphics.water.WaterTile;
+import tk.luminos.serialization.DBObject;
+
+/**
+ * Creates the contents of a streamed cell from its serialized objects in two
+ * steps.  {@link #prepare(DBObject)} is called on the streamer's loader
+ * thread and does the reading, decoding and generation an object needs
+ * without touching the GPU.  The create methods are called on the game
+ * thread with the prepared data, and should only upload it.
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public interface CellFactory {
+	
+	/**
+	 * Prepares an object on the loader thread.  Must not call OpenGL.
+	 * 
+	 * @param object		Serialized object of the cell
+	 * @return				Data handed to the create method of the object, or null
+	 */
+	public Object prepare(DBObject object);
+	
+	/**
+	 * Creates a game object
+	 * 
+	 * @param object		Serialized object of type {@link tk.luminos.serialization.DBObjectType#GAMEOBJECT}
+	 * @param prepared		Data returned by {@link #prepare(DBObject)} for the object
+	 * @return				Game object, or null to skip the object
+	 */
+	public GameObject createGameObject(DBObject object, Object prepared);
+	
+	/**
+	 * Creates a terrain.  The terrain is {@link Terrain#dispose() disposed}
+	 * when its cell is unloaded, so it must not share its mesh.
+	 * 
+	 * @param object		Serialized object of type {@link tk.luminos.serialization.DBObjectType#TERRAIN}
+	 * @param prepared		Data returned by {@link #prepare(DBObject)} for the object
+	 * @return				Terrain, or null to skip the object
+	 */
+	public Terrain createTerrain(DBObject object, Object prepared);
+	
+	/**
+	 * Creates a water tile
+	 * 
+	 * @param object		Serialized object of type {@link tk.luminos.serialization.DBObjectType#WATER_TILE}
+	 * @param prepared		Data returned by {@link #prepare(DBObject)} for the object
+	 * @return				Water tile, or null to skip the object
+	 */
+	public WaterTile createWaterTile(DBObject object, Object prepared);
+
+}
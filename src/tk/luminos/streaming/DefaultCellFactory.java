@@ -0,0 +1,96 @@
+package tk.luminos.streaming;
+
+import tk.luminos.gameobjects.GameObject;
+import tk.luminos.gameobjects.Terrain;
+import tk.luminos.graphics.TerrainTexturePack;
+import tk.luminos.graphics.TextureData;
+import tk.luminos.graphics.water.WaterTile;
+import tk.luminos.loaders.AssetCache;
+import tk.luminos.maths.Vector2;
+import tk.luminos.maths.Vector3;
+import tk.luminos.serialization.DBArray;
+import tk.luminos.serialization.DBField;
+import tk.luminos.serialization.DBObject;
+import tk.luminos.serialization.DBObjectType;
+import tk.luminos.serialization.DBString;
+
+/**
+ * Creates cell contents from the layout written by {@link GameObject#serialize(String)}:
+ * <ul>
+ * <li>Game objects hold "position", "rotation" and "scale" float arrays and a
+ * "model" string naming a model in the {@link AssetCache}, plus an optional
+ * "renderDistance" float field.</li>
+ * <li>Terrains hold "gridX" and "gridZ" float fields and a "seed" integer
+ * field, and are generated procedurally with the factory's texture pack.</li>
+ * <li>Water tiles hold "x", "z", "height" and "scale" float fields.</li>
+ * </ul>
+ * 
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class DefaultCellFactory implements CellFactory {
+	
+	private final TerrainTexturePack texturePack;
+	
+	/**
+	 * Creates a factory
+	 * 
+	 * @param texturePack		Texture pack of generated terrains, or null to skip terrains
+	 */
+	public DefaultCellFactory(TerrainTexturePack texturePack) {
+		this.texturePack = texturePack;
+	}
+
+	@Override
+	public Object prepare(DBObject object) {
+		switch (object.objectType) {
+		case DBObjectType.GAMEOBJECT:
+			DBString model = object.findString("model");
+			return model == null ? null : AssetCache.prepareModel(model.getString());
+		case DBObjectType.TERRAIN:
+			if (texturePack == null)
+				return null;
+			return new Terrain(object.findField("gridX").getFloat(), object.findField("gridZ").getFloat(), 
+					object.findField("seed").getInt(), texturePack, false);
+		default:
+			return null;
+		}
+	}
+
+	@Override
+	public GameObject createGameObject(DBObject object, Object prepared) {
+		DBString model = object.findString("model");
+		if (model == null)
+			return null;
+		GameObject result = new GameObject(AssetCache.getModel(model.getString(), (TextureData) prepared), vector(object.findArray("position"), 0),
+				vector(object.findArray("rotation"), 0), vector(object.findArray("scale"), 1));
+		DBField renderDistance = object.findField("renderDistance");
+		if (renderDistance != null)
+			result.setRenderDistance(renderDistance.getFloat());
+		return result;
+	}
+
+	@Override
+	public Terrain createTerrain(DBObject object, Object prepared) {
+		if (prepared == null)
+			return null;
+		Terrain terrain = (Terrain) prepared;
+		terrain.upload();
+		return terrain;
+	}
+
+	@Override
+	public WaterTile createWaterTile(DBObject object, Object prepared) {
+		return new WaterTile(new Vector2(object.findField("x").getFloat(), object.findField("z").getFloat()), 
+				object.findField("height").getFloat(), object.findField("scale").getFloat());
+	}
+	
+//**************************************Private Methods*******************************************//
+	
+	private static Vector3 vector(DBArray array, float fallback) {
+		if (array == null)
+			return new Vector3(fallback, fallback, fallback);
+		return new Vector3(array.floatData[0], array.floatData[1], array.floatData[2]);
+	}
+
+}
@@ -0,0 +1,332 @@
+package tk.luminos.streaming;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import tk.luminos.Scene;
+import tk.luminos.events.MPSCQueue;
+import tk.luminos.gameobjects.GameObject;
+import tk.luminos.gameobjects.Terrain;
+import tk.luminos.graphics.water.WaterTile;
+import tk.luminos.maths.Vector3;
+import tk.luminos.metrics.FrameCounter;
+import tk.luminos.metrics.Metrics;
+import tk.luminos.profiler.Profiler;
+import tk.luminos.serialization.DBObject;
+import tk.luminos.serialization.DBObjectType;
+import tk.luminos.serialization.Database;
+
+/**
+ * Streams a world partitioned into a grid of square cells on the XZ plane.
+ * Each cell is stored as a {@link Database} file holding the cell's game
+ * objects, terrains and water tiles.  Cells within the load radius of the
+ * focus are read and {@link CellFactory#prepare(DBObject) prepared} on a
+ * background thread; their contents are then uploaded and added to the
+ * scene on the game thread, spending at most the upload budget each frame.  Cells are only unloaded once they are beyond the
+ * unload radius, so a focus moving back and forth over a cell border does
+ * not reload the same cells.  Unloading a cell frees the GPU resources of
+ * its terrains; models of game objects are shared through the
+ * {@link tk.luminos.loaders.AssetCache} and are kept.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ */
+public class WorldStreamer {
+
+	/**
+	 * Default time spent creating cell contents per frame, in nanoseconds
+	 */
+	public static final long DEFAULT_BUDGET = 2000000L;
+
+	private static final int PROFILE_UPDATE = Profiler.register("WorldStreamer.update");
+	private static final FrameCounter UPLOADS = Metrics.counter("WorldStreamer.uploads");
+	private static final FrameCounter CELLS_LOADED = Metrics.counter("WorldStreamer.cellsLoaded");
+	private static final FrameCounter CELLS_UNLOADED = Metrics.counter("WorldStreamer.cellsUnloaded");
+
+	private final String directory;
+	private final float cellSize;
+	private final int loadRadius;
+	private final int unloadRadius;
+	private final CellFactory factory;
+	private long budget = DEFAULT_BUDGET;
+
+	private final Map<Long, Cell> cells = new HashMap<Long, Cell>();
+	private final List<Cell> integrating = new ArrayList<Cell>();
+	private final MPSCQueue<Cell> ready = new MPSCQueue<Cell>();
+	private final ExecutorService loader;
+
+	private int focusX;
+	private int focusZ;
+	private boolean hasFocus = false;
+
+	/**
+	 * Creates a world streamer
+	 *
+	 * @param directory			Directory holding the cell files
+	 * @param cellSize			Width of a cell in world units
+	 * @param loadRadius		Distance in cells around the focus at which cells are loaded
+	 * @param unloadRadius		Distance in cells around the focus beyond which cells are unloaded
+	 * @param factory			Factory creating the contents of cells
+	 * @throws IllegalArgumentException		Thrown if the unload radius is smaller than the load radius
+	 */
+	public WorldStreamer(String directory, float cellSize, int loadRadius, int unloadRadius, CellFactory factory) {
+		if (unloadRadius < loadRadius)
+			throw new IllegalArgumentException("Unload radius must not be smaller than load radius");
+		this.directory = directory;
+		this.cellSize = cellSize;
+		this.loadRadius = loadRadius;
+		this.unloadRadius = unloadRadius;
+		this.factory = factory;
+		this.loader = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "World Streamer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Sets the time spent creating cell contents per frame
+	 *
+	 * @param budget		Budget in nanoseconds
+	 */
+	public void setBudget(long budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Gets the time spent creating cell contents per frame
+	 *
+	 * @return		Budget in nanoseconds
+	 */
+	public long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Gets the path of the file holding a cell
+	 *
+	 * @param x		Cell x coordinate
+	 * @param z		Cell z coordinate
+	 * @return		Path of the cell file
+	 */
+	public String getCellPath(int x, int z) {
+		return directory + "/cell_" + x + "_" + z + ".lum";
+	}
+
+	/**
+	 * Gets the cell coordinate containing a world coordinate
+	 *
+	 * @param coordinate		World x or z coordinate
+	 * @return					Cell coordinate
+	 */
+	public int toCell(float coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	/**
+	 * Checks if every object of a cell has been added to the scene
+	 *
+	 * @param x		Cell x coordinate
+	 * @param z		Cell z coordinate
+	 * @return		If the cell is fully loaded
+	 */
+	public boolean isLoaded(int x, int z) {
+		Cell cell = cells.get(key(x, z));
+		return cell != null && cell.state == Cell.LOADED;
+	}
+
+	/**
+	 * Gets the number of cells that are loading or loaded
+	 *
+	 * @return		Number of resident cells
+	 */
+	public int getCellCount() {
+		return cells.size();
+	}
+
+	/**
+	 * Gets the number of cells still being read or added to the scene
+	 *
+	 * @return		Number of pending cells
+	 */
+	public int getPendingCount() {
+		int count = 0;
+		for (Cell cell : cells.values()) {
+			if (cell.state != Cell.LOADED)
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Requests and releases cells around the focus and adds the contents of
+	 * loaded cells to the scene within the frame budget.  Must be called from
+	 * the game thread.
+	 *
+	 * @param scene			Scene to stream into
+	 * @param focus			Position to stream around
+	 */
+	public void update(Scene scene, Vector3 focus) {
+		Profiler.begin(PROFILE_UPDATE);
+		try {
+			int x = toCell(focus.x);
+			int z = toCell(focus.z);
+			if (!hasFocus || x != focusX || z != focusZ) {
+				focusX = x;
+				focusZ = z;
+				hasFocus = true;
+				unloadCells(scene);
+				requestCells();
+			}
+			ready.drain(cell -> {
+				if (!cell.cancelled) {
+					cell.state = Cell.INTEGRATING;
+					integrating.add(cell);
+				}
+			});
+			integrate(scene);
+		} finally {
+			Profiler.end();
+		}
+	}
+
+	/**
+	 * Stops the background loader.  Reads in progress are abandoned.
+	 */
+	public void dispose() {
+		loader.shutdownNow();
+	}
+
+//**************************************Private Methods*******************************************//
+
+	private void requestCells() {
+		for (int z = focusZ - loadRadius; z <= focusZ + loadRadius; z++) {
+			for (int x = focusX - loadRadius; x <= focusX + loadRadius; x++) {
+				long key = key(x, z);
+				if (cells.containsKey(key))
+					continue;
+				Cell cell = new Cell(x, z, key);
+				cells.put(key, cell);
+				String path = getCellPath(x, z);
+				loader.execute(() -> {
+					try {
+						if (!cell.cancelled && new File(path).exists())
+							prepare(cell, Database.deserialize(path));
+					} catch (Exception e) {
+						e.printStackTrace();
+					}
+					ready.offer(cell);
+				});
+			}
+		}
+	}
+
+	private void unloadCells(Scene scene) {
+		Iterator<Cell> iterator = cells.values().iterator();
+		while (iterator.hasNext()) {
+			Cell cell = iterator.next();
+			if (Math.max(Math.abs(cell.x - focusX), Math.abs(cell.z - focusZ)) <= unloadRadius)
+				continue;
+			iterator.remove();
+			if (cell.state == Cell.LOADING) {
+				cell.cancelled = true;
+				continue;
+			}
+			if (cell.state == Cell.INTEGRATING)
+				integrating.remove(cell);
+			for (int i = 0; i < cell.handleCount; i++)
+				scene.removeGameObject(cell.handles[i]);
+			for (Terrain terrain : cell.terrains) {
+				scene.removeTerrain(terrain);
+				terrain.dispose();
+			}
+			for (WaterTile tile : cell.tiles)
+				scene.removeWaterTile(tile);
+			cell.data = null;
+			cell.prepared = null;
+			CELLS_UNLOADED.increment();
+		}
+	}
+
+	private void integrate(Scene scene) {
+		long deadline = System.nanoTime() + budget;
+		while (!integrating.isEmpty()) {
+			Cell cell = nearest();
+			List<DBObject> objects = cell.data == null ? null : cell.data.objects;
+			while (objects != null && cell.cursor < objects.size()) {
+				if (System.nanoTime() >= deadline)
+					return;
+				create(scene, cell, objects.get(cell.cursor), cell.prepared[cell.cursor]);
+				cell.prepared[cell.cursor++] = null;
+			}
+			cell.state = Cell.LOADED;
+			cell.data = null;
+			cell.prepared = null;
+			integrating.remove(cell);
+			CELLS_LOADED.increment();
+		}
+	}
+
+	private void prepare(Cell cell, Database data) {
+		Object[] prepared = new Object[data.objects.size()];
+		for (int i = 0; i < prepared.length; i++) {
+			if (cell.cancelled)
+				return;
+			prepared[i] = factory.prepare(data.objects.get(i));
+		}
+		cell.prepared = prepared;
+		cell.data = data;
+	}
+
+	private void create(Scene scene, Cell cell, DBObject object, Object prepared) {
+		switch (object.objectType) {
+		case DBObjectType.GAMEOBJECT:
+			GameObject gameObject = factory.createGameObject(object, prepared);
+			if (gameObject != null)
+				cell.addHandle(scene.addGameObject(gameObject));
+			break;
+		case DBObjectType.TERRAIN:
+			Terrain terrain = factory.createTerrain(object, prepared);
+			if (terrain != null) {
+				scene.addTerrain(terrain);
+				cell.terrains.add(terrain);
+			}
+			break;
+		case DBObjectType.WATER_TILE:
+			WaterTile tile = factory.createWaterTile(object, prepared);
+			if (tile != null) {
+				scene.addWaterTile(tile);
+				cell.tiles.add(tile);
+			}
+			break;
+		default:
+			return;
+		}
+		UPLOADS.increment();
+	}
+
+	private Cell nearest() {
+		Cell nearest = null;
+		int best = Integer.MAX_VALUE;
+		for (int i = 0; i < integrating.size(); i++) {
+			Cell cell = integrating.get(i);
+			int distance = Math.max(Math.abs(cell.x - focusX), Math.abs(cell.z - focusZ));
+			if (distance < best) {
+				best = distance;
+				nearest = cell;
+			}
+		}
+		return nearest;
+	}
+
+	private static long key(int x, int z) {
+		return ((long) x << 32) | (z & 0xFFFFFFFFL);
+	}
+
+}
@@ -96,7 +96,7 @@ public class File {
 	 * @return		Input stream of file path
 	 */
 	public InputStream getInputStream() {
-		return Class.class.getResourceAsStream(path);
+		return File.class.getResourceAsStream(path);
 	}
 
 	/**
@@ -1,7 +1,5 @@
 package tk.luminos.util;
 
-import java.util.Random;
-
 import tk.luminos.gameobjects.TerrainType;
 import tk.luminos.maths.MathUtils;
 
@@ -17,7 +15,6 @@ import tk.luminos.maths.MathUtils;
 public class FractalNoise {
 	
 	private int seed;
-	private Random random = new Random();
 	private int xOffset = 0;
 	private int zOffset = 0;
 	
@@ -128,8 +125,12 @@ public class FractalNoise {
 	 * @return 		 	Pure noise value
 	 */
 	private float getNoise(int x, int z) {
-		random.setSeed(Math.abs(x * 49632) + Math.abs(z * 325176) + seed);
-		return random.nextFloat() * 2f - 1f;
+		// Equivalent to the first nextFloat() of a java.util.Random seeded with the
+		// same value, computed without shared state so heights can be generated in parallel
+		long state = ((long) (Math.abs(x * 49632) + Math.abs(z * 325176) + seed) ^ 0x5DEECE66DL) & ((1L << 48) - 1);
+		state = (state * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+		float value = (int) (state >>> 24) / ((float) (1 << 24));
+		return value * 2f - 1f;
 	}
 
 }
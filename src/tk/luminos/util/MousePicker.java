@@ -5,9 +5,8 @@ import java.util.List;
 import tk.luminos.Application;
 import tk.luminos.gameobjects.Terrain;
 import tk.luminos.graphics.Camera;
-import tk.luminos.maths.MathUtils;
+import tk.luminos.maths.MathStack;
 import tk.luminos.maths.Matrix4;
-import tk.luminos.maths.Vector2;
 import tk.luminos.maths.Vector3;
 import tk.luminos.maths.Vector4;
 
@@ -26,8 +25,9 @@ public class MousePicker {
 
 	private Vector3 currentRay = new Vector3();
 
-	private Matrix4 projectionMatrix;
-	private Matrix4 viewMatrix;
+	private final Matrix4 inverseProjection = new Matrix4();
+	private final Vector4 clipCoords = new Vector4();
+	private final Vector4 eyeCoords = new Vector4();
 	private Camera camera;
 	
 	private List<Terrain> terrain;
@@ -37,13 +37,12 @@ public class MousePicker {
 	 * Constructor
 	 * 
 	 * @param cam			Camera used to render
-	 * @param projection	Projection matrix
+	 * @param projection	Perspective projection matrix, which is inverted once here
 	 * @param terrain		Terrains
 	 */
 	public MousePicker(Camera cam, Matrix4 projection, List<Terrain> terrain) {
 		camera = cam;
-		projectionMatrix = projection;
-		viewMatrix = MathUtils.createViewMatrix(camera);
+		Matrix4.invertPerspective(projection, inverseProjection);
 		this.terrain = terrain;
 	}
 	
@@ -71,8 +70,7 @@ public class MousePicker {
 	 * Updates the mouse picker
 	 */
 	public void update() {
-		viewMatrix = MathUtils.createViewMatrix(camera);
-		currentRay = calculateMouseRay();
+		calculateMouseRay(currentRay);
 		if (intersectionInRange(0, RAY_RANGE, currentRay)) {
 			currentTerrainPoint = binarySearch(0, 0, RAY_RANGE, currentRay);
 		} else {
@@ -80,47 +78,39 @@ public class MousePicker {
 		}
 	}
 
-	private Vector3 calculateMouseRay() {
+	private Vector3 calculateMouseRay(Vector3 dest) {
 		float mouseX = 0;
 		float mouseY = 0;
-		Vector2 normalizedCoords = getNormalisedDeviceCoordinates(mouseX, mouseY);
-		Vector4 clipCoords = new Vector4(normalizedCoords.x, normalizedCoords.y, -1.0f, 1.0f);
-		Vector4 eyeCoords = toEyeCoords(clipCoords);
-		Vector3 worldRay = toWorldCoords(eyeCoords);
-		return worldRay;
+		clipCoords.x = (2.0f * mouseX) / Application.getValue("WIDTH") - 1f;
+		clipCoords.y = (2.0f * mouseY) / Application.getValue("HEIGHT") - 1f;
+		clipCoords.z = -1.0f;
+		clipCoords.w = 1.0f;
+		toEyeCoords(clipCoords, eyeCoords);
+		return toWorldCoords(eyeCoords, dest);
 	}
 
-	private Vector3 toWorldCoords(Vector4 eyeCoords) {
-		Matrix4 invertedView = Matrix4.invert(viewMatrix, null);
-		Vector4 rayWorld = Matrix4.transform(invertedView, eyeCoords, null);
-		Vector3 mouseRay = new Vector3(rayWorld.x, rayWorld.y, rayWorld.z);
-		mouseRay.normalize();
-		return mouseRay;
+	private Vector3 toWorldCoords(Vector4 eyeCoords, Vector3 dest) {
+		Vector4 rayWorld = Matrix4.transform(camera.getInverseViewMatrix(), eyeCoords, eyeCoords);
+		dest.set(rayWorld.x, rayWorld.y, rayWorld.z).normalize();
+		return dest;
 	}
 
-	private Vector4 toEyeCoords(Vector4 clipCoords) {
-		Matrix4 invertedProjection = Matrix4.invert(projectionMatrix, null);
-		Vector4 eyeCoords = Matrix4.transform(invertedProjection, clipCoords, null);
-		return new Vector4(eyeCoords.x, eyeCoords.y, -1f, 0f);
-	}
-
-	private Vector2 getNormalisedDeviceCoordinates(float mouseX, float mouseY) {
-		float x = (2.0f * mouseX) / Application.getValue("WIDTH") - 1f;
-		float y = (2.0f * mouseY) / Application.getValue("HEIGHT") - 1f;
-		return new Vector2(x, y);
+	private Vector4 toEyeCoords(Vector4 clipCoords, Vector4 dest) {
+		Matrix4.transform(inverseProjection, clipCoords, dest);
+		dest.z = -1f;
+		dest.w = 0f;
+		return dest;
 	}
 		
-	private Vector3 getPointOnRay(Vector3 ray, float distance) {
+	private Vector3 getPointOnRay(Vector3 ray, float distance, Vector3 dest) {
 		Vector3 camPos = camera.getPosition();
-		Vector3 start = new Vector3(camPos.x, camPos.y, camPos.z);
-		Vector3 scaledRay = new Vector3(ray.x * distance, ray.y * distance, ray.z * distance);
-		return Vector3.add(start, scaledRay, null);
+		return dest.set(camPos.x + ray.x * distance, camPos.y + ray.y * distance, camPos.z + ray.z * distance);
 	}
 	
 	private Vector3 binarySearch(int count, float start, float finish, Vector3 ray) {
 		float half = start + ((finish - start) / 2f);
 		if (count >= RECURSION_COUNT) {
-			Vector3 endPoint = getPointOnRay(ray, half);
+			Vector3 endPoint = getPointOnRay(ray, half, new Vector3());
 			Terrain terrain = getTerrain(endPoint.x, endPoint.z);
 			if (terrain != null) {
 				return endPoint;
@@ -136,12 +126,14 @@ public class MousePicker {
 	}
 
 	private boolean intersectionInRange(float start, float finish, Vector3 ray) {
-		Vector3 startPoint = getPointOnRay(ray, start);
-		Vector3 endPoint = getPointOnRay(ray, finish);
-		if (!isUnderGround(startPoint) && isUnderGround(endPoint)) {
-			return true;
-		} else {
-			return false;
+		MathStack stack = MathStack.get();
+		stack.push();
+		try {
+			Vector3 startPoint = getPointOnRay(ray, start, stack.vector3());
+			Vector3 endPoint = getPointOnRay(ray, finish, stack.vector3());
+			return !isUnderGround(startPoint) && isUnderGround(endPoint);
+		} finally {
+			stack.pop();
 		}
 	}
 
@@ -159,10 +151,17 @@ public class MousePicker {
 	}
 
 	private Terrain getTerrain(float worldX, float worldZ) {
-		for(Terrain t : terrain) {
-			if(t.isOnTerrain(new Vector3(worldX, 0, worldZ))) return t;
+		MathStack stack = MathStack.get();
+		stack.push();
+		try {
+			Vector3 point = stack.vector3(worldX, 0, worldZ);
+			for(Terrain t : terrain) {
+				if(t.isOnTerrain(point)) return t;
+			}
+			return null;
+		} finally {
+			stack.pop();
 		}
-		return null;
 	}
 
 }
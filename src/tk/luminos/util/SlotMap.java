@@ -0,0 +1,369 @@
+package tk.luminos.util;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Stores objects densely and addresses them by generational handles.  A
+ * handle packs the index of a slot with the generation of the slot; the
+ * generation is bumped whenever the slot is freed, so handles to removed
+ * objects stop resolving instead of aliasing whatever reuses the slot.
+ * Insertion and removal are constant time: objects live in a dense array
+ * that is kept packed by moving the last object into any removed position.
+ * <p>
+ * Dense order is therefore not insertion order, and changes with every
+ * removal.  For a stable order, such as a draw order, the map also keeps
+ * the handles in insertion order, see {@link #asOrderedList()}.  Removed
+ * handles are left in that order and compacted away lazily, the next time
+ * it is read, or when it runs out of room and half of it is stale.
+ *
+ * @author Nick Clark
+ * @version 1.0
+ *
+ * @param <T>	Type of object stored
+ */
+public class SlotMap<T> implements Iterable<T> {
+
+	/**
+	 * Handle that never resolves to an object
+	 */
+	public static final long NULL_HANDLE = 0;
+
+	private static final int DEFAULT_SIZE = 256;
+	private static final int FREE_END = -1;
+
+	private Object[] dense;
+	private int[] denseToSlot;
+	private int[] slotToDense;
+	private int[] generations;
+	private int size = 0;
+	private int slots = 0;
+	private int freeHead = FREE_END;
+	private long[] sequences;
+	private long nextSequence = 0;
+	private long[] order;
+	private int orderSize = 0;
+	private int stale = 0;
+	private final java.util.List<T> view = new View();
+	private final java.util.List<T> orderedView = new OrderedView();
+
+	/**
+	 * Creates default slot map
+	 */
+	public SlotMap() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Creates new slot map with given capacity
+	 *
+	 * @param capacity		initial number of slots
+	 */
+	public SlotMap(int capacity) {
+		capacity = Math.max(1, capacity);
+		dense = new Object[capacity];
+		denseToSlot = new int[capacity];
+		slotToDense = new int[capacity];
+		generations = new int[capacity];
+		sequences = new long[capacity];
+		order = new long[capacity];
+	}
+
+	/**
+	 * Adds an object
+	 *
+	 * @param obj		Object to add
+	 * @return			Handle of the object
+	 */
+	public long add(T obj) {
+		int slot;
+		if (freeHead != FREE_END) {
+			slot = freeHead;
+			freeHead = slotToDense[slot];
+		}
+		else {
+			if (slots == generations.length)
+				grow(slots * 2);
+			slot = slots++;
+			generations[slot] = 1;
+		}
+		dense[size] = obj;
+		denseToSlot[size] = slot;
+		slotToDense[slot] = size;
+		size++;
+		sequences[slot] = nextSequence++;
+		long handle = handle(slot, generations[slot]);
+		if (orderSize == order.length) {
+			if (stale >= orderSize >> 1)
+				compact();
+			else
+				growOrder(order.length * 2);
+		}
+		order[orderSize++] = handle;
+		return handle;
+	}
+
+	/**
+	 * Removes the object a handle refers to.  Unless it was the last object,
+	 * the last object in dense order moves into its position.
+	 *
+	 * @param handle	Handle of the object
+	 * @return			Removed object, or null if the handle is stale
+	 */
+	@SuppressWarnings("unchecked")
+	public T remove(long handle) {
+		if (!contains(handle))
+			return null;
+		int slot = indexOf(handle);
+		int index = slotToDense[slot];
+		T obj = (T) dense[index];
+		int last = --size;
+		if (index != last) {
+			dense[index] = dense[last];
+			denseToSlot[index] = denseToSlot[last];
+			slotToDense[denseToSlot[index]] = index;
+		}
+		dense[last] = null;
+		generations[slot]++;
+		if (generations[slot] == 0)
+			generations[slot] = 1;
+		slotToDense[slot] = freeHead;
+		freeHead = slot;
+		stale++;
+		return obj;
+	}
+
+	/**
+	 * Gets the object a handle refers to
+	 *
+	 * @param handle	Handle of the object
+	 * @return			Object, or null if the handle is stale
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(long handle) {
+		if (!contains(handle))
+			return null;
+		return (T) dense[slotToDense[indexOf(handle)]];
+	}
+
+	/**
+	 * Checks if a handle refers to an object in the map
+	 *
+	 * @param handle	Handle to check
+	 * @return			If the handle is live
+	 */
+	public boolean contains(long handle) {
+		int slot = indexOf(handle);
+		return slot >= 0 && slot < slots && generations[slot] == generationOf(handle);
+	}
+
+	/**
+	 * Gets the position of an object in insertion order, which only grows
+	 * for objects added later and is never reused
+	 *
+	 * @param handle	Handle of the object
+	 * @return			Insertion sequence, or -1 if the handle is stale
+	 */
+	public long sequenceOf(long handle) {
+		if (!contains(handle))
+			return -1;
+		return sequences[indexOf(handle)];
+	}
+
+	/**
+	 * Gets the object at a position of the dense array.  Positions change
+	 * when objects are removed.
+	 *
+	 * @param index		Position in the dense array
+	 * @return			Object at the position
+	 */
+	@SuppressWarnings("unchecked")
+	public T getAt(int index) {
+		if (index < 0 || index >= size)
+			throw new ArrayIndexOutOfBoundsException(index);
+		return (T) dense[index];
+	}
+
+	/**
+	 * Gets the handle of the object at a position of the dense array
+	 *
+	 * @param index		Position in the dense array
+	 * @return			Handle of the object at the position
+	 */
+	public long getHandleAt(int index) {
+		if (index < 0 || index >= size)
+			throw new ArrayIndexOutOfBoundsException(index);
+		int slot = denseToSlot[index];
+		return handle(slot, generations[slot]);
+	}
+
+	/**
+	 * Gets the number of objects
+	 *
+	 * @return		Number of objects
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the map has no objects
+	 *
+	 * @return		If the map is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every object, invalidating all handles
+	 */
+	public void clear() {
+		while (size > 0)
+			remove(getHandleAt(size - 1));
+		orderSize = 0;
+		stale = 0;
+	}
+
+	/**
+	 * Gets a read only view of the objects in dense order, which changes
+	 * whenever an object is removed
+	 *
+	 * @return		List view of the objects
+	 */
+	public java.util.List<T> asList() {
+		return view;
+	}
+
+	/**
+	 * Gets a read only view of the objects in the order they were added,
+	 * which removals do not change.  Reading the view after a removal first
+	 * compacts the order in time linear to the number of objects.
+	 *
+	 * @return		List view of the objects in insertion order
+	 */
+	public java.util.List<T> asOrderedList() {
+		return orderedView;
+	}
+
+	/**
+	 * Iterates over the objects in dense order, which changes whenever an
+	 * object is removed
+	 *
+	 * @return		Iterator over the objects
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public T next() {
+				if (index >= size)
+					throw new NoSuchElementException();
+				return getAt(index++);
+			}
+		};
+	}
+
+	/**
+	 * Gets the slot index packed in a handle
+	 *
+	 * @param handle	Handle
+	 * @return			Slot index
+	 */
+	public static int indexOf(long handle) {
+		return (int) handle;
+	}
+
+	/**
+	 * Gets the generation packed in a handle
+	 *
+	 * @param handle	Handle
+	 * @return			Generation of the slot when the handle was created
+	 */
+	public static int generationOf(long handle) {
+		return (int) (handle >>> 32);
+	}
+
+//**************************************Private Methods*******************************************//
+
+	private static long handle(int slot, int generation) {
+		return ((long) generation << 32) | (slot & 0xFFFFFFFFL);
+	}
+
+	private void grow(int capacity) {
+		Object[] dense = new Object[capacity];
+		System.arraycopy(this.dense, 0, dense, 0, size);
+		this.dense = dense;
+		int[] denseToSlot = new int[capacity];
+		System.arraycopy(this.denseToSlot, 0, denseToSlot, 0, size);
+		this.denseToSlot = denseToSlot;
+		int[] slotToDense = new int[capacity];
+		System.arraycopy(this.slotToDense, 0, slotToDense, 0, slots);
+		this.slotToDense = slotToDense;
+		int[] generations = new int[capacity];
+		System.arraycopy(this.generations, 0, generations, 0, slots);
+		this.generations = generations;
+		long[] sequences = new long[capacity];
+		System.arraycopy(this.sequences, 0, sequences, 0, slots);
+		this.sequences = sequences;
+	}
+
+	private void growOrder(int capacity) {
+		long[] order = new long[capacity];
+		System.arraycopy(this.order, 0, order, 0, orderSize);
+		this.order = order;
+	}
+
+	private void compact() {
+		int kept = 0;
+		for (int i = 0; i < orderSize; i++) {
+			if (contains(order[i]))
+				order[kept++] = order[i];
+		}
+		orderSize = kept;
+		stale = 0;
+	}
+
+	private class View extends AbstractList<T> implements RandomAccess {
+
+		@Override
+		public T get(int index) {
+			return getAt(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+	private class OrderedView extends AbstractList<T> implements RandomAccess {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T get(int index) {
+			if (index < 0 || index >= size)
+				throw new ArrayIndexOutOfBoundsException(index);
+			if (stale > 0)
+				compact();
+			return (T) dense[slotToDense[SlotMap.indexOf(order[index])]];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+	}
+
+}